@@ -0,0 +1,12 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+/**
+ * Thrown when an analysis pass is told to stop before its next write, e.g. because the worker lost its lease
+ * on the upload and another node now owns it. Nothing more is written for the upload after it is thrown.
+ */
+public class AnalysisAbortedException extends RuntimeException {
+
+    public AnalysisAbortedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,86 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.jfr.ResultFlushEvent;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Buffers AnalysisResults emitted by the engine and writes them in fixed-size batches,
+ * so memory use stays bounded by the batch size rather than by the number of results.
+ * The last batch is only written by an explicit flush once the pass succeeds: close discards whatever is still
+ * buffered, so a pass that fails part-way does not write results it built after the failure started.
+ * Not thread-safe: use one sink per analysis pass.
+ */
+public class AnalysisResultSink implements AutoCloseable {
+
+    private final AnalysisResultService analysisResultService;
+    private final UUID uploadId;
+    private final int batchSize;
+    private final AnalysisStageTimer stages;
+    private final List<AnalysisResult> buffer;
+    private long written;
+
+    /**
+     * @param uploadId The upload the results belong to, for the ResultFlushEvents.
+     * @param stages Charged with the batch writes as PERSIST time and rows.
+     */
+    public AnalysisResultSink(AnalysisResultService analysisResultService, UUID uploadId, int batchSize,
+                              AnalysisStageTimer stages) {
+        this.analysisResultService = analysisResultService;
+        this.uploadId = uploadId;
+        this.batchSize = Math.max(1, batchSize);
+        this.stages = stages;
+        this.buffer = new ArrayList<>(this.batchSize);
+    }
+
+    /**
+     * Queues a result, writing the current batch if it is full.
+     */
+    public void add(AnalysisResult result) {
+        buffer.add(result);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes any buffered results in a single transaction.
+     */
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        ProcessingStage previous = stages.enter(ProcessingStage.PERSIST);
+        ResultFlushEvent event = new ResultFlushEvent();
+        event.begin();
+        try {
+            analysisResultService.saveAll(buffer);
+            event.record(uploadId, buffer.size());
+            stages.addRowsWritten(buffer.size());
+        } finally {
+            stages.enter(previous);
+        }
+        written += buffer.size();
+        buffer.clear();
+    }
+
+    /**
+     * @return The number of results written so far.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Discards any results not yet flushed.
+     */
+    @Override
+    public void close() {
+        buffer.clear();
+    }
+}
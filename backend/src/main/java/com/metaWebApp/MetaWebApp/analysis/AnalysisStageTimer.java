@@ -0,0 +1,185 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the wall-clock time of one analysis pass into pipeline stages. The pipeline streams, so stages interleave
+ * (parsing hands handles to interning, which hands results to persisting); the timer keeps one current stage and
+ * charges elapsed time to it, so every nanosecond is counted exactly once. Bytes read, records emitted, rows written
+ * and the bytes the thread allocated are charged to the current stage the same way.
+ *
+ * At the end of the pass each stage that was entered is recorded as analysis.stage{stage=...}, and snapshot()
+ * gives the per-upload trace that UploadTraceService stores.
+ * Every stage switch is also a checkpoint: once the pass's abort condition holds, enter (and checkpoint) throw
+ * AnalysisAbortedException, so the pass stops before its next stage or batch write.
+ * Not thread-safe: one timer per analysis pass, used from the thread running it.
+ */
+public class AnalysisStageTimer {
+
+    /**
+     * What one stage of a pass added up to. startedAt and endedAt are the first entry into and the last exit
+     * from the stage; as stages interleave, nanos can be much less than the time between them.
+     */
+    public record StageTrace(ProcessingStage stage, Instant startedAt, Instant endedAt, long nanos,
+                             long bytesRead, long records, long rowsWritten, long allocatedBytes) {
+    }
+
+    private static final ProcessingStage[] STAGES = ProcessingStage.values();
+    // Per-thread allocation counter of HotSpot; null elsewhere, in which case allocations are reported as 0
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private final BooleanSupplier aborted;
+    private final long originNanos = System.nanoTime();
+    private final Instant origin = Instant.now();
+    private final long[] nanos = new long[STAGES.length];
+    private final long[] firstEntered = new long[STAGES.length];
+    private final long[] lastExited = new long[STAGES.length];
+    private final boolean[] entered = new boolean[STAGES.length];
+    private final long[] bytesRead = new long[STAGES.length];
+    private final long[] records = new long[STAGES.length];
+    private final long[] rowsWritten = new long[STAGES.length];
+    private final long[] allocatedBytes = new long[STAGES.length];
+    private ProcessingStage current;
+    private long since;
+    private long allocatedSince;
+
+    public AnalysisStageTimer(ProcessingStage initial) {
+        this(initial, () -> false);
+    }
+
+    /**
+     * @param aborted Checked at every stage switch; once it returns true the pass is aborted.
+     */
+    public AnalysisStageTimer(ProcessingStage initial, BooleanSupplier aborted) {
+        this.aborted = aborted;
+        current = initial;
+        since = originNanos;
+        allocatedSince = allocatedBytes();
+        entered[initial.ordinal()] = true;
+        firstEntered[initial.ordinal()] = since;
+    }
+
+    /**
+     * Charges the time (and allocations) since the last switch to the current stage and makes stage the current one.
+     *
+     * @return The previous stage, to return to with another enter call.
+     * @throws AnalysisAbortedException if the pass has been aborted.
+     */
+    public ProcessingStage enter(ProcessingStage stage) {
+        checkpoint();
+        return switchTo(stage);
+    }
+
+    /**
+     * @throws AnalysisAbortedException if the pass has been aborted.
+     */
+    public void checkpoint() {
+        if (aborted.getAsBoolean()) {
+            throw new AnalysisAbortedException("Analysis aborted in stage " + current);
+        }
+    }
+
+    private ProcessingStage switchTo(ProcessingStage stage) {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        int i = current.ordinal();
+        nanos[i] += now - since;
+        allocatedBytes[i] += allocated - allocatedSince;
+        lastExited[i] = now;
+        since = now;
+        allocatedSince = allocated;
+        ProcessingStage previous = current;
+        current = stage;
+        if (!entered[stage.ordinal()]) {
+            entered[stage.ordinal()] = true;
+            firstEntered[stage.ordinal()] = now;
+        }
+        return previous;
+    }
+
+    /**
+     * Charges bytes of export content read to the current stage.
+     */
+    public void addBytesRead(long bytes) {
+        bytesRead[current.ordinal()] += bytes;
+    }
+
+    /**
+     * Charges records (relationships, message threads) emitted by a parser to the current stage.
+     */
+    public void addRecords(long count) {
+        records[current.ordinal()] += count;
+    }
+
+    /**
+     * Charges rows written to the database to the current stage.
+     */
+    public void addRowsWritten(long count) {
+        rowsWritten[current.ordinal()] += count;
+    }
+
+    /**
+     * @return The time charged to a stage so far, in nanoseconds (excluding the running interval).
+     */
+    public long getNanos(ProcessingStage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    /**
+     * Closes the current interval and records every entered stage.
+     */
+    public void record(MeterRegistry meterRegistry) {
+        switchTo(current);
+        for (ProcessingStage stage : STAGES) {
+            if (entered[stage.ordinal()]) {
+                Timer.builder("analysis.stage")
+                        .description("Time one upload analysis spent in a pipeline stage")
+                        .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry)
+                        .record(nanos[stage.ordinal()], TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Closes the current interval and returns the totals of every entered stage, in pipeline order.
+     */
+    public List<StageTrace> snapshot() {
+        switchTo(current);
+        List<StageTrace> traces = new ArrayList<>(STAGES.length);
+        for (ProcessingStage stage : STAGES) {
+            int i = stage.ordinal();
+            if (entered[i]) {
+                traces.add(new StageTrace(stage, instant(firstEntered[i]), instant(lastExited[i]), nanos[i],
+                        bytesRead[i], records[i], rowsWritten[i], allocatedBytes[i]));
+            }
+        }
+        return traces;
+    }
+
+    private Instant instant(long nanoTime) {
+        return origin.plusNanos(nanoTime - originNanos);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,475 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultPageDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.jfr.ExportEntryOpenEvent;
+import com.metaWebApp.MetaWebApp.jfr.FollowerDiffEvent;
+import com.metaWebApp.MetaWebApp.jfr.ParseBatchEvent;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadTraceStage;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+import com.metaWebApp.MetaWebApp.service.InstagramHandleService;
+import com.metaWebApp.MetaWebApp.service.RelationshipSetService;
+import com.metaWebApp.MetaWebApp.service.UploadTraceService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Turns the file behind a UserDataUpload into AnalysisResult rows and summary counts in a single streaming pass.
+ *
+ * Handles are interned into the global handle dictionary as they are read, and every relationship list is kept as
+ * a Roaring bitmap of handle ids. Follower lists are read first; following and close friends lists are then
+ * streamed straight into batched result writes, with membership checks against the follower bitmap. No JSON
+ * document tree is ever built, so memory use is bounded by the bitmaps and the batch sizes, not by the export.
+ *
+ * The bitmaps are stored per upload (UploadRelationshipSet). The follower bitmap is diffed against the one of the
+ * user's previous completed upload, so only the followers gained and lost since then are stored as results
+ * (NEW_FOLLOWER / NEW_UNFOLLOWER).
+ *
+ * Message threads are summarised in parallel by MessageThreadSummarizer, one MESSAGE_THREAD_SUMMARY per thread.
+ *
+ * Users often re-upload the same export. Each entry type is fingerprinted from the ZIP central directory
+ * (ExportFingerprints); when a recent completed upload of the same user has identical followers, following,
+ * close friends or message entries, its bitmaps and results for that part are copied instead of being re-parsed.
+ *
+ * The time of every pass is split into pipeline stages (see AnalysisStageTimer), recorded as analysis.stage and
+ * stored as the upload's processing trace (UploadTraceService). Entry opens, parse batches, the follower diff and
+ * result flushes are also emitted as JFR events (package jfr), for when a recording is running.
+ *
+ * A pass can be aborted from outside (see analyzeUpload(upload, aborted)); the abort condition is checked at every
+ * stage switch, which includes every result batch write, and before every other write.
+ */
+@Service
+public class ExportAnalysisEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportAnalysisEngine.class);
+
+    private static final int INTERN_CHUNK_SIZE = 1000;
+    private static final int REUSE_CANDIDATES = 10;
+
+    private final ExportSourceFactory exportSourceFactory;
+    private final InstagramExportParser parser;
+    private final AnalysisResultService analysisResultService;
+    private final UserDataUploadService userDataUploadService;
+    private final InstagramHandleService instagramHandleService;
+    private final RelationshipSetService relationshipSetService;
+    private final MessageThreadSummarizer messageThreadSummarizer;
+    private final ObjectMapper objectMapper;
+    private final UploadTraceService uploadTraceService;
+    private final MeterRegistry meterRegistry;
+    private final int resultBatchSize;
+
+    @Autowired
+    public ExportAnalysisEngine(ExportSourceFactory exportSourceFactory,
+                                InstagramExportParser parser,
+                                AnalysisResultService analysisResultService,
+                                UserDataUploadService userDataUploadService,
+                                InstagramHandleService instagramHandleService,
+                                RelationshipSetService relationshipSetService,
+                                MessageThreadSummarizer messageThreadSummarizer,
+                                ObjectMapper objectMapper,
+                                UploadTraceService uploadTraceService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.analysis.result-batch-size:1000}") int resultBatchSize) {
+        this.exportSourceFactory = exportSourceFactory;
+        this.parser = parser;
+        this.analysisResultService = analysisResultService;
+        this.userDataUploadService = userDataUploadService;
+        this.instagramHandleService = instagramHandleService;
+        this.relationshipSetService = relationshipSetService;
+        this.messageThreadSummarizer = messageThreadSummarizer;
+        this.objectMapper = objectMapper;
+        this.uploadTraceService = uploadTraceService;
+        this.meterRegistry = meterRegistry;
+        this.resultBatchSize = resultBatchSize;
+    }
+
+    /**
+     * Analyses an upload: emits UNFOLLOWER, CLOSE_FRIEND_ITEM, NEW_FOLLOWER, NEW_UNFOLLOWER and
+     * MESSAGE_THREAD_SUMMARY results and stores the summary counts on the upload.
+     *
+     * Re-running an upload replaces its relationship sets; its previous results must already have been deleted.
+     *
+     * @param upload The upload to analyse. Its id, user, filePath, contentHash and declaredFileType are used.
+     * @return The summary counts that were written to the upload record.
+     * @throws IOException if the upload file cannot be read.
+     * @throws InvalidExportException if the file is not a usable Instagram export.
+     */
+    public ExportAnalysisSummary analyzeUpload(UserDataUpload upload) throws IOException {
+        return analyzeUpload(upload, () -> false);
+    }
+
+    /**
+     * Analyses an upload like analyzeUpload(upload), stopping before the next write once aborted returns true
+     * (e.g. because the worker's lease on the upload was lost). An aborted pass writes nothing more for the
+     * upload, not even its processing trace.
+     *
+     * @throws AnalysisAbortedException if the pass was aborted.
+     */
+    public ExportAnalysisSummary analyzeUpload(UserDataUpload upload, BooleanSupplier aborted) throws IOException {
+        AnalysisStageTimer stages = new AnalysisStageTimer(ProcessingStage.READ, aborted);
+        boolean stopped = false;
+        try {
+            return analyze(upload, stages);
+        } catch (AnalysisAbortedException e) {
+            stopped = true;
+            throw e;
+        } finally {
+            stages.record(meterRegistry);
+            if (!stopped) {
+                try {
+                    uploadTraceService.saveTrace(upload.getId(), toTrace(upload, stages.snapshot()));
+                } catch (RuntimeException e) {
+                    log.warn("Could not save the processing trace of upload {}", upload.getId(), e);
+                }
+            }
+        }
+    }
+
+    private ExportAnalysisSummary analyze(UserDataUpload upload, AnalysisStageTimer stages) throws IOException {
+        try (ExportSource source = exportSourceFactory.open(upload)) {
+            List<ExportEntry> followerEntries = source.entries(ExportEntryType.FOLLOWERS);
+            List<ExportEntry> followingEntries = source.entries(ExportEntryType.FOLLOWING);
+            List<ExportEntry> closeFriendEntries = source.entries(ExportEntryType.CLOSE_FRIENDS);
+            List<ExportEntry> messageEntries = source.entries(ExportEntryType.MESSAGES);
+
+            if (followerEntries.isEmpty() && followingEntries.isEmpty() && closeFriendEntries.isEmpty()
+                    && messageEntries.isEmpty()) {
+                throw new InvalidExportException("No followers, following, close friends or messages data found in upload");
+            }
+
+            Map<ExportEntryType, String> fingerprints = new EnumMap<>(ExportEntryType.class);
+            fingerprints.put(ExportEntryType.FOLLOWERS, ExportFingerprints.of(followerEntries));
+            fingerprints.put(ExportEntryType.FOLLOWING, ExportFingerprints.of(followingEntries));
+            fingerprints.put(ExportEntryType.CLOSE_FRIENDS, ExportFingerprints.of(closeFriendEntries));
+            fingerprints.put(ExportEntryType.MESSAGES, ExportFingerprints.of(messageEntries));
+            stages.checkpoint();
+            userDataUploadService.updateContentFingerprints(upload.getId(),
+                    fingerprints.get(ExportEntryType.FOLLOWERS), fingerprints.get(ExportEntryType.FOLLOWING),
+                    fingerprints.get(ExportEntryType.CLOSE_FRIENDS), fingerprints.get(ExportEntryType.MESSAGES));
+            List<UserDataUpload> candidates = upload.getUser() != null
+                    ? userDataUploadService.findReuseCandidates(upload.getUser().getId(), upload.getId(), REUSE_CANDIDATES)
+                    : List.of();
+            List<String> reused = new ArrayList<>();
+
+            // Followers must be known before following can be streamed, so they are collected first.
+            boolean hasFollowers = !followerEntries.isEmpty();
+            stages.enter(ProcessingStage.REUSE);
+            Optional<RoaringBitmap> reusedFollowers = hasFollowers
+                    ? findDonor(upload, fingerprints, candidates, ExportEntryType.FOLLOWERS)
+                            .flatMap(donor -> relationshipSetService.findSet(donor.getId(), RelationshipSetType.FOLLOWERS))
+                    : Optional.empty();
+            RoaringBitmap followers = reusedFollowers.orElseGet(RoaringBitmap::new);
+            if (reusedFollowers.isPresent()) {
+                reused.add("followers");
+            } else {
+                readInterned(upload, ExportEntryType.FOLLOWERS, followerEntries, stages, (relationship, id) -> followers.add(id));
+            }
+
+            RoaringBitmap following = new RoaringBitmap();
+            RoaringBitmap closeFriends = new RoaringBitmap();
+            int[] changes = null;
+            long written;
+            stages.enter(ProcessingStage.PERSIST);
+            relationshipSetService.deleteSetsForUpload(upload.getId());
+            try (AnalysisResultSink sink = new AnalysisResultSink(analysisResultService, upload.getId(), resultBatchSize, stages)) {
+                if (hasFollowers) {
+                    // Depends on the user's upload history, so it is never copied from another upload.
+                    stages.enter(ProcessingStage.DIFF);
+                    changes = diffAgainstPreviousUpload(upload, followers, sink);
+                }
+
+                // UNFOLLOWER results depend on both lists, so following is only reused together with followers.
+                stages.enter(ProcessingStage.REUSE);
+                Optional<UserDataUpload> followingDonor = followingEntries.isEmpty() ? Optional.empty()
+                        : findDonor(upload, fingerprints, candidates, ExportEntryType.FOLLOWING, ExportEntryType.FOLLOWERS);
+                if (reuseSet(followingDonor, RelationshipSetType.FOLLOWING, following)) {
+                    copyResults(followingDonor.get(), upload, AnalysisDataType.UNFOLLOWER, sink);
+                    reused.add("following");
+                } else {
+                    readInterned(upload, ExportEntryType.FOLLOWING, followingEntries, stages, (relationship, id) -> {
+                        // Without the followers list every account would look like an unfollower.
+                        if (following.checkedAdd(id) && hasFollowers && !followers.contains(id)) {
+                            sink.add(toResult(upload, AnalysisDataType.UNFOLLOWER, relationship));
+                        }
+                    });
+                }
+
+                stages.enter(ProcessingStage.REUSE);
+                Optional<UserDataUpload> closeFriendsDonor = closeFriendEntries.isEmpty() ? Optional.empty()
+                        : findDonor(upload, fingerprints, candidates, ExportEntryType.CLOSE_FRIENDS);
+                if (reuseSet(closeFriendsDonor, RelationshipSetType.CLOSE_FRIENDS, closeFriends)) {
+                    copyResults(closeFriendsDonor.get(), upload, AnalysisDataType.CLOSE_FRIEND_ITEM, sink);
+                    reused.add("close friends");
+                } else {
+                    readInterned(upload, ExportEntryType.CLOSE_FRIENDS, closeFriendEntries, stages, (relationship, id) -> {
+                        if (closeFriends.checkedAdd(id)) {
+                            sink.add(toResult(upload, AnalysisDataType.CLOSE_FRIEND_ITEM, relationship));
+                        }
+                    });
+                }
+
+                stages.enter(ProcessingStage.REUSE);
+                Optional<UserDataUpload> messagesDonor = messageEntries.isEmpty() ? Optional.empty()
+                        : findDonor(upload, fingerprints, candidates, ExportEntryType.MESSAGES);
+                if (messagesDonor.isPresent()) {
+                    copyResults(messagesDonor.get(), upload, AnalysisDataType.MESSAGE_THREAD_SUMMARY, sink);
+                    reused.add("messages");
+                } else {
+                    stages.enter(ProcessingStage.PARSE);
+                    long bytes = messageEntries.stream().mapToLong(entry -> Math.max(0, entry.size())).sum();
+                    stages.addBytesRead(bytes);
+                    ParseBatchEvent batch = new ParseBatchEvent();
+                    batch.begin();
+                    List<MessageThreadSummary> threads = messageThreadSummarizer.summarize(messageEntries);
+                    batch.record(upload.getId(), ExportEntryType.MESSAGES.name(), threads.size(), bytes);
+                    stages.addRecords(threads.size());
+                    for (MessageThreadSummary thread : threads) {
+                        sink.add(toResult(upload, thread));
+                    }
+                }
+                stages.enter(ProcessingStage.PERSIST);
+                sink.flush();
+                written = sink.getWritten();
+            }
+            if (!reused.isEmpty()) {
+                log.info("Upload {} reused earlier analysis of unchanged {} data", upload.getId(), String.join(", ", reused));
+            }
+
+            stages.checkpoint();
+            if (hasFollowers) {
+                relationshipSetService.saveSet(upload.getId(), RelationshipSetType.FOLLOWERS, followers);
+                stages.addRowsWritten(1);
+            }
+            if (!followingEntries.isEmpty()) {
+                stages.checkpoint();
+                relationshipSetService.saveSet(upload.getId(), RelationshipSetType.FOLLOWING, following);
+                stages.addRowsWritten(1);
+            }
+            if (!closeFriendEntries.isEmpty()) {
+                stages.checkpoint();
+                relationshipSetService.saveSet(upload.getId(), RelationshipSetType.CLOSE_FRIENDS, closeFriends);
+                stages.addRowsWritten(1);
+            }
+
+            ExportAnalysisSummary summary = new ExportAnalysisSummary(
+                    hasFollowers ? followers.getCardinality() : null,
+                    followingEntries.isEmpty() ? null : following.getCardinality(),
+                    hasFollowers && !followingEntries.isEmpty() ? RoaringBitmap.andNotCardinality(following, followers) : null,
+                    closeFriendEntries.isEmpty() ? null : closeFriends.getCardinality(),
+                    changes != null ? changes[0] : null,
+                    changes != null ? changes[1] : null,
+                    written
+            );
+            stages.checkpoint();
+            userDataUploadService.updateAnalysisSummaries(upload.getId(),
+                    summary.totalFollowers(), summary.totalFollowing(),
+                    summary.unfollowersCount(), summary.totalCloseFriends(),
+                    summary.newFollowersCount(), summary.newUnfollowersCount());
+            stages.addRowsWritten(1);
+            return summary;
+        }
+    }
+
+    private static List<UploadTraceStage> toTrace(UserDataUpload upload, List<AnalysisStageTimer.StageTrace> stages) {
+        return stages.stream()
+                .map(stage -> new UploadTraceStage(upload, upload.getProcessingAttempts(), stage.stage(),
+                        LocalDateTime.ofInstant(stage.startedAt(), ZoneId.systemDefault()),
+                        LocalDateTime.ofInstant(stage.endedAt(), ZoneId.systemDefault()),
+                        stage.nanos() / 1000, stage.bytesRead(), stage.records(), stage.rowsWritten(),
+                        stage.allocatedBytes()))
+                .toList();
+    }
+
+    /**
+     * Picks the most recent candidate upload whose entries of all the given types are identical to this upload's:
+     * either the whole file has the same content hash, or the per-type fingerprints match.
+     */
+    private static Optional<UserDataUpload> findDonor(UserDataUpload upload, Map<ExportEntryType, String> fingerprints,
+                                                      List<UserDataUpload> candidates, ExportEntryType... types) {
+        return candidates.stream()
+                .filter(candidate -> Arrays.stream(types).allMatch(type -> sameEntries(upload, fingerprints, candidate, type)))
+                .findFirst();
+    }
+
+    private static boolean sameEntries(UserDataUpload upload, Map<ExportEntryType, String> fingerprints,
+                                       UserDataUpload candidate, ExportEntryType type) {
+        if (upload.getContentHash() != null && upload.getContentHash().equals(candidate.getContentHash())
+                && upload.getDeclaredFileType() == candidate.getDeclaredFileType()) {
+            return true;
+        }
+        String fingerprint = fingerprints.get(type);
+        String candidateFingerprint = switch (type) {
+            case FOLLOWERS -> candidate.getFollowersFingerprint();
+            case FOLLOWING -> candidate.getFollowingFingerprint();
+            case CLOSE_FRIENDS -> candidate.getCloseFriendsFingerprint();
+            case MESSAGES -> candidate.getMessagesFingerprint();
+            case OTHER -> null;
+        };
+        return fingerprint != null && fingerprint.equals(candidateFingerprint);
+    }
+
+    /**
+     * Loads the donor's relationship set into target.
+     *
+     * @return false if there is no donor or it has no such set, in which case the entries must be read.
+     */
+    private boolean reuseSet(Optional<UserDataUpload> donor, RelationshipSetType setType, RoaringBitmap target) {
+        Optional<RoaringBitmap> set = donor.flatMap(d -> relationshipSetService.findSet(d.getId(), setType));
+        set.ifPresent(target::or);
+        return set.isPresent();
+    }
+
+    /**
+     * Copies the donor's results of one type to this upload, paging through them in index order.
+     */
+    private void copyResults(UserDataUpload donor, UserDataUpload upload, AnalysisDataType dataType, AnalysisResultSink sink) {
+        String cursor = null;
+        do {
+            AnalysisResultPageDTO page = analysisResultService.getResultPage(donor.getId(), dataType, null,
+                    AnalysisResultService.SearchMatch.PREFIX, cursor, AnalysisResultService.MAX_PAGE_SIZE, Sort.Direction.ASC);
+            // Page items carry no JSON; fetch the attachments of the items that have one in a single query
+            Map<UUID, JsonNode> metaJson = analysisResultService.getMetaJson(page.getItems().stream()
+                    .filter(AnalysisResultResponseDTO::isHasMeta)
+                    .map(AnalysisResultResponseDTO::getId)
+                    .toList());
+            for (AnalysisResultResponseDTO item : page.getItems()) {
+                AnalysisResult copy = new AnalysisResult(upload, dataType, item.getTargetIdentifier());
+                copy.setValueNumeric(item.getValueNumeric());
+                copy.setValueText(item.getValueText());
+                copy.setProfileHref(item.getProfileHref());
+                copy.setFollowTimestamp(item.getFollowTimestamp());
+                copy.setMetaJson(metaJson.get(item.getId()));
+                sink.add(copy);
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    /**
+     * Streams the relationships of the given entries and hands each one to the consumer together with
+     * its handle dictionary id. Handles are interned in chunks, so memory stays bounded by the chunk size.
+     */
+    private void readInterned(UserDataUpload upload, ExportEntryType type, List<ExportEntry> entries,
+                              AnalysisStageTimer stages, ObjIntConsumer<RelationshipEntry> consumer) throws IOException {
+        ProcessingStage caller = stages.enter(ProcessingStage.PARSE);
+        List<RelationshipEntry> chunk = new ArrayList<>(INTERN_CHUNK_SIZE);
+        ParseBatchEvent[] batch = {new ParseBatchEvent()};
+        long[] batchBytes = {0};
+        Runnable drain = () -> {
+            batch[0].record(upload.getId(), type.name(), chunk.size(), batchBytes[0]);
+            stages.addRecords(chunk.size());
+            ProcessingStage previous = stages.enter(ProcessingStage.INTERN);
+            int[] ids = instagramHandleService.intern(chunk.stream().map(RelationshipEntry::username).toList());
+            stages.enter(previous);
+            for (int i = 0; i < ids.length; i++) {
+                consumer.accept(chunk.get(i), ids[i]);
+            }
+            chunk.clear();
+            batch[0] = new ParseBatchEvent();
+            batchBytes[0] = 0;
+            batch[0].begin();
+        };
+        batch[0].begin();
+        for (ExportEntry entry : entries) {
+            ExportEntryOpenEvent open = new ExportEntryOpenEvent();
+            open.begin();
+            InputStream stream = entry.open();
+            open.record(upload.getId(), entry.name(), type.name(), entry.size());
+            try (InputStream in = stream) {
+                parser.readRelationships(in, relationship -> {
+                    chunk.add(relationship);
+                    if (chunk.size() >= INTERN_CHUNK_SIZE) {
+                        drain.run();
+                    }
+                });
+            }
+            stages.addBytesRead(Math.max(0, entry.size()));
+            batchBytes[0] += Math.max(0, entry.size());
+        }
+        if (!chunk.isEmpty()) {
+            drain.run();
+        }
+        stages.enter(caller);
+    }
+
+    /**
+     * Emits the followers gained and lost since the user's previous completed upload,
+     * computed as bitmap AND-NOTs against that upload's follower set.
+     *
+     * @return {gained, lost}, or null if the user has no earlier completed upload to compare with.
+     */
+    private int[] diffAgainstPreviousUpload(UserDataUpload upload, RoaringBitmap followers, AnalysisResultSink sink) {
+        FollowerDiffEvent event = new FollowerDiffEvent();
+        event.begin();
+        int[] changes = relationshipSetService.findPreviousSet(upload.getId(), RelationshipSetType.FOLLOWERS)
+                .map(previous -> {
+                    String[] gained = instagramHandleService.resolve(RoaringBitmap.andNot(followers, previous).toArray());
+                    String[] lost = instagramHandleService.resolve(RoaringBitmap.andNot(previous, followers).toArray());
+                    for (String handle : gained) {
+                        sink.add(new AnalysisResult(upload, AnalysisDataType.NEW_FOLLOWER, handle));
+                    }
+                    for (String handle : lost) {
+                        sink.add(new AnalysisResult(upload, AnalysisDataType.NEW_UNFOLLOWER, handle));
+                    }
+                    event.record(upload.getId(), followers.getLongCardinality(), previous.getLongCardinality(),
+                            gained.length, lost.length);
+                    return new int[]{gained.length, lost.length};
+                })
+                .orElse(null);
+        if (changes == null) {
+            event.record(upload.getId(), followers.getLongCardinality(), -1, 0, 0);
+        }
+        return changes;
+    }
+
+    private AnalysisResult toResult(UserDataUpload upload, MessageThreadSummary thread) {
+        AnalysisResult result = new AnalysisResult(upload, AnalysisDataType.MESSAGE_THREAD_SUMMARY, thread.threadKey());
+        result.setValueNumeric(thread.messageCount());
+        result.setValueText(thread.title());
+        ObjectNode meta = objectMapper.createObjectNode();
+        thread.participants().forEach(meta.putArray("participants")::add);
+        if (thread.firstTimestampMs() != null) {
+            meta.put("firstTimestampMs", thread.firstTimestampMs());
+            meta.put("lastTimestampMs", thread.lastTimestampMs());
+        }
+        meta.put("fileCount", thread.fileCount());
+        result.setMetaJson(meta);
+        return result;
+    }
+
+    private AnalysisResult toResult(UserDataUpload upload, AnalysisDataType dataType, RelationshipEntry relationship) {
+        AnalysisResult result = new AnalysisResult(upload, dataType, relationship.username());
+        result.setProfileHref(relationship.href());
+        result.setFollowTimestamp(relationship.timestamp());
+        return result;
+    }
+}
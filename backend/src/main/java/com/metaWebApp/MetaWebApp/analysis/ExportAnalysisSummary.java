@@ -0,0 +1,15 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+/**
+ * Summary counts produced by a single analysis pass over an export.
+ * A count is null when the corresponding data was not part of the upload.
+ * The new follower/unfollower counts are also null when there was no previous completed upload to compare with.
+ */
+public record ExportAnalysisSummary(Integer totalFollowers,
+                                    Integer totalFollowing,
+                                    Integer unfollowersCount,
+                                    Integer totalCloseFriends,
+                                    Integer newFollowersCount,
+                                    Integer newUnfollowersCount,
+                                    long resultsWritten) {
+}
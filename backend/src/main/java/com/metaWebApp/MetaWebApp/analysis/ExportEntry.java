@@ -0,0 +1,42 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A single readable file inside an Instagram data export (a plain file on disk or an entry in a ZIP).
+ */
+public interface ExportEntry {
+
+    /**
+     * @return The path of the entry relative to the export root (e.g. "connections/followers_and_following/following.json").
+     */
+    String name();
+
+    /**
+     * @return The kind of data this entry holds.
+     */
+    ExportEntryType type();
+
+    /**
+     * @return The uncompressed size of the entry in bytes, or -1 if unknown.
+     */
+    long size();
+
+    /**
+     * @return The CRC-32 of the uncompressed content as recorded by the container (the ZIP central directory),
+     *         or -1 if the container doesn't record one.
+     */
+    default long crc32() {
+        return -1;
+    }
+
+    /**
+     * Opens a fresh stream over the (uncompressed) content of this entry.
+     * The caller is responsible for closing it.
+     *
+     * @return An InputStream positioned at the start of the entry.
+     * @throws IOException if the entry cannot be read.
+     */
+    InputStream open() throws IOException;
+}
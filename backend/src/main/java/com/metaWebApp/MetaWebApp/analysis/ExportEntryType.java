@@ -0,0 +1,66 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+
+import java.util.Locale;
+
+/**
+ * Classifies a single file inside an Instagram data export by the kind of data it holds.
+ * Only the types listed here are ever opened by the analysis engine; everything else is skipped.
+ */
+public enum ExportEntryType {
+    FOLLOWERS,      // followers_1.json, followers_2.json, ...
+    FOLLOWING,      // following.json
+    CLOSE_FRIENDS,  // close_friends.json
+    MESSAGES,       // messages/inbox/<thread>/message_N.json
+    OTHER;          // Media, settings and anything else we don't analyse
+
+    /**
+     * Determines the entry type from a file name or a path inside the export.
+     *
+     * @param path The file name or relative path (either '/' or '\' separated).
+     * @return The matching ExportEntryType, or OTHER if the file is not analysed.
+     */
+    public static ExportEntryType classify(String path) {
+        if (path == null) {
+            return OTHER;
+        }
+        String normalized = path.replace('\\', '/').toLowerCase(Locale.ROOT);
+        String fileName = normalized.substring(normalized.lastIndexOf('/') + 1);
+        if (!fileName.endsWith(".json")) {
+            return OTHER;
+        }
+        if (normalized.contains("messages/inbox/") && fileName.startsWith("message_")) {
+            return MESSAGES;
+        }
+        if (fileName.equals("followers.json") || fileName.matches("followers_\\d+\\.json")) {
+            return FOLLOWERS;
+        }
+        if (fileName.equals("following.json")) {
+            return FOLLOWING;
+        }
+        if (fileName.equals("close_friends.json")) {
+            return CLOSE_FRIENDS;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Fallback used for single-file uploads whose name doesn't follow Instagram's naming,
+     * in which case we trust the type the user declared on upload.
+     *
+     * @param declaredFileType The type declared by the frontend.
+     * @return The entry type the file should be treated as.
+     */
+    public static ExportEntryType fromDeclared(DeclaredFileType declaredFileType) {
+        if (declaredFileType == null) {
+            return OTHER;
+        }
+        return switch (declaredFileType) {
+            case FOLLOWERS -> FOLLOWERS;
+            case CLOSE_FRIENDS -> CLOSE_FRIENDS;
+            case MESSAGES -> MESSAGES;
+            default -> OTHER;
+        };
+    }
+}
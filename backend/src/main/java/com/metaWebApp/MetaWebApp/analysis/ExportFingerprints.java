@@ -0,0 +1,43 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Fingerprints the entries of one type (e.g. all followers files) of an export without reading their content.
+ *
+ * The fingerprint is a SHA-256 over the name, uncompressed size and CRC-32 of each entry as listed in the ZIP
+ * central directory. Two exports whose followers files have equal fingerprints hold the same followers data,
+ * even if their photos, settings or messages differ, so the analysis of that part can be reused.
+ */
+final class ExportFingerprints {
+
+    private ExportFingerprints() {
+    }
+
+    /**
+     * @param entries The entries of one type, in the stable order returned by ExportSource.
+     * @return The hex-encoded fingerprint, or null if an entry has no recorded CRC (e.g. a plain file on disk).
+     */
+    static String of(List<ExportEntry> entries) {
+        MessageDigest digest = sha256();
+        for (ExportEntry entry : entries) {
+            if (entry.crc32() < 0 || entry.size() < 0) {
+                return null;
+            }
+            digest.update((entry.name() + '\0' + entry.size() + '\0' + entry.crc32() + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * An opened Instagram data export that exposes only the entries the analysis engine cares about.
+ * Implementations hold on to file handles, so they must be closed once analysis is done.
+ */
+public interface ExportSource extends Closeable {
+
+    /**
+     * @return All analysable entries (type != OTHER) in the export.
+     */
+    List<ExportEntry> entries();
+
+    /**
+     * @param type The entry type to filter by.
+     * @return The entries of the given type, in a stable (name) order.
+     */
+    default List<ExportEntry> entries(ExportEntryType type) {
+        return entries().stream()
+                .filter(entry -> entry.type() == type)
+                .toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Opens the file referenced by a UserDataUpload as an ExportSource,
+ * picking the right implementation for its layout on disk.
+ * The filePath is either a BlobStorage key (uploaded through the API) or a plain path, which is resolved in the
+ * configured ingest root (app.uploads.ingest-root) and must not lead outside it. Without an ingest root only
+ * blob keys are accepted.
+ */
+@Component
+public class ExportSourceFactory {
+
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+
+    private final BlobStorage blobStorage;
+    private final Path ingestRoot; // Null when plain paths are not accepted
+
+    @Autowired
+    public ExportSourceFactory(BlobStorage blobStorage, @Value("${app.uploads.ingest-root:}") String ingestRoot) {
+        this.blobStorage = blobStorage;
+        this.ingestRoot = ingestRoot.isBlank() ? null : Paths.get(ingestRoot).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolves a plain (non blob key) file reference in the ingest root.
+     *
+     * @param reference A path relative to the ingest root, or an absolute path inside it.
+     * @return The normalised absolute path.
+     * @throws IllegalArgumentException if there is no ingest root or the path leads outside it.
+     */
+    public Path resolveIngestPath(String reference) {
+        if (ingestRoot == null) {
+            throw new IllegalArgumentException("Plain file paths are not accepted; upload the file content instead");
+        }
+        Path path;
+        try {
+            path = ingestRoot.resolve(reference).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid file path: " + reference, e);
+        }
+        if (!path.startsWith(ingestRoot)) {
+            throw new IllegalArgumentException("File path is outside the ingest root: " + reference);
+        }
+        return path;
+    }
+
+    /**
+     * @param upload The upload whose filePath should be opened.
+     * @return An ExportSource over the upload's content. Must be closed by the caller.
+     * @throws IOException if the file does not exist or cannot be read.
+     * @throws InvalidExportException if the filePath is a plain path that is not inside the ingest root.
+     */
+    public ExportSource open(UserDataUpload upload) throws IOException {
+        Path path = BlobStorage.isKey(upload.getFilePath())
+                ? blobStorage.localPath(upload.getFilePath())
+                : ingestPath(upload.getFilePath());
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(upload.getFilePath());
+        }
+        // Symbolic links inside the ingest root must not lead out of it either
+        if (!BlobStorage.isKey(upload.getFilePath()) && !path.toRealPath().startsWith(ingestRoot.toRealPath())) {
+            throw new InvalidExportException("File path is outside the ingest root: " + upload.getFilePath());
+        }
+        if (Files.isDirectory(path)) {
+            return FileSystemExportSource.ofDirectory(path);
+        }
+        if (isZip(path)) {
+            return ZipExportSource.open(path);
+        }
+        // Blobs are named by their hash, so the file is classified by the name it was uploaded with
+        String name = upload.getFileName() != null ? upload.getFileName() : path.getFileName().toString();
+        return FileSystemExportSource.ofFile(path, name, ExportEntryType.fromDeclared(upload.getDeclaredFileType()));
+    }
+
+    private Path ingestPath(String reference) {
+        try {
+            return resolveIngestPath(reference);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detects a ZIP archive by its local file header magic rather than trusting the file extension.
+     */
+    private static boolean isZip(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = in.readNBytes(ZIP_MAGIC.length);
+            return Arrays.equals(header, ZIP_MAGIC);
+        }
+    }
+}
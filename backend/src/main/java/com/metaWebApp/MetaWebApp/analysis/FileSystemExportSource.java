@@ -0,0 +1,110 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ExportSource backed by the local file system: either a single uploaded JSON file
+ * or a directory containing an already-extracted Instagram export.
+ */
+public class FileSystemExportSource implements ExportSource {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final List<ExportEntry> entries;
+
+    private FileSystemExportSource(List<ExportEntry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Opens a single JSON file. If the file name doesn't identify its content,
+     * the supplied fallback type (usually derived from the declared file type) is used.
+     *
+     * @param file The JSON file.
+     * @param fallbackType The type to assume when the name is not recognised.
+     * @return An ExportSource with at most one entry.
+     */
+    public static FileSystemExportSource ofFile(Path file, ExportEntryType fallbackType) {
+        return ofFile(file, file.getFileName().toString(), fallbackType);
+    }
+
+    /**
+     * Opens a single JSON file stored under a name of its own, e.g. a blob named by its hash,
+     * classifying it by the name it was uploaded with instead.
+     *
+     * @param file The JSON file.
+     * @param name The original file name; only its last path segment is used.
+     * @param fallbackType The type to assume when the name is not recognised.
+     * @return An ExportSource with at most one entry.
+     */
+    public static FileSystemExportSource ofFile(Path file, String name, ExportEntryType fallbackType) {
+        String normalized = name.replace('\\', '/');
+        String fileName = normalized.substring(normalized.lastIndexOf('/') + 1);
+        ExportEntryType type = ExportEntryType.classify(fileName);
+        if (type == ExportEntryType.OTHER) {
+            type = fallbackType;
+        }
+        List<ExportEntry> entries = new ArrayList<>();
+        if (type != ExportEntryType.OTHER) {
+            entries.add(new PathEntry(fileName, file, type));
+        }
+        return new FileSystemExportSource(entries);
+    }
+
+    /**
+     * Walks an extracted export directory and picks up every analysable JSON file.
+     *
+     * @param root The root directory of the export.
+     * @return An ExportSource over all recognised files, sorted by relative path.
+     * @throws IOException if the directory cannot be walked.
+     */
+    public static FileSystemExportSource ofDirectory(Path root) throws IOException {
+        List<ExportEntry> entries = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile).forEach(path -> {
+                String relative = root.relativize(path).toString().replace('\\', '/');
+                ExportEntryType type = ExportEntryType.classify(relative);
+                if (type != ExportEntryType.OTHER) {
+                    entries.add(new PathEntry(relative, path, type));
+                }
+            });
+        }
+        entries.sort(Comparator.comparing(ExportEntry::name));
+        return new FileSystemExportSource(entries);
+    }
+
+    @Override
+    public List<ExportEntry> entries() {
+        return entries;
+    }
+
+    @Override
+    public void close() {
+        // Each entry opens and closes its own stream; nothing is held open here.
+    }
+
+    private record PathEntry(String name, Path path, ExportEntryType type) implements ExportEntry {
+
+        @Override
+        public long size() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_SIZE);
+        }
+    }
+}
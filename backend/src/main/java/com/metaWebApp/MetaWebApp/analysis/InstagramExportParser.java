@@ -0,0 +1,314 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Token-streaming parser for the relationship lists in an Instagram data export.
+ * Only one list element is ever held in memory, so the cost of parsing is independent of file size.
+ *
+ * Understands both layouts Instagram has shipped:
+ * <pre>
+ * followers_1.json:   [ { "title": "", "string_list_data": [ { "href": ..., "value": "user", "timestamp": 1690000000 } ] }, ... ]
+ * following.json:     { "relationships_following": [ { "title": "user", "string_list_data": [ { "href": ..., "timestamp": ... } ] } ] }
+ * close_friends.json: { "relationships_close_friends": [ ... ] }
+ * </pre>
+ *
+ * Message files are summarised the same way, without holding the messages themselves:
+ * <pre>
+ * message_1.json:     { "participants": [ { "name": ... } ], "messages": [ { "sender_name": ..., "timestamp_ms": ... } ],
+ *                       "title": ..., "thread_path": "inbox/alice_1234567890" }
+ * </pre>
+ */
+@Component
+public class InstagramExportParser {
+
+    private static final String RELATIONSHIPS_PREFIX = "relationships_";
+
+    private final JsonFactory jsonFactory;
+
+    @Autowired
+    public InstagramExportParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Streams every account listed in a followers/following/close friends file to the handler.
+     *
+     * @param in The raw JSON content. Closed when parsing finishes.
+     * @param handler Receives each parsed account in file order.
+     * @return The number of accounts handed to the handler.
+     * @throws IOException if the stream cannot be read.
+     * @throws InvalidExportException if the content is not a relationship list.
+     */
+    public long readRelationships(InputStream in, Consumer<RelationshipEntry> handler) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                return readEntryArray(parser, handler);
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new InvalidExportException("Expected a JSON array or object at the top of the relationship file");
+            }
+
+            long count = 0;
+            boolean sawRelationships = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.startsWith(RELATIONSHIPS_PREFIX) && value == JsonToken.START_ARRAY) {
+                    sawRelationships = true;
+                    count += readEntryArray(parser, handler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!sawRelationships) {
+                throw new InvalidExportException("No relationships_* list found in the relationship file");
+            }
+            return count;
+        } catch (JsonParseException e) {
+            throw new InvalidExportException("Malformed JSON in relationship file: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Summarises one message_N.json file of a message thread.
+     *
+     * @param in The raw JSON content. Closed when parsing finishes.
+     * @param fallbackThreadKey The thread key to use if the file has no thread_path (normally its directory name).
+     * @return The counts of this file.
+     * @throws IOException if the stream cannot be read.
+     * @throws InvalidExportException if the content is not a message file.
+     */
+    public MessageThreadSummary readMessageFile(InputStream in, String fallbackThreadKey) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidExportException("Expected a JSON object at the top of the message file");
+            }
+            String title = null;
+            String threadPath = null;
+            Set<String> participants = new LinkedHashSet<>();
+            long messageCount = 0;
+            Long first = null;
+            Long last = null;
+            boolean sawMessages = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("title".equals(field) && value == JsonToken.VALUE_STRING) {
+                    title = fixEncoding(parser.getText());
+                } else if ("thread_path".equals(field) && value == JsonToken.VALUE_STRING) {
+                    threadPath = parser.getText();
+                } else if ("participants".equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            throw new InvalidExportException("Unexpected end of message file");
+                        }
+                        if (token != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        String name = readStringField(parser, "name");
+                        if (name != null && !name.isBlank()) {
+                            participants.add(fixEncoding(name));
+                        }
+                    }
+                } else if ("messages".equals(field) && value == JsonToken.START_ARRAY) {
+                    sawMessages = true;
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            throw new InvalidExportException("Unexpected end of message file");
+                        }
+                        if (token != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        messageCount++;
+                        Long timestamp = readTimestamp(parser);
+                        if (timestamp != null) {
+                            first = first == null ? timestamp : Math.min(first, timestamp);
+                            last = last == null ? timestamp : Math.max(last, timestamp);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!sawMessages) {
+                throw new InvalidExportException("No messages list found in the message file");
+            }
+            String threadKey = usernameFromHref(threadPath); // last path segment of "inbox/<thread>"
+            return new MessageThreadSummary(threadKey != null ? threadKey : fallbackThreadKey,
+                    title, participants, messageCount, first, last, 1);
+        } catch (JsonParseException e) {
+            throw new InvalidExportException("Malformed JSON in message file: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a flat object and returns one of its string fields. Leaves the parser on END_OBJECT.
+     */
+    private static String readStringField(JsonParser parser, String name) throws IOException {
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (name.equals(field) && token == JsonToken.VALUE_STRING) {
+                result = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a message object and returns its timestamp_ms. Leaves the parser on END_OBJECT.
+     */
+    private static Long readTimestamp(JsonParser parser) throws IOException {
+        Long result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("timestamp_ms".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                result = parser.getLongValue();
+            } else {
+                parser.skipChildren(); // content, photos, reactions, ...
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Instagram writes message exports as UTF-8 bytes escaped one byte per char ("Ã©" instead of "é").
+     * Re-decodes such strings; strings with characters beyond Latin-1 are already correct and kept as-is.
+     */
+    static String fixEncoding(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return text;
+            }
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.ISO_8859_1);
+        String decoded = new String(bytes, StandardCharsets.UTF_8);
+        return decoded.indexOf('\uFFFD') >= 0 ? text : decoded;
+    }
+
+    /**
+     * Reads the elements of a relationship array. The parser must be positioned on START_ARRAY
+     * and is left on the matching END_ARRAY.
+     */
+    private long readEntryArray(JsonParser parser, Consumer<RelationshipEntry> handler) throws IOException {
+        long count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new InvalidExportException("Unexpected end of relationship file");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            RelationshipEntry entry = readEntry(parser);
+            if (entry != null) {
+                handler.accept(entry);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads a single list element. The parser must be positioned on START_OBJECT
+     * and is left on the matching END_OBJECT.
+     */
+    private RelationshipEntry readEntry(JsonParser parser) throws IOException {
+        String title = null;
+        String value = null;
+        String href = null;
+        Long timestamp = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("title".equals(field) && token == JsonToken.VALUE_STRING) {
+                title = parser.getText();
+            } else if ("string_list_data".equals(field) && token == JsonToken.START_ARRAY) {
+                // Instagram always exports a single item here; only the first one is used.
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.START_OBJECT || href != null || value != null || timestamp != null) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String dataField = parser.currentName();
+                        JsonToken dataToken = parser.nextToken();
+                        if ("value".equals(dataField) && dataToken == JsonToken.VALUE_STRING) {
+                            value = parser.getText();
+                        } else if ("href".equals(dataField) && dataToken == JsonToken.VALUE_STRING) {
+                            href = parser.getText();
+                        } else if ("timestamp".equals(dataField) && dataToken == JsonToken.VALUE_NUMBER_INT) {
+                            timestamp = parser.getLongValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        String username = firstNonBlank(value, title, usernameFromHref(href));
+        if (username == null) {
+            return null;
+        }
+        return new RelationshipEntry(username.trim().toLowerCase(Locale.ROOT), href, timestamp);
+    }
+
+    private static String firstNonBlank(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.isBlank()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the handle from links such as "https://www.instagram.com/user" or "https://www.instagram.com/_u/user".
+     */
+    static String usernameFromHref(String href) {
+        if (href == null || href.isBlank()) {
+            return null;
+        }
+        String path = href;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        int lastSlash = path.lastIndexOf('/');
+        String candidate = lastSlash >= 0 ? path.substring(lastSlash + 1) : path;
+        return candidate.isBlank() ? null : candidate;
+    }
+}
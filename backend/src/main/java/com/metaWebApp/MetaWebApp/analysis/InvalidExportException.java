@@ -0,0 +1,17 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+/**
+ * Thrown when an uploaded file is readable but is not a valid Instagram export
+ * (wrong format, unexpected JSON structure, no analysable entries, ...).
+ * Uploads failing with this exception are marked INVALID_FILE rather than FAILED.
+ */
+public class InvalidExportException extends RuntimeException {
+
+    public InvalidExportException(String message) {
+        super(message);
+    }
+
+    public InvalidExportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,101 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Summarises the message threads of an export (messages/inbox/&lt;thread&gt;/message_N.json).
+ *
+ * Message files are fanned out over a dedicated ForkJoinPool as a parallel stream: every file is parsed on its own
+ * into an immutable partial summary, and the partials are combined per thread by the stream's fork/join reduction.
+ * Nothing is shared between workers while parsing, so large inboxes scale with the number of cores rather than
+ * the number of files. ZIP entries can be read concurrently because ZipExportSource only uses positional reads.
+ */
+@Component
+public class MessageThreadSummarizer {
+
+    private final InstagramExportParser parser;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public MessageThreadSummarizer(InstagramExportParser parser,
+                                   @Value("${app.analysis.message-parallelism:0}") int parallelism) {
+        this.parser = parser;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parses the given message files in parallel and returns one summary per thread.
+     *
+     * @param messageEntries The MESSAGES entries of an export, in any order.
+     * @return The thread summaries, ordered by thread key.
+     * @throws IOException if a file cannot be read.
+     * @throws InvalidExportException if a file is not a message file.
+     */
+    public List<MessageThreadSummary> summarize(Collection<ExportEntry> messageEntries) throws IOException {
+        if (messageEntries.isEmpty()) {
+            return List.of();
+        }
+        try {
+            Map<String, MessageThreadSummary> threads = pool.submit(() -> messageEntries.parallelStream()
+                    .map(this::summarizeFile)
+                    .collect(Collectors.toMap(MessageThreadSummary::threadKey, Function.identity(),
+                            MessageThreadSummary::merge))).get();
+            return threads.values().stream()
+                    .sorted(Comparator.comparing(MessageThreadSummary::threadKey))
+                    .toList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while summarising message threads", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Summarising message threads failed", cause);
+        }
+    }
+
+    private MessageThreadSummary summarizeFile(ExportEntry entry) {
+        try (InputStream in = entry.open()) {
+            return parser.readMessageFile(in, threadKeyOf(entry.name()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The name of the directory holding the file, or the file name for a single uploaded file.
+     */
+    static String threadKeyOf(String path) {
+        String normalized = path.replace('\\', '/');
+        int fileSlash = normalized.lastIndexOf('/');
+        if (fileSlash <= 0) {
+            return normalized;
+        }
+        int dirSlash = normalized.lastIndexOf('/', fileSlash - 1);
+        return normalized.substring(dirSlash + 1, fileSlash);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Counts for one message thread (inbox/&lt;thread&gt;/message_N.json), or for a single file of it before the
+ * files of a thread are merged. Immutable, so partial summaries can be combined from any thread without locking.
+ *
+ * @param threadKey The thread directory name (e.g. "alice_1234567890"), unique within an export.
+ * @param title The thread title, may be null.
+ * @param participants The participant names, in first-seen order.
+ * @param messageCount The number of messages.
+ * @param firstTimestampMs Epoch milliseconds of the oldest message, or null if there are none.
+ * @param lastTimestampMs Epoch milliseconds of the newest message, or null if there are none.
+ * @param fileCount The number of message_N.json files summarised.
+ */
+public record MessageThreadSummary(String threadKey,
+                                   String title,
+                                   Set<String> participants,
+                                   long messageCount,
+                                   Long firstTimestampMs,
+                                   Long lastTimestampMs,
+                                   int fileCount) {
+
+    /**
+     * Combines the summaries of two files of the same thread.
+     */
+    public MessageThreadSummary merge(MessageThreadSummary other) {
+        Set<String> mergedParticipants = new LinkedHashSet<>(participants);
+        mergedParticipants.addAll(other.participants);
+        return new MessageThreadSummary(threadKey,
+                title != null ? title : other.title,
+                mergedParticipants,
+                messageCount + other.messageCount,
+                min(firstTimestampMs, other.firstTimestampMs),
+                max(lastTimestampMs, other.lastTimestampMs),
+                fileCount + other.fileCount);
+    }
+
+    private static Long min(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(Math.min(a, b));
+    }
+
+    private static Long max(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(Math.max(a, b));
+    }
+}
@@ -0,0 +1,11 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+/**
+ * One account parsed from a followers/following/close friends list in an Instagram export.
+ *
+ * @param username The (lower-cased) Instagram handle.
+ * @param href The profile link as exported by Instagram, may be null.
+ * @param timestamp Epoch seconds at which the relationship started, may be null.
+ */
+public record RelationshipEntry(String username, String href, Long timestamp) {
+}
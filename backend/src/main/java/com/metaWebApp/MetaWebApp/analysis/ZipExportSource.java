@@ -0,0 +1,423 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ExportSource that reads an Instagram export ZIP in place, without extracting anything to disk.
+ *
+ * Only the central directory at the end of the archive is read up front (through a memory-mapped view);
+ * the local data of the few relevant entries is then streamed and inflated on demand using positional
+ * FileChannel reads. Photos and videos, which make up almost all of a 1-5 GB export, are never touched.
+ * Positional reads don't move a shared file pointer, so several entries may be read concurrently.
+ * Each entry is checked against the CRC-32 and size in the central directory at the latest when its stream is
+ * closed, so a corrupt archive fails with InvalidExportException instead of yielding wrong content.
+ */
+public class ZipExportSource implements ExportSource {
+
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+    private static final int CENTRAL_FILE_HEADER_SIG = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER_SIG = 0x04034b50;
+
+    private static final int END_OF_CENTRAL_DIR_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int CENTRAL_FILE_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+    private static final int FLAG_ENCRYPTED = 0x1;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final List<ExportEntry> entries;
+
+    private ZipExportSource(FileChannel channel, List<ExportEntry> entries) {
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens a ZIP archive and indexes its analysable entries from the central directory.
+     *
+     * @param zipFile The archive on local disk.
+     * @return The opened source. Must be closed to release the file handle.
+     * @throws IOException if the file cannot be read.
+     * @throws InvalidExportException if the file is not a readable ZIP archive.
+     */
+    public static ZipExportSource open(Path zipFile) throws IOException {
+        FileChannel channel = FileChannel.open(zipFile, StandardOpenOption.READ);
+        try {
+            return new ZipExportSource(channel, readCentralDirectory(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<ExportEntry> entries() {
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Locates the (ZIP64) end of central directory record and returns every entry we know how to analyse.
+     */
+    private static List<ExportEntry> readCentralDirectory(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < END_OF_CENTRAL_DIR_SIZE) {
+            throw new InvalidExportException("File is too small to be a ZIP archive");
+        }
+
+        // The EOCD record sits at the very end, followed only by an optional comment of up to 64 KB.
+        int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIR_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+        int eocd = -1;
+        for (int i = tailSize - END_OF_CENTRAL_DIR_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIR_SIG) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new InvalidExportException("Not a ZIP archive: end of central directory not found");
+        }
+
+        long entryCount = Short.toUnsignedInt(tail.getShort(eocd + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+
+        long eocdPosition = fileSize - tailSize + eocd;
+        if ((entryCount == 0xFFFF || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC)
+                && eocdPosition >= ZIP64_LOCATOR_SIZE) {
+            ByteBuffer locator = readFully(channel, eocdPosition - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) == ZIP64_LOCATOR_SIG) {
+                long zip64Position = locator.getLong(8);
+                ByteBuffer zip64 = readFully(channel, zip64Position, 56);
+                if (zip64.getInt(0) != ZIP64_END_OF_CENTRAL_DIR_SIG) {
+                    throw new InvalidExportException("Corrupt ZIP64 end of central directory record");
+                }
+                entryCount = zip64.getLong(32);
+                directorySize = zip64.getLong(40);
+                directoryOffset = zip64.getLong(48);
+            }
+        }
+
+        if (directoryOffset + directorySize > fileSize || directorySize > Integer.MAX_VALUE) {
+            throw new InvalidExportException("Corrupt ZIP archive: central directory out of bounds");
+        }
+
+        MappedByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directorySize);
+        directory.order(ByteOrder.LITTLE_ENDIAN);
+
+        List<ExportEntry> result = new ArrayList<>();
+        int position = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (position + CENTRAL_FILE_HEADER_SIZE > directorySize
+                    || directory.getInt(position) != CENTRAL_FILE_HEADER_SIG) {
+                throw new InvalidExportException("Corrupt ZIP archive: bad central directory entry " + i);
+            }
+            int flags = Short.toUnsignedInt(directory.getShort(position + 8));
+            int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            long crc32 = Integer.toUnsignedLong(directory.getInt(position + 16));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long uncompressedSize = Integer.toUnsignedLong(directory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.get(position + CENTRAL_FILE_HEADER_SIZE, nameBytes);
+            // Instagram writes plain ASCII paths, so UTF-8 is safe whether or not the UTF-8 flag is set.
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            ExportEntryType type = name.endsWith("/") ? ExportEntryType.OTHER : ExportEntryType.classify(name);
+            if (type != ExportEntryType.OTHER) {
+                if (uncompressedSize == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+                    int extraStart = position + CENTRAL_FILE_HEADER_SIZE + nameLength;
+                    long[] zip64Values = readZip64Extra(directory, extraStart, extraLength,
+                            uncompressedSize == ZIP64_MAGIC, compressedSize == ZIP64_MAGIC, localHeaderOffset == ZIP64_MAGIC);
+                    uncompressedSize = zip64Values[0] >= 0 ? zip64Values[0] : uncompressedSize;
+                    compressedSize = zip64Values[1] >= 0 ? zip64Values[1] : compressedSize;
+                    localHeaderOffset = zip64Values[2] >= 0 ? zip64Values[2] : localHeaderOffset;
+                }
+                if ((flags & FLAG_ENCRYPTED) != 0) {
+                    throw new InvalidExportException("Encrypted ZIP entries are not supported: " + name);
+                }
+                if (method != METHOD_STORED && method != METHOD_DEFLATED) {
+                    throw new InvalidExportException("Unsupported ZIP compression method " + method + " for " + name);
+                }
+                result.add(new ZipEntryRef(channel, name, type, method, crc32, compressedSize, uncompressedSize, localHeaderOffset));
+            }
+
+            position += CENTRAL_FILE_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        result.sort(Comparator.comparing(ExportEntry::name));
+        return result;
+    }
+
+    /**
+     * Reads the ZIP64 extended information extra field. Values are only present for the fields
+     * that were set to 0xFFFFFFFF in the fixed header, in this order: uncompressed, compressed, offset.
+     *
+     * @return {uncompressed, compressed, offset}, -1 where the value is not present.
+     */
+    private static long[] readZip64Extra(ByteBuffer directory, int start, int length,
+                                         boolean hasUncompressed, boolean hasCompressed, boolean hasOffset) {
+        long[] values = {-1, -1, -1};
+        int position = start;
+        int end = start + length;
+        while (position + 4 <= end) {
+            int headerId = Short.toUnsignedInt(directory.getShort(position));
+            int dataSize = Short.toUnsignedInt(directory.getShort(position + 2));
+            if (headerId == ZIP64_EXTRA_ID) {
+                int field = position + 4;
+                if (hasUncompressed) {
+                    values[0] = directory.getLong(field);
+                    field += 8;
+                }
+                if (hasCompressed) {
+                    values[1] = directory.getLong(field);
+                    field += 8;
+                }
+                if (hasOffset) {
+                    values[2] = directory.getLong(field);
+                }
+                break;
+            }
+            position += 4 + dataSize;
+        }
+        return values;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of ZIP archive");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * An indexed ZIP entry. Opening it resolves the local header and streams the compressed bytes.
+     */
+    private record ZipEntryRef(FileChannel channel, String name, ExportEntryType type, int method, long crc32,
+                               long compressedSize, long uncompressedSize, long localHeaderOffset) implements ExportEntry {
+
+        @Override
+        public long size() {
+            return uncompressedSize;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            ByteBuffer header = readFully(channel, localHeaderOffset, LOCAL_FILE_HEADER_SIZE);
+            if (header.getInt(0) != LOCAL_FILE_HEADER_SIG) {
+                throw new InvalidExportException("Corrupt ZIP archive: bad local header for " + name);
+            }
+            // The local name/extra lengths may differ from the central directory copy, so always use these.
+            int nameLength = Short.toUnsignedInt(header.getShort(26));
+            int extraLength = Short.toUnsignedInt(header.getShort(28));
+            long dataStart = localHeaderOffset + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+
+            InputStream raw = new ChannelRangeInputStream(channel, dataStart, compressedSize);
+            InputStream content = method == METHOD_STORED ? raw : new EntryInflaterInputStream(raw);
+            return new VerifyingInputStream(content, name, crc32, uncompressedSize);
+        }
+    }
+
+    /**
+     * InputStream over a fixed byte range of a FileChannel using positional reads only.
+     */
+    private static final class ChannelRangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private long position;
+
+        private ChannelRangeInputStream(FileChannel channel, long start, long length) {
+            this.channel = channel;
+            this.position = start;
+            this.end = start + length;
+            this.buffer.limit(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!buffer.hasRemaining() && !refill()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining() && !refill()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        private boolean refill() throws IOException {
+            long remaining = end - position;
+            if (remaining <= 0) {
+                return false;
+            }
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), remaining));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                throw new EOFException("Unexpected end of ZIP entry data");
+            }
+            position += read;
+            buffer.flip();
+            return true;
+        }
+    }
+
+    /**
+     * Computes the CRC-32 of an entry's content as it is read and checks it, along with the size, at end of stream.
+     * JSON readers stop at the end of the root value, usually before end of stream, so close reads whatever is
+     * left (typically a trailing newline) and checks then.
+     */
+    private static final class VerifyingInputStream extends CheckedInputStream {
+
+        private final String name;
+        private final long expectedCrc32;
+        private final long expectedSize;
+        private long size;
+        private boolean verified;
+
+        private VerifyingInputStream(InputStream in, String name, long expectedCrc32, long expectedSize) {
+            super(in, new CRC32());
+            this.name = name;
+            this.expectedCrc32 = expectedCrc32;
+            this.expectedSize = expectedSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                verify();
+            } else {
+                size++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count == -1) {
+                verify();
+            } else {
+                size += count;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (!verified) {
+                    byte[] rest = new byte[READ_BUFFER_SIZE];
+                    while (read(rest, 0, rest.length) != -1) {
+                        // Only the checksum of what is left is needed
+                    }
+                }
+            } finally {
+                super.close();
+            }
+        }
+
+        private void verify() {
+            if (verified) {
+                return;
+            }
+            verified = true;
+            if (size != expectedSize) {
+                throw new InvalidExportException("Corrupt ZIP archive: " + name + " has " + size
+                        + " bytes instead of " + expectedSize);
+            }
+            if (getChecksum().getValue() != expectedCrc32) {
+                throw new InvalidExportException("Corrupt ZIP archive: CRC-32 mismatch for " + name);
+            }
+        }
+    }
+
+    /**
+     * Inflates raw DEFLATE data and releases the native Inflater on close.
+     * Raw ("nowrap") inflation needs one extra dummy byte at the end of the input, as in java.util.zip.ZipFile.
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+
+        private boolean eof;
+        private boolean closed;
+
+        private EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), READ_BUFFER_SIZE);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of compressed ZIP entry");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
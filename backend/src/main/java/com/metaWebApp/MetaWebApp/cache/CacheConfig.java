@@ -0,0 +1,34 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Enables the read caches for uploads, users and subscriptions.
+ * A SharedCacheTier bean, if present, is used as the second level.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<SharedCacheTier> sharedCacheTier,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${app.cache.ttl-seconds:60}") long ttlSeconds,
+                                     @Value("${app.cache.shared-ttl-seconds:600}") long sharedTtlSeconds) {
+        return new TwoLevelCacheManager(
+                List.of(CacheNames.UPLOADS, CacheNames.USERS, CacheNames.SUBSCRIPTIONS),
+                maximumSize, Duration.ofSeconds(ttlSeconds),
+                sharedCacheTier.getIfAvailable(), Duration.ofSeconds(sharedTtlSeconds),
+                meterRegistry);
+    }
+}
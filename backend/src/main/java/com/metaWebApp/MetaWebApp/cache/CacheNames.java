@@ -0,0 +1,15 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+/**
+ * Names of the read caches. Each caches response DTOs by entity id, never JPA entities,
+ * so cached values are immutable snapshots that are safe to share between requests and nodes.
+ */
+public final class CacheNames {
+
+    public static final String UPLOADS = "uploads";             // UploadResponseDTO by upload id
+    public static final String USERS = "users";                 // UserResponseDTO by user id
+    public static final String SUBSCRIPTIONS = "subscriptions"; // SubscriptionResponseDTO by user id
+
+    private CacheNames() {
+    }
+}
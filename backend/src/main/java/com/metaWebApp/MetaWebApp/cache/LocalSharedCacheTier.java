@@ -0,0 +1,65 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for a shared cache tier, for tests and single-node development.
+ * Enabled with app.cache.shared-tier=local.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.shared-tier", havingValue = "local")
+public class LocalSharedCacheTier implements SharedCacheTier {
+
+    private record Entry(Object value, long expiresAtNanos) {
+    }
+
+    private final Map<String, Map<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Map<Object, Entry> cache = caches.get(cacheName);
+        Entry entry = cache != null ? cache.get(key) : null;
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+        caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>())
+                .put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        Map<Object, Entry> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.remove(key);
+        }
+        listeners.forEach(listener -> listener.invalidated(cacheName, key));
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        caches.remove(cacheName);
+        listeners.forEach(listener -> listener.invalidated(cacheName, null));
+    }
+
+    @Override
+    public void addInvalidationListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+}
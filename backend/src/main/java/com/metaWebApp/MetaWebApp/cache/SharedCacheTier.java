@@ -0,0 +1,51 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import java.time.Duration;
+
+/**
+ * Optional second cache tier shared by all backend nodes (e.g. Redis), consulted on a miss of the
+ * in-process cache. Evictions must be broadcast to every node's invalidation listeners, so that a write
+ * on one node also drops the stale in-process copies held by the others.
+ */
+public interface SharedCacheTier {
+
+    /**
+     * @param cacheName The cache name.
+     * @param key The key.
+     * @return The cached value, or null if absent.
+     */
+    Object get(String cacheName, Object key);
+
+    /**
+     * @param cacheName The cache name.
+     * @param key The key.
+     * @param value The value; must be serializable by the implementation.
+     * @param ttl How long the value may be served.
+     */
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    /**
+     * Removes a value and notifies all invalidation listeners.
+     */
+    void evict(String cacheName, Object key);
+
+    /**
+     * Removes all values of a cache and notifies all invalidation listeners with a null key.
+     */
+    void clear(String cacheName);
+
+    /**
+     * Registers a listener for evictions made through this tier by any node.
+     */
+    void addInvalidationListener(InvalidationListener listener);
+
+    @FunctionalInterface
+    interface InvalidationListener {
+
+        /**
+         * @param cacheName The cache name.
+         * @param key The evicted key, or null if the whole cache was cleared.
+         */
+        void invalidated(String cacheName, Object key);
+    }
+}
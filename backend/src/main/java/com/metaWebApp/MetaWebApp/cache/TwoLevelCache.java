@@ -0,0 +1,129 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Spring Cache backed by an in-process Caffeine cache (size- and TTL-bounded, W-TinyLFU eviction) in front of an
+ * optional SharedCacheTier. Reads try the local cache, then the shared tier; writes and evictions go to both.
+ *
+ * Loads through {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) run at most once per key
+ * on this node at a time, so a burst of identical dashboard polls costs one database query.
+ * "Not found" results are cached too (as NullValue), which keeps polls for unknown ids off the database as well.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final SharedCacheTier shared;
+    private final Duration sharedTtl;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, SharedCacheTier shared, Duration sharedTtl,
+                         MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+        this.sharedHits = Counter.builder("cache.shared.gets").tag("cache", name).tag("result", "hit")
+                .description("Lookups in the shared cache tier after a local miss").register(meterRegistry);
+        this.sharedMisses = Counter.builder("cache.shared.gets").tag("cache", name).tag("result", "miss")
+                .description("Lookups in the shared cache tier after a local miss").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value == null) {
+            value = lookupShared(key);
+            if (value != null) {
+                local.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) fromStoreValue(local.get(key, k -> {
+            Object value = lookupShared(k);
+            if (value != null) {
+                return value;
+            }
+            try {
+                value = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            if (shared != null) {
+                shared.put(name, k, value, sharedTtl);
+            }
+            return value;
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        local.put(key, storeValue);
+        if (shared != null) {
+            shared.put(name, key, storeValue, sharedTtl);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (shared != null) {
+            shared.evict(name, key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (shared != null) {
+            shared.clear(name);
+        }
+    }
+
+    /**
+     * Drops a local entry only, after another node evicted it through the shared tier.
+     *
+     * @param key The key, or null to drop all local entries.
+     */
+    void invalidateLocal(Object key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private Object lookupShared(Object key) {
+        if (shared == null) {
+            return null;
+        }
+        Object value = shared.get(name, key);
+        (value != null ? sharedHits : sharedMisses).increment();
+        return value;
+    }
+}
@@ -0,0 +1,61 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CacheManager for a fixed set of TwoLevelCaches.
+ *
+ * It is transaction aware: puts and evictions issued inside a transaction (e.g. {@code @CacheEvict} on a
+ * {@code @Transactional} write method) are applied only after commit, so a concurrent read can't put the
+ * pre-commit state back into the cache right after the eviction.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final List<String> cacheNames;
+    private final long maximumSize;
+    private final Duration localTtl;
+    private final SharedCacheTier shared;
+    private final Duration sharedTtl;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(List<String> cacheNames, long maximumSize, Duration localTtl,
+                                SharedCacheTier shared, Duration sharedTtl, MeterRegistry meterRegistry) {
+        this.cacheNames = List.copyOf(cacheNames);
+        this.maximumSize = maximumSize;
+        this.localTtl = localTtl;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends org.springframework.cache.Cache> loadCaches() {
+        List<TwoLevelCache> caches = cacheNames.stream().map(this::createCache).toList();
+        if (shared != null) {
+            shared.addInvalidationListener((cacheName, key) -> caches.stream()
+                    .filter(cache -> cache.getName().equals(cacheName))
+                    .forEach(cache -> cache.invalidateLocal(key)));
+        }
+        return caches;
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+        return new TwoLevelCache(name, local, shared, sharedTtl, meterRegistry);
+    }
+}
@@ -0,0 +1,151 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import com.metaWebApp.MetaWebApp.dto.JfrRecordingStatusDTO;
+import com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO;
+import com.metaWebApp.MetaWebApp.jfr.ContinuousRecording;
+import com.metaWebApp.MetaWebApp.service.UploadTraceService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Operational endpoints for diagnosing slow or failed uploads and production slowdowns.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final UploadTraceService uploadTraceService;
+    private final UserDataUploadService userDataUploadService;
+    private final ContinuousRecording continuousRecording;
+
+    @Autowired
+    public AdminController(UploadTraceService uploadTraceService, UserDataUploadService userDataUploadService,
+                           ContinuousRecording continuousRecording) {
+        this.uploadTraceService = uploadTraceService;
+        this.userDataUploadService = userDataUploadService;
+        this.continuousRecording = continuousRecording;
+    }
+
+    /**
+     * Retrieves the processing trace of an upload: per pipeline stage and processing attempt, the time spent,
+     * bytes read, records emitted, rows written and bytes allocated.
+     *
+     * @param uploadId The UUID of the UserDataUpload record.
+     * @return ResponseEntity with the UploadTraceStageDTOs (empty if not processed yet), or NOT_FOUND status.
+     */
+    @GetMapping("/uploads/{uploadId}/trace")
+    public ResponseEntity<List<UploadTraceStageDTO>> getUploadTrace(@PathVariable UUID uploadId) {
+        // SECURITY NOTE: In a real app, restrict /api/admin to operators.
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(uploadTraceService.getTrace(uploadId), HttpStatus.OK);
+    }
+
+    /**
+     * Downloads the processing trace of an upload as a JFR recording of UploadStageEvents.
+     * The recording also holds the events of analyses running concurrently, so it is streamed from a temporary file.
+     *
+     * @param uploadId The UUID of the UserDataUpload record.
+     * @return ResponseEntity with the .jfr file, or NOT_FOUND status.
+     */
+    @GetMapping("/uploads/{uploadId}/trace.jfr")
+    public ResponseEntity<StreamingResponseBody> exportUploadTrace(@PathVariable UUID uploadId) throws IOException {
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        Path file = Files.createTempFile("upload-trace-", ".jfr");
+        try {
+            uploadTraceService.exportTraceAsJfr(uploadId, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("upload-" + uploadId + ".jfr").build().toString())
+                .body(body);
+    }
+
+    /**
+     * Retrieves the state of the continuous JFR recording.
+     *
+     * @return ResponseEntity with the JfrRecordingStatusDTO.
+     */
+    @GetMapping("/jfr")
+    public ResponseEntity<JfrRecordingStatusDTO> getRecordingStatus() {
+        return new ResponseEntity<>(continuousRecording.getStatus(), HttpStatus.OK);
+    }
+
+    /**
+     * Starts the continuous JFR recording (a no-op if it is already running).
+     *
+     * @return ResponseEntity with the JfrRecordingStatusDTO.
+     */
+    @PutMapping("/jfr")
+    public ResponseEntity<JfrRecordingStatusDTO> startRecording() throws IOException, ParseException {
+        return new ResponseEntity<>(continuousRecording.start(), HttpStatus.OK);
+    }
+
+    /**
+     * Stops the continuous JFR recording and discards what it held.
+     *
+     * @return ResponseEntity with the JfrRecordingStatusDTO.
+     */
+    @DeleteMapping("/jfr")
+    public ResponseEntity<JfrRecordingStatusDTO> stopRecording() {
+        return new ResponseEntity<>(continuousRecording.stop(), HttpStatus.OK);
+    }
+
+    /**
+     * Downloads what the continuous JFR recording currently holds, for JDK Mission Control or the jfr tool.
+     *
+     * @return ResponseEntity with the .jfr file, or CONFLICT if the recording isn't running.
+     */
+    @GetMapping("/jfr/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() throws IOException {
+        Path file = Files.createTempFile("recording-", ".jfr");
+        try {
+            continuousRecording.dump(file);
+        } catch (IllegalStateException e) {
+            Files.deleteIfExists(file);
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("metawebapp-" + System.currentTimeMillis() + ".jfr").build().toString())
+                .body(body);
+    }
+}
@@ -1,18 +1,31 @@
 package com.metaWebApp.MetaWebApp.contoller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultPageDTO;
 import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
 import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
-import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultExportService;
 import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
 import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/analysis-results")
@@ -20,34 +33,20 @@ public class AnalysisResultController {
 
     private final AnalysisResultService analysisResultService;
     private final UserDataUploadService userDataUploadService;
+    private final AnalysisResultExportService analysisResultExportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AnalysisResultController(AnalysisResultService analysisResultService, UserDataUploadService userDataUploadService) {
+    public AnalysisResultController(AnalysisResultService analysisResultService, UserDataUploadService userDataUploadService,
+                                    AnalysisResultExportService analysisResultExportService, ObjectMapper objectMapper) {
         this.analysisResultService = analysisResultService;
         this.userDataUploadService = userDataUploadService;
+        this.analysisResultExportService = analysisResultExportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Helper method to convert AnalysisResult entity to AnalysisResultResponseDTO.
-     */
-    private AnalysisResultResponseDTO convertToDto(AnalysisResult result) {
-        if (result == null) {
-            return null;
-        }
-        return new AnalysisResultResponseDTO(
-                result.getId(),
-                result.getUpload() != null ? result.getUpload().getId() : null, // Get uploadId
-                result.getDataType(),
-                result.getTargetIdentifier(),
-                result.getValueNumeric(),
-                result.getValueText(),
-                result.getMetaJson(),
-                result.getCreatedAt()
-        );
-    }
-
-    /**
-     * Retrieves a specific analysis result by its ID.
+     * Retrieves a specific analysis result by its ID, including its metadata (metaJson).
      * Returns AnalysisResultResponseDTO.
      *
      * @param id The UUID of the analysis result.
@@ -55,53 +54,191 @@ public class AnalysisResultController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<AnalysisResultResponseDTO> getResultById(@PathVariable UUID id) {
-        return analysisResultService.getAnalysisResultById(id)
-                .map(this::convertToDto)
+        return analysisResultService.getResultResponse(id)
                 .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Retrieves only the metadata of an analysis result, for listing rows with hasMeta set.
+     *
+     * @param id The UUID of the analysis result.
+     * @return ResponseEntity with the metadata JSON, or NOT_FOUND if the result does not exist or has none.
+     */
+    @GetMapping("/{id}/meta")
+    public ResponseEntity<JsonNode> getResultMeta(@PathVariable UUID id) {
+        JsonNode metaJson = analysisResultService.getMetaJson(List.of(id)).get(id);
+        if (metaJson == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(metaJson, HttpStatus.OK);
+    }
+
+    /**
+     * Streams a JSON array of results (or NDJSON, one result per line, when the client accepts
+     * application/x-ndjson) to the response while they are read from the database.
+     * Memory per request stays bounded no matter how many results the upload has.
+     */
+    private ResponseEntity<StreamingResponseBody> streamResults(UUID uploadId, AnalysisDataType dataType, String accept) {
+        boolean ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+        StreamingResponseBody body = out -> writeResults(out, uploadId, dataType, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void writeResults(OutputStream out, UUID uploadId, AnalysisDataType dataType, boolean ndjson) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null); // NDJSON lines are separated explicitly below
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            try {
+                analysisResultService.forEachResultResponse(uploadId, dataType, result -> {
+                    try {
+                        objectMapper.writeValue(generator, result);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // e.g. the client went away; ends the query too
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
     /**
      * Retrieves all analysis results associated with a specific user data upload.
-     * Returns a list of AnalysisResultResponseDTOs.
+     * The results are streamed as a JSON array of AnalysisResultResponseDTOs, or as NDJSON for
+     * clients sending Accept: application/x-ndjson (bulk consumers).
      *
      * @param uploadId The UUID of the UserDataUpload record.
-     * @return ResponseEntity with a list of AnalysisResultResponseDTOs.
+     * @param accept The Accept header, used to choose between JSON and NDJSON.
+     * @return ResponseEntity with a streaming body of AnalysisResultResponseDTOs, or NOT_FOUND status.
      */
     @GetMapping("/upload/{uploadId}")
-    public ResponseEntity<List<AnalysisResultResponseDTO>> getResultsForUpload(@PathVariable UUID uploadId) {
+    public ResponseEntity<StreamingResponseBody> getResultsForUpload(@PathVariable UUID uploadId,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         // Optional: Validate if the uploadId exists or belongs to the authenticated user
         // (This check could also be pushed down into the service layer for consistency)
-        userDataUploadService.getUploadRecordById(uploadId)
-                .orElseThrow(() -> new IllegalArgumentException("Upload not found with ID: " + uploadId));
-
-        List<AnalysisResult> results = analysisResultService.getResultsForUpload(uploadId);
-        List<AnalysisResultResponseDTO> resultDTOs = results.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(resultDTOs, HttpStatus.OK);
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return streamResults(uploadId, null, accept);
     }
 
     /**
      * Retrieves analysis results for a specific user data upload and a given data type.
-     * Returns a list of AnalysisResultResponseDTOs.
+     * Streamed like getResultsForUpload, as JSON or NDJSON.
      *
      * @param uploadId The UUID of the UserDataUpload record.
      * @param dataType The type of analysis data.
-     * @return ResponseEntity with a list of AnalysisResultResponseDTOs.
+     * @param accept The Accept header, used to choose between JSON and NDJSON.
+     * @return ResponseEntity with a streaming body of AnalysisResultResponseDTOs, or NOT_FOUND status.
      */
     @GetMapping("/upload/{uploadId}/type/{dataType}")
-    public ResponseEntity<List<AnalysisResultResponseDTO>> getResultsForUploadAndType(
+    public ResponseEntity<StreamingResponseBody> getResultsForUploadAndType(
             @PathVariable UUID uploadId,
-            @PathVariable AnalysisDataType dataType) {
+            @PathVariable AnalysisDataType dataType,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         // Optional: Validate uploadId
-        userDataUploadService.getUploadRecordById(uploadId)
-                .orElseThrow(() -> new IllegalArgumentException("Upload not found with ID: " + uploadId));
-
-        List<AnalysisResult> results = analysisResultService.getResultsForUploadAndType(uploadId, dataType);
-        List<AnalysisResultResponseDTO> resultDTOs = results.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(resultDTOs, HttpStatus.OK);
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return streamResults(uploadId, dataType, accept);
+    }
+
+    /**
+     * Retrieves the number of results per data type of an upload. Also available for uploads whose detailed
+     * results were removed by the retention policy (UploadResponseDTO.resultsCompactedAt is set).
+     *
+     * @param uploadId The UUID of the UserDataUpload record.
+     * @return ResponseEntity with one AnalysisResultSummaryDTO per data type, or NOT_FOUND status.
+     */
+    @GetMapping("/upload/{uploadId}/summary")
+    public ResponseEntity<List<AnalysisResultSummaryDTO>> getResultSummary(@PathVariable UUID uploadId) {
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(analysisResultService.getResultSummary(uploadId), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves one page of analysis results for an upload and data type (e.g. the followers dashboard).
+     * Uses keyset pagination, so every page costs the same no matter how far the user has scrolled.
+     *
+     * @param uploadId The UUID of the UserDataUpload record.
+     * @param dataType The type of analysis data.
+     * @param search Optional search term on targetIdentifier.
+     * @param match PREFIX (default) or CONTAINS.
+     * @param cursor The nextCursor returned with the previous page; omit for the first page.
+     * @param pageSize The number of results per page (max 500).
+     * @param sortOrder ASC (default) or DESC, on targetIdentifier.
+     * @return ResponseEntity with an AnalysisResultPageDTO, NOT_FOUND status, or BAD_REQUEST for a malformed cursor
+     *         or unknown sortOrder.
+     */
+    @GetMapping("/upload/{uploadId}/type/{dataType}/page")
+    public ResponseEntity<AnalysisResultPageDTO> getResultPage(
+            @PathVariable UUID uploadId,
+            @PathVariable AnalysisDataType dataType,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "PREFIX") AnalysisResultService.SearchMatch match,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int pageSize,
+            @RequestParam(defaultValue = "ASC") String sortOrder) {
+        if (!userDataUploadService.uploadRecordExists(uploadId)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        try {
+            AnalysisResultPageDTO page = analysisResultService.getResultPage(uploadId, dataType, search, match,
+                    cursor, pageSize, Sort.Direction.fromString(sortOrder));
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            // Not produced by a previous page, or neither ASC nor DESC
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Bulk download of the results of one or more uploads in the compact columnar binary format
+     * (dictionary-encoded identifiers, delta-encoded timestamps, no per-row ids), gzipped by default.
+     * The file is encoded while the results are read, so the download starts immediately.
+     *
+     * @param uploadId The uploads to export (repeat the parameter for several), at most 100.
+     * @param dataType Optional filter on the type of analysis data.
+     * @param compression GZIP (default) or NONE.
+     * @return ResponseEntity with the streamed file, NOT_FOUND for an unknown upload, or BAD_REQUEST.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportResults(
+            @RequestParam List<UUID> uploadId,
+            @RequestParam(required = false) AnalysisDataType dataType,
+            @RequestParam(defaultValue = "GZIP") AnalysisResultExportService.Compression compression) {
+        // SECURITY NOTE: In a real app, ensure the uploads belong to the authenticated user.
+        try {
+            analysisResultExportService.validate(uploadId);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        boolean gzip = compression == AnalysisResultExportService.Compression.GZIP;
+        StreamingResponseBody body = out -> analysisResultExportService.export(uploadId, dataType, compression, out);
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(gzip ? "analysis-results.mwrx.gz" : "analysis-results.mwrx").build().toString())
+                .body(body);
     }
-}
\ No newline at end of file
+}
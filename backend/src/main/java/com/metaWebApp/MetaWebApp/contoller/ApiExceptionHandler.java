@@ -0,0 +1,46 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Turns exceptions that escape a controller into problem+json responses. Spring MVC's own exceptions keep their
+ * usual 4xx status (see ResponseEntityExceptionHandler), and the services' IllegalArgumentException (bad input)
+ * and NoSuchElementException (unknown id) become 400 and 404; these are the client's mistake and only logged at
+ * debug level. Anything else is an unexpected failure: it is logged with its stack trace, attached to the
+ * request's observation (so http.server.requests is tagged with the exception) and answered with a 500 that
+ * doesn't leak internals.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail handleBadRequest(IllegalArgumentException e, HttpServletRequest request) {
+        log.debug("Rejected {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public ProblemDetail handleNotFound(NoSuchElementException e, HttpServletRequest request) {
+        log.debug("Not found in {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ProblemDetail handleUnexpected(Exception e, HttpServletRequest request) {
+        log.error("Unhandled exception in {} {}", request.getMethod(), request.getRequestURI(), e);
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setError(e));
+        return ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected server error");
+    }
+}
@@ -35,16 +35,7 @@ public class SubscriptionController {
         if (subscription == null) {
             return null;
         }
-        return new SubscriptionResponseDTO(
-                subscription.getId(),
-                subscription.getUser() != null ? subscription.getUser().getId() : null,
-                subscription.getPlanType(),
-                subscription.getStatus(),
-                subscription.getStartDate(),
-                subscription.getEndDate(),
-                subscription.getCreatedAt(),
-                subscription.getUpdatedAt()
-        );
+        return SubscriptionResponseDTO.from(subscription);
     }
 
     /**
@@ -57,8 +48,7 @@ public class SubscriptionController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<SubscriptionResponseDTO> getUserSubscription(@PathVariable UUID userId) {
         // SECURITY NOTE: Ensure this userId matches the authenticated user, or is an admin request.
-        return subscriptionService.getUserSubscription(userId)
-                .map(this::convertToDto)
+        return subscriptionService.getUserSubscriptionResponse(userId) // Cached, see SubscriptionService
                 .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -89,8 +79,6 @@ public class SubscriptionController {
             return new ResponseEntity<>(convertToDto(subscription), HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
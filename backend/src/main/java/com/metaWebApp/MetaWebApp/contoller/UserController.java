@@ -39,14 +39,7 @@ public class UserController {
 
     @GetMapping("/{id}") // Handles GET requests to /api/users/{id}
     public ResponseEntity<UserResponseDTO> getUserById(@PathVariable UUID id) {
-        return userService.getUserById(id)
-                .map(user -> new UserResponseDTO( // Convert entity to DTO before returning
-                        user.getId(),
-                        user.getEmail(),
-                        user.getCreatedAt(),
-                        user.getUpdatedAt(),
-                        user.getIsPremium()
-                ))
+        return userService.getUserResponse(id) // Cached, see UserService
                 .map(userDTO -> new ResponseEntity<>(userDTO, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -2,20 +2,35 @@ package com.metaWebApp.MetaWebApp.contoller;
 
 import com.metaWebApp.MetaWebApp.dto.UploadRequestDTO;
 import com.metaWebApp.MetaWebApp.dto.UploadResponseDTO;
+import com.metaWebApp.MetaWebApp.dto.UploadSessionRequestDTO;
+import com.metaWebApp.MetaWebApp.dto.UploadSessionResponseDTO;
 import com.metaWebApp.MetaWebApp.dto.UploadStatusUpdateDTO;
+import com.metaWebApp.MetaWebApp.dto.UploadTimelineEntryDTO;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadSession;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
 import com.metaWebApp.MetaWebApp.model.User;
 import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.UploadIngestService;
+import com.metaWebApp.MetaWebApp.service.UploadSessionService;
+import com.metaWebApp.MetaWebApp.service.UploadTimelineService;
 import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
 import com.metaWebApp.MetaWebApp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid; // For DTO validation
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.UUID;
-import java.util.stream.Collectors; // For stream operations
 
 @RestController
 @RequestMapping("/api/uploads")
@@ -23,11 +38,19 @@ public class UserDataUploadController {
 
     private final UserDataUploadService userDataUploadService;
     private final UserService userService;
+    private final UploadIngestService uploadIngestService;
+    private final UploadSessionService uploadSessionService;
+    private final UploadTimelineService uploadTimelineService;
 
     @Autowired
-    public UserDataUploadController(UserDataUploadService userDataUploadService, UserService userService) {
+    public UserDataUploadController(UserDataUploadService userDataUploadService, UserService userService,
+                                    UploadIngestService uploadIngestService, UploadSessionService uploadSessionService,
+                                    UploadTimelineService uploadTimelineService) {
         this.userDataUploadService = userDataUploadService;
         this.userService = userService;
+        this.uploadIngestService = uploadIngestService;
+        this.uploadSessionService = uploadSessionService;
+        this.uploadTimelineService = uploadTimelineService;
     }
 
     /**
@@ -38,25 +61,20 @@ public class UserDataUploadController {
         if (upload == null) {
             return null;
         }
-        return new UploadResponseDTO(
-                upload.getId(),
-                upload.getUser() != null ? upload.getUser().getId() : null, // Get userId from associated User
-                upload.getFileName(),
-                upload.getFilePath(),
-                upload.getDeclaredFileType(),
-                upload.getStatus(),
-                upload.getErrorMessage(),
-                upload.getTotalFollowers(),
-                upload.getTotalFollowing(),
-                upload.getUnfollowersCount(),
-                upload.getTotalCloseFriends(),
-                upload.getUploadTime()
-        );
+        return UploadResponseDTO.from(upload);
+    }
+
+    /**
+     * CREATED for a new upload; OK when an identical, already analysed upload of the user was returned instead.
+     */
+    private static HttpStatus createdStatus(UserDataUpload upload) {
+        return upload.getStatus() == UploadStatus.COMPLETED ? HttpStatus.OK : HttpStatus.CREATED;
     }
 
     /**
      * Endpoint to create a new user data upload record.
-     * Accepts UploadRequestDTO for input.
+     * Accepts UploadRequestDTO for input. The filePath must be a blob key of content the user uploaded before
+     * or a path inside the ingest root (app.uploads.ingest-root); anything else is a BAD_REQUEST.
      *
      * @param request The DTO containing upload details.
      * @return ResponseEntity with the created UploadResponseDTO or an error.
@@ -68,17 +86,153 @@ public class UserDataUploadController {
             User user = userService.getUserById(request.getUserId())
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-            UserDataUpload newUpload = userDataUploadService.createUploadRecord(
+            UserDataUpload newUpload = userDataUploadService.registerUpload(
                     user,
                     request.getFileName(),
                     request.getFilePath(),
                     request.getDeclaredFileType()
             );
-            return new ResponseEntity<>(convertToDto(newUpload), HttpStatus.CREATED);
+            return new ResponseEntity<>(convertToDto(newUpload), createdStatus(newUpload));
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Or specific error DTO
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint to upload an export as the raw request body (optionally with chunked transfer encoding).
+     * The body is streamed straight into content-addressed storage, so this is the cheapest way to send
+     * multi-GB exports: nothing is buffered in memory or spooled to a temporary file first.
+     *
+     * @param userId The UUID of the uploading user.
+     * @param fileName The original name of the file.
+     * @param declaredFileType The type of file as declared by the user.
+     * @param request The HTTP request whose body is the file content.
+     * @return ResponseEntity with the created UploadResponseDTO or an error.
+     */
+    @PostMapping(value = "/stream", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "application/zip", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<UploadResponseDTO> streamUpload(@RequestParam UUID userId,
+                                                          @RequestParam String fileName,
+                                                          @RequestParam DeclaredFileType declaredFileType,
+                                                          HttpServletRequest request) throws IOException {
+        try (ReadableByteChannel body = Channels.newChannel(request.getInputStream())) {
+            UserDataUpload newUpload = uploadIngestService.ingest(userId, fileName, declaredFileType, body);
+            return new ResponseEntity<>(convertToDto(newUpload), createdStatus(newUpload));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Endpoint to upload an export as a multipart/form-data "file" part, e.g. from a browser form.
+     * The servlet container spools the part to disk (never to the heap); it is then streamed into storage.
+     *
+     * @param userId The UUID of the uploading user.
+     * @param declaredFileType The type of file as declared by the user.
+     * @param file The uploaded file.
+     * @return ResponseEntity with the created UploadResponseDTO or an error.
+     */
+    @PostMapping(value = "/multipart", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadResponseDTO> multipartUpload(@RequestParam UUID userId,
+                                                             @RequestParam DeclaredFileType declaredFileType,
+                                                             @RequestPart("file") MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload";
+        try (ReadableByteChannel content = Channels.newChannel(file.getInputStream())) {
+            UserDataUpload newUpload = uploadIngestService.ingest(userId, fileName, declaredFileType, content);
+            return new ResponseEntity<>(convertToDto(newUpload), createdStatus(newUpload));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private UploadSessionResponseDTO convertToDto(UploadSession session) {
+        return new UploadSessionResponseDTO(
+                session.getId(),
+                session.getUpload().getId(),
+                session.getStatus(),
+                session.getTotalSize(),
+                session.getChunkSize(),
+                session.getChunkCount(),
+                uploadSessionService.getMissingChunkIndexes(session),
+                session.getExpiresAt()
+        );
+    }
+
+    /**
+     * Endpoint to open a resumable upload session for a large export.
+     * The client then PUTs the chunks (in any order, in parallel if it likes) and finally completes the session.
+     *
+     * @param request The DTO with the file's metadata, total size and optional chunk size.
+     * @return ResponseEntity with the new UploadSessionResponseDTO or an error.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<UploadSessionResponseDTO> openUploadSession(@Valid @RequestBody UploadSessionRequestDTO request) throws IOException {
+        try {
+            UploadSession session = uploadSessionService.openSession(request.getUserId(), request.getFileName(),
+                    request.getDeclaredFileType(), request.getTotalSize(), request.getChunkSize());
+            return new ResponseEntity<>(convertToDto(session), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Retrieves the state of an upload session, including the chunks still missing.
+     * Clients call this after a dropped connection to find out what to resend.
+     *
+     * @param sessionId The UUID of the session.
+     * @return ResponseEntity with the UploadSessionResponseDTO or NOT_FOUND status.
+     */
+    @GetMapping("/sessions/{sessionId}")
+    public ResponseEntity<UploadSessionResponseDTO> getUploadSession(@PathVariable UUID sessionId) {
+        return uploadSessionService.getSession(sessionId)
+                .map(this::convertToDto)
+                .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Endpoint to send one chunk of an upload session as the raw request body.
+     * Resending a chunk that was already received with the same checksum is a no-op.
+     *
+     * @param sessionId The UUID of the session.
+     * @param offset The byte offset of the chunk (a multiple of the session's chunk size).
+     * @param sha256 The hex-encoded SHA-256 of the chunk.
+     * @param request The HTTP request whose body is the chunk content.
+     * @return NO_CONTENT once the chunk is stored, BAD_REQUEST for a wrong offset, length or checksum
+     *         (the chunk must be resent), CONFLICT if the session no longer accepts chunks.
+     */
+    @PutMapping(value = "/sessions/{sessionId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> uploadChunk(@PathVariable UUID sessionId,
+                                            @RequestParam long offset,
+                                            @RequestParam String sha256,
+                                            HttpServletRequest request) throws IOException {
+        try (ReadableByteChannel body = Channels.newChannel(request.getInputStream())) {
+            uploadSessionService.writeChunk(sessionId, offset, sha256, body);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Endpoint to complete an upload session once all chunks are sent. The assembled file is stored and
+     * the upload moves from UPLOADING to PENDING, which queues it for analysis.
+     *
+     * @param sessionId The UUID of the session.
+     * @return ResponseEntity with the queued UploadResponseDTO, or CONFLICT if chunks are still missing.
+     */
+    @PostMapping("/sessions/{sessionId}/complete")
+    public ResponseEntity<UploadResponseDTO> completeUploadSession(@PathVariable UUID sessionId) throws IOException {
+        try {
+            return new ResponseEntity<>(convertToDto(uploadSessionService.completeSession(sessionId)), HttpStatus.OK);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
     }
 
@@ -91,8 +245,7 @@ public class UserDataUploadController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<UploadResponseDTO> getUploadById(@PathVariable UUID id) {
-        return userDataUploadService.getUploadRecordById(id)
-                .map(this::convertToDto) // Use helper to convert
+        return userDataUploadService.getUploadResponse(id) // Cached, see UserDataUploadService
                 .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -107,11 +260,22 @@ public class UserDataUploadController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<UploadResponseDTO>> getUploadsByUserId(@PathVariable UUID userId) {
         // SECURITY NOTE: In a real app, ensure this userId matches the authenticated user, or is an admin request.
-        List<UserDataUpload> uploads = userDataUploadService.getUploadRecordsByUserId(userId);
-        List<UploadResponseDTO> uploadDTOs = uploads.stream()
-                .map(this::convertToDto) // Convert each entity to DTO
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(uploadDTOs, HttpStatus.OK);
+        // Projected straight into DTOs by the query; neither uploads nor the User are loaded as entities.
+        return new ResponseEntity<>(userDataUploadService.getUploadResponsesByUserId(userId), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves a user's follower history for the dashboard chart: one entry per completed upload,
+     * oldest first, with counts, deltas against the previous upload and the first changed accounts.
+     * Served from the upload_timeline projection with a single indexed query.
+     *
+     * @param userId The UUID of the user.
+     * @return ResponseEntity with a list of UploadTimelineEntryDTOs.
+     */
+    @GetMapping("/user/{userId}/timeline")
+    public ResponseEntity<List<UploadTimelineEntryDTO>> getUploadTimeline(@PathVariable UUID userId) {
+        // SECURITY NOTE: In a real app, ensure this userId matches the authenticated user, or is an admin request.
+        return new ResponseEntity<>(uploadTimelineService.getTimeline(userId), HttpStatus.OK);
     }
 
     /**
@@ -126,23 +290,17 @@ public class UserDataUploadController {
     public ResponseEntity<UploadResponseDTO> updateUploadStatus(@PathVariable UUID id, @Valid @RequestBody UploadStatusUpdateDTO request) {
         try {
             UserDataUpload updatedUpload = userDataUploadService.updateUploadStatus(
-                    id, request.getNewStatus(), request.getErrorMessage()
+                    id, request.getNewStatus(), request.getErrorCode(), request.getErrorMessage()
             );
             return new ResponseEntity<>(convertToDto(updatedUpload), HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUpload(@PathVariable UUID id) {
-        try {
-            userDataUploadService.deleteUploadRecord(id);
-            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        userDataUploadService.deleteUploadRecord(id);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 }
\ No newline at end of file
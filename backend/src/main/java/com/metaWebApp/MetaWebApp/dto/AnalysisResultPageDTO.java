@@ -0,0 +1,32 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of AnalysisResults returned by the keyset-paginated endpoint.
+ * nextCursor is opaque to clients: pass it back unchanged to fetch the following page.
+ */
+public class AnalysisResultPageDTO {
+
+    private List<AnalysisResultResponseDTO> items;
+    private String nextCursor; // null on the last page
+    private boolean hasMore;
+
+    // Default constructor for Jackson
+    public AnalysisResultPageDTO() {
+    }
+
+    public AnalysisResultPageDTO(List<AnalysisResultResponseDTO> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<AnalysisResultResponseDTO> getItems() { return items; }
+    public void setItems(List<AnalysisResultResponseDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -1,5 +1,6 @@
 package com.metaWebApp.MetaWebApp.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
 import java.time.LocalDateTime;
@@ -7,8 +8,9 @@ import java.util.UUID;
 
 /**
  * DTO for returning AnalysisResult details.
- * The metaJson field is returned as a generic JsonNode, allowing frontend
- * to interpret it based on `dataType`.
+ * Listings carry only the typed columns; hasMeta tells whether the result has further metadata, which is
+ * returned as metaJson (a generic JsonNode, interpreted by the frontend based on `dataType`) only when a
+ * single result is requested.
  */
 public class AnalysisResultResponseDTO {
 
@@ -18,6 +20,10 @@ public class AnalysisResultResponseDTO {
     private String targetIdentifier;
     private Long valueNumeric;
     private String valueText;
+    private String profileHref;
+    private Long followTimestamp;
+    private boolean hasMeta;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private JsonNode metaJson; // Still JsonNode, as its structure varies by dataType
     private LocalDateTime createdAt;
 
@@ -25,16 +31,37 @@ public class AnalysisResultResponseDTO {
     public AnalysisResultResponseDTO() {
     }
 
-    // Constructor to easily convert from AnalysisResult entity
+    // Listing projection (see AnalysisResultRepository.RESPONSE_SELECT): only the attachment's id is read
     public AnalysisResultResponseDTO(UUID id, UUID uploadId, AnalysisDataType dataType,
                                      String targetIdentifier, Long valueNumeric, String valueText,
-                                     JsonNode metaJson, LocalDateTime createdAt) {
+                                     String profileHref, Long followTimestamp, UUID attachmentId,
+                                     LocalDateTime createdAt) {
         this.id = id;
         this.uploadId = uploadId;
         this.dataType = dataType;
         this.targetIdentifier = targetIdentifier;
         this.valueNumeric = valueNumeric;
         this.valueText = valueText;
+        this.profileHref = profileHref;
+        this.followTimestamp = followTimestamp;
+        this.hasMeta = attachmentId != null;
+        this.createdAt = createdAt;
+    }
+
+    // Full result including its metadata, e.g. converted from an AnalysisResult entity
+    public AnalysisResultResponseDTO(UUID id, UUID uploadId, AnalysisDataType dataType,
+                                     String targetIdentifier, Long valueNumeric, String valueText,
+                                     String profileHref, Long followTimestamp, JsonNode metaJson,
+                                     LocalDateTime createdAt) {
+        this.id = id;
+        this.uploadId = uploadId;
+        this.dataType = dataType;
+        this.targetIdentifier = targetIdentifier;
+        this.valueNumeric = valueNumeric;
+        this.valueText = valueText;
+        this.profileHref = profileHref;
+        this.followTimestamp = followTimestamp;
+        this.hasMeta = metaJson != null;
         this.metaJson = metaJson;
         this.createdAt = createdAt;
     }
@@ -52,6 +79,12 @@ public class AnalysisResultResponseDTO {
     public void setValueNumeric(Long valueNumeric) { this.valueNumeric = valueNumeric; }
     public String getValueText() { return valueText; }
     public void setValueText(String valueText) { this.valueText = valueText; }
+    public String getProfileHref() { return profileHref; }
+    public void setProfileHref(String profileHref) { this.profileHref = profileHref; }
+    public Long getFollowTimestamp() { return followTimestamp; }
+    public void setFollowTimestamp(Long followTimestamp) { this.followTimestamp = followTimestamp; }
+    public boolean isHasMeta() { return hasMeta; }
+    public void setHasMeta(boolean hasMeta) { this.hasMeta = hasMeta; }
     public JsonNode getMetaJson() { return metaJson; }
     public void setMetaJson(JsonNode metaJson) { this.metaJson = metaJson; }
     public LocalDateTime getCreatedAt() { return createdAt; }
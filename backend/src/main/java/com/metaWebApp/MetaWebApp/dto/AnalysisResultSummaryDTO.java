@@ -0,0 +1,10 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+
+/**
+ * Per-type totals of an upload's analysis results, computed from the results themselves or, once the upload
+ * has been compacted, read from its AnalysisResultSummary rows.
+ */
+public record AnalysisResultSummaryDTO(AnalysisDataType dataType, long resultCount, Long valueNumericSum) {
+}
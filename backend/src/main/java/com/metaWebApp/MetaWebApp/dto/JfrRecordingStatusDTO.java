@@ -0,0 +1,11 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the continuous JFR recording (see jfr.ContinuousRecording). startedAt is null and sizeBytes 0 while
+ * it isn't running.
+ */
+public record JfrRecordingStatusDTO(boolean running, LocalDateTime startedAt, String settings, long maxAgeSeconds,
+                                    long maxSizeBytes, long sizeBytes) {
+}
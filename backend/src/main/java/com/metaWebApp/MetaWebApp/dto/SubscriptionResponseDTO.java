@@ -2,6 +2,7 @@ package com.metaWebApp.MetaWebApp.dto;
 
 
 import com.metaWebApp.MetaWebApp.model.PlanType;
+import com.metaWebApp.MetaWebApp.model.Subscription;
 import com.metaWebApp.MetaWebApp.model.SubscriptionStatus;
 
 import java.time.LocalDateTime;
@@ -42,6 +43,19 @@ public class SubscriptionResponseDTO {
         this.updatedAt = updatedAt;
     }
 
+    public static SubscriptionResponseDTO from(Subscription subscription) {
+        return new SubscriptionResponseDTO(
+                subscription.getId(),
+                subscription.getUser() != null ? subscription.getUser().getId() : null,
+                subscription.getPlanType(),
+                subscription.getStatus(),
+                subscription.getStartDate(),
+                subscription.getEndDate(),
+                subscription.getCreatedAt(),
+                subscription.getUpdatedAt()
+        );
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -3,7 +3,9 @@ package com.metaWebApp.MetaWebApp.dto;
 
 
 import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
 import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -20,11 +22,15 @@ public class UploadResponseDTO {
     private DeclaredFileType declaredFileType;
     private UploadStatus status;
     private String errorMessage;
+    private UploadErrorCode errorCode;
     private Integer totalFollowers;
     private Integer totalFollowing;
     private Integer unfollowersCount;
     private Integer totalCloseFriends;
+    private Integer newFollowersCount;
+    private Integer newUnfollowersCount;
     private LocalDateTime uploadTime;
+    private LocalDateTime resultsCompactedAt; // Set once only summaries of the results are kept
 
     // Default constructor for Jackson
     public UploadResponseDTO() {
@@ -33,9 +39,9 @@ public class UploadResponseDTO {
     // Constructor to easily convert from UserDataUpload entity
     public UploadResponseDTO(UUID id, UUID userId, String fileName, String filePath,
                              DeclaredFileType declaredFileType, UploadStatus status, String errorMessage,
-                             Integer totalFollowers, Integer totalFollowing, Integer unfollowersCount,
-                             Integer totalCloseFriends,
-                             LocalDateTime uploadTime) {
+                             UploadErrorCode errorCode, Integer totalFollowers, Integer totalFollowing, Integer unfollowersCount,
+                             Integer totalCloseFriends, Integer newFollowersCount, Integer newUnfollowersCount,
+                             LocalDateTime uploadTime, LocalDateTime resultsCompactedAt) {
         this.id = id;
         this.userId = userId;
         this.fileName = fileName;
@@ -43,14 +49,39 @@ public class UploadResponseDTO {
         this.declaredFileType = declaredFileType;
         this.status = status;
         this.errorMessage = errorMessage;
+        this.errorCode = errorCode;
         this.totalFollowers = totalFollowers;
         this.totalFollowing = totalFollowing;
         this.unfollowersCount = unfollowersCount;
         this.totalCloseFriends = totalCloseFriends;
+        this.newFollowersCount = newFollowersCount;
+        this.newUnfollowersCount = newUnfollowersCount;
         this.uploadTime = uploadTime;
+        this.resultsCompactedAt = resultsCompactedAt;
     }
 
 
+    public static UploadResponseDTO from(UserDataUpload upload) {
+        return new UploadResponseDTO(
+                upload.getId(),
+                upload.getUser() != null ? upload.getUser().getId() : null, // Get userId from associated User
+                upload.getFileName(),
+                upload.getFilePath(),
+                upload.getDeclaredFileType(),
+                upload.getStatus(),
+                upload.getErrorMessage(),
+                upload.getErrorCode(),
+                upload.getTotalFollowers(),
+                upload.getTotalFollowing(),
+                upload.getUnfollowersCount(),
+                upload.getTotalCloseFriends(),
+                upload.getNewFollowersCount(),
+                upload.getNewUnfollowersCount(),
+                upload.getUploadTime(),
+                upload.getResultsCompactedAt()
+        );
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -66,6 +97,8 @@ public class UploadResponseDTO {
     public void setStatus(UploadStatus status) { this.status = status; }
     public String getErrorMessage() { return errorMessage; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public UploadErrorCode getErrorCode() { return errorCode; }
+    public void setErrorCode(UploadErrorCode errorCode) { this.errorCode = errorCode; }
     public Integer getTotalFollowers() { return totalFollowers; }
     public void setTotalFollowers(Integer totalFollowers) { this.totalFollowers = totalFollowers; }
     public Integer getTotalFollowing() { return totalFollowing; }
@@ -74,6 +107,12 @@ public class UploadResponseDTO {
     public void setUnfollowersCount(Integer unfollowersCount) { this.unfollowersCount = unfollowersCount; }
     public Integer getTotalCloseFriends() { return totalCloseFriends; }
     public void setTotalCloseFriends(Integer totalCloseFriends) { this.totalCloseFriends = totalCloseFriends; }
+    public Integer getNewFollowersCount() { return newFollowersCount; }
+    public void setNewFollowersCount(Integer newFollowersCount) { this.newFollowersCount = newFollowersCount; }
+    public Integer getNewUnfollowersCount() { return newUnfollowersCount; }
+    public void setNewUnfollowersCount(Integer newUnfollowersCount) { this.newUnfollowersCount = newUnfollowersCount; }
     public LocalDateTime getUploadTime() { return uploadTime; }
     public void setUploadTime(LocalDateTime uploadTime) { this.uploadTime = uploadTime; }
+    public LocalDateTime getResultsCompactedAt() { return resultsCompactedAt; }
+    public void setResultsCompactedAt(LocalDateTime resultsCompactedAt) { this.resultsCompactedAt = resultsCompactedAt; }
 }
@@ -0,0 +1,68 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.util.UUID;
+
+/**
+ * DTO for opening a resumable upload session.
+ */
+public class UploadSessionRequestDTO {
+
+    @NotNull(message = "User ID cannot be empty")
+    private UUID userId;
+
+    @NotBlank(message = "File name cannot be empty")
+    private String fileName;
+
+    @NotNull(message = "Declared file type cannot be empty")
+    private DeclaredFileType declaredFileType;
+
+    @Positive(message = "Total size must be positive")
+    private long totalSize;
+
+    private Integer chunkSize; // Optional, the server default is used when null
+
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public DeclaredFileType getDeclaredFileType() {
+        return declaredFileType;
+    }
+
+    public void setDeclaredFileType(DeclaredFileType declaredFileType) {
+        this.declaredFileType = declaredFileType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public Integer getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Integer chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
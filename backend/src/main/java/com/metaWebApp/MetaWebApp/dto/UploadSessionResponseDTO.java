@@ -0,0 +1,56 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import com.metaWebApp.MetaWebApp.model.UploadSessionStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for returning the state of a resumable upload session.
+ * Chunk i covers bytes [i * chunkSize, min((i + 1) * chunkSize, totalSize)) and is sent with offset i * chunkSize.
+ */
+public class UploadSessionResponseDTO {
+
+    private UUID sessionId;
+    private UUID uploadId;
+    private UploadSessionStatus status;
+    private long totalSize;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Integer> missingChunks; // Indexes still to be sent
+    private LocalDateTime expiresAt;
+
+    // Default constructor for Jackson
+    public UploadSessionResponseDTO() {
+    }
+
+    public UploadSessionResponseDTO(UUID sessionId, UUID uploadId, UploadSessionStatus status, long totalSize,
+                                    int chunkSize, int chunkCount, List<Integer> missingChunks, LocalDateTime expiresAt) {
+        this.sessionId = sessionId;
+        this.uploadId = uploadId;
+        this.status = status;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.chunkCount = chunkCount;
+        this.missingChunks = missingChunks;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public UUID getSessionId() { return sessionId; }
+    public void setSessionId(UUID sessionId) { this.sessionId = sessionId; }
+    public UUID getUploadId() { return uploadId; }
+    public void setUploadId(UUID uploadId) { this.uploadId = uploadId; }
+    public UploadSessionStatus getStatus() { return status; }
+    public void setStatus(UploadSessionStatus status) { this.status = status; }
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+    public int getChunkCount() { return chunkCount; }
+    public void setChunkCount(int chunkCount) { this.chunkCount = chunkCount; }
+    public List<Integer> getMissingChunks() { return missingChunks; }
+    public void setMissingChunks(List<Integer> missingChunks) { this.missingChunks = missingChunks; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
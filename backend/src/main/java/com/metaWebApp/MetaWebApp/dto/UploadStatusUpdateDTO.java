@@ -1,6 +1,7 @@
 package com.metaWebApp.MetaWebApp.dto;
 
 
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
 import com.metaWebApp.MetaWebApp.model.UploadStatus;
 import jakarta.validation.constraints.NotNull;
 
@@ -12,6 +13,8 @@ public class UploadStatusUpdateDTO {
     @NotNull(message = "New status cannot be null")
     private UploadStatus newStatus;
 
+    private UploadErrorCode errorCode; // Optional: for FAILED or INVALID_FILE statuses
+
     private String errorMessage; // Optional: for FAILED or INVALID_FILE statuses
 
     // Getters and Setters
@@ -23,6 +26,14 @@ public class UploadStatusUpdateDTO {
         this.newStatus = newStatus;
     }
 
+    public UploadErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(UploadErrorCode errorCode) {
+        this.errorCode = errorCode;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
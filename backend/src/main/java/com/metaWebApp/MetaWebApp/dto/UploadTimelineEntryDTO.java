@@ -0,0 +1,144 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for one point of a user's follower history chart (see UploadTimelineEntry).
+ */
+public class UploadTimelineEntryDTO {
+
+    private UUID uploadId;
+    private LocalDateTime uploadTime;
+    private Integer totalFollowers;
+    private Integer totalFollowing;
+    private Integer unfollowersCount;
+    private Integer totalCloseFriends;
+    private Integer newFollowersCount;
+    private Integer newUnfollowersCount;
+    private Integer followersDelta;
+    private Integer followingDelta;
+    private List<String> topNewFollowers;
+    private List<String> topNewUnfollowers;
+
+    // Default constructor for Jackson
+    public UploadTimelineEntryDTO() {
+    }
+
+    // Used by the JPQL constructor expression in UploadTimelineRepository
+    public UploadTimelineEntryDTO(UUID uploadId, LocalDateTime uploadTime, Integer totalFollowers,
+                                  Integer totalFollowing, Integer unfollowersCount, Integer totalCloseFriends,
+                                  Integer newFollowersCount, Integer newUnfollowersCount, Integer followersDelta,
+                                  Integer followingDelta, List<String> topNewFollowers, List<String> topNewUnfollowers) {
+        this.uploadId = uploadId;
+        this.uploadTime = uploadTime;
+        this.totalFollowers = totalFollowers;
+        this.totalFollowing = totalFollowing;
+        this.unfollowersCount = unfollowersCount;
+        this.totalCloseFriends = totalCloseFriends;
+        this.newFollowersCount = newFollowersCount;
+        this.newUnfollowersCount = newUnfollowersCount;
+        this.followersDelta = followersDelta;
+        this.followingDelta = followingDelta;
+        this.topNewFollowers = topNewFollowers;
+        this.topNewUnfollowers = topNewUnfollowers;
+    }
+
+    // Getters and Setters
+    public UUID getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(UUID uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public LocalDateTime getUploadTime() {
+        return uploadTime;
+    }
+
+    public void setUploadTime(LocalDateTime uploadTime) {
+        this.uploadTime = uploadTime;
+    }
+
+    public Integer getTotalFollowers() {
+        return totalFollowers;
+    }
+
+    public void setTotalFollowers(Integer totalFollowers) {
+        this.totalFollowers = totalFollowers;
+    }
+
+    public Integer getTotalFollowing() {
+        return totalFollowing;
+    }
+
+    public void setTotalFollowing(Integer totalFollowing) {
+        this.totalFollowing = totalFollowing;
+    }
+
+    public Integer getUnfollowersCount() {
+        return unfollowersCount;
+    }
+
+    public void setUnfollowersCount(Integer unfollowersCount) {
+        this.unfollowersCount = unfollowersCount;
+    }
+
+    public Integer getTotalCloseFriends() {
+        return totalCloseFriends;
+    }
+
+    public void setTotalCloseFriends(Integer totalCloseFriends) {
+        this.totalCloseFriends = totalCloseFriends;
+    }
+
+    public Integer getNewFollowersCount() {
+        return newFollowersCount;
+    }
+
+    public void setNewFollowersCount(Integer newFollowersCount) {
+        this.newFollowersCount = newFollowersCount;
+    }
+
+    public Integer getNewUnfollowersCount() {
+        return newUnfollowersCount;
+    }
+
+    public void setNewUnfollowersCount(Integer newUnfollowersCount) {
+        this.newUnfollowersCount = newUnfollowersCount;
+    }
+
+    public Integer getFollowersDelta() {
+        return followersDelta;
+    }
+
+    public void setFollowersDelta(Integer followersDelta) {
+        this.followersDelta = followersDelta;
+    }
+
+    public Integer getFollowingDelta() {
+        return followingDelta;
+    }
+
+    public void setFollowingDelta(Integer followingDelta) {
+        this.followingDelta = followingDelta;
+    }
+
+    public List<String> getTopNewFollowers() {
+        return topNewFollowers;
+    }
+
+    public void setTopNewFollowers(List<String> topNewFollowers) {
+        this.topNewFollowers = topNewFollowers;
+    }
+
+    public List<String> getTopNewUnfollowers() {
+        return topNewUnfollowers;
+    }
+
+    public void setTopNewUnfollowers(List<String> topNewUnfollowers) {
+        this.topNewUnfollowers = topNewUnfollowers;
+    }
+}
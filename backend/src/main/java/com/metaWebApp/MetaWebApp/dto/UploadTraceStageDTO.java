@@ -0,0 +1,13 @@
+package com.metaWebApp.MetaWebApp.dto;
+
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stage of an upload's processing trace, as returned by the admin API.
+ */
+public record UploadTraceStageDTO(int attempt, ProcessingStage stage, LocalDateTime startedAt, LocalDateTime endedAt,
+                                  long durationMicros, long bytesRead, long records, long rowsWritten,
+                                  long allocatedBytes) {
+}
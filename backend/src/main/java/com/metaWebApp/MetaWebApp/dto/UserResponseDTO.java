@@ -1,5 +1,7 @@
 package com.metaWebApp.MetaWebApp.dto;
 
+import com.metaWebApp.MetaWebApp.model.User;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -27,6 +29,10 @@ public class UserResponseDTO {
         this.isPremium = isPremium;
     }
 
+    public static UserResponseDTO from(User user) {
+        return new UserResponseDTO(user.getId(), user.getEmail(), user.getCreatedAt(), user.getUpdatedAt(), user.getIsPremium());
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -0,0 +1,180 @@
+package com.metaWebApp.MetaWebApp.export;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the columnar export format written by ColumnarResultWriter (uncompressed; wrap gzip exports in a
+ * GZIPInputStream first). Used by tests and as the reference decoder for client implementations.
+ * Also reads version 1 files, whose rows have no profileHref and followTimestamp.
+ */
+public class ColumnarResultReader {
+
+    /**
+     * One decoded result. dataType is the type's name as recorded in the file header.
+     */
+    public record Row(UUID uploadId, String dataType, String targetIdentifier, Long valueNumeric,
+                      String valueText, String profileHref, Long followTimestamp, String metaJson,
+                      LocalDateTime createdAt) {
+    }
+
+    private final DataInputStream in;
+
+    public ColumnarResultReader(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * Decodes the whole file, handing each row to the consumer in file order.
+     *
+     * @return The number of rows read.
+     * @throws IOException if the input is truncated or not in this format.
+     */
+    public long read(Consumer<Row> consumer) throws IOException {
+        byte[] magic = new byte[ColumnarResultWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarResultWriter.MAGIC)) {
+            throw new IOException("Not a columnar result export");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > ColumnarResultWriter.VERSION) {
+            throw new IOException("Unsupported export version " + version);
+        }
+        String[] types = new String[(int) readVarint()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = readString();
+        }
+
+        List<String> dictionary = new ArrayList<>();
+        dictionary.add(null); // id 0
+        UUID uploadId = null;
+        long total = 0;
+        while (true) {
+            int tag = in.readUnsignedByte();
+            if (tag == ColumnarResultWriter.END) {
+                return total;
+            } else if (tag == ColumnarResultWriter.UPLOAD) {
+                uploadId = new UUID(in.readLong(), in.readLong());
+            } else if (tag == ColumnarResultWriter.BLOCK) {
+                total += readBlock(version, uploadId, types, dictionary, consumer);
+            } else {
+                throw new IOException("Corrupt export: unknown tag " + tag);
+            }
+        }
+    }
+
+    private int readBlock(int version, UUID uploadId, String[] types, List<String> dictionary, Consumer<Row> consumer) throws IOException {
+        int rows = (int) readVarint();
+        long newWords = readVarint();
+        for (long i = 0; i < newWords; i++) {
+            dictionary.add(readString());
+        }
+
+        String[] dataTypes = new String[rows];
+        for (int filled = 0; filled < rows; ) {
+            String type = types[(int) readVarint()];
+            int run = (int) readVarint();
+            Arrays.fill(dataTypes, filled, filled + run, type);
+            filled += run;
+        }
+        String[] targets = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            targets[i] = dictionary.get((int) readVarint());
+        }
+
+        Long[] numerics = readLongs(rows);
+        String[] texts = readStrings(rows);
+        String[] hrefs = version >= 2 ? readStrings(rows) : new String[rows];
+        Long[] followTimestamps = version >= 2 ? readLongs(rows) : new Long[rows];
+        String[] metas = readStrings(rows);
+
+        boolean[] present = readPresence(rows);
+        LocalDateTime[] createdAts = new LocalDateTime[rows];
+        long previousMillis = 0;
+        for (int i = 0; i < rows; i++) {
+            if (present[i]) {
+                previousMillis += readSigned();
+                createdAts[i] = LocalDateTime.ofInstant(Instant.ofEpochMilli(previousMillis), ZoneOffset.UTC);
+            }
+        }
+
+        for (int i = 0; i < rows; i++) {
+            consumer.accept(new Row(uploadId, dataTypes[i], targets[i], numerics[i], texts[i], hrefs[i],
+                    followTimestamps[i], metas[i], createdAts[i]));
+        }
+        return rows;
+    }
+
+    private Long[] readLongs(int rows) throws IOException {
+        boolean[] present = readPresence(rows);
+        Long[] values = new Long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (present[i]) {
+                previous += readSigned();
+                values[i] = previous;
+            }
+        }
+        return values;
+    }
+
+    private String[] readStrings(int rows) throws IOException {
+        boolean[] present = readPresence(rows);
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            if (present[i]) {
+                values[i] = readString();
+            }
+        }
+        return values;
+    }
+
+    private boolean[] readPresence(int rows) throws IOException {
+        boolean[] present = new boolean[rows];
+        int current = 0;
+        for (int i = 0; i < rows; i++) {
+            if ((i & 7) == 0) {
+                current = in.readUnsignedByte();
+            }
+            present[i] = (current & (1 << (i & 7))) != 0;
+        }
+        return present;
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarint()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readSigned() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated export");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt export: varint too long");
+    }
+}
@@ -0,0 +1,241 @@
+package com.metaWebApp.MetaWebApp.export;
+
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes analysis results in the compact columnar export format, block by block, as they arrive.
+ *
+ * Layout (integers are unsigned LEB128 varints; "signed" ones are zigzag-encoded first):
+ * <pre>
+ * file     := MAGIC version:u8 typeCount typeName:string* section* END:u8
+ * section  := UPLOAD:u8 uploadId:16 bytes block*        one per exported upload
+ * block    := BLOCK:u8 rows newWordCount word:string*   at most BLOCK_ROWS rows, then the columns:
+ *   dataType          (typeIndex runLength)* runs covering all rows
+ *   targetIdentifier  rows dictionary ids, 0 = null
+ *   valueNumeric      presence bitmap, signed delta to the previous present value, per present value
+ *   valueText         presence bitmap, string per present value
+ *   profileHref       presence bitmap, string per present value                  (since version 2)
+ *   followTimestamp   presence bitmap, signed delta to the previous present value (since version 2)
+ *   metaJson          presence bitmap, string per present value
+ *   createdAt         presence bitmap, signed delta in epoch millis (UTC) to the previous present value
+ * string   := byteLength UTF-8 bytes
+ * bitmap   := ceil(rows / 8) bytes, least significant bit first
+ * </pre>
+ * The identifier dictionary spans the whole file: each block first lists the identifiers it introduces, which take
+ * the next ids (starting at 1). Result ids are not exported; they carry no information for offline analysis.
+ * Not thread-safe; one writer per export.
+ */
+public class ColumnarResultWriter implements Closeable {
+
+    public static final byte[] MAGIC = {'M', 'W', 'R', 'X'};
+    public static final int VERSION = 2;
+    public static final int BLOCK_ROWS = 4096;
+
+    static final int END = 0;
+    static final int UPLOAD = 1;
+    static final int BLOCK = 2;
+
+    private static final AnalysisDataType[] DATA_TYPES = AnalysisDataType.values();
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final ByteArrayOutputStream newWords = new ByteArrayOutputStream();
+    private int newWordCount;
+
+    // Current block, column by column
+    private final int[] dataTypes = new int[BLOCK_ROWS];
+    private final int[] targets = new int[BLOCK_ROWS];
+    private final Long[] numerics = new Long[BLOCK_ROWS];
+    private final String[] texts = new String[BLOCK_ROWS];
+    private final String[] hrefs = new String[BLOCK_ROWS];
+    private final Long[] followTimestamps = new Long[BLOCK_ROWS];
+    private final String[] metas = new String[BLOCK_ROWS];
+    private final LocalDateTime[] createdAts = new LocalDateTime[BLOCK_ROWS];
+    private int rows;
+    private UUID currentUpload;
+    private long rowsWritten;
+
+    public ColumnarResultWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        writeVarint(this.out, DATA_TYPES.length);
+        for (AnalysisDataType dataType : DATA_TYPES) {
+            writeString(this.out, dataType.name());
+        }
+    }
+
+    /**
+     * Appends a result. Results of one upload must be written consecutively.
+     */
+    public void write(AnalysisResultResponseDTO result) throws IOException {
+        if (!result.getUploadId().equals(currentUpload)) {
+            flushBlock();
+            currentUpload = result.getUploadId();
+            out.writeByte(UPLOAD);
+            out.writeLong(currentUpload.getMostSignificantBits());
+            out.writeLong(currentUpload.getLeastSignificantBits());
+        }
+        dataTypes[rows] = result.getDataType().ordinal();
+        targets[rows] = intern(result.getTargetIdentifier());
+        numerics[rows] = result.getValueNumeric();
+        texts[rows] = result.getValueText();
+        hrefs[rows] = result.getProfileHref();
+        followTimestamps[rows] = result.getFollowTimestamp();
+        metas[rows] = result.getMetaJson() != null ? result.getMetaJson().toString() : null;
+        createdAts[rows] = result.getCreatedAt();
+        if (++rows == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * @return The number of results written so far.
+     */
+    public long getRowsWritten() {
+        return rowsWritten + rows;
+    }
+
+    /**
+     * Writes the last block and the end marker. Does not close the underlying stream.
+     */
+    public void finish() throws IOException {
+        flushBlock();
+        out.writeByte(END);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private int intern(String word) throws IOException {
+        if (word == null) {
+            return 0;
+        }
+        Integer id = dictionary.get(word);
+        if (id == null) {
+            id = dictionary.size() + 1;
+            dictionary.put(word, id);
+            writeString(newWords, word);
+            newWordCount++;
+        }
+        return id;
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        out.writeByte(BLOCK);
+        writeVarint(out, rows);
+        writeVarint(out, newWordCount);
+        newWords.writeTo(out);
+        newWords.reset();
+        newWordCount = 0;
+
+        // Results arrive grouped by type, so the type column is a handful of runs.
+        int runStart = 0;
+        for (int i = 1; i <= rows; i++) {
+            if (i == rows || dataTypes[i] != dataTypes[runStart]) {
+                writeVarint(out, dataTypes[runStart]);
+                writeVarint(out, i - runStart);
+                runStart = i;
+            }
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarint(out, targets[i]);
+        }
+
+        writeLongs(numerics);
+        writeStrings(texts);
+        writeStrings(hrefs);
+        writeLongs(followTimestamps);
+        writeStrings(metas);
+
+        writePresence(createdAts);
+        long previousMillis = 0;
+        for (int i = 0; i < rows; i++) {
+            if (createdAts[i] != null) {
+                long millis = createdAts[i].toInstant(ZoneOffset.UTC).toEpochMilli();
+                writeSigned(out, millis - previousMillis);
+                previousMillis = millis;
+            }
+        }
+
+        rowsWritten += rows;
+        Arrays.fill(numerics, 0, rows, null);
+        Arrays.fill(texts, 0, rows, null);
+        Arrays.fill(hrefs, 0, rows, null);
+        Arrays.fill(followTimestamps, 0, rows, null);
+        Arrays.fill(metas, 0, rows, null);
+        Arrays.fill(createdAts, 0, rows, null);
+        rows = 0;
+    }
+
+    private void writeLongs(Long[] column) throws IOException {
+        writePresence(column);
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (column[i] != null) {
+                writeSigned(out, column[i] - previous);
+                previous = column[i];
+            }
+        }
+    }
+
+    private void writeStrings(String[] column) throws IOException {
+        writePresence(column);
+        for (int i = 0; i < rows; i++) {
+            if (column[i] != null) {
+                writeString(out, column[i]);
+            }
+        }
+    }
+
+    private void writePresence(Object[] column) throws IOException {
+        int current = 0;
+        for (int i = 0; i < rows; i++) {
+            if (column[i] != null) {
+                current |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7 || i == rows - 1) {
+                out.writeByte(current);
+                current = 0;
+            }
+        }
+    }
+
+    static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static void writeSigned(OutputStream out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,129 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import com.metaWebApp.MetaWebApp.dto.JfrRecordingStatusDTO;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A JDK Flight Recorder recording that can be switched on and off while the application runs, for diagnosing
+ * production slowdowns at the allocation, lock and I/O level without attaching a profiler or restarting.
+ *
+ * The recording uses the JDK's "default" settings (about 1% overhead: allocation samples, monitor and park events
+ * over 20 ms, socket and file I/O over 20 ms, GC) plus the application's own events (package jfr). It is kept on
+ * disk in the JFR repository (java.io.tmpdir unless -XX:FlightRecorderOptions:repository=... is set) as a ring
+ * buffer bounded by app.jfr.max-age and app.jfr.max-size; dump() copies the current contents to a file.
+ */
+@Component
+public class ContinuousRecording {
+
+    private static final Logger log = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    private final boolean startOnBoot;
+    private final String settings;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private Recording recording;
+
+    @Autowired
+    public ContinuousRecording(@Value("${app.jfr.start-on-boot:false}") boolean startOnBoot,
+                               @Value("${app.jfr.settings:default}") String settings,
+                               @Value("${app.jfr.max-age:6h}") Duration maxAge,
+                               @Value("${app.jfr.max-size:256MB}") DataSize maxSize) {
+        this.startOnBoot = startOnBoot;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() throws IOException, ParseException {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    /**
+     * Starts the recording, unless it is already running.
+     *
+     * @return The status of the recording.
+     * @throws IOException if the settings file cannot be read.
+     * @throws ParseException if the settings file is not valid.
+     */
+    public synchronized JfrRecordingStatusDTO start() throws IOException, ParseException {
+        if (!isRunning()) {
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("metawebapp-continuous");
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.setMaxSize(maxSize.toBytes());
+            started.start();
+            recording = started;
+            log.info("Started continuous JFR recording ({} settings, max age {}, max size {})", settings, maxAge, maxSize);
+        }
+        return getStatus();
+    }
+
+    /**
+     * Stops the recording and discards its contents. Does nothing if it isn't running.
+     *
+     * @return The status of the recording.
+     */
+    public synchronized JfrRecordingStatusDTO stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Stopped continuous JFR recording");
+        }
+        return getStatus();
+    }
+
+    /**
+     * Writes what the recording currently holds (up to max-age / max-size of history) to a file.
+     *
+     * @param file The .jfr file to write.
+     * @throws IllegalStateException if the recording isn't running.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void dump(Path file) throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("The continuous JFR recording is not running");
+        }
+        recording.dump(file);
+    }
+
+    public synchronized JfrRecordingStatusDTO getStatus() {
+        boolean running = isRunning();
+        return new JfrRecordingStatusDTO(running,
+                running ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault()) : null,
+                settings, maxAge.toSeconds(), maxSize.toBytes(), running ? recording.getSize() : 0);
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing the opening of one file inside an export (for a ZIP entry: reading its local header and
+ * setting up the inflater over the stored blob).
+ */
+@Name("com.metaWebApp.ExportEntryOpen")
+@Label("Export Entry Open")
+@Category({"MetaWebApp", "Upload Processing"})
+@Description("Opening of one file inside an uploaded export")
+public class ExportEntryOpenEvent extends Event {
+
+    @Label("Upload Id")
+    String uploadId;
+
+    @Label("Entry Name")
+    String entryName;
+
+    @Label("Entry Type")
+    String entryType;
+
+    @Label("Size")
+    @Description("Uncompressed size of the entry, -1 if unknown")
+    @DataAmount
+    long size;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     */
+    public void record(UUID uploadId, String entryName, String entryType, long size) {
+        if (shouldCommit()) {
+            this.uploadId = uploadId.toString();
+            this.entryName = entryName;
+            this.entryType = entryType;
+            this.size = size;
+            commit();
+        }
+    }
+}
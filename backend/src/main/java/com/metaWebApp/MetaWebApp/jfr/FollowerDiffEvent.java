@@ -0,0 +1,50 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing the diff of an upload's followers against the user's previous completed upload, including
+ * resolving the changed handles and queueing their results.
+ */
+@Name("com.metaWebApp.FollowerDiff")
+@Label("Follower Diff")
+@Category({"MetaWebApp", "Upload Processing"})
+@Description("Bitmap diff of followers against the previous upload")
+public class FollowerDiffEvent extends Event {
+
+    @Label("Upload Id")
+    String uploadId;
+
+    @Label("Followers")
+    long followers;
+
+    @Label("Previous Followers")
+    @Description("-1 if the user has no earlier completed upload")
+    long previousFollowers;
+
+    @Label("Gained")
+    long gained;
+
+    @Label("Lost")
+    long lost;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     */
+    public void record(UUID uploadId, long followers, long previousFollowers, long gained, long lost) {
+        if (shouldCommit()) {
+            this.uploadId = uploadId.toString();
+            this.followers = followers;
+            this.previousFollowers = previousFollowers;
+            this.gained = gained;
+            this.lost = lost;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing the parsing of one batch of an export: the relationships read between two handle interning
+ * round trips, or all message threads of the export.
+ */
+@Name("com.metaWebApp.ParseBatch")
+@Label("Parse Batch")
+@Category({"MetaWebApp", "Upload Processing"})
+@Description("Streaming JSON parse of one batch of relationships or of the message threads")
+public class ParseBatchEvent extends Event {
+
+    @Label("Upload Id")
+    String uploadId;
+
+    @Label("Entry Type")
+    String entryType;
+
+    @Label("Records")
+    long records;
+
+    @Label("Bytes")
+    @Description("Uncompressed bytes of the entries finished in this batch")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     */
+    public void record(UUID uploadId, String entryType, long records, long bytes) {
+        if (shouldCommit()) {
+            this.uploadId = uploadId.toString();
+            this.entryType = entryType;
+            this.records = records;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing the write of one batch of analysis results (one transaction).
+ */
+@Name("com.metaWebApp.ResultFlush")
+@Label("Result Batch Flush")
+@Category({"MetaWebApp", "Upload Processing"})
+@Description("Batched insert of analysis results")
+public class ResultFlushEvent extends Event {
+
+    @Label("Upload Id")
+    String uploadId;
+
+    @Label("Rows")
+    long rows;
+
+    /**
+     * Ends the event and commits it if it is enabled and above its threshold.
+     */
+    public void record(UUID uploadId, long rows) {
+        if (shouldCommit()) {
+            this.uploadId = uploadId.toString();
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.metaWebApp.MetaWebApp.jfr;
+
+import com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * JFR event carrying one stage of an upload's processing trace (see model.UploadTraceStage). Emitted when the trace is
+ * saved, and replayed from the database by UploadTraceService.exportTraceAsJfr for uploads processed earlier.
+ */
+@Name("com.metaWebApp.UploadStage")
+@Label("Upload Stage")
+@Category({"MetaWebApp", "Upload Processing"})
+@Description("Time, I/O and allocations of one pipeline stage of an upload's analysis")
+@StackTrace(false)
+public class UploadStageEvent extends Event {
+
+    @Label("Upload Id")
+    String uploadId;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Stage Start")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long stageStart;
+
+    @Label("Stage End")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long stageEnd;
+
+    @Label("Time In Stage")
+    @Timespan(Timespan.MICROSECONDS)
+    long timeInStage;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Records")
+    long records;
+
+    @Label("Rows Written")
+    long rowsWritten;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+
+    /**
+     * Commits an event for the stage if the event is enabled in a running recording.
+     */
+    public static void emit(UUID uploadId, UploadTraceStageDTO trace) {
+        UploadStageEvent event = new UploadStageEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.uploadId = uploadId.toString();
+        event.attempt = trace.attempt();
+        event.stage = trace.stage().name();
+        event.stageStart = trace.startedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        event.stageEnd = trace.endedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        event.timeInStage = trace.durationMicros();
+        event.bytesRead = trace.bytesRead();
+        event.records = trace.records();
+        event.rowsWritten = trace.rowsWritten();
+        event.allocated = trace.allocatedBytes();
+        event.commit();
+    }
+}
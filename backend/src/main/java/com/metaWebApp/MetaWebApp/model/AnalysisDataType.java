@@ -8,6 +8,8 @@ public enum AnalysisDataType {
     UNFOLLOWER,               // Represents an Instagram user who doesn't follow back
     CLOSE_FRIEND_ITEM,        // Represents an entry from the close_friends.json file
     MESSAGE_THREAD_SUMMARY,   // Represents a summary of an Instagram message thread
+    NEW_FOLLOWER,             // Follows the user now but did not in their previous completed upload
+    NEW_UNFOLLOWER,           // Followed the user in their previous completed upload but no longer does
     // Add more types as you process different aspects of Instagram data
     LIKED_MEDIA_ITEM,         // If you later process liked posts
     COMMENT_ITEM              // If you later process comments
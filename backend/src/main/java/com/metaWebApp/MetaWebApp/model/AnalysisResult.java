@@ -4,23 +4,24 @@ import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes; // Ensure this import is correct for your Hibernate version
 
 /**
  * Stores granular results from various types of data analysis performed on a UserDataUpload.
  * This entity maps to the 'analysis_results' table.
  */
 @Entity
-@Table(name = "analysis_results")
+@Table(name = "analysis_results", indexes = {
+        // Backs the keyset-paginated, searchable result listing (see AnalysisResultRepository.findPage*)
+        @Index(name = "idx_analysis_results_upload_type_target", columnList = "upload_id, data_type, target_identifier")
+})
 public class AnalysisResult {
 
     /**
      * Unique identifier for each analysis result entry.
-     * Generated automatically as a UUID.
+     * Generated automatically as a time-ordered UUID (v7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -62,12 +63,26 @@ public class AnalysisResult {
     private String valueText;
 
     /**
-     * Flexible JSON object for additional, unstructured, or varying metadata.
-     * Mapped to JSONB type in PostgreSQL. Uses Hibernate 6's native JSON mapping.
+     * Profile link of the account as exported by Instagram (relationship results only).
      */
-    @JdbcTypeCode(SqlTypes.JSON) // Tells Hibernate to use JSON type mapping
-    @Column(name = "meta_json", columnDefinition = "JSONB") // Specifies JSONB column type for PostgreSQL
-    private JsonNode metaJson; // Jackson's JsonNode for flexible JSON handling
+    @Column(name = "profile_href", length = 512)
+    private String profileHref;
+
+    /**
+     * Epoch seconds at which the relationship started, e.g. when the account followed the user
+     * (relationship results only).
+     */
+    @Column(name = "follow_timestamp")
+    private Long followTimestamp;
+
+    /**
+     * Any further metadata without a typed column, stored in a separate row and loaded only on access.
+     * Null for most results. Owning side of the association, so the lazy proxy works without bytecode enhancement,
+     * and listings can tell whether there is an attachment from the attachment_id column alone.
+     */
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "attachment_id")
+    private AnalysisResultAttachment attachment;
 
     /**
      * Timestamp when this specific analysis result was recorded.
@@ -150,12 +165,49 @@ public class AnalysisResult {
         this.valueText = valueText;
     }
 
+    public String getProfileHref() {
+        return profileHref;
+    }
+
+    public void setProfileHref(String profileHref) {
+        this.profileHref = profileHref;
+    }
+
+    public Long getFollowTimestamp() {
+        return followTimestamp;
+    }
+
+    public void setFollowTimestamp(Long followTimestamp) {
+        this.followTimestamp = followTimestamp;
+    }
+
+    public AnalysisResultAttachment getAttachment() {
+        return attachment;
+    }
+
+    /**
+     * @return The attachment's JSON (loading it if necessary), or null if the result has none.
+     */
     public JsonNode getMetaJson() {
-        return metaJson;
+        return attachment != null ? attachment.getMetaJson() : null;
     }
 
+    /**
+     * Sets the free-form metadata, stored as an attachment together with this result. The upload must be set first.
+     *
+     * @param metaJson The metadata, or null to drop the attachment reference.
+     */
     public void setMetaJson(JsonNode metaJson) {
-        this.metaJson = metaJson;
+        if (metaJson == null) {
+            this.attachment = null;
+        } else if (this.attachment != null) {
+            this.attachment.setMetaJson(metaJson);
+        } else {
+            if (upload == null) {
+                throw new IllegalStateException("Upload must be set before metadata is attached");
+            }
+            this.attachment = new AnalysisResultAttachment(upload, metaJson);
+        }
     }
 
     public LocalDateTime getCreatedAt() {
@@ -174,7 +226,9 @@ public class AnalysisResult {
                 ", targetIdentifier='" + targetIdentifier + '\'' +
                 ", valueNumeric=" + valueNumeric +
                 ", valueText='" + valueText + '\'' +
-                ", metaJson=" + (metaJson != null ? metaJson.toString() : "null") +
+                ", profileHref='" + profileHref + '\'' +
+                ", followTimestamp=" + followTimestamp +
+                ", hasAttachment=" + (attachment != null) +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -0,0 +1,75 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * Free-form JSON metadata of an AnalysisResult that has no typed column (e.g. the participants of a message thread).
+ * Kept out of analysis_results so listing rows never carry, parse or allocate JSON; it is loaded only when a
+ * single result's details are requested. This entity maps to the 'analysis_result_attachments' table.
+ */
+@Entity
+@Table(name = "analysis_result_attachments", indexes = {
+        // Lets AnalysisResultAttachmentRepository.deleteByUploadId remove the attachments of an upload in one statement
+        @Index(name = "idx_analysis_result_attachments_upload", columnList = "upload_id")
+})
+public class AnalysisResultAttachment {
+
+    /**
+     * Unique identifier for each attachment.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The upload of the owning result, so attachments can be deleted per upload without a join.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false, updatable = false)
+    private UserDataUpload upload;
+
+    /**
+     * Mapped to JSONB in PostgreSQL (json on H2) through Hibernate's native JSON mapping.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "meta_json", nullable = false)
+    private JsonNode metaJson;
+
+    // --- Constructors ---
+    public AnalysisResultAttachment() {
+    }
+
+    public AnalysisResultAttachment(UserDataUpload upload, JsonNode metaJson) {
+        this.upload = upload;
+        this.metaJson = metaJson;
+    }
+
+    // --- Getters and Setters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public JsonNode getMetaJson() {
+        return metaJson;
+    }
+
+    public void setMetaJson(JsonNode metaJson) {
+        this.metaJson = metaJson;
+    }
+}
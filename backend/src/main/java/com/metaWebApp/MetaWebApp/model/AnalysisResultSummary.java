@@ -0,0 +1,98 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * What remains of one data type's analysis results after an upload fell out of the retention window:
+ * the number of results and the sum of their numeric values.
+ * This entity maps to the 'analysis_result_summaries' table, written by ResultRetentionService.
+ */
+@Entity
+@Table(name = "analysis_result_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analysis_result_summaries_upload_type", columnNames = {"upload_id", "data_type"})
+})
+public class AnalysisResultSummary {
+
+    /**
+     * Unique identifier for each summary.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The compacted upload. Derived data, so it goes away together with the upload.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserDataUpload upload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "data_type", nullable = false, length = 100)
+    private AnalysisDataType dataType;
+
+    /**
+     * Number of results of this type the upload had.
+     */
+    @Column(name = "result_count", nullable = false)
+    private long resultCount;
+
+    /**
+     * Sum of the results' valueNumeric (e.g. messages across all threads), or null if none had one.
+     */
+    @Column(name = "value_numeric_sum")
+    private Long valueNumericSum;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // --- Constructors ---
+    public AnalysisResultSummary() {
+    }
+
+    public AnalysisResultSummary(UserDataUpload upload, AnalysisDataType dataType, long resultCount, Long valueNumericSum) {
+        this.upload = upload;
+        this.dataType = dataType;
+        this.resultCount = resultCount;
+        this.valueNumericSum = valueNumericSum;
+    }
+
+    // --- Getters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public AnalysisDataType getDataType() {
+        return dataType;
+    }
+
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    public Long getValueNumericSum() {
+        return valueNumericSum;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Global dictionary of Instagram handles. Each distinct handle is stored once and referred to by a
+ * small integer id, so per-upload follower/following sets can be stored as compressed bitmaps of ids.
+ * This entity maps to the 'instagram_handles' table.
+ */
+@Entity
+@Table(name = "instagram_handles")
+public class InstagramHandle {
+
+    /**
+     * Dense integer id of the handle (a bitmap position), allocated from a sequence in blocks so
+     * inserts can be batched. Unlike the other entities this is deliberately not a UUID.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "instagram_handles_seq")
+    @SequenceGenerator(name = "instagram_handles_seq", sequenceName = "instagram_handles_seq", allocationSize = 500)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    /**
+     * The handle, lower-cased as produced by the export parser.
+     */
+    @Column(name = "handle", nullable = false, unique = true, length = 255)
+    private String handle;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // --- Constructors ---
+    public InstagramHandle() {
+    }
+
+    public InstagramHandle(String handle) {
+        this.handle = handle;
+    }
+
+    // --- Getters ---
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "InstagramHandle{" +
+                "id=" + id +
+                ", handle='" + handle + '\'' +
+                '}';
+    }
+}
@@ -9,15 +9,18 @@ import java.util.UUID;
  * This entity maps to the 'password_resets' table.
  */
 @Entity
-@Table(name = "password_resets")
+@Table(name = "password_resets", indexes = {
+        // Finds a user's outstanding (unused, unexpired) reset requests
+        @Index(name = "idx_password_resets_user_used_expires", columnList = "user_id, used, expires_at")
+})
 public class PasswordReset {
 
     /**
      * Unique identifier for each password reset request.
-     * Generated automatically as a UUID.
+     * Generated automatically as a time-ordered UUID (v7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
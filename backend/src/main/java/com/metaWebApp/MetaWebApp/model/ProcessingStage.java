@@ -0,0 +1,14 @@
+package com.metaWebApp.MetaWebApp.model;
+
+/**
+ * The stages of an upload's analysis pipeline, as timed by analysis.AnalysisStageTimer and stored in its
+ * UploadTraceStage rows.
+ */
+public enum ProcessingStage {
+    READ,     // Opening the export, listing and fingerprinting its entries
+    PARSE,    // Parsing (and inflating) relationship and message files
+    INTERN,   // Mapping handles to dictionary ids
+    DIFF,     // Comparing followers with the previous upload
+    REUSE,    // Finding earlier uploads with unchanged parts and copying their relationship sets and results
+    PERSIST   // Writing results, relationship sets and summary counts
+}
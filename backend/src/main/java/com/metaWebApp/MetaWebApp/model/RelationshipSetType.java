@@ -0,0 +1,10 @@
+package com.metaWebApp.MetaWebApp.model;
+
+/**
+ * The relationship lists of an export that are stored as handle bitmaps (see UploadRelationshipSet).
+ */
+public enum RelationshipSetType {
+    FOLLOWERS,      // Accounts following the user
+    FOLLOWING,      // Accounts the user follows
+    CLOSE_FRIENDS   // The user's close friends list
+}
@@ -14,10 +14,10 @@ public class Subscription {
 
     /**
      * Unique identifier for each subscription record.
-     * Generated automatically as a UUID.
+     * Generated automatically as a time-ordered UUID (v7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -132,13 +132,14 @@ public class Subscription {
 
     // Important: For bidirectional @OneToOne, set both sides for consistency
     public void setUser(User user) {
+        User previous = this.user;
+        this.user = user;
         // Break old relationship if it exists
-        if (this.user != null && !this.user.equals(user)) {
-            this.user.setSubscription(null);
+        if (previous != null && previous != user && previous.getSubscription() == this) {
+            previous.setSubscription(null);
         }
-        this.user = user;
-        // Establish new relationship
-        if (user != null && !user.getSubscription().equals(this)) {
+        // Establish new relationship (the user of a new subscription has none yet)
+        if (user != null && user.getSubscription() != this) {
             user.setSubscription(this);
         }
     }
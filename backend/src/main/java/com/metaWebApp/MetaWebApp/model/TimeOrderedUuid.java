@@ -0,0 +1,19 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key that is generated client-side as a time-ordered UUIDv7.
+ * Used instead of @GeneratedValue(strategy = GenerationType.UUID), whose random (v4) ids
+ * scatter inserts across the whole primary key index.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
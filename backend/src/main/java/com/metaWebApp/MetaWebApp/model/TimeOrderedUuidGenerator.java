@@ -0,0 +1,55 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp followed by random bits.
+ *
+ * New ids are (almost) always larger than previous ones, so inserts append to the right edge of the
+ * primary key B-tree instead of splitting random pages. The 12-bit rand_a field is used as a counter
+ * within the same millisecond, which keeps ids generated by this JVM strictly increasing.
+ * Ids are assigned before the INSERT is executed, so JDBC batching stays enabled.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    /**
+     * @return A new, monotonically increasing UUIDv7.
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long current;
+        long next;
+        do {
+            current = LAST_TIMESTAMP_AND_COUNTER.get();
+            // Either a fresh millisecond (counter 0) or the previous value + 1. A counter overflow
+            // simply borrows the next millisecond, which keeps ordering intact.
+            next = Math.max(now, current + 1);
+        } while (!LAST_TIMESTAMP_AND_COUNTER.compareAndSet(current, next));
+
+        long timestamp = next >>> 12;
+        long counter = next & 0xFFFL;
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | counter;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,14 @@
+package com.metaWebApp.MetaWebApp.model;
+
+/**
+ * Why an upload ended up FAILED or INVALID_FILE. Stored next to the free-text error message so failures
+ * can be counted and filtered by cause; the message keeps the details.
+ */
+public enum UploadErrorCode {
+    INVALID_EXPORT,        // Not a readable Instagram export (bad ZIP, malformed JSON, no known data); status INVALID_FILE
+    STORAGE_ERROR,         // The stored file could not be read (I/O error in blob storage)
+    DATABASE_ERROR,        // Reading or writing analysis data in the database failed
+    PROCESSING_ABANDONED,  // Workers kept dying or stalling on the upload until its attempts ran out
+    UPLOAD_EXPIRED,        // Resumable upload session expired before all chunks were received
+    INTERNAL_ERROR         // Any other unexpected failure
+}
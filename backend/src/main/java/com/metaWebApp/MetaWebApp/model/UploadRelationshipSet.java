@@ -0,0 +1,123 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One relationship list (followers, following or close friends) of a UserDataUpload, stored as a
+ * serialized Roaring bitmap of InstagramHandle ids instead of one row per account.
+ * This entity maps to the 'upload_relationship_sets' table.
+ */
+@Entity
+@Table(name = "upload_relationship_sets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_relationship_sets_upload_type", columnNames = {"upload_id", "set_type"})
+})
+public class UploadRelationshipSet {
+
+    /**
+     * Unique identifier for each relationship set.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The upload the list was read from.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false)
+    private UserDataUpload upload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "set_type", nullable = false, length = 50)
+    private RelationshipSetType setType;
+
+    /**
+     * Number of handles in the set.
+     */
+    @Column(name = "cardinality", nullable = false)
+    private int cardinality;
+
+    /**
+     * The handle ids in Roaring bitmap portable serialization format. Maps to bytea in PostgreSQL.
+     */
+    @Column(name = "bitmap", nullable = false, length = 100_000_000)
+    private byte[] bitmap;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    // --- Constructors ---
+    public UploadRelationshipSet() {
+    }
+
+    public UploadRelationshipSet(UserDataUpload upload, RelationshipSetType setType, int cardinality, byte[] bitmap) {
+        this.upload = upload;
+        this.setType = setType;
+        this.cardinality = cardinality;
+        this.bitmap = bitmap;
+    }
+
+    // --- Getters and Setters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public void setUpload(UserDataUpload upload) {
+        this.upload = upload;
+    }
+
+    public RelationshipSetType getSetType() {
+        return setType;
+    }
+
+    public void setSetType(RelationshipSetType setType) {
+        this.setType = setType;
+    }
+
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(int cardinality) {
+        this.cardinality = cardinality;
+    }
+
+    public byte[] getBitmap() {
+        return bitmap;
+    }
+
+    public void setBitmap(byte[] bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadRelationshipSet{" +
+                "id=" + id +
+                ", setType=" + setType +
+                ", cardinality=" + cardinality +
+                ", bitmapBytes=" + (bitmap != null ? bitmap.length : 0) +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
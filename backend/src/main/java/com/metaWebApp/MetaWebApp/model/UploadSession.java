@@ -0,0 +1,157 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A resumable upload: the client announces the total size, then sends fixed-size chunks in any order
+ * (and in parallel), each with its own checksum. Chunks are written in place into a staging file, so a
+ * dropped connection only costs the chunk in flight. The upload stays UPLOADING until every chunk is in.
+ * This entity maps to the 'upload_sessions' table.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        // Finds expired sessions to clean up (see UploadSessionRepository.findByStatusAndExpiresAtBefore)
+        @Index(name = "idx_upload_sessions_status_expires", columnList = "status, expires_at")
+})
+public class UploadSession {
+
+    /**
+     * Unique identifier for each session.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The upload whose content this session receives.
+     */
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false, unique = true)
+    private UserDataUpload upload;
+
+    /**
+     * Size of the complete file in bytes.
+     */
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    /**
+     * Size of every chunk except the last one, which holds the remainder.
+     */
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    /**
+     * Local file the chunks are written into.
+     */
+    @Column(name = "staging_path", nullable = false, length = 1024)
+    private String stagingPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private UploadSessionStatus status;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Time after which an unfinished session is discarded. Pushed back whenever a chunk arrives.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = UploadSessionStatus.OPEN;
+        }
+    }
+
+    // --- Constructors ---
+    public UploadSession() {
+    }
+
+    public UploadSession(UserDataUpload upload, long totalSize, int chunkSize, String stagingPath, LocalDateTime expiresAt) {
+        this.upload = upload;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.stagingPath = stagingPath;
+        this.expiresAt = expiresAt;
+        this.status = UploadSessionStatus.OPEN;
+    }
+
+    /**
+     * @return The number of chunks the file is split into.
+     */
+    public int getChunkCount() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * @param chunkIndex A chunk index.
+     * @return The exact length of that chunk.
+     */
+    public int getChunkLength(int chunkIndex) {
+        return (int) Math.min(chunkSize, totalSize - (long) chunkIndex * chunkSize);
+    }
+
+    // --- Getters and Setters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public String getStagingPath() {
+        return stagingPath;
+    }
+
+    public UploadSessionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UploadSessionStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadSession{" +
+                "id=" + id +
+                ", totalSize=" + totalSize +
+                ", chunkSize=" + chunkSize +
+                ", status=" + status +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A chunk of an UploadSession that was received and matched its checksum.
+ * This entity maps to the 'upload_session_chunks' table.
+ */
+@Entity
+@Table(name = "upload_session_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_session_chunks_session_index", columnNames = {"session_id", "chunk_index"})
+})
+public class UploadSessionChunk {
+
+    /**
+     * Unique identifier for each chunk.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private UploadSession session;
+
+    /**
+     * Position of the chunk; it starts at byte chunkIndex * chunkSize of the file.
+     */
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    /**
+     * Hex-encoded SHA-256 of the chunk content.
+     */
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    // --- Constructors ---
+    public UploadSessionChunk() {
+    }
+
+    public UploadSessionChunk(UploadSession session, int chunkIndex, String sha256) {
+        this.session = session;
+        this.chunkIndex = chunkIndex;
+        this.sha256 = sha256;
+        this.receivedAt = LocalDateTime.now();
+    }
+
+    // --- Getters and Setters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UploadSession getSession() {
+        return session;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+}
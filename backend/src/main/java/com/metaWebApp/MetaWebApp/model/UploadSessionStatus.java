@@ -0,0 +1,11 @@
+package com.metaWebApp.MetaWebApp.model;
+
+/**
+ * Represents the state of a resumable upload session.
+ */
+public enum UploadSessionStatus {
+    OPEN,           // Accepting chunks
+    ASSEMBLING,     // All chunks received, content is being moved into blob storage
+    COMPLETED,      // Content stored, the upload is queued for analysis
+    EXPIRED         // Abandoned before all chunks arrived; the partial content was discarded
+}
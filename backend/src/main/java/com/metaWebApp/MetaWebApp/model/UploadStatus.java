@@ -4,6 +4,7 @@ package com.metaWebApp.MetaWebApp.model;
  * Represents the current status of a data upload and its analysis.
  */
 public enum UploadStatus {
+    UPLOADING,      // Resumable upload session open, content still being received
     PENDING,        // Upload received, waiting for processing
     PROCESSING,     // Analysis is currently underway
     COMPLETED,      // Analysis finished successfully
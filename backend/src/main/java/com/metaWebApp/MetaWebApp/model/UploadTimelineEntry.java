@@ -0,0 +1,242 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One point of a user's follower history: the summary counts of a COMPLETED upload, its deltas against the
+ * user's previous completed upload and a few of the accounts that changed.
+ * This entity maps to the 'upload_timeline' table, a projection maintained by UploadTimelineService so that
+ * the history chart is read with one indexed lookup instead of loading uploads or analysis results.
+ */
+@Entity
+@Table(name = "upload_timeline", indexes = {
+        // Backs the per-user history lookup (see UploadTimelineRepository.findByUserIdOrderByUploadTimeAsc)
+        @Index(name = "idx_upload_timeline_user_time", columnList = "user_id, upload_time")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_timeline_upload", columnNames = "upload_id")
+})
+public class UploadTimelineEntry {
+
+    /**
+     * Unique identifier for each timeline entry.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The upload the entry summarises. Derived data, so it goes away together with the upload.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserDataUpload upload;
+
+    /**
+     * The owner of the upload, denormalized so the timeline is read without touching user_data_uploads.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    /**
+     * Copy of the upload's uploadTime; orders the timeline.
+     */
+    @Column(name = "upload_time", nullable = false)
+    private LocalDateTime uploadTime;
+
+    @Column(name = "total_followers")
+    private Integer totalFollowers;
+
+    @Column(name = "total_following")
+    private Integer totalFollowing;
+
+    @Column(name = "unfollowers_count")
+    private Integer unfollowersCount;
+
+    @Column(name = "total_close_friends")
+    private Integer totalCloseFriends;
+
+    @Column(name = "new_followers_count")
+    private Integer newFollowersCount;
+
+    @Column(name = "new_unfollowers_count")
+    private Integer newUnfollowersCount;
+
+    /**
+     * Change of totalFollowers since the previous entry of the user that has a follower count.
+     * Null for the first such entry.
+     */
+    @Column(name = "followers_delta")
+    private Integer followersDelta;
+
+    /**
+     * Change of totalFollowing since the previous entry of the user that has a following count.
+     */
+    @Column(name = "following_delta")
+    private Integer followingDelta;
+
+    /**
+     * Up to app.timeline.top-changes of the accounts that started following the user with this upload.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "top_new_followers")
+    private List<String> topNewFollowers = new ArrayList<>();
+
+    /**
+     * Up to app.timeline.top-changes of the accounts that stopped following the user with this upload.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "top_new_unfollowers")
+    private List<String> topNewUnfollowers = new ArrayList<>();
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // --- Constructors ---
+    public UploadTimelineEntry() {
+    }
+
+    public UploadTimelineEntry(UserDataUpload upload, User user, LocalDateTime uploadTime) {
+        this.upload = upload;
+        this.user = user;
+        this.uploadTime = uploadTime;
+    }
+
+    // --- Getters and Setters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public LocalDateTime getUploadTime() {
+        return uploadTime;
+    }
+
+    public void setUploadTime(LocalDateTime uploadTime) {
+        this.uploadTime = uploadTime;
+    }
+
+    public Integer getTotalFollowers() {
+        return totalFollowers;
+    }
+
+    public void setTotalFollowers(Integer totalFollowers) {
+        this.totalFollowers = totalFollowers;
+    }
+
+    public Integer getTotalFollowing() {
+        return totalFollowing;
+    }
+
+    public void setTotalFollowing(Integer totalFollowing) {
+        this.totalFollowing = totalFollowing;
+    }
+
+    public Integer getUnfollowersCount() {
+        return unfollowersCount;
+    }
+
+    public void setUnfollowersCount(Integer unfollowersCount) {
+        this.unfollowersCount = unfollowersCount;
+    }
+
+    public Integer getTotalCloseFriends() {
+        return totalCloseFriends;
+    }
+
+    public void setTotalCloseFriends(Integer totalCloseFriends) {
+        this.totalCloseFriends = totalCloseFriends;
+    }
+
+    public Integer getNewFollowersCount() {
+        return newFollowersCount;
+    }
+
+    public void setNewFollowersCount(Integer newFollowersCount) {
+        this.newFollowersCount = newFollowersCount;
+    }
+
+    public Integer getNewUnfollowersCount() {
+        return newUnfollowersCount;
+    }
+
+    public void setNewUnfollowersCount(Integer newUnfollowersCount) {
+        this.newUnfollowersCount = newUnfollowersCount;
+    }
+
+    public Integer getFollowersDelta() {
+        return followersDelta;
+    }
+
+    public void setFollowersDelta(Integer followersDelta) {
+        this.followersDelta = followersDelta;
+    }
+
+    public Integer getFollowingDelta() {
+        return followingDelta;
+    }
+
+    public void setFollowingDelta(Integer followingDelta) {
+        this.followingDelta = followingDelta;
+    }
+
+    public List<String> getTopNewFollowers() {
+        return topNewFollowers;
+    }
+
+    public void setTopNewFollowers(List<String> topNewFollowers) {
+        this.topNewFollowers = topNewFollowers;
+    }
+
+    public List<String> getTopNewUnfollowers() {
+        return topNewUnfollowers;
+    }
+
+    public void setTopNewUnfollowers(List<String> topNewUnfollowers) {
+        this.topNewUnfollowers = topNewUnfollowers;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadTimelineEntry{" +
+                "id=" + id +
+                ", uploadTime=" + uploadTime +
+                ", totalFollowers=" + totalFollowers +
+                ", totalFollowing=" + totalFollowing +
+                ", followersDelta=" + followersDelta +
+                ", newFollowersCount=" + newFollowersCount +
+                ", newUnfollowersCount=" + newUnfollowersCount +
+                '}';
+    }
+}
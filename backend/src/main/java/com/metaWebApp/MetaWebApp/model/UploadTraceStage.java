@@ -0,0 +1,139 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One pipeline stage of one processing attempt of an upload: when it was first entered and last left, the time
+ * spent in it, and the bytes read, records emitted, rows written and bytes allocated while in it.
+ * This entity maps to the 'upload_trace_stages' table, written by UploadTraceService after every analysis pass.
+ */
+@Entity
+@Table(name = "upload_trace_stages", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_trace_stages_upload_attempt_stage", columnNames = {"upload_id", "attempt", "stage"})
+})
+public class UploadTraceStage {
+
+    /**
+     * Unique identifier for each stage row.
+     * Generated automatically as a time-ordered UUID (v7).
+     */
+    @Id
+    @TimeOrderedUuid
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * The traced upload. Diagnostic data, so it goes away together with the upload.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "upload_id", nullable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private UserDataUpload upload;
+
+    /**
+     * The upload's processingAttempts when it was analysed (0 when analysed outside the processing queue).
+     */
+    @Column(name = "attempt", nullable = false)
+    private int attempt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 20)
+    private ProcessingStage stage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at", nullable = false)
+    private LocalDateTime endedAt;
+
+    /**
+     * Time charged to the stage. Stages interleave, so this can be far less than endedAt - startedAt.
+     */
+    @Column(name = "duration_micros", nullable = false)
+    private long durationMicros;
+
+    @Column(name = "bytes_read", nullable = false)
+    private long bytesRead;
+
+    @Column(name = "records", nullable = false)
+    private long records;
+
+    @Column(name = "rows_written", nullable = false)
+    private long rowsWritten;
+
+    /**
+     * Bytes allocated on the heap by the analysing thread (parallel message summarising not included).
+     */
+    @Column(name = "allocated_bytes", nullable = false)
+    private long allocatedBytes;
+
+    // --- Constructors ---
+    public UploadTraceStage() {
+    }
+
+    public UploadTraceStage(UserDataUpload upload, int attempt, ProcessingStage stage, LocalDateTime startedAt,
+                            LocalDateTime endedAt, long durationMicros, long bytesRead, long records, long rowsWritten,
+                            long allocatedBytes) {
+        this.upload = upload;
+        this.attempt = attempt;
+        this.stage = stage;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.durationMicros = durationMicros;
+        this.bytesRead = bytesRead;
+        this.records = records;
+        this.rowsWritten = rowsWritten;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    // --- Getters ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UserDataUpload getUpload() {
+        return upload;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public ProcessingStage getStage() {
+        return stage;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -16,10 +16,10 @@ public class User {
 
     /**
      * Unique identifier for each user.
-     * Generated automatically as a UUID.
+     * Generated automatically as a time-ordered UUID (v7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID) // Generates a UUID for the primary key
+    @TimeOrderedUuid // Generates a time-ordered UUIDv7 for the primary key
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -184,11 +184,12 @@ public class User {
     }
 
     public void setSubscription(Subscription subscription) {
-        if (this.subscription != null && this.subscription.getUser() == this) {
-            this.subscription.setUser(null); // Dissociate old subscription
-        }
+        Subscription previous = this.subscription;
         this.subscription = subscription;
-        if (subscription != null) {
+        if (previous != null && previous != subscription && previous.getUser() == this) {
+            previous.setUser(null); // Dissociate old subscription
+        }
+        if (subscription != null && subscription.getUser() != this) {
             subscription.setUser(this);
         }
     }
@@ -6,15 +6,22 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "user_data_uploads")
+@Table(name = "user_data_uploads", indexes = {
+        // Finds an earlier upload of identical content by the same user (see UserDataUploadService.createUploadRecord)
+        @Index(name = "idx_user_data_uploads_user_content_hash", columnList = "user_id, content_hash"),
+        // Lists a user's uploads newest first (see UserDataUploadRepository.findResponsesByUserId)
+        @Index(name = "idx_user_data_uploads_user_time", columnList = "user_id, upload_time"),
+        // Serves the processing queue: claims by status in upload order, lease reaping and status counts
+        @Index(name = "idx_user_data_uploads_status_time", columnList = "status, upload_time")
+})
 public class UserDataUpload {
 
     /**
      * Unique identifier for each data upload.
-     * Generated automatically as a UUID.
+     * Generated automatically as a time-ordered UUID (v7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID) // Generates a UUID for the primary key
+    @TimeOrderedUuid // Generates a time-ordered UUIDv7 for the primary key
     @Column(name = "id", updatable = false, nullable = false) // Ensures ID is not updatable and not null
     private UUID id;
 
@@ -46,6 +53,13 @@ public class UserDataUpload {
     @Column(name = "file_path", nullable = false, length = 1024)
     private String filePath;
 
+    /**
+     * Hex-encoded SHA-256 of the uploaded file, known when the file is stored in BlobStorage.
+     * Null for uploads that reference a plain path.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * The type of file declared by the frontend (e.g., 'followers', 'close_friends', 'messages').
      * Stored as a String, but mapped from an enum for type safety in Java.
@@ -69,6 +83,13 @@ public class UserDataUpload {
     @Column(name = "error_message", columnDefinition = "TEXT") // Maps to TEXT type in PostgreSQL
     private String errorMessage;
 
+    /**
+     * The cause of the failure, for FAILED and INVALID_FILE uploads. Null otherwise.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "error_code", length = 50)
+    private UploadErrorCode errorCode;
+
     // --- Summary Fields from Analysis (can be null if not applicable or not yet completed) ---
 
     @Column(name = "total_followers")
@@ -83,6 +104,64 @@ public class UserDataUpload {
     @Column(name = "total_close_friends")
     private Integer totalCloseFriends;
 
+    // Changes since the user's previous completed upload (null for the first one)
+
+    @Column(name = "new_followers_count")
+    private Integer newFollowersCount;
+
+    @Column(name = "new_unfollowers_count")
+    private Integer newUnfollowersCount;
+
+    // Fingerprints of the export's followers, following, close friends and messages entries
+    // (see analysis.ExportFingerprints); equal fingerprints allow reusing that part of an earlier analysis.
+
+    @Column(name = "followers_fingerprint", length = 64)
+    private String followersFingerprint;
+
+    @Column(name = "following_fingerprint", length = 64)
+    private String followingFingerprint;
+
+    @Column(name = "close_friends_fingerprint", length = 64)
+    private String closeFriendsFingerprint;
+
+    @Column(name = "messages_fingerprint", length = 64)
+    private String messagesFingerprint;
+
+    // --- Processing Lease (set while a worker node owns the upload in PROCESSING status) ---
+
+    /**
+     * Identifier of the backend node currently processing this upload.
+     * Null unless the upload is claimed.
+     */
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    /**
+     * Time at which the current claim expires. A claim that is not renewed by then is
+     * considered abandoned (e.g. the node crashed) and the upload is returned to PENDING.
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * Number of times this upload has been claimed for processing.
+     */
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts = 0;
+
+    /**
+     * Time at which the upload last entered the PENDING queue: on creation, when the content of a resumable
+     * upload is complete, or when an expired lease is requeued. Null for uploads that were never queued.
+     */
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt;
+
+    /**
+     * Time at which the detailed analysis results of this upload were replaced by per-type summaries
+     * (see ResultRetentionService). Null while the upload keeps full detail.
+     */
+    @Column(name = "results_compacted_at")
+    private LocalDateTime resultsCompactedAt;
 
 
     // --- Constructors ---
@@ -98,6 +177,7 @@ public class UserDataUpload {
         this.declaredFileType = declaredFileType;
         this.status = UploadStatus.PENDING; // Default status
         this.uploadTime = LocalDateTime.now(); // Set creation time
+        this.queuedAt = uploadTime;
     }
 
     // --- Lifecycle Callbacks ---
@@ -156,6 +236,14 @@ public class UserDataUpload {
         this.filePath = filePath;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public DeclaredFileType getDeclaredFileType() {
         return declaredFileType;
     }
@@ -180,6 +268,14 @@ public class UserDataUpload {
         this.errorMessage = errorMessage;
     }
 
+    public UploadErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(UploadErrorCode errorCode) {
+        this.errorCode = errorCode;
+    }
+
     public Integer getTotalFollowers() {
         return totalFollowers;
     }
@@ -212,6 +308,93 @@ public class UserDataUpload {
         this.totalCloseFriends = totalCloseFriends;
     }
 
+    public Integer getNewFollowersCount() {
+        return newFollowersCount;
+    }
+
+    public void setNewFollowersCount(Integer newFollowersCount) {
+        this.newFollowersCount = newFollowersCount;
+    }
+
+    public Integer getNewUnfollowersCount() {
+        return newUnfollowersCount;
+    }
+
+    public void setNewUnfollowersCount(Integer newUnfollowersCount) {
+        this.newUnfollowersCount = newUnfollowersCount;
+    }
+
+    public String getFollowersFingerprint() {
+        return followersFingerprint;
+    }
+
+    public void setFollowersFingerprint(String followersFingerprint) {
+        this.followersFingerprint = followersFingerprint;
+    }
+
+    public String getFollowingFingerprint() {
+        return followingFingerprint;
+    }
+
+    public void setFollowingFingerprint(String followingFingerprint) {
+        this.followingFingerprint = followingFingerprint;
+    }
+
+    public String getCloseFriendsFingerprint() {
+        return closeFriendsFingerprint;
+    }
+
+    public void setCloseFriendsFingerprint(String closeFriendsFingerprint) {
+        this.closeFriendsFingerprint = closeFriendsFingerprint;
+    }
+
+    public String getMessagesFingerprint() {
+        return messagesFingerprint;
+    }
+
+    public void setMessagesFingerprint(String messagesFingerprint) {
+        this.messagesFingerprint = messagesFingerprint;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public int getProcessingAttempts() {
+        return processingAttempts;
+    }
+
+    public void setProcessingAttempts(int processingAttempts) {
+        this.processingAttempts = processingAttempts;
+    }
+
+    public LocalDateTime getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(LocalDateTime queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    public LocalDateTime getResultsCompactedAt() {
+        return resultsCompactedAt;
+    }
+
+    public void setResultsCompactedAt(LocalDateTime resultsCompactedAt) {
+        this.resultsCompactedAt = resultsCompactedAt;
+    }
 
 
     @Override
@@ -222,13 +405,21 @@ public class UserDataUpload {
                 ", uploadTime=" + uploadTime +
                 ", fileName='" + fileName + '\'' +
                 ", filePath='" + filePath + '\'' +
+                ", contentHash='" + contentHash + '\'' +
                 ", declaredFileType=" + declaredFileType +
                 ", status=" + status +
                 ", errorMessage='" + errorMessage + '\'' +
+                ", errorCode=" + errorCode +
                 ", totalFollowers=" + totalFollowers +
                 ", totalFollowing=" + totalFollowing +
                 ", unfollowersCount=" + unfollowersCount +
                 ", totalCloseFriends=" + totalCloseFriends +
+                ", newFollowersCount=" + newFollowersCount +
+                ", newUnfollowersCount=" + newUnfollowersCount +
+                ", leaseOwner='" + leaseOwner + '\'' +
+                ", leaseExpiresAt=" + leaseExpiresAt +
+                ", processingAttempts=" + processingAttempts +
+                ", queuedAt=" + queuedAt +
                 '}';
     }
 
@@ -0,0 +1,12 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import java.util.UUID;
+
+/**
+ * Published inside the status update's transaction when an upload reaches COMPLETED. Projections of the analysis
+ * such as the upload timeline handle it after that transaction commits, in a transaction of their own.
+ *
+ * @param uploadId The UUID of the completed UserDataUpload.
+ */
+public record UploadCompletedEvent(UUID uploadId) {
+}
@@ -0,0 +1,188 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import com.metaWebApp.MetaWebApp.analysis.AnalysisAbortedException;
+import com.metaWebApp.MetaWebApp.analysis.ExportAnalysisEngine;
+import com.metaWebApp.MetaWebApp.analysis.InvalidExportException;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs the analysis of a single claimed upload and records its outcome
+ * (COMPLETED, INVALID_FILE or FAILED, the latter two with an UploadErrorCode) through UserDataUploadService.
+ * Failures are also counted as uploads.failed{code}.
+ */
+@Component
+public class UploadJobProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobProcessor.class);
+
+    private final ExportAnalysisEngine exportAnalysisEngine;
+    private final AnalysisResultService analysisResultService;
+    private final UserDataUploadService userDataUploadService;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWaitTimer;
+
+    @Autowired
+    public UploadJobProcessor(ExportAnalysisEngine exportAnalysisEngine,
+                              AnalysisResultService analysisResultService,
+                              UserDataUploadService userDataUploadService,
+                              MeterRegistry meterRegistry) {
+        this.exportAnalysisEngine = exportAnalysisEngine;
+        this.analysisResultService = analysisResultService;
+        this.userDataUploadService = userDataUploadService;
+        this.meterRegistry = meterRegistry;
+        this.queueWaitTimer = Timer.builder("uploads.queue.wait")
+                .description("Time an upload spent PENDING before a worker started on it")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Processes an upload that has already been claimed (moved to PROCESSING with a lease).
+     * Never throws: every failure is recorded on the upload record instead.
+     * The lease is checked before every stage and result batch of the analysis; once it is lost, another node
+     * owns the upload, so the analysis is abandoned and nothing more (not even a status) is written.
+     *
+     * @param upload The claimed upload.
+     * @param lease The lease held on the upload by this node.
+     */
+    public void process(UserDataUpload upload, LeaseGuard lease) {
+        LocalDateTime queuedAt = upload.getQueuedAt() != null ? upload.getQueuedAt() : upload.getUploadTime();
+        if (queuedAt != null) {
+            queueWaitTimer.record(Duration.between(queuedAt, LocalDateTime.now()));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            if (lease.isLost()) {
+                throw new AnalysisAbortedException("Lease lost before analysis started");
+            }
+            // Drop partial output of an earlier, interrupted attempt before writing new results.
+            analysisResultService.deleteResultsForUpload(upload.getId());
+            exportAnalysisEngine.analyzeUpload(upload, lease::isLost);
+            outcome = recordOutcome(upload, lease, UploadStatus.COMPLETED, null, null);
+        } catch (AnalysisAbortedException e) {
+            log.warn("Abandoning upload {}: lease no longer held by {} ({})", upload.getId(), lease.owner(), e.getMessage());
+            outcome = "LEASE_LOST";
+        } catch (InvalidExportException e) {
+            log.info("Upload {} rejected as invalid: {}", upload.getId(), e.getMessage());
+            outcome = recordOutcome(upload, lease, UploadStatus.INVALID_FILE, UploadErrorCode.INVALID_EXPORT, e.getMessage());
+        } catch (Exception e) {
+            UploadErrorCode code = classify(e);
+            log.error("Processing of upload {} failed ({})", upload.getId(), code, e);
+            outcome = recordOutcome(upload, lease, UploadStatus.FAILED, code, "Analysis failed: " + e.getMessage());
+        }
+        sample.stop(Timer.builder("uploads.processing.duration")
+                .description("Wall-clock time spent analysing an upload")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Maps an unexpected processing failure to its UploadErrorCode.
+     */
+    static UploadErrorCode classify(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException) {
+                return UploadErrorCode.DATABASE_ERROR;
+            }
+            if (cause instanceof IOException || cause instanceof UncheckedIOException) {
+                return UploadErrorCode.STORAGE_ERROR;
+            }
+        }
+        return UploadErrorCode.INTERNAL_ERROR;
+    }
+
+    private String recordOutcome(UserDataUpload upload, LeaseGuard lease, UploadStatus status,
+                                       UploadErrorCode code, String message) {
+        if (code != null) {
+            Counter.builder("uploads.failed")
+                    .description("Uploads that ended FAILED or INVALID_FILE, by cause")
+                    .tag("code", code.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        try {
+            // Re-check ownership right before the final write, so a node that stalled past its lease
+            // can't overwrite the outcome of the node that took the upload over.
+            if (lease.isLost() || !userDataUploadService.renewLease(upload.getId(), lease.owner(), lease.duration())) {
+                log.warn("Discarding {} outcome for upload {}: lease no longer held by {}", status, upload.getId(), lease.owner());
+                return "LEASE_LOST";
+            }
+            userDataUploadService.updateUploadStatus(upload.getId(), status, code, message);
+        } catch (Exception e) {
+            log.error("Could not record {} status for upload {}", status, upload.getId(), e);
+        }
+        return status.name();
+    }
+
+    /**
+     * Tracks a lease held by this node on an upload while it is being processed.
+     * The lease counts as lost once a renewal failed, or once it has run out locally without a successful
+     * renewal (e.g. because the heartbeat stalled along with the worker): by then the reaper may already
+     * have handed the upload to another node.
+     */
+    public static final class LeaseGuard {
+
+        private final UUID uploadId;
+        private final String owner;
+        private final Duration duration;
+        private volatile long expiresAtNanos;
+        private volatile boolean lost;
+
+        /**
+         * @param duration The lease duration the upload was claimed with.
+         * @param claimedAtNanos When the claim was requested (a System.nanoTime value).
+         */
+        public LeaseGuard(UUID uploadId, String owner, Duration duration, long claimedAtNanos) {
+            this.uploadId = uploadId;
+            this.owner = owner;
+            this.duration = duration;
+            this.expiresAtNanos = claimedAtNanos + duration.toNanos();
+        }
+
+        public UUID uploadId() {
+            return uploadId;
+        }
+
+        public String owner() {
+            return owner;
+        }
+
+        public Duration duration() {
+            return duration;
+        }
+
+        public boolean isLost() {
+            return lost || System.nanoTime() - expiresAtNanos >= 0;
+        }
+
+        /**
+         * Records a successful renewal that was requested at requestedAtNanos (a System.nanoTime value).
+         */
+        public void renewed(long requestedAtNanos) {
+            expiresAtNanos = requestedAtNanos + duration.toNanos();
+        }
+
+        public void markLost() {
+            lost = true;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process job scheduler for upload analysis.
+ *
+ * The PENDING rows in user_data_uploads are the queue. Each poll claims at most as many uploads as there are free
+ * worker slots and runs them on virtual threads, so a burst of uploads simply waits in the table instead of piling
+ * up work (and memory) inside the JVM. New uploads trigger an immediate poll; the fixed-delay poll catches the rest.
+ *
+ * Claims are leases (FOR UPDATE SKIP LOCKED + expiry), so any number of backend nodes can share one database:
+ * each node heartbeats the leases of its in-flight uploads, and every node periodically reaps expired leases
+ * of nodes that died, putting those uploads back on the queue.
+ */
+@Component
+@EnableScheduling
+public class UploadJobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobScheduler.class);
+
+    private final UserDataUploadService userDataUploadService;
+    private final UploadJobProcessor uploadJobProcessor;
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final long shutdownTimeoutSeconds;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final int maxAttempts;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Map<UUID, UploadJobProcessor.LeaseGuard> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    @Autowired
+    public UploadJobScheduler(UserDataUploadService userDataUploadService,
+                              UploadJobProcessor uploadJobProcessor,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.processing.enabled:true}") boolean enabled,
+                              @Value("${app.processing.max-concurrency:4}") int maxConcurrency,
+                              @Value("${app.processing.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds,
+                              @Value("${app.processing.node-id:}") String nodeId,
+                              @Value("${app.processing.lease-seconds:300}") long leaseSeconds,
+                              @Value("${app.processing.max-attempts:3}") int maxAttempts) {
+        this.userDataUploadService = userDataUploadService;
+        this.uploadJobProcessor = uploadJobProcessor;
+        this.enabled = enabled;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.slots = new Semaphore(this.maxConcurrency);
+
+        Gauge.builder("uploads.queue.depth", queueDepth, AtomicLong::get)
+                .description("Uploads waiting in PENDING status (sampled on each poll)")
+                .register(meterRegistry);
+        Gauge.builder("uploads.processing.active", this, scheduler -> scheduler.activeJobs())
+                .description("Uploads currently being analysed by this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * On startup, release uploads whose node died while processing them, then look for work.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Upload processing enabled on node '{}' (max concurrency {}, lease {})", nodeId, maxConcurrency, leaseDuration);
+        reapExpiredLeases();
+        triggerPoll();
+    }
+
+    /**
+     * Starts work on a freshly created upload as soon as its transaction commits.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUploadQueued(UploadQueuedEvent event) {
+        triggerPoll();
+    }
+
+    /**
+     * Claims as many PENDING uploads as there are free worker slots and hands them to virtual threads.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.poll-interval-ms:2000}",
+            initialDelayString = "${app.processing.poll-interval-ms:2000}")
+    public void poll() {
+        if (!enabled || shuttingDown || !pollLock.tryLock()) {
+            return;
+        }
+        try {
+            int free = slots.availablePermits();
+            if (free > 0) {
+                long claimedAt = System.nanoTime();
+                List<UserDataUpload> claimed = userDataUploadService.claimPendingUploads(free, nodeId, leaseDuration);
+                for (UserDataUpload upload : claimed) {
+                    dispatch(upload, claimedAt);
+                }
+            }
+            queueDepth.set(userDataUploadService.countUploadsByStatus(UploadStatus.PENDING));
+        } catch (Exception e) {
+            log.error("Polling the upload queue failed", e);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Extends the leases of every upload this node is still working on.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.heartbeat-interval-ms:60000}")
+    public void renewLeases() {
+        inFlight.values().forEach(guard -> {
+            try {
+                long requestedAt = System.nanoTime();
+                if (userDataUploadService.renewLease(guard.uploadId(), nodeId, leaseDuration)) {
+                    guard.renewed(requestedAt);
+                } else {
+                    log.warn("Lost lease on upload {}; its analysis will be abandoned", guard.uploadId());
+                    guard.markLost();
+                }
+            } catch (Exception e) {
+                log.warn("Could not renew lease on upload {}", guard.uploadId(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns uploads whose owning node stopped renewing its lease to the queue (on any node).
+     */
+    @Scheduled(fixedDelayString = "${app.processing.reaper-interval-ms:60000}",
+            initialDelayString = "${app.processing.reaper-interval-ms:60000}")
+    public void reapExpiredLeases() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int reaped = userDataUploadService.reapExpiredLeases(maxAttempts);
+            if (reaped > 0) {
+                log.info("Released {} upload(s) with expired processing leases", reaped);
+            }
+        } catch (Exception e) {
+            log.error("Reaping expired upload leases failed", e);
+        }
+    }
+
+    private void dispatch(UserDataUpload upload, long claimedAt) {
+        // Only the poller acquires slots and it never claims more than are free, so this cannot block.
+        slots.acquireUninterruptibly();
+        UploadJobProcessor.LeaseGuard guard = new UploadJobProcessor.LeaseGuard(upload.getId(), nodeId, leaseDuration, claimedAt);
+        inFlight.put(upload.getId(), guard);
+        try {
+            workers.execute(() -> {
+                try {
+                    uploadJobProcessor.process(upload, guard);
+                } finally {
+                    inFlight.remove(upload.getId());
+                    slots.release();
+                    triggerPoll();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the lease expires and another node (or this one, after restart) picks it up.
+            inFlight.remove(upload.getId());
+            slots.release();
+        }
+    }
+
+    private void triggerPoll() {
+        if (!enabled || shuttingDown) {
+            return;
+        }
+        try {
+            workers.execute(this::poll);
+        } catch (RejectedExecutionException ignored) {
+            // Executor already shut down.
+        }
+    }
+
+    /**
+     * @return The number of uploads currently being processed on this node.
+     */
+    public int activeJobs() {
+        return maxConcurrency - slots.availablePermits();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            log.warn("Upload workers did not finish within {}s; interrupting", shutdownTimeoutSeconds);
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import java.util.UUID;
+
+/**
+ * Published when a new upload enters the PENDING queue, so workers can pick it up
+ * without waiting for the next scheduled poll.
+ *
+ * @param uploadId The UUID of the queued UserDataUpload.
+ */
+public record UploadQueuedEvent(UUID uploadId) {
+}
@@ -0,0 +1,38 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.AnalysisResultAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the AnalysisResultAttachment entity.
+ * Attachments are written by cascade from their AnalysisResult and read through AnalysisResultRepository.
+ */
+public interface AnalysisResultAttachmentRepository extends JpaRepository<AnalysisResultAttachment, UUID> {
+
+    /**
+     * Deletes all attachments of an upload in a single statement. The results referencing them
+     * must have been deleted first.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from AnalysisResultAttachment a where a.upload.id = :uploadId")
+    int deleteByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Deletes the given attachments. The results referencing them must have been deleted first.
+     *
+     * @param ids The UUIDs of the attachments.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from AnalysisResultAttachment a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,122 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.AnalysisResultAttachment;
+import com.metaWebApp.MetaWebApp.model.TimeOrderedUuidGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk loader that writes AnalysisResults with PostgreSQL's COPY protocol instead of INSERT statements.
+ * Only active with app.analysis.bulk-loader=copy, which requires a PostgreSQL datasource.
+ *
+ * Rows bypass the persistence context, so missing ids are assigned here (as the entity's
+ * id generator would) and a missing created_at is set to the time of the copy. Attachments are
+ * copied first, since results reference them.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.analysis.bulk-loader", havingValue = "copy")
+public class AnalysisResultCopyLoader {
+
+    private static final String COPY_SQL = "COPY analysis_results "
+            + "(id, upload_id, data_type, target_identifier, value_numeric, value_text, profile_href, follow_timestamp, "
+            + "attachment_id, created_at) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COPY_ATTACHMENTS_SQL = "COPY analysis_result_attachments (id, upload_id, meta_json) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private final DataSource dataSource;
+
+    @Autowired
+    public AnalysisResultCopyLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Copies a batch of results into analysis_results (and their attachments into analysis_result_attachments). Uses the connection of the current transaction, if any.
+     *
+     * @param analysisResults The results to write. Each must reference a persisted upload.
+     * @return The number of rows written.
+     */
+    public long copy(List<AnalysisResult> analysisResults) {
+        if (analysisResults.isEmpty()) {
+            return 0;
+        }
+        StringBuilder csv = new StringBuilder(analysisResults.size() * 128);
+        StringBuilder attachmentsCsv = new StringBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        for (AnalysisResult result : analysisResults) {
+            if (result.getId() == null) {
+                result.setId(TimeOrderedUuidGenerator.next());
+            }
+            AnalysisResultAttachment attachment = result.getAttachment();
+            if (attachment != null) {
+                if (attachment.getId() == null) {
+                    attachment.setId(TimeOrderedUuidGenerator.next());
+                }
+                attachmentsCsv.append(attachment.getId()).append(',')
+                        .append(result.getUpload().getId()).append(',');
+                appendQuoted(attachmentsCsv, attachment.getMetaJson().toString());
+                attachmentsCsv.append('\n');
+            }
+            LocalDateTime createdAt = result.getCreatedAt() != null ? result.getCreatedAt() : now;
+            csv.append(result.getId()).append(',')
+                    .append(result.getUpload().getId()).append(',')
+                    .append(result.getDataType().name()).append(',');
+            appendQuoted(csv, result.getTargetIdentifier());
+            csv.append(',');
+            if (result.getValueNumeric() != null) {
+                csv.append(result.getValueNumeric());
+            }
+            csv.append(',');
+            appendQuoted(csv, result.getValueText());
+            csv.append(',');
+            appendQuoted(csv, result.getProfileHref());
+            csv.append(',');
+            if (result.getFollowTimestamp() != null) {
+                csv.append(result.getFollowTimestamp());
+            }
+            csv.append(',');
+            if (attachment != null) {
+                csv.append(attachment.getId());
+            }
+            csv.append(',').append(createdAt).append('\n');
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            if (!attachmentsCsv.isEmpty()) {
+                copyManager.copyIn(COPY_ATTACHMENTS_SQL, new StringReader(attachmentsCsv.toString()));
+            }
+            return copyManager.copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY into analysis_results failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Appends a CSV field. Null stays an unquoted empty field, which COPY reads as NULL;
+     * any other value is quoted so empty strings, commas and newlines survive.
+     */
+    private static void appendQuoted(StringBuilder csv, String value) {
+        if (value == null) {
+            return;
+        }
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
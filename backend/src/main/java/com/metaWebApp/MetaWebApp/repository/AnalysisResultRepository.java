@@ -1,12 +1,23 @@
 package com.metaWebApp.MetaWebApp.repository;
 
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
 import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
 import com.metaWebApp.MetaWebApp.model.AnalysisResult;
 import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for the AnalysisResult entity.
@@ -14,6 +25,25 @@ import java.util.UUID;
  */
 public interface AnalysisResultRepository extends JpaRepository<AnalysisResult, UUID> {
 
+    // Selects exactly the listing columns of AnalysisResultResponseDTO; r.upload.id and r.attachment.id are read
+    // from the FK columns, no join, so listings never touch the attachments table or parse JSON.
+    String RESPONSE_SELECT = "select new com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO("
+            + "r.id, r.upload.id, r.dataType, r.targetIdentifier, r.valueNumeric, r.valueText, "
+            + "r.profileHref, r.followTimestamp, r.attachment.id, r.createdAt) "
+            + "from AnalysisResult r ";
+
+    // Like RESPONSE_SELECT, but including the metadata of results that have an attachment.
+    String FULL_SELECT = "select new com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO("
+            + "r.id, r.upload.id, r.dataType, r.targetIdentifier, r.valueNumeric, r.valueText, "
+            + "r.profileHref, r.followTimestamp, a.metaJson, r.createdAt) "
+            + "from AnalysisResult r left join r.attachment a ";
+
+    // Keyset pagination over (targetIdentifier, id), served by the (upload_id, data_type, target_identifier) index.
+    // Each page seeks directly past the last row of the previous one, so deep pages cost the same as the first.
+    String PAGE_SELECT = RESPONSE_SELECT
+            + "where r.upload.id = :uploadId and r.dataType = :dataType "
+            + "and r.targetIdentifier like :pattern escape '\\' ";
+
     /**
      * Finds all AnalysisResults associated with a specific UserDataUpload.
      *
@@ -48,6 +78,94 @@ public interface AnalysisResultRepository extends JpaRepository<AnalysisResult,
      */
     List<AnalysisResult> findByUploadIdAndDataType(UUID uploadId, AnalysisDataType dataType);
 
+    /**
+     * Lists all results of an upload as response DTOs, in (dataType, targetIdentifier) index order.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The results as DTOs.
+     */
+    @Query(RESPONSE_SELECT + "where r.upload.id = :uploadId order by r.dataType asc, r.targetIdentifier asc")
+    List<AnalysisResultResponseDTO> findResponsesByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Lists the results of an upload of one type as response DTOs, ordered by targetIdentifier.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param dataType The AnalysisDataType to filter by.
+     * @return The results as DTOs.
+     */
+    @Query(RESPONSE_SELECT + "where r.upload.id = :uploadId and r.dataType = :dataType order by r.targetIdentifier asc")
+    List<AnalysisResultResponseDTO> findResponsesByUploadIdAndDataType(@Param("uploadId") UUID uploadId,
+                                                                       @Param("dataType") AnalysisDataType dataType);
+
+    // Rows fetched per round-trip by the streaming queries below. PostgreSQL only honours it inside a transaction.
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Streams all results of an upload as response DTOs, in the same order as findResponsesByUploadId.
+     * Rows are read from a cursor STREAM_FETCH_SIZE at a time. Must be consumed inside a read-only
+     * transaction and closed afterwards.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The results as a lazily read stream of DTOs.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(RESPONSE_SELECT + "where r.upload.id = :uploadId order by r.dataType asc, r.targetIdentifier asc")
+    Stream<AnalysisResultResponseDTO> streamResponsesByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Streams the results of an upload of one type as response DTOs, ordered by targetIdentifier.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param dataType The AnalysisDataType to filter by.
+     * @return The results as a lazily read stream of DTOs.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(RESPONSE_SELECT + "where r.upload.id = :uploadId and r.dataType = :dataType order by r.targetIdentifier asc")
+    Stream<AnalysisResultResponseDTO> streamResponsesByUploadIdAndDataType(@Param("uploadId") UUID uploadId,
+                                                                           @Param("dataType") AnalysisDataType dataType);
+
+    /**
+     * Reads one result including its metadata.
+     *
+     * @param id The UUID of the result.
+     * @return The result as a DTO, or empty if it does not exist.
+     */
+    @Query(FULL_SELECT + "where r.id = :id")
+    Optional<AnalysisResultResponseDTO> findFullResponseById(@Param("id") UUID id);
+
+    /**
+     * Streams all results of an upload including their metadata, in the same order as streamResponsesByUploadId.
+     * Used by the bulk export.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The results as a lazily read stream of DTOs.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(FULL_SELECT + "where r.upload.id = :uploadId order by r.dataType asc, r.targetIdentifier asc")
+    Stream<AnalysisResultResponseDTO> streamFullResponsesByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Streams the results of an upload of one type including their metadata, ordered by targetIdentifier.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param dataType The AnalysisDataType to filter by.
+     * @return The results as a lazily read stream of DTOs.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(FULL_SELECT + "where r.upload.id = :uploadId and r.dataType = :dataType order by r.targetIdentifier asc")
+    Stream<AnalysisResultResponseDTO> streamFullResponsesByUploadIdAndDataType(@Param("uploadId") UUID uploadId,
+                                                                               @Param("dataType") AnalysisDataType dataType);
+
+    /**
+     * Reads the metadata of the given results; results without an attachment are left out.
+     *
+     * @param ids The UUIDs of the results.
+     * @return Pairs of {result id (UUID), metaJson (JsonNode)}.
+     */
+    @Query("select r.id, a.metaJson from AnalysisResult r join r.attachment a where r.id in :ids")
+    List<Object[]> findMetaJsonByIds(@Param("ids") Collection<UUID> ids);
+
     /**
      * Finds AnalysisResults by the Upload ID, data type, and target identifier.
      *
@@ -57,4 +175,113 @@ public interface AnalysisResultRepository extends JpaRepository<AnalysisResult,
      * @return An Optional containing the AnalysisResult if found, or empty.
      */
     Optional<AnalysisResult> findByUploadIdAndDataTypeAndTargetIdentifier(UUID uploadId, AnalysisDataType dataType, String targetIdentifier);
-}
\ No newline at end of file
+
+    /**
+     * Returns the first target identifiers of an upload's results of one type in ascending order,
+     * read from the (upload_id, data_type, target_identifier) index alone.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param dataType The AnalysisDataType to filter by.
+     * @param limit The maximum number of identifiers.
+     * @return The identifiers.
+     */
+    @Query("select r.targetIdentifier from AnalysisResult r where r.upload.id = :uploadId and r.dataType = :dataType "
+            + "order by r.targetIdentifier asc")
+    List<String> findTargetIdentifiers(@Param("uploadId") UUID uploadId,
+                                       @Param("dataType") AnalysisDataType dataType,
+                                       Limit limit);
+
+    /**
+     * Deletes all AnalysisResults of an upload in a single statement, without loading them.
+     * Used to discard partial output before an upload is (re-)processed. Their attachments are deleted
+     * separately afterwards (see AnalysisResultAttachmentRepository.deleteByUploadId).
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from AnalysisResult r where r.upload.id = :uploadId")
+    int deleteByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Totals the results of an upload per data type.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return One DTO per data type the upload has results of.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO(r.dataType, count(r), sum(r.valueNumeric)) "
+            + "from AnalysisResult r where r.upload.id = :uploadId group by r.dataType order by r.dataType")
+    List<AnalysisResultSummaryDTO> summarizeByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Returns the ids of some results of an upload together with their attachment ids (null if none),
+     * for deleting the upload's results a batch at a time.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param limit The batch size.
+     * @return Pairs of {result id (UUID), attachment id (UUID or null)}.
+     */
+    @Query("select r.id, r.attachment.id from AnalysisResult r where r.upload.id = :uploadId")
+    List<Object[]> findIdBatch(@Param("uploadId") UUID uploadId, Limit limit);
+
+    /**
+     * Deletes the given results of an upload. The upload id lets PostgreSQL prune to the upload's partition.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param ids The UUIDs of the results.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from AnalysisResult r where r.upload.id = :uploadId and r.id in :ids")
+    int deleteByUploadIdAndIdIn(@Param("uploadId") UUID uploadId, @Param("ids") Collection<UUID> ids);
+
+    /**
+     * Returns the first page of results in ascending targetIdentifier order.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param dataType The AnalysisDataType to filter by.
+     * @param pattern A LIKE pattern on targetIdentifier ('%' matches everything).
+     * @param limit The maximum number of rows.
+     * @return The matching results as DTOs.
+     */
+    @Query(PAGE_SELECT + "order by r.targetIdentifier asc, r.id asc")
+    List<AnalysisResultResponseDTO> findPageAscending(@Param("uploadId") UUID uploadId,
+                                                      @Param("dataType") AnalysisDataType dataType,
+                                                      @Param("pattern") String pattern,
+                                                      Limit limit);
+
+    /**
+     * Returns the page of results following (afterTarget, afterId) in ascending order.
+     */
+    @Query(PAGE_SELECT
+            + "and (r.targetIdentifier > :afterTarget or (r.targetIdentifier = :afterTarget and r.id > :afterId)) "
+            + "order by r.targetIdentifier asc, r.id asc")
+    List<AnalysisResultResponseDTO> findPageAscendingAfter(@Param("uploadId") UUID uploadId,
+                                                           @Param("dataType") AnalysisDataType dataType,
+                                                           @Param("pattern") String pattern,
+                                                           @Param("afterTarget") String afterTarget,
+                                                           @Param("afterId") UUID afterId,
+                                                           Limit limit);
+
+    /**
+     * Returns the first page of results in descending targetIdentifier order.
+     */
+    @Query(PAGE_SELECT + "order by r.targetIdentifier desc, r.id desc")
+    List<AnalysisResultResponseDTO> findPageDescending(@Param("uploadId") UUID uploadId,
+                                                       @Param("dataType") AnalysisDataType dataType,
+                                                       @Param("pattern") String pattern,
+                                                       Limit limit);
+
+    /**
+     * Returns the page of results following (afterTarget, afterId) in descending order.
+     */
+    @Query(PAGE_SELECT
+            + "and (r.targetIdentifier < :afterTarget or (r.targetIdentifier = :afterTarget and r.id < :afterId)) "
+            + "order by r.targetIdentifier desc, r.id desc")
+    List<AnalysisResultResponseDTO> findPageDescendingAfter(@Param("uploadId") UUID uploadId,
+                                                            @Param("dataType") AnalysisDataType dataType,
+                                                            @Param("pattern") String pattern,
+                                                            @Param("afterTarget") String afterTarget,
+                                                            @Param("afterId") UUID afterId,
+                                                            Limit limit);
+}
@@ -0,0 +1,34 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisResultSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the AnalysisResultSummary entity.
+ */
+public interface AnalysisResultSummaryRepository extends JpaRepository<AnalysisResultSummary, UUID> {
+
+    /**
+     * Lists the summaries of a compacted upload as DTOs.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return One DTO per data type the upload had results of.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO(s.dataType, s.resultCount, s.valueNumericSum) "
+            + "from AnalysisResultSummary s where s.upload.id = :uploadId order by s.dataType")
+    List<AnalysisResultSummaryDTO> findResponsesByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Checks whether the summaries of an upload have been written, i.e. its compaction has started.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return True if at least one summary exists.
+     */
+    boolean existsByUploadId(UUID uploadId);
+}
@@ -0,0 +1,10 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+/**
+ * An InstagramHandle dictionary entry read without the entity overhead.
+ *
+ * @param id The handle id.
+ * @param handle The handle.
+ */
+public record InstagramHandleEntry(Integer id, String handle) {
+}
@@ -0,0 +1,35 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.InstagramHandle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the InstagramHandle dictionary.
+ */
+public interface InstagramHandleRepository extends JpaRepository<InstagramHandle, Integer> {
+
+    /**
+     * Looks up the dictionary entries of several handles at once.
+     *
+     * @param handles The handles to look up.
+     * @return The (id, handle) pairs of the handles that are already known.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.repository.InstagramHandleEntry(h.id, h.handle) "
+            + "from InstagramHandle h where h.handle in :handles")
+    List<InstagramHandleEntry> findIdsByHandleIn(@Param("handles") Collection<String> handles);
+
+    /**
+     * Resolves several handle ids at once.
+     *
+     * @param ids The ids to resolve.
+     * @return The (id, handle) pairs of the known ids.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.repository.InstagramHandleEntry(h.id, h.handle) "
+            + "from InstagramHandle h where h.id in :ids")
+    List<InstagramHandleEntry> findHandlesByIdIn(@Param("ids") Collection<Integer> ids);
+}
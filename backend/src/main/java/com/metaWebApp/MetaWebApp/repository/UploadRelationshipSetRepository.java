@@ -0,0 +1,60 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadRelationshipSet;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the UploadRelationshipSet entity.
+ */
+public interface UploadRelationshipSetRepository extends JpaRepository<UploadRelationshipSet, UUID> {
+
+    /**
+     * Finds one relationship set of an upload.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @param setType The list to fetch.
+     * @return The set, or empty if the upload had no such list.
+     */
+    Optional<UploadRelationshipSet> findByUploadIdAndSetType(UUID uploadId, RelationshipSetType setType);
+
+    /**
+     * Finds a given relationship set of a user's uploads in a given status uploaded before a point in time,
+     * newest first.
+     *
+     * @param userId The UUID of the user.
+     * @param setType The list to fetch.
+     * @param status The status the uploads must have (normally COMPLETED).
+     * @param before Only uploads strictly older than this are considered.
+     * @param limit The maximum number of sets.
+     * @return The matching sets, most recent upload first.
+     */
+    @Query("select s from UploadRelationshipSet s join s.upload u "
+            + "where u.user.id = :userId and s.setType = :setType and u.status = :status and u.uploadTime < :before "
+            + "order by u.uploadTime desc")
+    List<UploadRelationshipSet> findLatestBefore(@Param("userId") UUID userId,
+                                                 @Param("setType") RelationshipSetType setType,
+                                                 @Param("status") UploadStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 Limit limit);
+
+    /**
+     * Deletes all relationship sets of an upload.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from UploadRelationshipSet s where s.upload.id = :uploadId")
+    int deleteByUploadId(@Param("uploadId") UUID uploadId);
+}
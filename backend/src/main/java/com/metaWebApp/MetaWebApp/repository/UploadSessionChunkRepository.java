@@ -0,0 +1,47 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.UploadSessionChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the UploadSessionChunk entity.
+ */
+public interface UploadSessionChunkRepository extends JpaRepository<UploadSessionChunk, UUID> {
+
+    /**
+     * @param sessionId The UUID of the session.
+     * @param chunkIndex The chunk index.
+     * @return The received chunk, or empty if it has not arrived yet.
+     */
+    Optional<UploadSessionChunk> findBySessionIdAndChunkIndex(UUID sessionId, int chunkIndex);
+
+    /**
+     * @param sessionId The UUID of the session.
+     * @return The number of chunks received so far.
+     */
+    long countBySessionId(UUID sessionId);
+
+    /**
+     * @param sessionId The UUID of the session.
+     * @return The indexes of all received chunks, ascending.
+     */
+    @Query("select c.chunkIndex from UploadSessionChunk c where c.session.id = :sessionId order by c.chunkIndex")
+    List<Integer> findChunkIndexesBySessionId(@Param("sessionId") UUID sessionId);
+
+    /**
+     * Deletes the chunk bookkeeping of a session.
+     *
+     * @param sessionId The UUID of the session.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from UploadSessionChunk c where c.session.id = :sessionId")
+    int deleteBySessionId(@Param("sessionId") UUID sessionId);
+}
@@ -0,0 +1,46 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.model.UploadSession;
+import com.metaWebApp.MetaWebApp.model.UploadSessionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the UploadSession entity.
+ */
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+
+    /**
+     * Loads a session and locks its row (SELECT ... FOR UPDATE), serialising chunk bookkeeping and completion.
+     * Must run inside a transaction.
+     *
+     * @param id The UUID of the session.
+     * @return The locked session, or empty if it does not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UploadSession s where s.id = :id")
+    Optional<UploadSession> lockById(@Param("id") UUID id);
+
+    /**
+     * @param uploadId The UUID of the upload the session receives content for.
+     * @return The upload's session, or empty if it was not uploaded through one.
+     */
+    Optional<UploadSession> findByUploadId(UUID uploadId);
+
+    /**
+     * Finds sessions in a given status that expired before a point in time.
+     *
+     * @param status The session status (normally OPEN).
+     * @param now The reference time.
+     * @return The expired sessions.
+     */
+    List<UploadSession> findByStatusAndExpiresAtBefore(UploadSessionStatus status, LocalDateTime now);
+}
@@ -0,0 +1,53 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.dto.UploadTimelineEntryDTO;
+import com.metaWebApp.MetaWebApp.model.UploadTimelineEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the UploadTimelineEntry entity.
+ * Every query is served by the (user_id, upload_time) index or the unique upload_id constraint.
+ */
+public interface UploadTimelineRepository extends JpaRepository<UploadTimelineEntry, UUID> {
+
+    /**
+     * Returns a user's whole timeline, oldest upload first, as DTOs in a single query.
+     *
+     * @param userId The UUID of the user.
+     * @return One entry per completed upload of the user.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.dto.UploadTimelineEntryDTO("
+            + "e.upload.id, e.uploadTime, e.totalFollowers, e.totalFollowing, e.unfollowersCount, e.totalCloseFriends, "
+            + "e.newFollowersCount, e.newUnfollowersCount, e.followersDelta, e.followingDelta, "
+            + "e.topNewFollowers, e.topNewUnfollowers) "
+            + "from UploadTimelineEntry e where e.user.id = :userId order by e.uploadTime asc")
+    List<UploadTimelineEntryDTO> findTimelineByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Finds the timeline entry of an upload.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return The entry, or empty if the upload has not completed.
+     */
+    Optional<UploadTimelineEntry> findByUploadId(UUID uploadId);
+
+    // Neighbours of an entry that carry a count, used to maintain followersDelta and followingDelta.
+    Optional<UploadTimelineEntry> findFirstByUserIdAndUploadTimeBeforeAndTotalFollowersNotNullOrderByUploadTimeDesc(
+            UUID userId, LocalDateTime before);
+
+    Optional<UploadTimelineEntry> findFirstByUserIdAndUploadTimeAfterAndTotalFollowersNotNullOrderByUploadTimeAsc(
+            UUID userId, LocalDateTime after);
+
+    Optional<UploadTimelineEntry> findFirstByUserIdAndUploadTimeBeforeAndTotalFollowingNotNullOrderByUploadTimeDesc(
+            UUID userId, LocalDateTime before);
+
+    Optional<UploadTimelineEntry> findFirstByUserIdAndUploadTimeAfterAndTotalFollowingNotNullOrderByUploadTimeAsc(
+            UUID userId, LocalDateTime after);
+}
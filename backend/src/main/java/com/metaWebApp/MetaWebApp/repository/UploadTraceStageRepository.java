@@ -0,0 +1,37 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO;
+import com.metaWebApp.MetaWebApp.model.UploadTraceStage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data JPA repository for the UploadTraceStage entity.
+ */
+public interface UploadTraceStageRepository extends JpaRepository<UploadTraceStage, UUID> {
+
+    /**
+     * Lists the trace of an upload as DTOs, by attempt and then in pipeline order.
+     *
+     * @param uploadId The UUID of the UserDataUpload.
+     * @return One DTO per stage and processing attempt.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO(t.attempt, t.stage, t.startedAt, t.endedAt, "
+            + "t.durationMicros, t.bytesRead, t.records, t.rowsWritten, t.allocatedBytes) "
+            + "from UploadTraceStage t where t.upload.id = :uploadId order by t.attempt, t.startedAt")
+    List<UploadTraceStageDTO> findResponsesByUploadId(@Param("uploadId") UUID uploadId);
+
+    /**
+     * Deletes the trace of one processing attempt, before it is written again.
+     *
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from UploadTraceStage t where t.upload.id = :uploadId and t.attempt = :attempt")
+    int deleteByUploadIdAndAttempt(@Param("uploadId") UUID uploadId, @Param("attempt") int attempt);
+}
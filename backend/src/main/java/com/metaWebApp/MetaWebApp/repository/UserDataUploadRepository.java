@@ -1,9 +1,24 @@
 package com.metaWebApp.MetaWebApp.repository;
 
+import com.metaWebApp.MetaWebApp.dto.UploadResponseDTO;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
 import com.metaWebApp.MetaWebApp.model.User;
 import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -28,13 +43,150 @@ public interface UserDataUploadRepository extends JpaRepository<UserDataUpload,
      */
     List<UserDataUpload> findByUserId(UUID userId);
 
+    /**
+     * Lists a user's uploads as response DTOs, newest first, selecting only the DTO's columns.
+     * Nothing enters the persistence context and the User is never loaded; served by the (user_id, upload_time) index.
+     *
+     * @param userId The UUID of the user.
+     * @return The user's uploads as DTOs.
+     */
+    @Query("select new com.metaWebApp.MetaWebApp.dto.UploadResponseDTO("
+            + "u.id, u.user.id, u.fileName, u.filePath, u.declaredFileType, u.status, u.errorMessage, u.errorCode, "
+            + "u.totalFollowers, u.totalFollowing, u.unfollowersCount, u.totalCloseFriends, "
+            + "u.newFollowersCount, u.newUnfollowersCount, u.uploadTime, u.resultsCompactedAt) "
+            + "from UserDataUpload u where u.user.id = :userId order by u.uploadTime desc")
+    List<UploadResponseDTO> findResponsesByUserId(@Param("userId") UUID userId);
+
     /**
      * Finds UserDataUploads by their status.
      *
      * @param status The UploadStatus to filter by.
      * @return A list of UserDataUploads matching the given status.
      */
-    List<UserDataUpload> findByStatus(String status); // Or UploadStatus enum if preferred
-    // If you define UploadStatus enum correctly and use @Enumerated(EnumType.STRING)
-    // in the entity, you can use: List<UserDataUpload> findByStatus(UploadStatus status);
+    List<UserDataUpload> findByStatus(UploadStatus status);
+
+    /**
+     * Locks the oldest uploads in a given status for claiming, using SELECT ... FOR UPDATE SKIP LOCKED.
+     * Rows already locked by another node's claim transaction are skipped rather than waited on,
+     * so concurrent claimers never receive the same upload. Must run inside a transaction.
+     *
+     * @param status The UploadStatus to claim from (normally PENDING).
+     * @param limit The maximum number of uploads to lock.
+     * @return The locked uploads ordered by upload time, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = SKIP LOCKED
+    @Query("select u from UserDataUpload u where u.status = :status order by u.uploadTime asc")
+    List<UserDataUpload> lockNextByStatus(@Param("status") UploadStatus status, Limit limit);
+
+    /**
+     * Extends the lease of an upload, but only while the given node still owns it.
+     *
+     * @param id The UUID of the upload.
+     * @param owner The node that claimed the upload.
+     * @param expiresAt The new lease expiry.
+     * @return 1 if the lease was renewed, 0 if it was lost (reaped or claimed elsewhere).
+     */
+    @Modifying
+    @Query("update UserDataUpload u set u.leaseExpiresAt = :expiresAt " +
+            "where u.id = :id and u.leaseOwner = :owner and u.status = :processing")
+    int renewLease(@Param("id") UUID id, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt,
+                   @Param("processing") UploadStatus processing);
+
+    /**
+     * Returns uploads whose lease expired before the given time to the queue (queued again as of that time),
+     * as long as they have attempts left.
+     *
+     * @return The number of uploads re-queued.
+     */
+    @Modifying
+    @Query("update UserDataUpload u set u.status = :pending, u.leaseOwner = null, u.leaseExpiresAt = null, " +
+            "u.queuedAt = :now where u.status = :processing and u.leaseExpiresAt < :now and u.processingAttempts < :maxAttempts")
+    int requeueExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+                             @Param("pending") UploadStatus pending, @Param("processing") UploadStatus processing);
+
+    /**
+     * Fails uploads whose lease expired and that have used up all their attempts,
+     * so an upload that repeatedly kills its worker can't loop forever.
+     *
+     * @return The number of uploads marked as failed.
+     */
+    @Modifying
+    @Query("update UserDataUpload u set u.status = :failed, u.errorMessage = :message, u.errorCode = :code, " +
+            "u.leaseOwner = null, u.leaseExpiresAt = null " +
+            "where u.status = :processing and u.leaseExpiresAt < :now and u.processingAttempts >= :maxAttempts")
+    int failExhaustedLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+                            @Param("message") String message, @Param("code") UploadErrorCode code,
+                            @Param("failed") UploadStatus failed, @Param("processing") UploadStatus processing);
+
+    /**
+     * Counts the uploads in a given status (e.g. the depth of the PENDING queue).
+     *
+     * @param status The UploadStatus to count.
+     * @return The number of uploads in that status.
+     */
+    long countByStatus(UploadStatus status);
+
+    // Uploads whose results are (being) compacted keep only summaries, so their analysis can't be reused
+    String HAS_DETAILED_RESULTS = "u.resultsCompactedAt is null "
+            + "and not exists (select 1 from AnalysisResultSummary s where s.upload = u) ";
+
+    /**
+     * @param userId The UUID of the user.
+     * @param contentHash The hex-encoded SHA-256 of the content.
+     * @return Whether the user has any upload of this content, i.e. whether they stored the blob themselves.
+     */
+    @Query("select count(u) > 0 from UserDataUpload u where u.user.id = :userId and u.contentHash = :contentHash")
+    boolean existsByUserIdAndContentHash(@Param("userId") UUID userId, @Param("contentHash") String contentHash);
+
+    /**
+     * Finds a user's most recent uploads of identical content in a given status that still have detailed results.
+     *
+     * @param userId The UUID of the user.
+     * @param contentHash The hex-encoded SHA-256 of the content.
+     * @param declaredFileType The declared type, which decides how a single file is read.
+     * @param status The status the upload must have (normally COMPLETED).
+     * @param limit The maximum number of uploads.
+     * @return The matching uploads, most recent first.
+     */
+    @Query("select u from UserDataUpload u where u.user.id = :userId and u.contentHash = :contentHash "
+            + "and u.declaredFileType = :declaredFileType and u.status = :status and " + HAS_DETAILED_RESULTS
+            + "order by u.uploadTime desc")
+    List<UserDataUpload> findDetailedByUserIdAndContentHash(@Param("userId") UUID userId,
+                                                            @Param("contentHash") String contentHash,
+                                                            @Param("declaredFileType") DeclaredFileType declaredFileType,
+                                                            @Param("status") UploadStatus status,
+                                                            Limit limit);
+
+    /**
+     * Finds a user's most recent uploads in a given status other than one upload that still have detailed results,
+     * e.g. the completed analyses a new upload could reuse parts of.
+     *
+     * @param userId The UUID of the user.
+     * @param status The status the uploads must have (normally COMPLETED).
+     * @param excludedId The UUID of an upload to leave out (the one being analysed).
+     * @param limit The maximum number of uploads.
+     * @return The matching uploads, most recent first.
+     */
+    @Query("select u from UserDataUpload u where u.user.id = :userId and u.status = :status and u.id <> :excludedId "
+            + "and " + HAS_DETAILED_RESULTS + "order by u.uploadTime desc")
+    List<UserDataUpload> findRecentByUserIdAndStatusExcluding(@Param("userId") UUID userId,
+                                                              @Param("status") UploadStatus status,
+                                                              @Param("excludedId") UUID excludedId,
+                                                              Limit limit);
+
+    /**
+     * Finds uploads in a given status, oldest first, that still have detailed results although the user has
+     * at least `keep` newer uploads in that status: the uploads the retention policy compacts.
+     *
+     * @param status The status the uploads must have (normally COMPLETED).
+     * @param keep The number of most recent uploads per user that keep their detailed results.
+     * @param limit The maximum number of uploads.
+     * @return The UUIDs of the uploads to compact.
+     */
+    @Query("select u.id from UserDataUpload u where u.status = :status and u.resultsCompactedAt is null "
+            + "and (select count(n) from UserDataUpload n "
+            + "where n.user = u.user and n.status = :status and n.uploadTime > u.uploadTime) >= :keep "
+            + "order by u.uploadTime asc")
+    List<UUID> findCompactionCandidates(@Param("status") UploadStatus status, @Param("keep") long keep, Limit limit);
 }
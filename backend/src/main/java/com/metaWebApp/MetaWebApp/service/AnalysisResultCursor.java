@@ -0,0 +1,38 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a result page: its sort key (targetIdentifier) plus the id as tie-breaker.
+ * Sent to clients as an opaque, URL-safe Base64 token.
+ *
+ * @param targetIdentifier The targetIdentifier of the last returned row.
+ * @param id The id of the last returned row.
+ */
+record AnalysisResultCursor(String targetIdentifier, UUID id) {
+
+    private static final char SEPARATOR = '\n'; // never part of an Instagram handle
+
+    String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + targetIdentifier;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}.
+     */
+    static AnalysisResultCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new AnalysisResultCursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
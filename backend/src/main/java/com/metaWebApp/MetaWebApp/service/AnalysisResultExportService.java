@@ -0,0 +1,95 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.export.ColumnarResultWriter;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of analysis results in the columnar binary format (see ColumnarResultWriter), for users who
+ * download their full history for offline analysis. Results are read from a database cursor and encoded
+ * block by block, so an export of any size needs only one block of memory.
+ */
+@Service
+public class AnalysisResultExportService {
+
+    public static final int MAX_UPLOADS_PER_EXPORT = 100;
+
+    public enum Compression {
+        NONE,
+        GZIP
+    }
+
+    private final AnalysisResultService analysisResultService;
+    private final UserDataUploadService userDataUploadService;
+
+    @Autowired
+    public AnalysisResultExportService(AnalysisResultService analysisResultService,
+                                       UserDataUploadService userDataUploadService) {
+        this.analysisResultService = analysisResultService;
+        this.userDataUploadService = userDataUploadService;
+    }
+
+    /**
+     * Checks an export request before the response is committed.
+     *
+     * @param uploadIds The uploads to export.
+     * @throws IllegalArgumentException if no or too many (or duplicate) uploads are requested.
+     * @throws NoSuchElementException if an upload does not exist.
+     */
+    public void validate(List<UUID> uploadIds) {
+        if (uploadIds == null || uploadIds.isEmpty() || uploadIds.size() > MAX_UPLOADS_PER_EXPORT) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_UPLOADS_PER_EXPORT + " uploads can be exported at once");
+        }
+        if (uploadIds.stream().distinct().count() != uploadIds.size()) {
+            throw new IllegalArgumentException("Duplicate upload ids in export request");
+        }
+        for (UUID uploadId : uploadIds) {
+            if (!userDataUploadService.uploadRecordExists(uploadId)) {
+                throw new NoSuchElementException("Upload not found with ID: " + uploadId);
+            }
+        }
+    }
+
+    /**
+     * Writes the results of the given uploads, one section per upload in the given order.
+     * The output stream is not closed.
+     *
+     * @param uploadIds The uploads to export.
+     * @param dataType Only results of this type, or null for all types.
+     * @param compression Whether to gzip the output.
+     * @param out The destination, e.g. the response body.
+     * @return The number of results written.
+     * @throws IOException if writing fails (e.g. the client disconnected).
+     */
+    public long export(List<UUID> uploadIds, AnalysisDataType dataType, Compression compression, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = compression == Compression.GZIP ? new GZIPOutputStream(out, 64 * 1024) : null;
+        ColumnarResultWriter writer = new ColumnarResultWriter(gzip != null ? gzip : out);
+        try {
+            for (UUID uploadId : uploadIds) {
+                analysisResultService.forEachFullResultResponse(uploadId, dataType, result -> {
+                    try {
+                        writer.write(result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        if (gzip != null) {
+            gzip.finish();
+        }
+        return writer.getRowsWritten();
+    }
+}
@@ -1,24 +1,68 @@
 package com.metaWebApp.MetaWebApp.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultPageDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
 import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
 import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultAttachmentRepository;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultCopyLoader;
 import com.metaWebApp.MetaWebApp.repository.AnalysisResultRepository;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultSummaryRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AnalysisResultService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * How the search term of a result page is matched against targetIdentifier.
+     * PREFIX can use the composite index; CONTAINS scans the rows of the upload and data type.
+     */
+    public enum SearchMatch {
+        PREFIX,
+        CONTAINS
+    }
+
     private final AnalysisResultRepository analysisResultRepository;
+    private final AnalysisResultAttachmentRepository analysisResultAttachmentRepository;
+    private final AnalysisResultSummaryRepository analysisResultSummaryRepository;
+    private final EntityManager entityManager;
+    private final AnalysisResultCopyLoader copyLoader;
+    private final int flushInterval;
 
     @Autowired
-    public AnalysisResultService(AnalysisResultRepository analysisResultRepository) {
+    public AnalysisResultService(AnalysisResultRepository analysisResultRepository,
+                                 AnalysisResultAttachmentRepository analysisResultAttachmentRepository,
+                                 AnalysisResultSummaryRepository analysisResultSummaryRepository,
+                                 EntityManager entityManager,
+                                 ObjectProvider<AnalysisResultCopyLoader> copyLoader,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int flushInterval) {
         this.analysisResultRepository = analysisResultRepository;
+        this.analysisResultAttachmentRepository = analysisResultAttachmentRepository;
+        this.analysisResultSummaryRepository = analysisResultSummaryRepository;
+        this.entityManager = entityManager;
+        this.copyLoader = copyLoader.getIfAvailable();
+        this.flushInterval = Math.max(1, flushInterval);
     }
 
     @Transactional
@@ -26,11 +70,97 @@ public class AnalysisResultService {
         return analysisResultRepository.save(analysisResult);
     }
 
+    /**
+     * Bulk-inserts new analysis results in a single transaction.
+     * Used by the analysis engine, which emits results in bounded batches.
+     *
+     * Results are persisted directly and the persistence context is flushed and cleared every
+     * JDBC batch (hibernate.jdbc.batch_size), so Hibernate sends multi-row batches and doesn't keep
+     * every written entity managed. Metadata set with AnalysisResult.setMetaJson is written to the attachments
+     * table by cascade. With app.analysis.bulk-loader=copy, PostgreSQL COPY is used instead.
+     * The results must be new: existing rows are not merged.
+     *
+     * @param analysisResults The new results to persist.
+     */
+    @Transactional
+    public void saveAll(List<AnalysisResult> analysisResults) {
+        if (copyLoader != null) {
+            copyLoader.copy(analysisResults);
+            return;
+        }
+        int pending = 0;
+        for (AnalysisResult analysisResult : analysisResults) {
+            entityManager.persist(analysisResult);
+            if (++pending == flushInterval) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Removes every result produced for an upload, e.g. partial output of an interrupted run.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The number of deleted results.
+     */
+    @Transactional
+    public int deleteResultsForUpload(UUID uploadId) {
+        int deleted = analysisResultRepository.deleteByUploadId(uploadId);
+        analysisResultAttachmentRepository.deleteByUploadId(uploadId);
+        return deleted;
+    }
+
     @Transactional(readOnly = true)
     public Optional<AnalysisResult> getAnalysisResultById(UUID id) {
         return analysisResultRepository.findById(id);
     }
 
+    /**
+     * Reads one result including its metadata.
+     *
+     * @param id The UUID of the result.
+     * @return The result as a DTO, or empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<AnalysisResultResponseDTO> getResultResponse(UUID id) {
+        return analysisResultRepository.findFullResponseById(id);
+    }
+
+    /**
+     * Reads the metadata of the given results in one query.
+     *
+     * @param resultIds The UUIDs of the results.
+     * @return The metadata by result id; results without metadata have no entry.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, JsonNode> getMetaJson(Collection<UUID> resultIds) {
+        Map<UUID, JsonNode> metaJson = new HashMap<>();
+        if (resultIds.isEmpty()) {
+            return metaJson;
+        }
+        for (Object[] row : analysisResultRepository.findMetaJsonByIds(resultIds)) {
+            metaJson.put((UUID) row[0], (JsonNode) row[1]);
+        }
+        return metaJson;
+    }
+
+    /**
+     * Counts the results of an upload per data type: from the stored summaries once the upload has been compacted
+     * (see ResultRetentionService), otherwise from the results themselves.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return One DTO per data type the upload has (had) results of.
+     */
+    @Transactional(readOnly = true)
+    public List<AnalysisResultSummaryDTO> getResultSummary(UUID uploadId) {
+        List<AnalysisResultSummaryDTO> summaries = analysisResultSummaryRepository.findResponsesByUploadId(uploadId);
+        return summaries.isEmpty() ? analysisResultRepository.summarizeByUploadId(uploadId) : summaries;
+    }
+
     @Transactional(readOnly = true)
     public List<AnalysisResult> getResultsForUpload(UUID uploadId) {
         return analysisResultRepository.findByUploadId(uploadId);
@@ -41,6 +171,117 @@ public class AnalysisResultService {
         return analysisResultRepository.findByUploadIdAndDataType(uploadId, dataType);
     }
 
-    // You will add more complex business logic here as you develop,
-    // for example, methods that process raw JSON into AnalysisResults.
+    /**
+     * Lists all results of an upload straight into DTOs, without managed entities or dirty-checking snapshots.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The results as DTOs.
+     */
+    @Transactional(readOnly = true)
+    public List<AnalysisResultResponseDTO> getResultResponsesForUpload(UUID uploadId) {
+        return analysisResultRepository.findResponsesByUploadId(uploadId);
+    }
+
+    /**
+     * Lists the results of an upload of one type straight into DTOs.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param dataType The AnalysisDataType to list.
+     * @return The results as DTOs.
+     */
+    @Transactional(readOnly = true)
+    public List<AnalysisResultResponseDTO> getResultResponsesForUploadAndType(UUID uploadId, AnalysisDataType dataType) {
+        return analysisResultRepository.findResponsesByUploadIdAndDataType(uploadId, dataType);
+    }
+
+    /**
+     * Hands the results of an upload to a consumer one DTO at a time, as they are read from a database cursor,
+     * so memory use does not grow with the number of results. The read-only transaction stays open until the
+     * consumer has seen the last row.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param dataType The AnalysisDataType to list, or null for all types.
+     * @param consumer Receives each result; exceptions it throws abort the iteration and are rethrown.
+     */
+    @Transactional(readOnly = true)
+    public void forEachResultResponse(UUID uploadId, AnalysisDataType dataType, Consumer<AnalysisResultResponseDTO> consumer) {
+        try (Stream<AnalysisResultResponseDTO> results = dataType == null
+                ? analysisResultRepository.streamResponsesByUploadId(uploadId)
+                : analysisResultRepository.streamResponsesByUploadIdAndDataType(uploadId, dataType)) {
+            results.forEach(consumer);
+        }
+    }
+
+    /**
+     * Like forEachResultResponse, but the DTOs include each result's metadata, read with a join on the
+     * attachments table. Meant for full exports; listings should use forEachResultResponse.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param dataType The AnalysisDataType to list, or null for all types.
+     * @param consumer Receives each result; exceptions it throws abort the iteration and are rethrown.
+     */
+    @Transactional(readOnly = true)
+    public void forEachFullResultResponse(UUID uploadId, AnalysisDataType dataType, Consumer<AnalysisResultResponseDTO> consumer) {
+        try (Stream<AnalysisResultResponseDTO> results = dataType == null
+                ? analysisResultRepository.streamFullResponsesByUploadId(uploadId)
+                : analysisResultRepository.streamFullResponsesByUploadIdAndDataType(uploadId, dataType)) {
+            results.forEach(consumer);
+        }
+    }
+
+    /**
+     * Returns one page of results using keyset pagination on (targetIdentifier, id).
+     * Reads only pageSize + 1 rows, straight into DTOs, regardless of how deep the page is.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param dataType The AnalysisDataType to list.
+     * @param search Optional search term; matched case-insensitively (handles are stored lower-case).
+     * @param match Whether the search term must be a prefix of, or anywhere in, targetIdentifier.
+     * @param cursor The nextCursor of the previous page, or null/blank for the first page.
+     * @param pageSize The requested page size, clamped to 1..MAX_PAGE_SIZE.
+     * @param direction The sort direction on targetIdentifier.
+     * @return The page, with a cursor for the next page if there is one.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public AnalysisResultPageDTO getResultPage(UUID uploadId, AnalysisDataType dataType, String search, SearchMatch match,
+                                               String cursor, int pageSize, Sort.Direction direction) {
+        int size = Math.clamp(pageSize, 1, MAX_PAGE_SIZE);
+        String pattern = toLikePattern(search, match);
+        Limit limit = Limit.of(size + 1); // one extra row tells whether another page exists
+        AnalysisResultCursor after = cursor == null || cursor.isBlank() ? null : AnalysisResultCursor.decode(cursor);
+
+        List<AnalysisResultResponseDTO> rows;
+        if (direction == Sort.Direction.DESC) {
+            rows = after == null
+                    ? analysisResultRepository.findPageDescending(uploadId, dataType, pattern, limit)
+                    : analysisResultRepository.findPageDescendingAfter(uploadId, dataType, pattern, after.targetIdentifier(), after.id(), limit);
+        } else {
+            rows = after == null
+                    ? analysisResultRepository.findPageAscending(uploadId, dataType, pattern, limit)
+                    : analysisResultRepository.findPageAscendingAfter(uploadId, dataType, pattern, after.targetIdentifier(), after.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<AnalysisResultResponseDTO> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AnalysisResultResponseDTO last = items.get(items.size() - 1);
+            nextCursor = new AnalysisResultCursor(last.getTargetIdentifier(), last.getId()).encode();
+        }
+        return new AnalysisResultPageDTO(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    private static String toLikePattern(String search, SearchMatch match) {
+        if (search == null || search.isBlank()) {
+            return "%";
+        }
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return match == SearchMatch.CONTAINS ? "%" + escaped + "%" : escaped + "%";
+    }
+
+    // Processing of raw export files into AnalysisResults lives in analysis.ExportAnalysisEngine.
 }
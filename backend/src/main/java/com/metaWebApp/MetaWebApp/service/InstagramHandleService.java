@@ -0,0 +1,186 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.model.InstagramHandle;
+import com.metaWebApp.MetaWebApp.repository.InstagramHandleEntry;
+import com.metaWebApp.MetaWebApp.repository.InstagramHandleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interns Instagram handles into the global instagram_handles dictionary and resolves ids back to handles.
+ *
+ * Recently used handles are kept in a bounded in-memory LRU cache, so repeated uploads of overlapping follower
+ * lists hit the database only for handles not seen recently. Misses are looked up and inserted in chunks.
+ * Several workers (or nodes) may intern the same new handle at once. New handles are inserted in sorted order, so
+ * concurrent inserters take the unique index locks in the same order and can't deadlock each other; the loser of
+ * a race gets a unique constraint violation (or, should the database still report a deadlock or lock timeout, a
+ * concurrency failure), re-reads the winner's rows and inserts the rest. This is retried for as long as other
+ * inserters make progress, rather than a fixed number of times.
+ */
+@Service
+public class InstagramHandleService {
+
+    private static final int CHUNK_SIZE = 1000;
+    // Lock failures are retried with backoff for this long in total; constraint violations while others make progress
+    private static final long LOCK_RETRY_BUDGET_MS = 30_000;
+
+    private final InstagramHandleRepository instagramHandleRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Integer> cache;
+
+    @Autowired
+    public InstagramHandleService(InstagramHandleRepository instagramHandleRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.analysis.handle-cache-size:200000}") int cacheSize) {
+        this.instagramHandleRepository = instagramHandleRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Returns the dictionary ids of the given handles, adding unknown handles to the dictionary.
+     * Must not be called inside a transaction that should survive a failed insert: new handles are
+     * written in their own transactions.
+     *
+     * @param handles The handles to intern; duplicates are allowed.
+     * @return The ids, in the same order as the handles.
+     */
+    public int[] intern(List<String> handles) {
+        Map<String, Integer> resolved = new HashMap<>(handles.size() * 2);
+        Set<String> misses = new LinkedHashSet<>();
+        for (String handle : handles) {
+            if (resolved.containsKey(handle)) {
+                continue;
+            }
+            Integer id = cache.get(handle);
+            if (id != null) {
+                resolved.put(handle, id);
+            } else {
+                misses.add(handle);
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<String> sorted = new ArrayList<>(misses);
+            sorted.sort(null); // One global insert order for all callers, see the class comment
+            Map<String, Integer> interned = internMisses(sorted);
+            resolved.putAll(interned);
+            cache.putAll(interned);
+        }
+
+        int[] ids = new int[handles.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resolved.get(handles.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Resolves dictionary ids back to handles.
+     *
+     * @param ids The ids to resolve.
+     * @return The handles, in the same order as the ids.
+     * @throws IllegalArgumentException if an id is not in the dictionary.
+     */
+    public String[] resolve(int[] ids) {
+        Map<Integer, String> handlesById = new HashMap<>(ids.length * 2);
+        for (int from = 0; from < ids.length; from += CHUNK_SIZE) {
+            List<Integer> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = from; i < Math.min(ids.length, from + CHUNK_SIZE); i++) {
+                chunk.add(ids[i]);
+            }
+            for (InstagramHandleEntry entry : instagramHandleRepository.findHandlesByIdIn(chunk)) {
+                handlesById.put(entry.id(), entry.handle());
+            }
+        }
+
+        String[] handles = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            handles[i] = handlesById.get(ids[i]);
+            if (handles[i] == null) {
+                throw new IllegalArgumentException("Unknown handle id: " + ids[i]);
+            }
+        }
+        return handles;
+    }
+
+    private Map<String, Integer> internMisses(List<String> misses) {
+        Map<String, Integer> interned = new HashMap<>(misses.size() * 2);
+        for (int from = 0; from < misses.size(); from += CHUNK_SIZE) {
+            List<String> chunk = misses.subList(from, Math.min(misses.size(), from + CHUNK_SIZE));
+            long lockDeadline = System.currentTimeMillis() + LOCK_RETRY_BUDGET_MS;
+            List<String> missing = lookup(chunk, interned);
+            for (int attempt = 1; !missing.isEmpty(); attempt++) {
+                List<String> toInsert = missing;
+                try {
+                    List<InstagramHandle> saved = newTransaction.execute(status -> instagramHandleRepository
+                            .saveAllAndFlush(toInsert.stream().map(InstagramHandle::new).toList()));
+                    saved.forEach(handle -> interned.put(handle.getHandle(), handle.getId()));
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    // Someone else inserted some of these handles meanwhile: re-read and insert the rest.
+                    // If nobody did, the violation is ours (e.g. a handle too long) and retrying can't help.
+                    missing = lookup(chunk, interned);
+                    if (missing.size() == toInsert.size()) {
+                        throw e;
+                    }
+                } catch (ConcurrencyFailureException e) {
+                    // Deadlock or lock timeout against another inserter: back off and try again.
+                    if (System.currentTimeMillis() > lockDeadline) {
+                        throw e;
+                    }
+                    backOff(attempt);
+                    missing = lookup(chunk, interned);
+                }
+            }
+        }
+        return interned;
+    }
+
+    private static void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L << Math.min(attempt, 6)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while interning handles", e);
+        }
+    }
+
+    /**
+     * Adds the known handles of the chunk to interned and returns the ones that are not in the dictionary yet.
+     */
+    private List<String> lookup(List<String> chunk, Map<String, Integer> interned) {
+        for (InstagramHandleEntry entry : instagramHandleRepository.findIdsByHandleIn(chunk)) {
+            interned.put(entry.handle(), entry.id());
+        }
+        List<String> missing = new ArrayList<>();
+        for (String handle : chunk) {
+            if (!interned.containsKey(handle)) {
+                missing.add(handle);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,107 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadRelationshipSet;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.UploadRelationshipSetRepository;
+import com.metaWebApp.MetaWebApp.repository.UserDataUploadRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service for managing UploadRelationshipSet entities: the followers, following and close friends
+ * lists of each upload, stored as Roaring bitmaps of InstagramHandle ids.
+ */
+@Service
+public class RelationshipSetService {
+
+    private final UploadRelationshipSetRepository uploadRelationshipSetRepository;
+    private final UserDataUploadRepository userDataUploadRepository;
+
+    @Autowired
+    public RelationshipSetService(UploadRelationshipSetRepository uploadRelationshipSetRepository,
+                                  UserDataUploadRepository userDataUploadRepository) {
+        this.uploadRelationshipSetRepository = uploadRelationshipSetRepository;
+        this.userDataUploadRepository = userDataUploadRepository;
+    }
+
+    /**
+     * Stores a relationship set of an upload.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param setType The list the set was read from.
+     * @param handleIds The handle ids of the list.
+     * @return The saved set.
+     */
+    @Transactional
+    public UploadRelationshipSet saveSet(UUID uploadId, RelationshipSetType setType, RoaringBitmap handleIds) {
+        handleIds.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(handleIds.serializedSizeInBytes());
+        handleIds.serialize(buffer);
+        UploadRelationshipSet set = new UploadRelationshipSet(userDataUploadRepository.getReferenceById(uploadId),
+                setType, handleIds.getCardinality(), buffer.array());
+        return uploadRelationshipSetRepository.save(set);
+    }
+
+    /**
+     * Loads a relationship set of an upload.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param setType The list to load.
+     * @return The handle ids, or empty if the upload had no such list.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RoaringBitmap> findSet(UUID uploadId, RelationshipSetType setType) {
+        return uploadRelationshipSetRepository.findByUploadIdAndSetType(uploadId, setType)
+                .map(RelationshipSetService::toBitmap);
+    }
+
+    /**
+     * Loads a relationship set of the user's most recent COMPLETED upload before the given upload.
+     *
+     * @param uploadId The UUID of the upload being analysed.
+     * @param setType The list to load.
+     * @return The handle ids, or empty if no earlier completed upload has this list.
+     * @throws IllegalArgumentException if the upload record is not found.
+     */
+    @Transactional(readOnly = true)
+    public Optional<RoaringBitmap> findPreviousSet(UUID uploadId, RelationshipSetType setType) {
+        UserDataUpload upload = userDataUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
+        return uploadRelationshipSetRepository.findLatestBefore(upload.getUser().getId(), setType,
+                        UploadStatus.COMPLETED, upload.getUploadTime(), Limit.of(1))
+                .stream()
+                .findFirst()
+                .map(RelationshipSetService::toBitmap);
+    }
+
+    /**
+     * Removes every relationship set of an upload, e.g. before it is re-analysed.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The number of deleted sets.
+     */
+    @Transactional
+    public int deleteSetsForUpload(UUID uploadId) {
+        return uploadRelationshipSetRepository.deleteByUploadId(uploadId);
+    }
+
+    private static RoaringBitmap toBitmap(UploadRelationshipSet set) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(set.getBitmap()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt relationship set " + set.getId(), e);
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,160 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisResultSummary;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultAttachmentRepository;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultRepository;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultSummaryRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Retention policy for analysis results: each user's most recent app.retention.detail-uploads-per-user COMPLETED
+ * uploads keep their detailed results; older uploads are compacted into one AnalysisResultSummary per data type,
+ * and their results, attachments and relationship sets are deleted. The upload record, its summary counts and
+ * its timeline entry stay. analysis_results therefore grows with the number of users, not with their history.
+ *
+ * The compactor runs in the background and works in small steps, each in its own short transaction: first the
+ * summaries, then the results app.retention.batch-size rows at a time, finally the upload is marked compacted.
+ * Nothing holds locks for long, and a compaction cut short (crash, shutdown) is resumed on the next run. Once the
+ * summaries exist, an upload is no longer offered for reuse (see UserDataUploadRepository.HAS_DETAILED_RESULTS).
+ */
+@Service
+public class ResultRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultRetentionService.class);
+
+    private final AnalysisResultRepository analysisResultRepository;
+    private final AnalysisResultAttachmentRepository analysisResultAttachmentRepository;
+    private final AnalysisResultSummaryRepository analysisResultSummaryRepository;
+    private final UserDataUploadService userDataUploadService;
+    private final RelationshipSetService relationshipSetService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int detailUploadsPerUser;
+    private final int batchSize;
+    private final int uploadsPerRun;
+
+    @Autowired
+    public ResultRetentionService(AnalysisResultRepository analysisResultRepository,
+                                  AnalysisResultAttachmentRepository analysisResultAttachmentRepository,
+                                  AnalysisResultSummaryRepository analysisResultSummaryRepository,
+                                  UserDataUploadService userDataUploadService,
+                                  RelationshipSetService relationshipSetService,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.retention.enabled:true}") boolean enabled,
+                                  @Value("${app.retention.detail-uploads-per-user:5}") int detailUploadsPerUser,
+                                  @Value("${app.retention.batch-size:1000}") int batchSize,
+                                  @Value("${app.retention.uploads-per-run:100}") int uploadsPerRun) {
+        this.analysisResultRepository = analysisResultRepository;
+        this.analysisResultAttachmentRepository = analysisResultAttachmentRepository;
+        this.analysisResultSummaryRepository = analysisResultSummaryRepository;
+        this.userDataUploadService = userDataUploadService;
+        this.relationshipSetService = relationshipSetService;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        // The latest upload always keeps its detail: new uploads are diffed against it
+        this.detailUploadsPerUser = Math.max(1, detailUploadsPerUser);
+        this.batchSize = Math.max(1, batchSize);
+        this.uploadsPerRun = Math.max(1, uploadsPerRun);
+    }
+
+    /**
+     * Compacts up to app.retention.uploads-per-run uploads that fell out of the retention window, oldest first.
+     */
+    @Scheduled(fixedDelayString = "${app.retention.interval-ms:3600000}",
+            initialDelayString = "${app.retention.interval-ms:3600000}")
+    public void compactExpiredUploads() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int compacted = 0;
+            for (UUID uploadId : userDataUploadService.findCompactionCandidates(detailUploadsPerUser, uploadsPerRun)) {
+                try {
+                    compactUpload(uploadId);
+                    compacted++;
+                } catch (Exception e) {
+                    log.warn("Could not compact the results of upload {}", uploadId, e);
+                }
+            }
+            if (compacted > 0) {
+                log.info("Compacted the analysis results of {} upload(s)", compacted);
+            }
+        } catch (Exception e) {
+            log.error("Compacting analysis results failed", e);
+        }
+    }
+
+    /**
+     * Replaces an upload's detailed results by per-type summaries. Safe to call again on a partly compacted upload.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The number of results deleted by this call.
+     * @throws IllegalArgumentException if the upload record is not found.
+     */
+    public long compactUpload(UUID uploadId) {
+        transaction.executeWithoutResult(status -> {
+            // Summaries are written once, from the complete results; a resumed compaction keeps them
+            if (analysisResultSummaryRepository.existsByUploadId(uploadId)) {
+                return;
+            }
+            UserDataUpload upload = entityManager.getReference(UserDataUpload.class, uploadId);
+            for (AnalysisResultSummaryDTO summary : analysisResultRepository.summarizeByUploadId(uploadId)) {
+                analysisResultSummaryRepository.save(new AnalysisResultSummary(upload, summary.dataType(),
+                        summary.resultCount(), summary.valueNumericSum()));
+            }
+        });
+
+        long deleted = 0;
+        int batch;
+        do {
+            Integer count = transaction.execute(status -> deleteResultBatch(uploadId));
+            batch = count != null ? count : 0;
+            deleted += batch;
+        } while (batch == batchSize);
+
+        transaction.executeWithoutResult(status -> {
+            relationshipSetService.deleteSetsForUpload(uploadId);
+            userDataUploadService.markResultsCompacted(uploadId);
+        });
+        log.debug("Compacted upload {}: deleted {} result(s)", uploadId, deleted);
+        return deleted;
+    }
+
+    private int deleteResultBatch(UUID uploadId) {
+        List<Object[]> rows = analysisResultRepository.findIdBatch(uploadId, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<UUID> resultIds = new ArrayList<>(rows.size());
+        List<UUID> attachmentIds = new ArrayList<>();
+        for (Object[] row : rows) {
+            resultIds.add((UUID) row[0]);
+            if (row[1] != null) {
+                attachmentIds.add((UUID) row[1]);
+            }
+        }
+        analysisResultRepository.deleteByUploadIdAndIdIn(uploadId, resultIds);
+        if (!attachmentIds.isEmpty()) {
+            analysisResultAttachmentRepository.deleteByIdIn(attachmentIds);
+        }
+        return rows.size();
+    }
+}
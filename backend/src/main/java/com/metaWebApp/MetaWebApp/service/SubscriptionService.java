@@ -1,5 +1,7 @@
 package com.metaWebApp.MetaWebApp.service;
 
+import com.metaWebApp.MetaWebApp.cache.CacheNames;
+import com.metaWebApp.MetaWebApp.dto.SubscriptionResponseDTO;
 import com.metaWebApp.MetaWebApp.model.PlanType;
 import com.metaWebApp.MetaWebApp.model.Subscription;
 import com.metaWebApp.MetaWebApp.model.SubscriptionStatus;
@@ -7,6 +9,9 @@ import com.metaWebApp.MetaWebApp.model.User;
 import com.metaWebApp.MetaWebApp.repository.SubscriptionRepository;
 import com.metaWebApp.MetaWebApp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,20 +49,27 @@ public class SubscriptionService {
      * @param endDate Optional subscription end date.
      * @return The created or updated Subscription entity.
      */
+    @Caching(evict = { // The user's isPremium flag may change too
+            @CacheEvict(cacheNames = CacheNames.SUBSCRIPTIONS, key = "#user.id"),
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#user.id")
+    })
     @Transactional
     public Subscription createOrUpdateSubscription(User user, String stripeCustomerId,
                                                    String stripeSubscriptionId, PlanType planType,
                                                    SubscriptionStatus status, LocalDateTime startDate,
                                                    LocalDateTime endDate) {
+        // The caller's user is usually detached; saving it would cascade a second copy of a new subscription
+        User managedUser = userRepository.findById(user.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
         // Find existing subscription by user ID, or create a new one
-        Optional<Subscription> existingSubscription = subscriptionRepository.findByUserId(user.getId());
+        Optional<Subscription> existingSubscription = subscriptionRepository.findByUserId(managedUser.getId());
         Subscription subscription;
 
         if (existingSubscription.isPresent()) {
             subscription = existingSubscription.get();
         } else {
             subscription = new Subscription();
-            subscription.setUser(user); // Set the user for the new subscription
+            subscription.setUser(managedUser); // Set the user for the new subscription
         }
 
         subscription.setStripeCustomerId(stripeCustomerId);
@@ -67,14 +79,15 @@ public class SubscriptionService {
         subscription.setStartDate(startDate);
         subscription.setEndDate(endDate);
 
+        Subscription saved = subscriptionRepository.save(subscription);
+
         // Update user's premium status based on subscription status
         boolean isUserPremium = (status == SubscriptionStatus.ACTIVE || status == SubscriptionStatus.TRIALING);
-        if (!user.getIsPremium().equals(isUserPremium)) {
-            user.setIsPremium(isUserPremium);
-            userRepository.save(user); // Save the updated user entity
+        if (!Boolean.valueOf(isUserPremium).equals(managedUser.getIsPremium())) {
+            managedUser.setIsPremium(isUserPremium);
+            userRepository.save(managedUser); // Save the updated user entity
         }
-
-        return subscriptionRepository.save(subscription);
+        return saved;
     }
 
     /**
@@ -88,6 +101,19 @@ public class SubscriptionService {
         return subscriptionRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves a user's subscription as a response DTO, served from the subscriptions cache.
+     * Evicted by createOrUpdateSubscription and cancelSubscription.
+     *
+     * @param userId The UUID of the user.
+     * @return An Optional containing the SubscriptionResponseDTO if found, or empty.
+     */
+    @Cacheable(cacheNames = CacheNames.SUBSCRIPTIONS, key = "#userId", sync = true)
+    @Transactional(readOnly = true)
+    public Optional<SubscriptionResponseDTO> getUserSubscriptionResponse(UUID userId) {
+        return subscriptionRepository.findByUserId(userId).map(SubscriptionResponseDTO::from);
+    }
+
     /**
      * Retrieves a subscription by its Stripe Subscription ID.
      * Useful for webhook processing.
@@ -106,6 +132,10 @@ public class SubscriptionService {
      * @param userId The UUID of the user whose subscription is being canceled.
      * @return The updated Subscription entity, or empty Optional if not found.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.SUBSCRIPTIONS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#userId")
+    })
     @Transactional
     public Optional<Subscription> cancelSubscription(UUID userId) {
         Optional<Subscription> subscriptionOptional = subscriptionRepository.findByUserId(userId);
@@ -0,0 +1,60 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import com.metaWebApp.MetaWebApp.storage.StoredBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.UUID;
+
+/**
+ * Receives the bytes of an export: streams them into BlobStorage and queues a UserDataUpload for the stored blob.
+ * No transaction is held while the content is transferred.
+ */
+@Service
+public class UploadIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadIngestService.class);
+
+    private final BlobStorage blobStorage;
+    private final UserService userService;
+    private final UserDataUploadService userDataUploadService;
+
+    @Autowired
+    public UploadIngestService(BlobStorage blobStorage, UserService userService, UserDataUploadService userDataUploadService) {
+        this.blobStorage = blobStorage;
+        this.userService = userService;
+        this.userDataUploadService = userDataUploadService;
+    }
+
+    /**
+     * Stores uploaded content and creates its PENDING upload record.
+     *
+     * @param userId The UUID of the uploading user.
+     * @param fileName The original name of the uploaded file.
+     * @param declaredFileType The type of file as declared by the user.
+     * @param content The file content, streamed until end-of-stream.
+     * @return The newly created UserDataUpload, whose filePath is the blob key, or the user's existing
+     *         COMPLETED upload if the same content was uploaded and analysed before.
+     * @throws IllegalArgumentException if the user does not exist.
+     * @throws IOException if the content cannot be read or stored.
+     */
+    public UserDataUpload ingest(UUID userId, String fileName, DeclaredFileType declaredFileType,
+                                 ReadableByteChannel content) throws IOException {
+        // Check the user before accepting what may be gigabytes of data.
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+
+        StoredBlob blob = blobStorage.store(content);
+        log.info("Stored upload '{}' of user {} as {} ({} bytes{})", fileName, userId, blob.key(), blob.size(),
+                blob.alreadyStored() ? ", already present" : "");
+        return userDataUploadService.createUploadRecord(user, fileName, blob.key(), declaredFileType);
+    }
+}
@@ -0,0 +1,412 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
+import com.metaWebApp.MetaWebApp.model.UploadSession;
+import com.metaWebApp.MetaWebApp.model.UploadSessionChunk;
+import com.metaWebApp.MetaWebApp.model.UploadSessionStatus;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.UploadSessionChunkRepository;
+import com.metaWebApp.MetaWebApp.repository.UploadSessionRepository;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import com.metaWebApp.MetaWebApp.storage.StoredBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resumable chunked uploads.
+ *
+ * A session fixes the total size and chunk size up front, so every chunk has a known offset and length and can be
+ * written with positional FileChannel writes into one staging file, in any order and from parallel requests. Each
+ * chunk is verified against the SHA-256 the client sent with it and only then recorded as received; a chunk that is
+ * re-sent with an already recorded checksum is acknowledged without being written again. Once every chunk is in, the
+ * staging file is moved into BlobStorage and the upload is queued for analysis.
+ *
+ * No transaction is held while chunk content is transferred; the session row is locked only for the bookkeeping.
+ * Instead, chunk writes hold the session's read lock (see sessionLocks) and the status changes that end chunk
+ * writing (OPEN to ASSEMBLING or EXPIRED) its write lock: such a change waits for the writes in flight, and writes
+ * arriving later see the new status, so the staging file never changes while it is being assembled or deleted.
+ * The staging file is local to the node, so a session's chunks are all written on one node and a JVM lock suffices.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+    public static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    public static final int MAX_CHUNKS = 100_000;
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadSessionChunkRepository uploadSessionChunkRepository;
+    private final UserService userService;
+    private final UserDataUploadService userDataUploadService;
+    private final BlobStorage blobStorage;
+    private final TransactionTemplate transaction;
+    private final Path sessionDir;
+    private final int defaultChunkSize;
+    private final Duration sessionTtl;
+    // Per session; dropped once it is COMPLETED or EXPIRED, after which status checks alone reject every write
+    private final ConcurrentMap<UUID, ReadWriteLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository,
+                                UploadSessionChunkRepository uploadSessionChunkRepository,
+                                UserService userService,
+                                UserDataUploadService userDataUploadService,
+                                BlobStorage blobStorage,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.uploads.session-dir:${java.io.tmpdir}/metawebapp-blobs/sessions}") String sessionDir,
+                                @Value("${app.uploads.default-chunk-size:8388608}") int defaultChunkSize,
+                                @Value("${app.uploads.session-ttl-hours:24}") long sessionTtlHours) throws IOException {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadSessionChunkRepository = uploadSessionChunkRepository;
+        this.userService = userService;
+        this.userDataUploadService = userDataUploadService;
+        this.blobStorage = blobStorage;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sessionDir = Files.createDirectories(Paths.get(sessionDir).toAbsolutePath().normalize());
+        this.defaultChunkSize = Math.clamp(defaultChunkSize, MIN_CHUNK_SIZE, MAX_CHUNK_SIZE);
+        this.sessionTtl = Duration.ofHours(sessionTtlHours);
+    }
+
+    /**
+     * Opens a resumable upload session and creates its UPLOADING upload record.
+     *
+     * @param userId The UUID of the uploading user.
+     * @param fileName The original name of the file.
+     * @param declaredFileType The type of file as declared by the user.
+     * @param totalSize The exact size of the file in bytes.
+     * @param chunkSize The chunk size in bytes, or null for the configured default.
+     * @return The new OPEN session.
+     * @throws IllegalArgumentException if the user does not exist or the sizes are out of range.
+     * @throws IOException if the staging file cannot be created.
+     */
+    public UploadSession openSession(UUID userId, String fileName, DeclaredFileType declaredFileType,
+                                     long totalSize, Integer chunkSize) throws IOException {
+        int effectiveChunkSize = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("Total size must be positive");
+        }
+        if (effectiveChunkSize < MIN_CHUNK_SIZE || effectiveChunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        if ((totalSize + effectiveChunkSize - 1) / effectiveChunkSize > MAX_CHUNKS) {
+            throw new IllegalArgumentException("File would be split into more than " + MAX_CHUNKS + " chunks; use a larger chunk size");
+        }
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+
+        Path staging = Files.createTempFile(sessionDir, "session-", ".part");
+        try {
+            return transaction.execute(status -> {
+                UserDataUpload upload = userDataUploadService.createIncomingUploadRecord(user, fileName, staging.toString(), declaredFileType);
+                return uploadSessionRepository.save(new UploadSession(upload, totalSize, effectiveChunkSize,
+                        staging.toString(), LocalDateTime.now().plus(sessionTtl)));
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(staging);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves an upload session by its ID.
+     *
+     * @param sessionId The UUID of the session.
+     * @return An Optional containing the session if found, or empty.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UploadSession> getSession(UUID sessionId) {
+        return uploadSessionRepository.findById(sessionId);
+    }
+
+    /**
+     * Lists the chunks a client still has to send, e.g. to resume after a dropped connection.
+     *
+     * @param session The session.
+     * @return The indexes of chunks not received yet, ascending. Empty once the session is complete.
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getMissingChunkIndexes(UploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            return List.of();
+        }
+        List<Integer> received = uploadSessionChunkRepository.findChunkIndexesBySessionId(session.getId());
+        List<Integer> missing = new ArrayList<>(session.getChunkCount() - received.size());
+        int next = 0;
+        for (int index : received) {
+            while (next < index) {
+                missing.add(next++);
+            }
+            next = index + 1;
+        }
+        while (next < session.getChunkCount()) {
+            missing.add(next++);
+        }
+        return missing;
+    }
+
+    /**
+     * Writes one chunk into the session's staging file at the given offset and records it once its checksum matches.
+     * Safe to call concurrently for different chunks of the same session; completing or expiring the session waits
+     * until the write is done.
+     *
+     * @param sessionId The UUID of the session.
+     * @param offset The byte offset of the chunk; must be a multiple of the session's chunk size.
+     * @param sha256 The hex-encoded SHA-256 of the chunk as computed by the client.
+     * @param content The chunk content, read until end-of-stream.
+     * @return true if the chunk was written, false if an identical chunk had already been received.
+     * @throws NoSuchElementException if the session does not exist.
+     * @throws IllegalArgumentException if the offset, length or checksum is wrong.
+     * @throws IllegalStateException if the session no longer accepts chunks.
+     * @throws IOException if the content cannot be read or written.
+     */
+    public boolean writeChunk(UUID sessionId, long offset, String sha256, ReadableByteChannel content) throws IOException {
+        ReadWriteLock lock = sessionLock(sessionId);
+        lock.readLock().lock();
+        try {
+            return writeChunkWhileLocked(sessionId, offset, sha256, content);
+        } catch (NoSuchElementException e) {
+            sessionLocks.remove(sessionId, lock);
+            throw e;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean writeChunkWhileLocked(UUID sessionId, long offset, String sha256, ReadableByteChannel content)
+            throws IOException {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new NoSuchElementException("Upload session not found with ID: " + sessionId));
+        requireOpen(session);
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new IllegalArgumentException("Offset " + offset + " is not the start of a chunk of this upload");
+        }
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        int length = session.getChunkLength(chunkIndex);
+        String expectedSha256 = normaliseSha256(sha256);
+
+        Optional<UploadSessionChunk> existing = uploadSessionChunkRepository.findBySessionIdAndChunkIndex(sessionId, chunkIndex);
+        if (existing.isPresent() && existing.get().getSha256().equals(expectedSha256)) {
+            return false;
+        }
+
+        MessageDigest digest = sha256();
+        long written = 0;
+        boolean valid = false;
+        try {
+            try (FileChannel out = FileChannel.open(Paths.get(session.getStagingPath()), StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+                while (true) {
+                    // Read at most one byte past the chunk, which is enough to tell that the body is too long.
+                    buffer.limit((int) Math.min(buffer.capacity(), length + 1 - written));
+                    if (content.read(buffer) < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    if (written + buffer.remaining() > length) {
+                        throw new IllegalArgumentException("Chunk at offset " + offset + " is longer than " + length + " bytes");
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        written += out.write(buffer, offset + written);
+                    }
+                    buffer.clear();
+                }
+            }
+            if (written != length) {
+                throw new IllegalArgumentException("Chunk at offset " + offset + " must be " + length + " bytes, got " + written);
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equals(expectedSha256)) {
+                throw new IllegalArgumentException("Checksum mismatch for chunk at offset " + offset);
+            }
+            valid = true;
+        } finally {
+            if (!valid && existing.isPresent()) {
+                // The previously received content of this chunk was just overwritten: it has to be sent again.
+                transaction.executeWithoutResult(status ->
+                        uploadSessionChunkRepository.findBySessionIdAndChunkIndex(sessionId, chunkIndex)
+                                .ifPresent(uploadSessionChunkRepository::delete));
+            }
+        }
+
+        transaction.executeWithoutResult(status -> {
+            UploadSession locked = uploadSessionRepository.lockById(sessionId)
+                    .orElseThrow(() -> new NoSuchElementException("Upload session not found with ID: " + sessionId));
+            requireOpen(locked);
+            UploadSessionChunk chunk = uploadSessionChunkRepository.findBySessionIdAndChunkIndex(sessionId, chunkIndex)
+                    .orElseGet(() -> new UploadSessionChunk(locked, chunkIndex, expectedSha256));
+            chunk.setSha256(expectedSha256);
+            chunk.setReceivedAt(LocalDateTime.now());
+            uploadSessionChunkRepository.save(chunk);
+            locked.setExpiresAt(LocalDateTime.now().plus(sessionTtl));
+        });
+        return true;
+    }
+
+    /**
+     * Completes a session once all chunks are received: moves the assembled file into BlobStorage and queues
+     * the upload for analysis. Completing an already completed session returns its upload again.
+     *
+     * @param sessionId The UUID of the session.
+     * @return The upload record, now PENDING (or further along).
+     * @throws NoSuchElementException if the session does not exist.
+     * @throws IllegalStateException if chunks are missing or the session is expired or being completed.
+     * @throws IOException if the assembled file cannot be stored.
+     */
+    public UserDataUpload completeSession(UUID sessionId) throws IOException {
+        ReadWriteLock lock = sessionLock(sessionId);
+        UploadSession session;
+        // Waits for chunk writes in flight; once ASSEMBLING is committed, later writes are rejected
+        lock.writeLock().lock();
+        try {
+            session = transaction.execute(status -> {
+                UploadSession locked = uploadSessionRepository.lockById(sessionId)
+                        .orElseThrow(() -> new NoSuchElementException("Upload session not found with ID: " + sessionId));
+                if (locked.getStatus() == UploadSessionStatus.COMPLETED) {
+                    return locked;
+                }
+                requireOpen(locked);
+                long received = uploadSessionChunkRepository.countBySessionId(sessionId);
+                if (received < locked.getChunkCount()) {
+                    throw new IllegalStateException("Upload session is missing " + (locked.getChunkCount() - received)
+                            + " of " + locked.getChunkCount() + " chunks");
+                }
+                locked.setStatus(UploadSessionStatus.ASSEMBLING);
+                return locked;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        UUID uploadId = session.getUpload().getId();
+        if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+            sessionLocks.remove(sessionId, lock);
+            return userDataUploadService.getUploadRecordById(uploadId)
+                    .orElseThrow(() -> new NoSuchElementException("Upload record not found with ID: " + uploadId));
+        }
+
+        StoredBlob blob;
+        try {
+            Path staging = Paths.get(session.getStagingPath());
+            if (Files.size(staging) != session.getTotalSize()) {
+                throw new IOException("Staging file of session " + sessionId + " has " + Files.size(staging)
+                        + " bytes, expected " + session.getTotalSize());
+            }
+            blob = blobStorage.importFile(staging);
+        } catch (IOException | RuntimeException e) {
+            transaction.executeWithoutResult(status -> uploadSessionRepository.lockById(sessionId)
+                    .ifPresent(locked -> locked.setStatus(UploadSessionStatus.OPEN)));
+            throw e;
+        }
+        log.info("Upload session {} complete: stored {} ({} bytes{})", sessionId, blob.key(), blob.size(),
+                blob.alreadyStored() ? ", already present" : "");
+
+        UserDataUpload upload = transaction.execute(status -> {
+            UploadSession locked = uploadSessionRepository.lockById(sessionId).orElseThrow();
+            locked.setStatus(UploadSessionStatus.COMPLETED);
+            uploadSessionChunkRepository.deleteBySessionId(sessionId);
+            return userDataUploadService.markContentReceived(uploadId, blob.key());
+        });
+        sessionLocks.remove(sessionId, lock);
+        return upload;
+    }
+
+    /**
+     * Discards sessions that received no chunk for longer than the session TTL: their staging file is deleted
+     * and their upload marked FAILED.
+     */
+    @Scheduled(fixedDelayString = "${app.uploads.session-cleanup-interval-ms:3600000}",
+            initialDelayString = "${app.uploads.session-cleanup-interval-ms:3600000}")
+    public void expireSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        for (UploadSession session : uploadSessionRepository.findByStatusAndExpiresAtBefore(UploadSessionStatus.OPEN, now)) {
+            ReadWriteLock lock = sessionLock(session.getId());
+            lock.writeLock().lock();
+            try {
+                Boolean expired = transaction.execute(status -> {
+                    UploadSession locked = uploadSessionRepository.lockById(session.getId()).orElse(null);
+                    if (locked == null || locked.getStatus() != UploadSessionStatus.OPEN || locked.getExpiresAt().isAfter(now)) {
+                        return false; // Completed or resumed meanwhile
+                    }
+                    locked.setStatus(UploadSessionStatus.EXPIRED);
+                    uploadSessionChunkRepository.deleteBySessionId(locked.getId());
+                    userDataUploadService.updateUploadStatus(locked.getUpload().getId(), UploadStatus.FAILED,
+                            UploadErrorCode.UPLOAD_EXPIRED,
+                            "Upload session expired before all chunks were received");
+                    return true;
+                });
+                if (Boolean.TRUE.equals(expired)) {
+                    sessionLocks.remove(session.getId(), lock);
+                    Files.deleteIfExists(Paths.get(session.getStagingPath()));
+                    log.info("Expired upload session {}", session.getId());
+                }
+            } catch (Exception e) {
+                log.warn("Could not expire upload session {}", session.getId(), e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private ReadWriteLock sessionLock(UUID sessionId) {
+        return sessionLocks.computeIfAbsent(sessionId, id -> new ReentrantReadWriteLock());
+    }
+
+    private static void requireOpen(UploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            throw new IllegalStateException("Upload session " + session.getId() + " is " + session.getStatus());
+        }
+    }
+
+    private static String normaliseSha256(String sha256) {
+        String normalised = sha256 == null ? "" : sha256.trim().toLowerCase(Locale.ROOT);
+        if (!normalised.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("sha256 must be 64 hexadecimal characters");
+        }
+        return normalised;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
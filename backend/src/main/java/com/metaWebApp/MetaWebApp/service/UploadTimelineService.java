@@ -0,0 +1,138 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.dto.UploadTimelineEntryDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.UploadTimelineEntry;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.processing.UploadCompletedEvent;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultRepository;
+import com.metaWebApp.MetaWebApp.repository.UploadTimelineRepository;
+import com.metaWebApp.MetaWebApp.repository.UserDataUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the upload_timeline projection: one UploadTimelineEntry per COMPLETED upload with its summary counts,
+ * the deltas against the user's previous entry and the first few changed accounts.
+ *
+ * Entries are written when an upload completes, in a new transaction right after the status change commits, and
+ * each write touches a constant number of rows: the entry itself and, if an older upload completed late, the next
+ * entry whose deltas it changes. The dashboard reads a user's history with one indexed query.
+ *
+ * A failed timeline write never undoes or fails the completion itself; it is logged with the upload id, and as
+ * entries are upserted, calling recordCompletedUpload for that upload again rebuilds its entry.
+ */
+@Service
+public class UploadTimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadTimelineService.class);
+
+    private final UploadTimelineRepository uploadTimelineRepository;
+    private final UserDataUploadRepository userDataUploadRepository;
+    private final AnalysisResultRepository analysisResultRepository;
+    private final TransactionTemplate newTransaction;
+    private final int topChanges;
+
+    @Autowired
+    public UploadTimelineService(UploadTimelineRepository uploadTimelineRepository,
+                                 UserDataUploadRepository userDataUploadRepository,
+                                 AnalysisResultRepository analysisResultRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.timeline.top-changes:10}") int topChanges) {
+        this.uploadTimelineRepository = uploadTimelineRepository;
+        this.userDataUploadRepository = userDataUploadRepository;
+        this.analysisResultRepository = analysisResultRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.topChanges = Math.max(0, topChanges);
+    }
+
+    // Runs once UserDataUploadService.updateUploadStatus's transaction has committed, so the entry sees the
+    // committed counts and a failure here can't roll back (or, thrown from afterCommit, fail) the completion.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUploadCompleted(UploadCompletedEvent event) {
+        try {
+            newTransaction.executeWithoutResult(status -> recordCompletedUpload(event.uploadId()));
+        } catch (RuntimeException e) {
+            log.error("Could not update the timeline entry of completed upload {}", event.uploadId(), e);
+        }
+    }
+
+    /**
+     * Creates or refreshes the timeline entry of a completed upload from its summary counts and results.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The saved entry.
+     * @throws IllegalArgumentException if the upload record is not found.
+     */
+    @Transactional
+    public UploadTimelineEntry recordCompletedUpload(UUID uploadId) {
+        UserDataUpload upload = userDataUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
+        UUID userId = upload.getUser().getId();
+
+        UploadTimelineEntry entry = uploadTimelineRepository.findByUploadId(uploadId)
+                .orElseGet(() -> new UploadTimelineEntry(upload, upload.getUser(), upload.getUploadTime()));
+        entry.setTotalFollowers(upload.getTotalFollowers());
+        entry.setTotalFollowing(upload.getTotalFollowing());
+        entry.setUnfollowersCount(upload.getUnfollowersCount());
+        entry.setTotalCloseFriends(upload.getTotalCloseFriends());
+        entry.setNewFollowersCount(upload.getNewFollowersCount());
+        entry.setNewUnfollowersCount(upload.getNewUnfollowersCount());
+        entry.setTopNewFollowers(topChanged(uploadId, AnalysisDataType.NEW_FOLLOWER, upload.getNewFollowersCount()));
+        entry.setTopNewUnfollowers(topChanged(uploadId, AnalysisDataType.NEW_UNFOLLOWER, upload.getNewUnfollowersCount()));
+
+        if (entry.getTotalFollowers() != null) {
+            entry.setFollowersDelta(uploadTimelineRepository
+                    .findFirstByUserIdAndUploadTimeBeforeAndTotalFollowersNotNullOrderByUploadTimeDesc(userId, entry.getUploadTime())
+                    .map(previous -> entry.getTotalFollowers() - previous.getTotalFollowers())
+                    .orElse(null));
+            // Normally there is no later entry; it exists only when this upload completed after a newer one.
+            uploadTimelineRepository
+                    .findFirstByUserIdAndUploadTimeAfterAndTotalFollowersNotNullOrderByUploadTimeAsc(userId, entry.getUploadTime())
+                    .ifPresent(next -> next.setFollowersDelta(next.getTotalFollowers() - entry.getTotalFollowers()));
+        }
+        if (entry.getTotalFollowing() != null) {
+            entry.setFollowingDelta(uploadTimelineRepository
+                    .findFirstByUserIdAndUploadTimeBeforeAndTotalFollowingNotNullOrderByUploadTimeDesc(userId, entry.getUploadTime())
+                    .map(previous -> entry.getTotalFollowing() - previous.getTotalFollowing())
+                    .orElse(null));
+            uploadTimelineRepository
+                    .findFirstByUserIdAndUploadTimeAfterAndTotalFollowingNotNullOrderByUploadTimeAsc(userId, entry.getUploadTime())
+                    .ifPresent(next -> next.setFollowingDelta(next.getTotalFollowing() - entry.getTotalFollowing()));
+        }
+        return uploadTimelineRepository.save(entry);
+    }
+
+    /**
+     * Retrieves a user's follower history, oldest upload first.
+     *
+     * @param userId The UUID of the user.
+     * @return One entry per completed upload; empty if the user has none.
+     */
+    @Transactional(readOnly = true)
+    public List<UploadTimelineEntryDTO> getTimeline(UUID userId) {
+        return uploadTimelineRepository.findTimelineByUserId(userId);
+    }
+
+    private List<String> topChanged(UUID uploadId, AnalysisDataType dataType, Integer count) {
+        if (count == null || count == 0 || topChanges == 0) {
+            return new ArrayList<>();
+        }
+        return analysisResultRepository.findTargetIdentifiers(uploadId, dataType, Limit.of(topChanges));
+    }
+}
@@ -0,0 +1,87 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO;
+import com.metaWebApp.MetaWebApp.jfr.UploadStageEvent;
+import com.metaWebApp.MetaWebApp.model.UploadTraceStage;
+import com.metaWebApp.MetaWebApp.repository.UploadTraceStageRepository;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores and serves the processing traces of uploads: one UploadTraceStage row per pipeline stage and processing
+ * attempt, written by ExportAnalysisEngine after every analysis pass (successful or not). Saving a trace also emits
+ * it as UploadStageEvents, so a running JFR recording has the stage breakdown next to the JVM's own events.
+ */
+@Service
+public class UploadTraceService {
+
+    private final UploadTraceStageRepository uploadTraceStageRepository;
+
+    @Autowired
+    public UploadTraceService(UploadTraceStageRepository uploadTraceStageRepository) {
+        this.uploadTraceStageRepository = uploadTraceStageRepository;
+    }
+
+    /**
+     * Saves the trace of one analysis pass, replacing an earlier trace of the same upload and attempt.
+     *
+     * @param uploadId The UUID of the traced upload.
+     * @param stages The stages of the pass, all for that upload and the same attempt.
+     */
+    @Transactional
+    public void saveTrace(UUID uploadId, List<UploadTraceStage> stages) {
+        if (stages.isEmpty()) {
+            return;
+        }
+        uploadTraceStageRepository.deleteByUploadIdAndAttempt(uploadId, stages.get(0).getAttempt());
+        uploadTraceStageRepository.saveAll(stages);
+        stages.forEach(stage -> UploadStageEvent.emit(uploadId, toDto(stage)));
+    }
+
+    /**
+     * Retrieves the trace of an upload, every processing attempt in order.
+     *
+     * @param uploadId The UUID of the upload.
+     * @return The stages, by attempt and then in the order they were first entered; empty if none was traced.
+     */
+    @Transactional(readOnly = true)
+    public List<UploadTraceStageDTO> getTrace(UUID uploadId) {
+        return uploadTraceStageRepository.findResponsesByUploadId(uploadId);
+    }
+
+    /**
+     * Writes the stored trace of an upload to a JFR file, as UploadStageEvents, for analysis in JDK Mission Control
+     * or with the jfr tool. Stage events emitted by concurrent analyses while the file is written are included too.
+     *
+     * @param uploadId The UUID of the upload.
+     * @param file The file to write.
+     * @return The number of stages written.
+     * @throws IOException if the file cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public int exportTraceAsJfr(UUID uploadId, Path file) throws IOException {
+        List<UploadTraceStageDTO> trace = getTrace(uploadId);
+        try (Recording recording = new Recording()) {
+            recording.setName("upload-trace-" + uploadId);
+            recording.enable(UploadStageEvent.class);
+            recording.start();
+            trace.forEach(stage -> UploadStageEvent.emit(uploadId, stage));
+            recording.stop();
+            recording.dump(file);
+        }
+        return trace.size();
+    }
+
+    private static UploadTraceStageDTO toDto(UploadTraceStage stage) {
+        return new UploadTraceStageDTO(stage.getAttempt(), stage.getStage(), stage.getStartedAt(), stage.getEndedAt(),
+                stage.getDurationMicros(), stage.getBytesRead(), stage.getRecords(), stage.getRowsWritten(),
+                stage.getAllocatedBytes());
+    }
+}
@@ -1,14 +1,32 @@
 package com.metaWebApp.MetaWebApp.service;
 
+import com.metaWebApp.MetaWebApp.analysis.ExportSourceFactory;
+import com.metaWebApp.MetaWebApp.cache.CacheNames;
+import com.metaWebApp.MetaWebApp.dto.UploadResponseDTO;
 import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
 import com.metaWebApp.MetaWebApp.model.UploadStatus;
 import com.metaWebApp.MetaWebApp.model.User;
 import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.processing.UploadCompletedEvent;
+import com.metaWebApp.MetaWebApp.processing.UploadQueuedEvent;
+import com.metaWebApp.MetaWebApp.repository.UploadSessionChunkRepository;
+import com.metaWebApp.MetaWebApp.repository.UploadSessionRepository;
 import com.metaWebApp.MetaWebApp.repository.UserDataUploadRepository;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,29 +39,178 @@ import java.util.UUID;
 @Service
 public class UserDataUploadService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserDataUploadService.class);
+
     private final UserDataUploadRepository userDataUploadRepository;
+    private final AnalysisResultService analysisResultService;
+    private final RelationshipSetService relationshipSetService;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadSessionChunkRepository uploadSessionChunkRepository;
+    private final ExportSourceFactory exportSourceFactory; // Resolves client-supplied plain paths
+    private final ApplicationEventPublisher eventPublisher; // Notifies the processing queue of new uploads
+    private final Cache uploadCache; // For evictions that @CacheEvict can't express (batches of ids)
 
     @Autowired
-    public UserDataUploadService(UserDataUploadRepository userDataUploadRepository) {
+    public UserDataUploadService(UserDataUploadRepository userDataUploadRepository,
+                                 AnalysisResultService analysisResultService,
+                                 RelationshipSetService relationshipSetService,
+                                 UploadSessionRepository uploadSessionRepository,
+                                 UploadSessionChunkRepository uploadSessionChunkRepository,
+                                 ExportSourceFactory exportSourceFactory,
+                                 ApplicationEventPublisher eventPublisher,
+                                 CacheManager cacheManager) {
         this.userDataUploadRepository = userDataUploadRepository;
+        this.analysisResultService = analysisResultService;
+        this.relationshipSetService = relationshipSetService;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadSessionChunkRepository = uploadSessionChunkRepository;
+        this.exportSourceFactory = exportSourceFactory;
+        this.eventPublisher = eventPublisher;
+        this.uploadCache = cacheManager.getCache(CacheNames.UPLOADS);
     }
 
     /**
      * Creates and saves a new UserDataUpload record.
      *
+     * If the file is stored in BlobStorage and the user already has a COMPLETED upload of identical content
+     * (same hash and declared type), that upload is returned instead: its analysis already covers this file,
+     * so no new record is created and nothing is queued.
+     *
      * @param user The user performing the upload.
      * @param fileName The original name of the uploaded file.
-     * @param filePath The storage path of the file (e.g., S3 URL).
+     * @param filePath The storage path of the file (e.g., S3 URL) or its BlobStorage key.
      * @param declaredFileType The type of file as declared by the user.
-     * @return The newly created UserDataUpload entity.
+     * @return The newly created UserDataUpload entity, or the user's existing COMPLETED upload of the same content.
      */
     @Transactional
     public UserDataUpload createUploadRecord(User user, String fileName, String filePath, DeclaredFileType declaredFileType) {
+        String contentHash = contentHashOf(filePath);
+        if (contentHash != null) {
+            Optional<UserDataUpload> duplicate = findCompletedDuplicate(user.getId(), contentHash, declaredFileType);
+            if (duplicate.isPresent()) {
+                log.info("Upload '{}' of user {} is identical to completed upload {}; reusing its analysis",
+                        fileName, user.getId(), duplicate.get().getId());
+                return duplicate.get();
+            }
+        }
+
         UserDataUpload upload = new UserDataUpload(user, fileName, filePath, declaredFileType);
+        upload.setContentHash(contentHash);
         // Status and uploadTime are set by constructor and @PrePersist
+        UserDataUpload saved = userDataUploadRepository.save(upload);
+        eventPublisher.publishEvent(new UploadQueuedEvent(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Creates an upload record for a file reference supplied by a client rather than for content it sent.
+     * The reference must be a blob key of content the user uploaded before, or a path inside the ingest root
+     * (see ExportSourceFactory.resolveIngestPath); anything else would let a client have another user's export
+     * or an arbitrary server file analysed.
+     *
+     * @return The upload record, as for createUploadRecord.
+     * @throws IllegalArgumentException if the reference is not acceptable.
+     */
+    @Transactional
+    public UserDataUpload registerUpload(User user, String fileName, String filePath, DeclaredFileType declaredFileType) {
+        String contentHash = contentHashOf(filePath);
+        if (contentHash != null) {
+            if (!userDataUploadRepository.existsByUserIdAndContentHash(user.getId(), contentHash)) {
+                throw new IllegalArgumentException("Unknown blob key: " + filePath);
+            }
+        } else {
+            exportSourceFactory.resolveIngestPath(filePath);
+        }
+        return createUploadRecord(user, fileName, filePath, declaredFileType);
+    }
+
+    /**
+     * Creates an UPLOADING record for content that will arrive through a resumable upload session.
+     * Unlike createUploadRecord, the upload is not queued for analysis yet.
+     *
+     * @param user The user performing the upload.
+     * @param fileName The original name of the uploaded file.
+     * @param filePath The path of the staging file the content is assembled in.
+     * @param declaredFileType The type of file as declared by the user.
+     * @return The newly created UserDataUpload entity.
+     */
+    @Transactional
+    public UserDataUpload createIncomingUploadRecord(User user, String fileName, String filePath, DeclaredFileType declaredFileType) {
+        UserDataUpload upload = new UserDataUpload(user, fileName, filePath, declaredFileType);
+        upload.setStatus(UploadStatus.UPLOADING);
+        upload.setQueuedAt(null);
         return userDataUploadRepository.save(upload);
     }
 
+    /**
+     * Marks the content of an UPLOADING record as complete and queues it for analysis.
+     *
+     * @param uploadId The UUID of the upload record.
+     * @param filePath The final storage path of the content (normally a blob key).
+     * @return The updated UserDataUpload entity, now PENDING.
+     * @throws IllegalArgumentException if the upload record is not found.
+     * @throws IllegalStateException if the upload is not UPLOADING.
+     */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#uploadId")
+    @Transactional
+    public UserDataUpload markContentReceived(UUID uploadId, String filePath) {
+        UserDataUpload upload = userDataUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
+        if (upload.getStatus() != UploadStatus.UPLOADING) {
+            throw new IllegalStateException("Upload " + uploadId + " is " + upload.getStatus() + ", not UPLOADING");
+        }
+
+        upload.setFilePath(filePath);
+        upload.setContentHash(contentHashOf(filePath));
+        upload.setStatus(UploadStatus.PENDING);
+        upload.setQueuedAt(LocalDateTime.now());
+        UserDataUpload saved = userDataUploadRepository.save(upload);
+        eventPublisher.publishEvent(new UploadQueuedEvent(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Retrieves an upload as a response DTO, served from the uploads cache (dashboards poll this while an upload
+     * is being processed). Every method that changes a field of the DTO evicts the entry.
+     *
+     * @param id The UUID of the upload record.
+     * @return An Optional containing the UploadResponseDTO if found, or empty.
+     */
+    @Cacheable(cacheNames = CacheNames.UPLOADS, key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public Optional<UploadResponseDTO> getUploadResponse(UUID id) {
+        return userDataUploadRepository.findById(id).map(UploadResponseDTO::from);
+    }
+
+    /**
+     * Finds the user's most recent COMPLETED upload of identical content that still has its detailed results.
+     *
+     * @param userId The UUID of the user.
+     * @param contentHash The hex-encoded SHA-256 of the content.
+     * @param declaredFileType The declared type of the new upload.
+     * @return The matching upload, or empty.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserDataUpload> findCompletedDuplicate(UUID userId, String contentHash, DeclaredFileType declaredFileType) {
+        return userDataUploadRepository.findDetailedByUserIdAndContentHash(userId, contentHash, declaredFileType,
+                UploadStatus.COMPLETED, Limit.of(1)).stream().findFirst();
+    }
+
+    /**
+     * Returns the user's most recent COMPLETED uploads other than the given one,
+     * whose analysis may be partly reused for it.
+     *
+     * @param userId The UUID of the user.
+     * @param uploadId The UUID of the upload being analysed.
+     * @param limit The maximum number of uploads.
+     * @return The candidate uploads, most recent first.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDataUpload> findReuseCandidates(UUID userId, UUID uploadId, int limit) {
+        return userDataUploadRepository.findRecentByUserIdAndStatusExcluding(userId, UploadStatus.COMPLETED, uploadId,
+                Limit.of(limit));
+    }
+
     /**
      * Retrieves a UserDataUpload record by its ID.
      *
@@ -66,24 +233,144 @@ public class UserDataUploadService {
         return userDataUploadRepository.findByUserId(userId);
     }
 
+    /**
+     * Retrieves a user's uploads as response DTOs, newest first, selected directly by the query.
+     *
+     * @param userId The UUID of the user.
+     * @return A list of UploadResponseDTOs belonging to the user.
+     */
+    @Transactional(readOnly = true)
+    public List<UploadResponseDTO> getUploadResponsesByUserId(UUID userId) {
+        return userDataUploadRepository.findResponsesByUserId(userId);
+    }
+
+    /**
+     * Checks whether an upload record exists, without loading it.
+     *
+     * @param id The UUID of the upload record.
+     * @return true if the record exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean uploadRecordExists(UUID id) {
+        return userDataUploadRepository.existsById(id);
+    }
+
+    /**
+     * Updates the status of a UserDataUpload record without an error code.
+     *
+     * @see #updateUploadStatus(UUID, UploadStatus, UploadErrorCode, String)
+     */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#uploadId")
+    @Transactional
+    public UserDataUpload updateUploadStatus(UUID uploadId, UploadStatus newStatus, String errorMessage) {
+        return updateUploadStatus(uploadId, newStatus, null, errorMessage);
+    }
+
     /**
      * Updates the status of a UserDataUpload record.
+     * Reaching COMPLETED publishes an UploadCompletedEvent, handled once this transaction has committed.
      *
      * @param uploadId The UUID of the upload record to update.
      * @param newStatus The new status to set.
+     * @param errorCode Optional cause if the status is FAILED or INVALID_FILE.
      * @param errorMessage Optional error message if the status is FAILED or INVALID_FILE.
      * @return The updated UserDataUpload entity.
      * @throws IllegalArgumentException if the upload record is not found.
      */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#uploadId")
     @Transactional
-    public UserDataUpload updateUploadStatus(UUID uploadId, UploadStatus newStatus, String errorMessage) {
+    public UserDataUpload updateUploadStatus(UUID uploadId, UploadStatus newStatus, UploadErrorCode errorCode,
+                                             String errorMessage) {
         UserDataUpload upload = userDataUploadRepository.findById(uploadId)
                 .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
 
         upload.setStatus(newStatus);
         upload.setErrorMessage(errorMessage); // Set error message, will be null if no error
+        upload.setErrorCode(errorCode);
+        if (newStatus != UploadStatus.PROCESSING) {
+            // Leaving PROCESSING releases any worker lease on the upload.
+            upload.setLeaseOwner(null);
+            upload.setLeaseExpiresAt(null);
+        }
 
-        return userDataUploadRepository.save(upload);
+        UserDataUpload saved = userDataUploadRepository.save(upload);
+        if (newStatus == UploadStatus.COMPLETED) {
+            eventPublisher.publishEvent(new UploadCompletedEvent(saved.getId())); // Updates the upload timeline
+        }
+        return saved;
+    }
+
+    /**
+     * Atomically claims the oldest PENDING uploads for a worker node: the rows are locked with
+     * FOR UPDATE SKIP LOCKED, moved to PROCESSING and given a lease that the node must keep renewing.
+     * Safe to call concurrently from several backend instances sharing one database.
+     *
+     * @param limit The maximum number of uploads to claim.
+     * @param owner The identifier of the claiming node.
+     * @param leaseDuration How long the claim stays valid without renewal.
+     * @return The claimed uploads, already in PROCESSING status.
+     */
+    @Transactional
+    public List<UserDataUpload> claimPendingUploads(int limit, String owner, Duration leaseDuration) {
+        List<UserDataUpload> pending = userDataUploadRepository.lockNextByStatus(UploadStatus.PENDING, Limit.of(limit));
+        LocalDateTime expiresAt = LocalDateTime.now().plus(leaseDuration);
+        pending.forEach(upload -> {
+            upload.setStatus(UploadStatus.PROCESSING);
+            upload.setErrorMessage(null);
+            upload.setErrorCode(null);
+            upload.setLeaseOwner(owner);
+            upload.setLeaseExpiresAt(expiresAt);
+            upload.setProcessingAttempts(upload.getProcessingAttempts() + 1);
+            uploadCache.evict(upload.getId());
+        });
+        return userDataUploadRepository.saveAll(pending);
+    }
+
+    /**
+     * Extends the lease on an upload this node is processing.
+     *
+     * @param uploadId The UUID of the claimed upload.
+     * @param owner The identifier of the node holding the claim.
+     * @param leaseDuration The new lease length, counted from now.
+     * @return true if the lease is still held, false if it was lost to the reaper or another node.
+     */
+    @Transactional
+    public boolean renewLease(UUID uploadId, String owner, Duration leaseDuration) {
+        return userDataUploadRepository.renewLease(uploadId, owner, LocalDateTime.now().plus(leaseDuration),
+                UploadStatus.PROCESSING) > 0;
+    }
+
+    /**
+     * Returns uploads whose lease has expired (their node died or stalled) to PENDING.
+     * Uploads that already used maxAttempts claims are marked FAILED instead.
+     *
+     * @param maxAttempts The number of claims after which an upload is given up on.
+     * @return The number of uploads re-queued or failed.
+     */
+    @Transactional
+    public int reapExpiredLeases(int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        int failed = userDataUploadRepository.failExhaustedLeases(now, maxAttempts,
+                "Processing abandoned after " + maxAttempts + " attempts", UploadErrorCode.PROCESSING_ABANDONED,
+                UploadStatus.FAILED, UploadStatus.PROCESSING);
+        int requeued = userDataUploadRepository.requeueExpiredLeases(now, maxAttempts,
+                UploadStatus.PENDING, UploadStatus.PROCESSING);
+        if (failed + requeued > 0) {
+            // Bulk updates don't tell which ids changed; this is rare enough to simply drop the cache.
+            uploadCache.clear();
+        }
+        return failed + requeued;
+    }
+
+    /**
+     * Counts uploads in the given status.
+     *
+     * @param status The status to count.
+     * @return The number of uploads in that status.
+     */
+    @Transactional(readOnly = true)
+    public long countUploadsByStatus(UploadStatus status) {
+        return userDataUploadRepository.countByStatus(status);
     }
 
     /**
@@ -94,13 +381,17 @@ public class UserDataUploadService {
      * @param totalFollowing Total following count.
      * @param unfollowersCount Count of unfollowers.
      * @param totalCloseFriends Total close friends count.
+     * @param newFollowersCount Followers gained since the previous completed upload.
+     * @param newUnfollowersCount Followers lost since the previous completed upload.
      * @return The updated UserDataUpload entity.
      * @throws IllegalArgumentException if the upload record is not found.
      */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#uploadId")
     @Transactional
     public UserDataUpload updateAnalysisSummaries(UUID uploadId,
                                                   Integer totalFollowers, Integer totalFollowing, Integer unfollowersCount,
-                                                  Integer totalCloseFriends) {
+                                                  Integer totalCloseFriends,
+                                                  Integer newFollowersCount, Integer newUnfollowersCount) {
         UserDataUpload upload = userDataUploadRepository.findById(uploadId)
                 .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
 
@@ -108,17 +399,83 @@ public class UserDataUploadService {
         upload.setTotalFollowing(totalFollowing);
         upload.setUnfollowersCount(unfollowersCount);
         upload.setTotalCloseFriends(totalCloseFriends);
+        upload.setNewFollowersCount(newFollowersCount);
+        upload.setNewUnfollowersCount(newUnfollowersCount);
 
         return userDataUploadRepository.save(upload);
     }
 
     /**
-     * Deletes a UserDataUpload record by its ID.
+     * Stores the per-type entry fingerprints computed while analysing an upload.
+     *
+     * @param uploadId The UUID of the upload record.
+     * @param followers Fingerprint of the followers entries, or null if unknown.
+     * @param following Fingerprint of the following entries, or null if unknown.
+     * @param closeFriends Fingerprint of the close friends entries, or null if unknown.
+     * @param messages Fingerprint of the message entries, or null if unknown.
+     * @throws IllegalArgumentException if the upload record is not found.
+     */
+    @Transactional
+    public void updateContentFingerprints(UUID uploadId, String followers, String following, String closeFriends, String messages) {
+        UserDataUpload upload = userDataUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
+
+        upload.setFollowersFingerprint(followers);
+        upload.setFollowingFingerprint(following);
+        upload.setCloseFriendsFingerprint(closeFriends);
+        upload.setMessagesFingerprint(messages);
+        userDataUploadRepository.save(upload);
+    }
+
+    /**
+     * Returns the COMPLETED uploads that fell out of the retention window and still have detailed results,
+     * oldest first.
+     *
+     * @param keep The number of most recent completed uploads per user that keep their detailed results.
+     * @param limit The maximum number of uploads.
+     * @return The UUIDs of the uploads to compact.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findCompactionCandidates(int keep, int limit) {
+        return userDataUploadRepository.findCompactionCandidates(UploadStatus.COMPLETED, keep, Limit.of(limit));
+    }
+
+    /**
+     * Records that only summaries of an upload's analysis results are kept from now on.
+     *
+     * @param uploadId The UUID of the upload record.
+     * @return The updated UserDataUpload entity.
+     * @throws IllegalArgumentException if the upload record is not found.
+     */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#uploadId")
+    @Transactional
+    public UserDataUpload markResultsCompacted(UUID uploadId) {
+        UserDataUpload upload = userDataUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload record not found with ID: " + uploadId));
+
+        upload.setResultsCompactedAt(LocalDateTime.now());
+        return userDataUploadRepository.save(upload);
+    }
+
+    /**
+     * Deletes a UserDataUpload record by its ID, together with its results, attachments, relationship sets and
+     * upload session. Summaries, processing traces and timeline entries go with it through on delete cascade.
      *
      * @param id The UUID of the upload record to delete.
      */
+    @CacheEvict(cacheNames = CacheNames.UPLOADS, key = "#id")
     @Transactional
     public void deleteUploadRecord(UUID id) {
+        uploadSessionRepository.findByUploadId(id).ifPresent(session -> {
+            uploadSessionChunkRepository.deleteBySessionId(session.getId());
+            uploadSessionRepository.delete(session);
+        });
+        analysisResultService.deleteResultsForUpload(id);
+        relationshipSetService.deleteSetsForUpload(id);
         userDataUploadRepository.deleteById(id);
     }
+
+    private static String contentHashOf(String filePath) {
+        return BlobStorage.isKey(filePath) ? filePath.substring(BlobStorage.KEY_PREFIX.length()) : null;
+    }
 }
@@ -1,8 +1,13 @@
 package com.metaWebApp.MetaWebApp.service;
 
+import com.metaWebApp.MetaWebApp.cache.CacheNames;
+import com.metaWebApp.MetaWebApp.dto.UserResponseDTO;
 import com.metaWebApp.MetaWebApp.model.User;
 import com.metaWebApp.MetaWebApp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -36,6 +41,13 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    // Cached DTO for the read endpoint; write paths keep using getUserById, which returns a managed entity
+    @Cacheable(cacheNames = CacheNames.USERS, key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public Optional<UserResponseDTO> getUserResponse(UUID id) {
+        return userRepository.findById(id).map(UserResponseDTO::from);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -46,6 +58,7 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    @CacheEvict(cacheNames = CacheNames.USERS, key = "#user.id")
     @Transactional
     public User updateUser(User user) {
         // Here you would typically fetch the existing user, update fields, and save
@@ -62,6 +75,12 @@ public class UserService {
         }
     }
 
+    // Deleting a user cascades to their subscription and uploads
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.SUBSCRIPTIONS, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.UPLOADS, allEntries = true)
+    })
     @Transactional
     public void deleteUser(UUID id) {
         userRepository.deleteById(id);
@@ -0,0 +1,59 @@
+package com.metaWebApp.MetaWebApp.storage;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for uploaded export files.
+ *
+ * Blobs are identified by the SHA-256 of their content ("sha256:&lt;hex&gt;"), which is computed while the bytes
+ * are streamed in, so identical files are stored once. Implementations must never buffer a whole blob in memory.
+ */
+public interface BlobStorage {
+
+    String KEY_PREFIX = "sha256:";
+
+    /**
+     * Streams content into the store.
+     *
+     * @param content The bytes to store; read until end-of-stream but not closed.
+     * @return The key, hash and size of the stored blob.
+     * @throws IOException if the content cannot be read or written.
+     */
+    StoredBlob store(ReadableByteChannel content) throws IOException;
+
+    /**
+     * Moves a complete local file into the store, e.g. one assembled from resumable upload chunks.
+     * The file is hashed in place and moved rather than copied where possible; it no longer exists afterwards.
+     *
+     * @param file The file to take over.
+     * @return The key, hash and size of the stored blob.
+     * @throws IOException if the file cannot be read or moved.
+     */
+    StoredBlob importFile(Path file) throws IOException;
+
+    /**
+     * Returns a local file holding the blob, for random-access reads by the analysis engine.
+     * Remote implementations are expected to download (and cache) the blob first.
+     *
+     * @param key A key returned by {@link #store(ReadableByteChannel)}.
+     * @return The path of the blob content.
+     * @throws IOException if the blob does not exist or cannot be made available locally.
+     */
+    Path localPath(String key) throws IOException;
+
+    /**
+     * @param key A blob key.
+     * @return Whether the blob exists.
+     */
+    boolean exists(String key);
+
+    /**
+     * @param reference A file reference as stored in UserDataUpload.filePath.
+     * @return Whether the reference is a blob key rather than a plain file path.
+     */
+    static boolean isKey(String reference) {
+        return reference != null && reference.startsWith(KEY_PREFIX);
+    }
+}
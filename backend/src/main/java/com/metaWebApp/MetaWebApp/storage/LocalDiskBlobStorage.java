@@ -0,0 +1,159 @@
+package com.metaWebApp.MetaWebApp.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * BlobStorage on the local file system: blobs live under &lt;root&gt;/sha256/ab/cd/&lt;hash&gt;.
+ *
+ * Content is copied through one direct buffer into a temporary file while being hashed, then atomically moved to
+ * its content address. Memory use is the buffer size regardless of how large the upload is.
+ */
+@Component
+public class LocalDiskBlobStorage implements BlobStorage {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path root;
+    private final Path tempDir;
+
+    @Autowired
+    public LocalDiskBlobStorage(@Value("${app.storage.local.root:${java.io.tmpdir}/metawebapp-blobs}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tempDir = Files.createDirectories(this.root.resolve("tmp"));
+    }
+
+    @Override
+    public StoredBlob store(ReadableByteChannel content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        long size = 0;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (content.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(false);
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(sha256);
+            if (Files.exists(target)) {
+                return new StoredBlob(KEY_PREFIX + sha256, sha256, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently; either copy is fine.
+                return new StoredBlob(KEY_PREFIX + sha256, sha256, size, true);
+            }
+            return new StoredBlob(KEY_PREFIX + sha256, sha256, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public StoredBlob importFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                size += read;
+                buffer.clear();
+            }
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        Path target = pathOf(sha256);
+        if (Files.exists(target)) {
+            Files.delete(file);
+            return new StoredBlob(KEY_PREFIX + sha256, sha256, size, true);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            try {
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // Different file system: copy next to the store first so the blob still appears atomically.
+                Path temp = Files.createTempFile(tempDir, "import-", ".part");
+                try {
+                    Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                Files.delete(file);
+            }
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(file);
+            return new StoredBlob(KEY_PREFIX + sha256, sha256, size, true);
+        }
+        return new StoredBlob(KEY_PREFIX + sha256, sha256, size, false);
+    }
+
+    @Override
+    public Path localPath(String key) throws IOException {
+        Path path = pathOf(hashOf(key));
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(key);
+        }
+        return path;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathOf(hashOf(key)));
+    }
+
+    private Path pathOf(String sha256) {
+        return root.resolve("sha256").resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static String hashOf(String key) {
+        if (!BlobStorage.isKey(key)) {
+            throw new IllegalArgumentException("Not a blob key: " + key);
+        }
+        String hash = key.substring(KEY_PREFIX.length());
+        if (!hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Not a blob key: " + key);
+        }
+        return hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
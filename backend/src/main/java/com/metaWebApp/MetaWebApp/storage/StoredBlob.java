@@ -0,0 +1,12 @@
+package com.metaWebApp.MetaWebApp.storage;
+
+/**
+ * A blob written to BlobStorage.
+ *
+ * @param key The storage key ("sha256:&lt;hex&gt;"), stored as the upload's filePath.
+ * @param sha256 The hex-encoded SHA-256 of the content.
+ * @param size The content length in bytes.
+ * @param alreadyStored Whether identical content was already in the store.
+ */
+public record StoredBlob(String key, String sha256, long size, boolean alreadyStored) {
+}
@@ -0,0 +1,164 @@
+-- Schema of the JPA entities in com.metaWebApp.MetaWebApp.model (PostgreSQL).
+-- Applied by Flyway in the 'prod' profile; Hibernate only validates it there (ddl-auto=validate).
+
+create sequence instagram_handles_seq start with 1 increment by 500;
+
+create table users (
+    id uuid not null,
+    email varchar(255) not null,
+    password_hash varchar(255) not null,
+    is_premium boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table password_resets (
+    id uuid not null,
+    user_id uuid not null,
+    token varchar(255) not null,
+    expires_at timestamp(6) not null,
+    used boolean not null,
+    created_at timestamp(6) not null,
+    constraint pk_password_resets primary key (id),
+    constraint uk_password_resets_token unique (token),
+    constraint fk_password_resets_user foreign key (user_id) references users
+);
+
+create table subscriptions (
+    id uuid not null,
+    user_id uuid not null,
+    stripe_customer_id varchar(255) not null,
+    stripe_subscription_id varchar(255) not null,
+    plan_type varchar(50) not null check (plan_type in ('FREE','PREMIUM')),
+    status varchar(50) not null check (status in ('ACTIVE','INACTIVE','CANCELED','PAST_DUE','TRIALING','UNPAID','COMPLETED')),
+    start_date timestamp(6) not null,
+    end_date timestamp(6),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    constraint pk_subscriptions primary key (id),
+    constraint uk_subscriptions_user unique (user_id),
+    constraint uk_subscriptions_stripe_customer unique (stripe_customer_id),
+    constraint uk_subscriptions_stripe_subscription unique (stripe_subscription_id),
+    constraint fk_subscriptions_user foreign key (user_id) references users
+);
+
+create table user_data_uploads (
+    id uuid not null,
+    user_id uuid not null,
+    file_name varchar(255) not null,
+    file_path varchar(1024) not null,
+    declared_file_type varchar(50) not null check (declared_file_type in ('FOLLOWERS','CLOSE_FRIENDS','MESSAGES','UNKNOWN')),
+    status varchar(50) not null check (status in ('UPLOADING','PENDING','PROCESSING','COMPLETED','FAILED','INVALID_FILE')),
+    upload_time timestamp(6) not null,
+    error_message text,
+    content_hash varchar(64),
+    followers_fingerprint varchar(64),
+    following_fingerprint varchar(64),
+    close_friends_fingerprint varchar(64),
+    messages_fingerprint varchar(64),
+    total_followers integer,
+    total_following integer,
+    unfollowers_count integer,
+    total_close_friends integer,
+    new_followers_count integer,
+    new_unfollowers_count integer,
+    lease_owner varchar(100),
+    lease_expires_at timestamp(6),
+    processing_attempts integer not null,
+    constraint pk_user_data_uploads primary key (id),
+    constraint fk_user_data_uploads_user foreign key (user_id) references users
+);
+
+create table analysis_result_attachments (
+    id uuid not null,
+    upload_id uuid not null,
+    meta_json jsonb not null,
+    constraint pk_analysis_result_attachments primary key (id),
+    constraint fk_analysis_result_attachments_upload foreign key (upload_id) references user_data_uploads
+);
+
+create table analysis_results (
+    id uuid not null,
+    upload_id uuid not null,
+    data_type varchar(100) not null check (data_type in ('UNFOLLOWER','CLOSE_FRIEND_ITEM','MESSAGE_THREAD_SUMMARY','NEW_FOLLOWER','NEW_UNFOLLOWER','LIKED_MEDIA_ITEM','COMMENT_ITEM')),
+    target_identifier varchar(255) not null,
+    value_numeric bigint,
+    value_text text,
+    profile_href varchar(512),
+    follow_timestamp bigint,
+    attachment_id uuid,
+    created_at timestamp(6) not null,
+    constraint pk_analysis_results primary key (id),
+    constraint uk_analysis_results_attachment unique (attachment_id),
+    constraint fk_analysis_results_upload foreign key (upload_id) references user_data_uploads,
+    constraint fk_analysis_results_attachment foreign key (attachment_id) references analysis_result_attachments
+);
+
+create table instagram_handles (
+    id integer not null,
+    handle varchar(255) not null,
+    created_at timestamp(6) not null,
+    constraint pk_instagram_handles primary key (id),
+    constraint uk_instagram_handles_handle unique (handle)
+);
+
+create table upload_relationship_sets (
+    id uuid not null,
+    upload_id uuid not null,
+    set_type varchar(50) not null check (set_type in ('FOLLOWERS','FOLLOWING','CLOSE_FRIENDS')),
+    cardinality integer not null,
+    bitmap bytea not null,
+    created_at timestamp(6) not null,
+    constraint pk_upload_relationship_sets primary key (id),
+    constraint uk_upload_relationship_sets_upload_type unique (upload_id, set_type),
+    constraint fk_upload_relationship_sets_upload foreign key (upload_id) references user_data_uploads
+);
+
+create table upload_sessions (
+    id uuid not null,
+    upload_id uuid not null,
+    status varchar(50) not null check (status in ('OPEN','ASSEMBLING','COMPLETED','EXPIRED')),
+    total_size bigint not null,
+    chunk_size integer not null,
+    staging_path varchar(1024) not null,
+    expires_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    constraint pk_upload_sessions primary key (id),
+    constraint uk_upload_sessions_upload unique (upload_id),
+    constraint fk_upload_sessions_upload foreign key (upload_id) references user_data_uploads
+);
+
+create table upload_session_chunks (
+    id uuid not null,
+    session_id uuid not null,
+    chunk_index integer not null,
+    sha256 varchar(64) not null,
+    received_at timestamp(6) not null,
+    constraint pk_upload_session_chunks primary key (id),
+    constraint uk_upload_session_chunks_session_index unique (session_id, chunk_index),
+    constraint fk_upload_session_chunks_session foreign key (session_id) references upload_sessions
+);
+
+create table upload_timeline (
+    id uuid not null,
+    upload_id uuid not null,
+    user_id uuid not null,
+    upload_time timestamp(6) not null,
+    total_followers integer,
+    total_following integer,
+    unfollowers_count integer,
+    total_close_friends integer,
+    new_followers_count integer,
+    new_unfollowers_count integer,
+    followers_delta integer,
+    following_delta integer,
+    top_new_followers jsonb,
+    top_new_unfollowers jsonb,
+    updated_at timestamp(6) not null,
+    constraint pk_upload_timeline primary key (id),
+    constraint uk_upload_timeline_upload unique (upload_id),
+    constraint fk_upload_timeline_upload foreign key (upload_id) references user_data_uploads on delete cascade,
+    constraint fk_upload_timeline_user foreign key (user_id) references users on delete cascade
+);
@@ -0,0 +1,21 @@
+-- Secondary indexes backing the repository queries; they mirror the @Index declarations on the entities.
+-- PostgreSQL does not index foreign key columns by itself, so every lookup by owner is covered here.
+
+-- Result listings, keyset pages and target lookups per upload and type (AnalysisResultRepository)
+create index idx_analysis_results_upload_type_target on analysis_results (upload_id, data_type, target_identifier);
+create index idx_analysis_result_attachments_upload on analysis_result_attachments (upload_id);
+
+-- A user's uploads newest first, and the duplicate upload check (UserDataUploadRepository)
+create index idx_user_data_uploads_user_time on user_data_uploads (user_id, upload_time);
+create index idx_user_data_uploads_user_content_hash on user_data_uploads (user_id, content_hash);
+-- Processing queue: claims by status in upload order, lease reaping
+create index idx_user_data_uploads_status_time on user_data_uploads (status, upload_time);
+
+-- A user's outstanding password resets
+create index idx_password_resets_user_used_expires on password_resets (user_id, used, expires_at);
+
+-- Expired upload session cleanup
+create index idx_upload_sessions_status_expires on upload_sessions (status, expires_at);
+
+-- Dashboard history per user
+create index idx_upload_timeline_user_time on upload_timeline (user_id, upload_time);
@@ -0,0 +1,15 @@
+-- Retention of analysis results (see ResultRetentionService): per-type summaries of compacted uploads.
+
+alter table user_data_uploads add column results_compacted_at timestamp(6);
+
+create table analysis_result_summaries (
+    id uuid not null,
+    upload_id uuid not null,
+    data_type varchar(100) not null check (data_type in ('UNFOLLOWER','CLOSE_FRIEND_ITEM','MESSAGE_THREAD_SUMMARY','NEW_FOLLOWER','NEW_UNFOLLOWER','LIKED_MEDIA_ITEM','COMMENT_ITEM')),
+    result_count bigint not null,
+    value_numeric_sum bigint,
+    created_at timestamp(6) not null,
+    constraint pk_analysis_result_summaries primary key (id),
+    constraint uk_analysis_result_summaries_upload_type unique (upload_id, data_type),
+    constraint fk_analysis_result_summaries_upload foreign key (upload_id) references user_data_uploads on delete cascade
+);
@@ -0,0 +1,50 @@
+-- Hash-partitions analysis_results by upload_id (PostgreSQL only; the partition count is the
+-- analysis_result_partitions Flyway placeholder, see application-prod.properties).
+--
+-- Every hot query on the table filters by upload_id, so it is pruned to a single partition. Each partition has its
+-- own, smaller indexes and is vacuumed on its own, and the deletes of the retention compactor for one upload touch
+-- one partition, so vacuum cost and index depth stay flat as the table churns.
+-- The primary key must contain the partition key; lookups by id alone use idx_analysis_results_id.
+
+create table analysis_results_partitioned (
+    id uuid not null,
+    upload_id uuid not null,
+    data_type varchar(100) not null check (data_type in ('UNFOLLOWER','CLOSE_FRIEND_ITEM','MESSAGE_THREAD_SUMMARY','NEW_FOLLOWER','NEW_UNFOLLOWER','LIKED_MEDIA_ITEM','COMMENT_ITEM')),
+    target_identifier varchar(255) not null,
+    value_numeric bigint,
+    value_text text,
+    profile_href varchar(512),
+    follow_timestamp bigint,
+    attachment_id uuid,
+    created_at timestamp(6) not null
+) partition by hash (upload_id);
+
+do $$
+begin
+    for i in 0 .. ${analysis_result_partitions} - 1 loop
+        execute format('create table analysis_results_p%s partition of analysis_results_partitioned '
+                       'for values with (modulus %s, remainder %s)',
+                       lpad(i::text, 2, '0'), ${analysis_result_partitions}, i);
+    end loop;
+end
+$$;
+
+insert into analysis_results_partitioned
+    (id, upload_id, data_type, target_identifier, value_numeric, value_text, profile_href, follow_timestamp,
+     attachment_id, created_at)
+select id, upload_id, data_type, target_identifier, value_numeric, value_text, profile_href, follow_timestamp,
+       attachment_id, created_at
+from analysis_results;
+
+drop table analysis_results;
+alter table analysis_results_partitioned rename to analysis_results;
+
+alter table analysis_results add constraint pk_analysis_results primary key (upload_id, id);
+alter table analysis_results add constraint uk_analysis_results_attachment unique (upload_id, attachment_id);
+alter table analysis_results add constraint fk_analysis_results_upload
+    foreign key (upload_id) references user_data_uploads;
+alter table analysis_results add constraint fk_analysis_results_attachment
+    foreign key (attachment_id) references analysis_result_attachments;
+
+create index idx_analysis_results_upload_type_target on analysis_results (upload_id, data_type, target_identifier);
+create index idx_analysis_results_id on analysis_results (id);
@@ -0,0 +1,4 @@
+-- Structured cause of FAILED and INVALID_FILE uploads (see model.UploadErrorCode), next to the free-text message.
+
+alter table user_data_uploads add column error_code varchar(50)
+    check (error_code in ('INVALID_EXPORT','STORAGE_ERROR','DATABASE_ERROR','PROCESSING_ABANDONED','UPLOAD_EXPIRED','INTERNAL_ERROR'));
@@ -0,0 +1,18 @@
+-- Per-upload processing traces (see UploadTraceService): one row per pipeline stage and processing attempt.
+
+create table upload_trace_stages (
+    id uuid not null,
+    upload_id uuid not null,
+    attempt integer not null,
+    stage varchar(20) not null check (stage in ('READ','PARSE','INTERN','DIFF','REUSE','PERSIST')),
+    started_at timestamp(6) not null,
+    ended_at timestamp(6) not null,
+    duration_micros bigint not null,
+    bytes_read bigint not null,
+    records bigint not null,
+    rows_written bigint not null,
+    allocated_bytes bigint not null,
+    constraint pk_upload_trace_stages primary key (id),
+    constraint uk_upload_trace_stages_upload_attempt_stage unique (upload_id, attempt, stage),
+    constraint fk_upload_trace_stages_upload foreign key (upload_id) references user_data_uploads on delete cascade
+);
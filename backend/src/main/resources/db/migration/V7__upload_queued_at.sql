@@ -0,0 +1,5 @@
+-- Time an upload last entered the PENDING queue (see UserDataUpload.queuedAt); uploads.queue.wait is measured from it.
+
+alter table user_data_uploads add column queued_at timestamp(6);
+
+update user_data_uploads set queued_at = upload_time where status = 'PENDING';
@@ -0,0 +1,65 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AnalysisResultSinkTest {
+
+	private final AnalysisResultService analysisResultService = mock(AnalysisResultService.class);
+	private final List<String> saved = new ArrayList<>();
+
+	AnalysisResultSinkTest() {
+		doAnswer(invocation -> {
+			List<AnalysisResult> batch = invocation.getArgument(0);
+			batch.forEach(result -> saved.add(result.getTargetIdentifier()));
+			return null;
+		}).when(analysisResultService).saveAll(anyList());
+	}
+
+	@Test
+	void writesFullBatchesAndTheRestOnFlush() {
+		try (AnalysisResultSink sink = sink()) {
+			sink.add(result("a"));
+			sink.add(result("b"));
+			assertEquals(List.of("a", "b"), saved);
+			sink.add(result("c"));
+			sink.flush();
+			assertEquals(3, sink.getWritten());
+		}
+		assertEquals(List.of("a", "b", "c"), saved);
+	}
+
+	@Test
+	void closingAfterAFailureDiscardsTheUnflushedResults() {
+		assertThrows(IllegalStateException.class, () -> {
+			try (AnalysisResultSink sink = sink()) {
+				sink.add(result("a"));
+				sink.add(result("b"));
+				sink.add(result("c"));
+				throw new IllegalStateException("Parsing failed");
+			}
+		});
+		assertEquals(List.of("a", "b"), saved);
+	}
+
+	private AnalysisResultSink sink() {
+		return new AnalysisResultSink(analysisResultService, UUID.randomUUID(), 2, new AnalysisStageTimer(ProcessingStage.PARSE));
+	}
+
+	private static AnalysisResult result(String target) {
+		return new AnalysisResult(null, AnalysisDataType.UNFOLLOWER, target);
+	}
+}
@@ -0,0 +1,123 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:reuse",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+class ExportAnalysisReuseTest {
+
+	private static final String FOLLOWERS = "[{\"string_list_data\":[{\"value\":\"alice\"}]},{\"string_list_data\":[{\"value\":\"bob\"}]}]";
+	private static final String FOLLOWING = "{\"relationships_following\":[{\"string_list_data\":[{\"value\":\"alice\"}]},{\"string_list_data\":[{\"value\":\"carol\"}]}]}";
+	private static final String CLOSE_FRIENDS = "{\"relationships_close_friends\":[{\"string_list_data\":[{\"value\":\"alice\"}]}]}";
+
+	@Autowired
+	private ExportAnalysisEngine exportAnalysisEngine;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private AnalysisResultService analysisResultService;
+
+	@Autowired
+	private BlobStorage blobStorage;
+
+	@Test
+	void identicalUploadReturnsTheCompletedOne() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		byte[] export = export(FOLLOWERS, "photo-1");
+		UserDataUpload first = analyse(user, export);
+
+		UserDataUpload again = upload(user, export);
+
+		assertEquals(first.getId(), again.getId());
+		assertEquals(UploadStatus.COMPLETED, again.getStatus());
+	}
+
+	@Test
+	void unchangedPartsOfADifferentExportAreCopied() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload first = analyse(user, export(FOLLOWERS, "photo-1"));
+		// Mark the stored close friends result: only a copy (not a re-parse) carries the marker over.
+		AnalysisResult closeFriend = analysisResultService.getResultsForUploadAndType(first.getId(), AnalysisDataType.CLOSE_FRIEND_ITEM).get(0);
+		closeFriend.setValueText("copied");
+		analysisResultService.saveAnalysisResult(closeFriend);
+
+		UserDataUpload second = analyse(user, export(FOLLOWERS, "photo-2"));
+
+		assertNotEquals(first.getId(), second.getId());
+		assertEquals(first.getFollowersFingerprint(), second.getFollowersFingerprint());
+		List<AnalysisResult> closeFriends = analysisResultService.getResultsForUploadAndType(second.getId(), AnalysisDataType.CLOSE_FRIEND_ITEM);
+		assertEquals(1, closeFriends.size());
+		assertEquals("copied", closeFriends.get(0).getValueText());
+		assertEquals("carol", analysisResultService.getResultsForUploadAndType(second.getId(), AnalysisDataType.UNFOLLOWER).get(0).getTargetIdentifier());
+		assertEquals(2, second.getTotalFollowers());
+		assertEquals(0, second.getNewFollowersCount());
+
+		// Changed followers are re-read, and so is following, whose unfollowers depend on them.
+		UserDataUpload third = analyse(user, export("[{\"string_list_data\":[{\"value\":\"carol\"}]}]", "photo-2"));
+		assertEquals(List.of(), analysisResultService.getResultsForUploadAndType(third.getId(), AnalysisDataType.UNFOLLOWER)
+				.stream().filter(result -> result.getTargetIdentifier().equals("carol")).toList());
+		assertEquals(1, third.getNewFollowersCount());
+	}
+
+	private UserDataUpload analyse(User user, byte[] export) throws IOException {
+		UserDataUpload upload = upload(user, export);
+		exportAnalysisEngine.analyzeUpload(upload);
+		userDataUploadService.updateUploadStatus(upload.getId(), UploadStatus.COMPLETED, null);
+		return userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+	}
+
+	private UserDataUpload upload(User user, byte[] export) throws IOException {
+		String key = blobStorage.store(Channels.newChannel(new ByteArrayInputStream(export))).key();
+		return userDataUploadService.createUploadRecord(user, "export.zip", key, DeclaredFileType.FOLLOWERS);
+	}
+
+	private static byte[] export(String followers, String photo) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+			put(out, "media/posts/photo.jpg", photo);
+			put(out, "connections/followers_and_following/followers_1.json", followers);
+			put(out, "connections/followers_and_following/following.json", FOLLOWING);
+			put(out, "connections/followers_and_following/close_friends.json", CLOSE_FRIENDS);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void put(ZipOutputStream out, String name, String content) throws IOException {
+		out.putNextEntry(new ZipEntry(name));
+		out.write(content.getBytes(StandardCharsets.UTF_8));
+		out.closeEntry();
+	}
+}
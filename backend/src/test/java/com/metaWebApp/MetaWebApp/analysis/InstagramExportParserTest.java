@@ -0,0 +1,64 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InstagramExportParserTest {
+
+	private final InstagramExportParser parser = new InstagramExportParser(new ObjectMapper());
+
+	@Test
+	void readsTopLevelFollowersArray() throws IOException {
+		String json = """
+				[
+				  {"title": "", "media_list_data": [], "string_list_data": [
+				    {"href": "https://www.instagram.com/Alice", "value": "Alice", "timestamp": 1690000000}]},
+				  {"title": "", "media_list_data": [], "string_list_data": [
+				    {"href": "https://www.instagram.com/bob", "value": "bob", "timestamp": 1690000001}]}
+				]
+				""";
+		List<RelationshipEntry> entries = new ArrayList<>();
+
+		long count = parser.readRelationships(stream(json), entries::add);
+
+		assertEquals(2, count);
+		assertEquals(new RelationshipEntry("alice", "https://www.instagram.com/Alice", 1690000000L), entries.get(0));
+		assertEquals("bob", entries.get(1).username());
+	}
+
+	@Test
+	void readsWrappedFollowingListWithUsernameInTitle() throws IOException {
+		String json = """
+				{"relationships_following": [
+				  {"title": "carol", "string_list_data": [{"href": "https://www.instagram.com/_u/carol", "timestamp": 1700000000}]},
+				  {"title": "", "string_list_data": [{"href": "https://www.instagram.com/_u/dave/", "timestamp": 1700000001}]}
+				]}
+				""";
+		List<RelationshipEntry> entries = new ArrayList<>();
+
+		parser.readRelationships(stream(json), entries::add);
+
+		assertEquals(List.of("carol", "dave"), entries.stream().map(RelationshipEntry::username).toList());
+		assertEquals(1700000000L, entries.get(0).timestamp());
+	}
+
+	@Test
+	void rejectsNonRelationshipJson() {
+		assertThrows(InvalidExportException.class, () -> parser.readRelationships(stream("{\"foo\": 1}"), entry -> { }));
+		assertThrows(InvalidExportException.class, () -> parser.readRelationships(stream("[{\"title\": "), entry -> { }));
+	}
+
+	private static InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,81 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MessageThreadSummarizerTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final MessageThreadSummarizer summarizer = new MessageThreadSummarizer(new InstagramExportParser(new ObjectMapper()), 4);
+
+	@AfterEach
+	void shutdown() {
+		summarizer.shutdown();
+	}
+
+	@Test
+	void mergesTheFilesOfEachThread() throws IOException {
+		write("your_instagram_activity/messages/inbox/alice_1/message_1.json", """
+				{"participants": [{"name": "Alice"}, {"name": "Me"}],
+				 "messages": [{"sender_name": "Alice", "timestamp_ms": 3000, "content": "hi"},
+				              {"sender_name": "Me", "timestamp_ms": 2000, "photos": [{"uri": "x"}]}],
+				 "title": "Alice", "thread_path": "inbox/alice_1"}
+				""");
+		write("your_instagram_activity/messages/inbox/alice_1/message_2.json", """
+				{"participants": [{"name": "Alice"}, {"name": "Me"}, {"name": "Bob"}],
+				 "messages": [{"sender_name": "Bob", "timestamp_ms": 1000}],
+				 "title": "Alice", "thread_path": "inbox/alice_1"}
+				""");
+		write("your_instagram_activity/messages/inbox/group_2/message_1.json", """
+				{"participants": [{"name": "Ren\\u00c3\\u00a9e"}], "messages": [], "title": "Group"}
+				""");
+
+		List<MessageThreadSummary> threads;
+		try (FileSystemExportSource source = FileSystemExportSource.ofDirectory(tempDir)) {
+			threads = summarizer.summarize(source.entries(ExportEntryType.MESSAGES));
+		}
+
+		assertEquals(2, threads.size());
+		MessageThreadSummary alice = threads.get(0);
+		assertEquals("alice_1", alice.threadKey());
+		assertEquals(3, alice.messageCount());
+		assertEquals(Set.of("Alice", "Me", "Bob"), alice.participants());
+		assertEquals(1000L, alice.firstTimestampMs());
+		assertEquals(3000L, alice.lastTimestampMs());
+		assertEquals(2, alice.fileCount());
+
+		MessageThreadSummary group = threads.get(1);
+		assertEquals("group_2", group.threadKey());
+		assertEquals(0, group.messageCount());
+		assertEquals(Set.of("Renée"), group.participants());
+	}
+
+	@Test
+	void rejectsFilesWithoutMessages() throws IOException {
+		write("messages/inbox/x_1/message_1.json", "{\"participants\": []}");
+
+		try (FileSystemExportSource source = FileSystemExportSource.ofDirectory(tempDir)) {
+			assertThrows(InvalidExportException.class, () -> summarizer.summarize(source.entries(ExportEntryType.MESSAGES)));
+		}
+	}
+
+	private void write(String relativePath, String content) throws IOException {
+		Path file = tempDir.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+	}
+}
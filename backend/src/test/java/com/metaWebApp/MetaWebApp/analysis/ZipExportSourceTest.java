@@ -0,0 +1,134 @@
+package com.metaWebApp.MetaWebApp.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipExportSourceTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void indexesOnlyRelevantEntriesAndInflatesThem() throws IOException {
+		Path zip = tempDir.resolve("export.zip");
+		String followers = "[{\"string_list_data\":[{\"value\":\"alice\"}]}]";
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			put(out, "media/posts/202401/photo.jpg", new byte[4096], false);
+			put(out, "connections/followers_and_following/followers_1.json", followers.getBytes(StandardCharsets.UTF_8), false);
+			put(out, "connections/followers_and_following/following.json", "{\"relationships_following\":[]}".getBytes(StandardCharsets.UTF_8), true);
+			put(out, "your_instagram_activity/messages/inbox/bob_123/message_1.json", "{}".getBytes(StandardCharsets.UTF_8), false);
+		}
+
+		try (ZipExportSource source = ZipExportSource.open(zip)) {
+			List<String> names = source.entries().stream().map(ExportEntry::name).toList();
+			assertEquals(List.of(
+					"connections/followers_and_following/followers_1.json",
+					"connections/followers_and_following/following.json",
+					"your_instagram_activity/messages/inbox/bob_123/message_1.json"), names);
+
+			assertEquals(followers, read(source.entries(ExportEntryType.FOLLOWERS).get(0)));
+			assertEquals("{\"relationships_following\":[]}", read(source.entries(ExportEntryType.FOLLOWING).get(0)));
+			assertEquals(1, source.entries(ExportEntryType.MESSAGES).size());
+		}
+	}
+
+	@Test
+	void readsZip64CentralDirectory() throws IOException {
+		Path zip = tempDir.resolve("large.zip");
+		// More than 65535 entries forces the writer to emit ZIP64 end of central directory records.
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			out.setLevel(0);
+			for (int i = 0; i < 70_000; i++) {
+				put(out, "media/stories/" + i + ".jpg", new byte[0], false);
+			}
+			put(out, "connections/followers_and_following/close_friends.json",
+					"{\"relationships_close_friends\":[]}".getBytes(StandardCharsets.UTF_8), false);
+		}
+
+		try (ZipExportSource source = ZipExportSource.open(zip)) {
+			assertEquals(1, source.entries().size());
+			assertEquals("{\"relationships_close_friends\":[]}", read(source.entries(ExportEntryType.CLOSE_FRIENDS).get(0)));
+		}
+	}
+
+	@Test
+	void rejectsEntriesWhoseContentDoesNotMatchTheirCrc() throws IOException {
+		Path zip = tempDir.resolve("corrupt.zip");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+			// Level 0 deflates into stored blocks, so the content appears verbatim and can be corrupted in place
+			out.setLevel(0);
+			put(out, "connections/followers_and_following/followers_1.json",
+					"[{\"string_list_data\":[{\"value\":\"alice\"}]}]\n".getBytes(StandardCharsets.UTF_8), false);
+			put(out, "connections/followers_and_following/following.json",
+					"{\"relationships_following\":[{\"string_list_data\":[{\"value\":\"bob\"}]}]}\n".getBytes(StandardCharsets.UTF_8), true);
+		}
+		byte[] bytes = Files.readAllBytes(zip);
+		replace(bytes, "alice", "alicf");
+		replace(bytes, "bob", "bod");
+		Files.write(zip, bytes);
+
+		// The parser stops at the end of the JSON value, before the trailing newline and the end of the entry
+		InstagramExportParser parser = new InstagramExportParser(new ObjectMapper());
+		try (ZipExportSource source = ZipExportSource.open(zip)) {
+			for (ExportEntry entry : source.entries()) {
+				assertThrows(InvalidExportException.class, () -> {
+					try (InputStream in = entry.open()) {
+						parser.readRelationships(in, relationship -> { });
+					}
+				}, entry.name());
+			}
+		}
+	}
+
+	@Test
+	void rejectsNonZipContent() throws IOException {
+		Path file = tempDir.resolve("not-a-zip.zip");
+		Files.writeString(file, "definitely not a zip archive");
+
+		assertThrows(InvalidExportException.class, () -> ZipExportSource.open(file));
+	}
+
+	private static void put(ZipOutputStream out, String name, byte[] content, boolean stored) throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		if (stored) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(content.length);
+			entry.setCompressedSize(content.length);
+			entry.setCrc(crc.getValue());
+		}
+		out.putNextEntry(entry);
+		out.write(content);
+		out.closeEntry();
+	}
+
+	private static void replace(byte[] bytes, String target, String replacement) {
+		String content = new String(bytes, StandardCharsets.ISO_8859_1);
+		int index = content.indexOf(target);
+		assertTrue(index >= 0);
+		System.arraycopy(replacement.getBytes(StandardCharsets.ISO_8859_1), 0, bytes, index, replacement.length());
+	}
+
+	private static String read(ExportEntry entry) throws IOException {
+		try (InputStream in = entry.open()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
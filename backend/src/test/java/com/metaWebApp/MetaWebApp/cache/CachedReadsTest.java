@@ -0,0 +1,68 @@
+package com.metaWebApp.MetaWebApp.cache;
+
+import com.metaWebApp.MetaWebApp.dto.UserResponseDTO;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.service.SubscriptionService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cachedreads",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false",
+		"app.cache.shared-tier=local"
+})
+class CachedReadsTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private SubscriptionService subscriptionService;
+
+	@Autowired
+	private SharedCacheTier sharedCacheTier;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void repeatedReadsAreServedFromTheCacheUntilAWriteEvicts() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+
+		UserResponseDTO first = userService.getUserResponse(user.getId()).orElseThrow();
+		assertSame(first, userService.getUserResponse(user.getId()).orElseThrow());
+		assertFalse(first.getIsPremium());
+
+		user.setIsPremium(true);
+		userService.updateUser(user);
+
+		UserResponseDTO afterUpdate = userService.getUserResponse(user.getId()).orElseThrow();
+		assertNotSame(first, afterUpdate);
+		assertTrue(afterUpdate.getIsPremium());
+		assertTrue(subscriptionService.getUserSubscriptionResponse(user.getId()).isEmpty());
+		assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheNames.USERS).functionCounter());
+	}
+
+	@Test
+	void evictionThroughTheSharedTierInvalidatesTheLocalCache() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserResponseDTO first = userService.getUserResponse(user.getId()).orElseThrow();
+
+		// What another node does when it changes this user
+		sharedCacheTier.evict(CacheNames.USERS, user.getId());
+
+		assertNotSame(first, userService.getUserResponse(user.getId()).orElseThrow());
+	}
+}
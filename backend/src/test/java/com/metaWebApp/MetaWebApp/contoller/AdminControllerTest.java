@@ -0,0 +1,88 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.processing.UploadJobProcessor;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:admin",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class AdminControllerTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private UploadJobProcessor uploadJobProcessor;
+
+	@Autowired
+	private BlobStorage blobStorage;
+
+	@Test
+	void streamsTheTraceOfAnUploadAsJfr() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		String followers = "[{\"string_list_data\":[{\"value\":\"alice\"}]}]";
+		String key = blobStorage.store(Channels.newChannel(new ByteArrayInputStream(followers.getBytes(StandardCharsets.UTF_8)))).key();
+		userDataUploadService.createUploadRecord(user, "followers_1.json", key, DeclaredFileType.FOLLOWERS);
+		UserDataUpload claimed = userDataUploadService.claimPendingUploads(1, "test-node", Duration.ofMinutes(1)).get(0);
+		uploadJobProcessor.process(claimed, new UploadJobProcessor.LeaseGuard(claimed.getId(), "test-node", Duration.ofMinutes(1), System.nanoTime()));
+
+		MvcResult started = mockMvc.perform(get("/api/admin/uploads/{id}/trace.jfr", claimed.getId())).andReturn();
+		byte[] recording = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+
+		Path file = Files.write(tempDir.resolve("trace.jfr"), recording);
+		List<RecordedEvent> stages = RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals("com.metaWebApp.UploadStage"))
+				.filter(event -> event.getString("uploadId").equals(claimed.getId().toString()))
+				.toList();
+		assertFalse(stages.isEmpty());
+		assertEquals(stages.size(), stages.stream().map(event -> event.getString("stage")).distinct().count());
+
+		mockMvc.perform(get("/api/admin/uploads/{id}/trace.jfr", UUID.randomUUID()))
+				.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,193 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.export.ColumnarResultReader;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultAttachmentRepository;
+import com.metaWebApp.MetaWebApp.service.AnalysisResultService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:streaming",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class AnalysisResultStreamingTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private AnalysisResultService analysisResultService;
+
+	@Autowired
+	private AnalysisResultAttachmentRepository analysisResultAttachmentRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private User user;
+
+	private UUID uploadId;
+
+	@BeforeEach
+	void createResults() {
+		user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "export.zip", "/tmp/export.zip", DeclaredFileType.FOLLOWERS);
+		uploadId = upload.getId();
+
+		List<AnalysisResult> results = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			results.add(new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, String.format("user_%04d", i)));
+		}
+		results.add(new AnalysisResult(upload, AnalysisDataType.CLOSE_FRIEND_ITEM, "user_0000"));
+		analysisResultService.saveAll(results);
+	}
+
+	@Test
+	void streamsAllResultsAsAJsonArray() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/analysis-results/upload/{id}", uploadId)).andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.length()").value(2501))
+				.andExpect(jsonPath("$[0].uploadId").value(uploadId.toString()))
+				.andExpect(jsonPath("$[2500].uploadId").value(uploadId.toString()));
+	}
+
+	@Test
+	void streamsOneResultPerLineAsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}", uploadId, AnalysisDataType.UNFOLLOWER)
+				.accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertEquals(2500, lines.length);
+		assertTrue(lines[0].startsWith("{") && lines[0].contains("\"targetIdentifier\":\"user_0000\""));
+		assertTrue(lines[2499].contains("\"targetIdentifier\":\"user_2499\""));
+	}
+
+	@Test
+	void listsTypedColumnsAndReturnsMetadataOnlyForSingleResults() throws Exception {
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "messages.zip", "/tmp/messages.zip", DeclaredFileType.MESSAGES);
+		AnalysisResult follower = new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, "alice");
+		follower.setProfileHref("https://www.instagram.com/alice");
+		follower.setFollowTimestamp(1_700_000_000L);
+		AnalysisResult thread = new AnalysisResult(upload, AnalysisDataType.MESSAGE_THREAD_SUMMARY, "thread_1");
+		thread.setMetaJson(objectMapper.readTree("{\"participants\":[\"alice\",\"bob\"]}"));
+		analysisResultService.saveAll(List.of(follower, thread));
+
+		MvcResult started = mockMvc.perform(get("/api/analysis-results/upload/{id}", upload.getId())).andReturn();
+		String listing = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andReturn().getResponse().getContentAsString();
+		assertFalse(listing.contains("metaJson"));
+		assertTrue(listing.contains("\"profileHref\":\"https://www.instagram.com/alice\""));
+		assertTrue(listing.contains("\"followTimestamp\":1700000000"));
+		assertTrue(listing.contains("\"hasMeta\":true"));
+
+		mockMvc.perform(get("/api/analysis-results/{id}", thread.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hasMeta").value(true))
+				.andExpect(jsonPath("$.metaJson.participants[1]").value("bob"));
+		mockMvc.perform(get("/api/analysis-results/{id}/meta", thread.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.participants[0]").value("alice"));
+		mockMvc.perform(get("/api/analysis-results/{id}/meta", follower.getId()))
+				.andExpect(status().isNotFound());
+
+		assertEquals(2, analysisResultService.deleteResultsForUpload(upload.getId()));
+		assertTrue(analysisResultAttachmentRepository.findById(thread.getAttachment().getId()).isEmpty());
+	}
+
+	@Test
+	void resultsOfAnUnknownUploadAreNotFound() throws Exception {
+		UUID unknown = UUID.randomUUID();
+		mockMvc.perform(get("/api/analysis-results/upload/{id}", unknown))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}", unknown, AnalysisDataType.UNFOLLOWER))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}/page", unknown, AnalysisDataType.UNFOLLOWER))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void pagesWithABadCursorOrSortOrderAreBadRequests() throws Exception {
+		String firstPage = mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}/page", uploadId, AnalysisDataType.UNFOLLOWER)
+						.param("pageSize", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items.length()").value(10))
+				.andReturn().getResponse().getContentAsString();
+		String nextCursor = objectMapper.readTree(firstPage).path("nextCursor").asText();
+		mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}/page", uploadId, AnalysisDataType.UNFOLLOWER)
+						.param("cursor", nextCursor))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}/page", uploadId, AnalysisDataType.UNFOLLOWER)
+						.param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/analysis-results/upload/{id}/type/{type}/page", uploadId, AnalysisDataType.UNFOLLOWER)
+						.param("sortOrder", "SIDEWAYS"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportsAllResultsInTheColumnarFormat() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/analysis-results/export").param("uploadId", uploadId.toString())).andReturn();
+
+		byte[] body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		List<ColumnarResultReader.Row> rows = new ArrayList<>();
+		new ColumnarResultReader(new GZIPInputStream(new ByteArrayInputStream(body))).read(rows::add);
+		assertEquals(2501, rows.size());
+		assertEquals(uploadId, rows.get(0).uploadId());
+		mockMvc.perform(get("/api/analysis-results/export").param("uploadId", UUID.randomUUID().toString()))
+				.andExpect(status().isNotFound());
+	}
+}
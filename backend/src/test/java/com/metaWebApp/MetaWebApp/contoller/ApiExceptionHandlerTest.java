@@ -0,0 +1,35 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApiExceptionHandlerTest {
+
+	private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/uploads/sessions/x");
+
+	@Test
+	void clientMistakesMapToTheirStatus() {
+		ProblemDetail badRequest = handler.handleBadRequest(new IllegalArgumentException("Chunk size out of range"), request);
+		assertEquals(HttpStatus.BAD_REQUEST.value(), badRequest.getStatus());
+		assertEquals("Chunk size out of range", badRequest.getDetail());
+
+		ProblemDetail notFound = handler.handleNotFound(new NoSuchElementException("Upload session not found"), request);
+		assertEquals(HttpStatus.NOT_FOUND.value(), notFound.getStatus());
+		assertEquals("Upload session not found", notFound.getDetail());
+	}
+
+	@Test
+	void anythingElseIsAnOpaqueServerError() {
+		ProblemDetail error = handler.handleUnexpected(new IllegalStateException("connection pool exhausted"), request);
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), error.getStatus());
+		assertEquals("Unexpected server error", error.getDetail());
+	}
+}
@@ -0,0 +1,67 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:subscriptions",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class SubscriptionControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void createdSubscriptionIsReturnedAndReadable() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+
+		mockMvc.perform(post("/api/subscriptions").with(csrf())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(request(user.getId())))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.userId").value(user.getId().toString()))
+				.andExpect(jsonPath("$.status").value("ACTIVE"));
+
+		mockMvc.perform(get("/api/subscriptions/user/" + user.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.planType").value("PREMIUM"));
+		mockMvc.perform(get("/api/users/" + user.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.isPremium").value(true));
+	}
+
+	@Test
+	void unknownUserIsABadRequest() throws Exception {
+		mockMvc.perform(post("/api/subscriptions").with(csrf())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(request(UUID.randomUUID())))
+				.andExpect(status().isBadRequest());
+	}
+
+	private static String request(UUID userId) {
+		return "{\"userId\":\"" + userId + "\",\"stripeCustomerId\":\"cus_1\",\"stripeSubscriptionId\":\"sub_" + userId
+				+ "\",\"planType\":\"PREMIUM\",\"status\":\"ACTIVE\",\"startDate\":\"2025-01-01T00:00:00\"}";
+	}
+}
@@ -0,0 +1,80 @@
+package com.metaWebApp.MetaWebApp.contoller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.processing.UploadJobProcessor;
+import com.metaWebApp.MetaWebApp.service.RelationshipSetService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:upload-controller",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class UserDataUploadControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private UploadJobProcessor uploadJobProcessor;
+
+	@Autowired
+	private RelationshipSetService relationshipSetService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void singleFilesAreReadByTheNameTheyWereUploadedWith() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		// FOLLOWERS is the declared type for following.json as well
+		MockMultipartFile file = new MockMultipartFile("file", "following.json", MediaType.APPLICATION_JSON_VALUE,
+				"{\"relationships_following\":[{\"string_list_data\":[{\"value\":\"alice\"}]}]}".getBytes(StandardCharsets.UTF_8));
+
+		String response = mockMvc.perform(multipart("/api/uploads/multipart").file(file).with(csrf())
+						.param("userId", user.getId().toString())
+						.param("declaredFileType", "FOLLOWERS"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		UUID uploadId = UUID.fromString(objectMapper.readTree(response).get("id").asText());
+
+		UserDataUpload claimed = userDataUploadService.claimPendingUploads(1, "test-node", Duration.ofMinutes(1)).get(0);
+		assertEquals(uploadId, claimed.getId());
+		uploadJobProcessor.process(claimed, new UploadJobProcessor.LeaseGuard(uploadId, "test-node", Duration.ofMinutes(1), System.nanoTime()));
+
+		assertEquals(UploadStatus.COMPLETED, userDataUploadService.getUploadRecordById(uploadId).orElseThrow().getStatus());
+		assertTrue(relationshipSetService.findSet(uploadId, RelationshipSetType.FOLLOWING).isPresent());
+		assertTrue(relationshipSetService.findSet(uploadId, RelationshipSetType.FOLLOWERS).isEmpty());
+	}
+}
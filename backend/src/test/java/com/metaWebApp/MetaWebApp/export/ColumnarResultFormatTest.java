@@ -0,0 +1,77 @@
+package com.metaWebApp.MetaWebApp.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarResultFormatTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Test
+	void roundTripsResultsOfSeveralUploadsAcrossBlocks() throws IOException {
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_000_000);
+		List<AnalysisResultResponseDTO> results = new ArrayList<>();
+		for (int i = 0; i < ColumnarResultWriter.BLOCK_ROWS + 10; i++) {
+			results.add(new AnalysisResultResponseDTO(UUID.randomUUID(), first, AnalysisDataType.UNFOLLOWER,
+					"user_" + (i % 700), null, null, "https://www.instagram.com/user_" + i, 1_700_000_000L - i,
+					(JsonNode) null, base.plusSeconds(i)));
+		}
+		results.add(new AnalysisResultResponseDTO(UUID.randomUUID(), second, AnalysisDataType.MESSAGE_THREAD_SUMMARY,
+				"thread", -42L, "Thread title", null, null, objectMapper.readTree("{\"messages\":3}"), null));
+		results.add(new AnalysisResultResponseDTO(UUID.randomUUID(), second, AnalysisDataType.CLOSE_FRIEND_ITEM,
+				null, 7L, null, null, null, (JsonNode) null, base));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ColumnarResultWriter writer = new ColumnarResultWriter(bytes);
+		for (AnalysisResultResponseDTO result : results) {
+			writer.write(result);
+		}
+		writer.finish();
+
+		List<ColumnarResultReader.Row> rows = new ArrayList<>();
+		long read = new ColumnarResultReader(new ByteArrayInputStream(bytes.toByteArray())).read(rows::add);
+
+		assertEquals(results.size(), read);
+		for (int i = 0; i < results.size(); i++) {
+			AnalysisResultResponseDTO expected = results.get(i);
+			ColumnarResultReader.Row row = rows.get(i);
+			assertEquals(expected.getUploadId(), row.uploadId());
+			assertEquals(expected.getDataType().name(), row.dataType());
+			assertEquals(expected.getTargetIdentifier(), row.targetIdentifier());
+			assertEquals(expected.getValueNumeric(), row.valueNumeric());
+			assertEquals(expected.getValueText(), row.valueText());
+			assertEquals(expected.getProfileHref(), row.profileHref());
+			assertEquals(expected.getFollowTimestamp(), row.followTimestamp());
+			assertEquals(expected.getCreatedAt(), row.createdAt());
+		}
+		assertEquals("{\"messages\":3}", rows.get(rows.size() - 2).metaJson());
+		assertNull(rows.get(rows.size() - 2).createdAt());
+
+		// No per-row ids and a dictionary instead of repeated identifiers
+		assertTrue(bytes.size() * 5 < objectMapper.writeValueAsBytes(results).length);
+	}
+
+	@Test
+	void rejectsInputThatIsNotAnExport() {
+		assertThrows(IOException.class, () -> new ColumnarResultReader(new ByteArrayInputStream("[{}]".getBytes())).read(row -> {
+		}));
+	}
+}
@@ -0,0 +1,36 @@
+package com.metaWebApp.MetaWebApp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidGeneratorTest {
+
+	@Test
+	void generatesVersion7UuidsWithTheCurrentTimestamp() {
+		long before = System.currentTimeMillis();
+		UUID uuid = TimeOrderedUuidGenerator.next();
+		long after = System.currentTimeMillis();
+
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		long timestamp = uuid.getMostSignificantBits() >>> 16;
+		// The counter may borrow a millisecond or two under heavy use.
+		assertTrue(timestamp >= before && timestamp <= after + 2, "timestamp " + timestamp);
+	}
+
+	@Test
+	void idsIncreaseStrictlyWithinTheSameMillisecond() {
+		UUID previous = TimeOrderedUuidGenerator.next();
+		for (int i = 0; i < 100_000; i++) {
+			UUID next = TimeOrderedUuidGenerator.next();
+			// Compare as unsigned big-endian bytes, the order databases use for uuid columns.
+			assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+					previous + " >= " + next);
+			previous = next;
+		}
+	}
+}
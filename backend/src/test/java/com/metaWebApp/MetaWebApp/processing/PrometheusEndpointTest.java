@@ -0,0 +1,68 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:prometheus",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@WithMockUser
+class PrometheusEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private UploadJobProcessor uploadJobProcessor;
+
+	@Autowired
+	private BlobStorage blobStorage;
+
+	@Test
+	void analysisAndQueueMetricsAreScrapable() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		String followers = "[{\"string_list_data\":[{\"value\":\"alice\"}]}]";
+		String key = blobStorage.store(Channels.newChannel(new ByteArrayInputStream(followers.getBytes(StandardCharsets.UTF_8)))).key();
+		userDataUploadService.createUploadRecord(user, "followers_1.json", key, DeclaredFileType.FOLLOWERS);
+		UserDataUpload claimed = userDataUploadService.claimPendingUploads(1, "test-node", Duration.ofMinutes(1)).get(0);
+		uploadJobProcessor.process(claimed, new UploadJobProcessor.LeaseGuard(claimed.getId(), "test-node", Duration.ofMinutes(1), System.nanoTime()));
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("analysis_stage_seconds_count{stage=\"parse\"}")))
+				.andExpect(content().string(containsString("uploads_queue_wait_seconds_bucket")))
+				.andExpect(content().string(containsString("uploads_processing_duration_seconds_count{outcome=\"COMPLETED\"}")));
+	}
+}
@@ -0,0 +1,225 @@
+package com.metaWebApp.MetaWebApp.processing;
+
+import com.metaWebApp.MetaWebApp.analysis.AnalysisAbortedException;
+import com.metaWebApp.MetaWebApp.analysis.ExportAnalysisEngine;
+import com.metaWebApp.MetaWebApp.dto.UploadTraceStageDTO;
+import com.metaWebApp.MetaWebApp.jfr.ContinuousRecording;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.service.RelationshipSetService;
+import com.metaWebApp.MetaWebApp.service.UploadTraceService;
+import com.metaWebApp.MetaWebApp.service.UserDataUploadService;
+import com.metaWebApp.MetaWebApp.service.UserService;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:job-processor",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+class UploadJobProcessorTest {
+
+	@Autowired
+	private UploadJobProcessor uploadJobProcessor;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private BlobStorage blobStorage;
+
+	@Autowired
+	private UploadTraceService uploadTraceService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ExportAnalysisEngine exportAnalysisEngine;
+
+	@Autowired
+	private RelationshipSetService relationshipSetService;
+
+	@Test
+	void outcomesCarryAnErrorCodeAndStagesAreTimed() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+
+		UserDataUpload invalid = process(user, "this is not JSON");
+		assertEquals(UploadStatus.INVALID_FILE, invalid.getStatus());
+		assertEquals(UploadErrorCode.INVALID_EXPORT, invalid.getErrorCode());
+		assertEquals(1, meterRegistry.get("uploads.failed").tag("code", "INVALID_EXPORT").counter().count());
+
+		UserDataUpload completed = process(user, "[{\"string_list_data\":[{\"value\":\"alice\"}]}]");
+		assertEquals(UploadStatus.COMPLETED, completed.getStatus());
+		assertNull(completed.getErrorCode());
+		assertNotNull(meterRegistry.get("analysis.stage").tag("stage", "parse").timer());
+		assertNotNull(meterRegistry.get("analysis.stage").tag("stage", "persist").timer());
+	}
+
+	@Test
+	void eachAttemptIsTracedAndExportableAsJfr() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		String followers = "[{\"string_list_data\":[{\"value\":\"alice\"}]},{\"string_list_data\":[{\"value\":\"bob\"}]}]";
+		UserDataUpload upload = process(user, followers);
+
+		List<UploadTraceStageDTO> trace = uploadTraceService.getTrace(upload.getId());
+		UploadTraceStageDTO parse = trace.stream().filter(stage -> stage.stage() == ProcessingStage.PARSE).findFirst().orElseThrow();
+		assertEquals(1, parse.attempt());
+		assertEquals(2, parse.records());
+		assertEquals(followers.length(), parse.bytesRead());
+		assertTrue(trace.stream().anyMatch(stage -> stage.stage() == ProcessingStage.PERSIST && stage.rowsWritten() > 0));
+
+		Path file = Files.createTempFile("trace", ".jfr");
+		try {
+			assertEquals(trace.size(), uploadTraceService.exportTraceAsJfr(upload.getId(), file));
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+					.filter(event -> event.getEventType().getName().equals("com.metaWebApp.UploadStage"))
+					.filter(event -> event.getString("uploadId").equals(upload.getId().toString()))
+					.toList();
+			assertEquals(trace.size(), events.size());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void continuousRecordingCapturesPipelineEvents() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		ContinuousRecording recording = new ContinuousRecording(false, "default", Duration.ofMinutes(5), DataSize.ofMegabytes(16));
+		Path file = Files.createTempFile("continuous", ".jfr");
+		try {
+			assertTrue(recording.start().running());
+			process(user, "[{\"string_list_data\":[{\"value\":\"alice\"}]}]");
+			// Gains a follower, so the diff against the first upload writes a result
+			UserDataUpload upload = process(user, "[{\"string_list_data\":[{\"value\":\"alice\"}]},{\"string_list_data\":[{\"value\":\"bob\"}]}]");
+			recording.dump(file);
+
+			Set<String> events = RecordingFile.readAllEvents(file).stream()
+					.filter(event -> event.getEventType().getName().startsWith("com.metaWebApp."))
+					.filter(event -> upload.getId().toString().equals(event.getString("uploadId")))
+					.map(event -> event.getEventType().getName())
+					.collect(Collectors.toSet());
+			assertEquals(Set.of("com.metaWebApp.ExportEntryOpen", "com.metaWebApp.ParseBatch", "com.metaWebApp.FollowerDiff",
+					"com.metaWebApp.ResultFlush", "com.metaWebApp.UploadStage"), events);
+		} finally {
+			recording.stop();
+			Files.deleteIfExists(file);
+		}
+		assertEquals(false, recording.getStatus().running());
+	}
+
+	@Test
+	void expiredLeaseAbandonsTheUploadWithoutWriting() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = claim(user, "[{\"string_list_data\":[{\"value\":\"alice\"}]}]");
+		// Claimed two minutes ago with a one minute lease and never renewed
+		long claimedAt = System.nanoTime() - Duration.ofMinutes(2).toNanos();
+		UploadJobProcessor.LeaseGuard lease = new UploadJobProcessor.LeaseGuard(upload.getId(), "test-node", Duration.ofMinutes(1), claimedAt);
+		assertTrue(lease.isLost());
+
+		uploadJobProcessor.process(upload, lease);
+
+		UserDataUpload after = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertEquals(UploadStatus.PROCESSING, after.getStatus());
+		assertNull(after.getFollowersFingerprint());
+		assertTrue(relationshipSetService.findSet(upload.getId(), RelationshipSetType.FOLLOWERS).isEmpty());
+		assertTrue(uploadTraceService.getTrace(upload.getId()).isEmpty());
+
+		lease.renewed(System.nanoTime());
+		assertFalse(lease.isLost());
+		lease.markLost();
+		assertTrue(lease.isLost());
+	}
+
+	@Test
+	void leaseLostMidAnalysisStopsBeforeTheNextWrite() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = claim(user, "[{\"string_list_data\":[{\"value\":\"alice\"}]}]");
+		// Holds for the first few checkpoints (reading and parsing), then is lost
+		AtomicInteger checks = new AtomicInteger();
+
+		assertThrows(AnalysisAbortedException.class,
+				() -> exportAnalysisEngine.analyzeUpload(upload, () -> checks.incrementAndGet() > 3));
+
+		UserDataUpload after = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertTrue(checks.get() > 3);
+		assertNull(after.getTotalFollowers());
+		assertTrue(relationshipSetService.findSet(upload.getId(), RelationshipSetType.FOLLOWERS).isEmpty());
+		assertTrue(uploadTraceService.getTrace(upload.getId()).isEmpty());
+	}
+
+	@Test
+	void unexpectedFailuresAreClassified() {
+		assertEquals(UploadErrorCode.DATABASE_ERROR,
+				UploadJobProcessor.classify(new IllegalStateException(new DataAccessResourceFailureException("down"))));
+		assertEquals(UploadErrorCode.STORAGE_ERROR, UploadJobProcessor.classify(new UncheckedIOException(new IOException("gone"))));
+		assertEquals(UploadErrorCode.INTERNAL_ERROR, UploadJobProcessor.classify(new NullPointerException()));
+	}
+
+	@Test
+	void plainPathsOutsideTheIngestRootAreNeverRead() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		// A record from before plain paths were checked on registration; no ingest root is configured here
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "passwd", "/etc/passwd", DeclaredFileType.FOLLOWERS);
+		UserDataUpload claimed = userDataUploadService.claimPendingUploads(1, "test-node", Duration.ofMinutes(1)).get(0);
+		assertEquals(upload.getId(), claimed.getId());
+
+		uploadJobProcessor.process(claimed, new UploadJobProcessor.LeaseGuard(claimed.getId(), "test-node", Duration.ofMinutes(1), System.nanoTime()));
+
+		UserDataUpload rejected = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertEquals(UploadStatus.INVALID_FILE, rejected.getStatus());
+		assertTrue(relationshipSetService.findSet(upload.getId(), RelationshipSetType.FOLLOWERS).isEmpty());
+	}
+
+	private UserDataUpload process(User user, String content) throws IOException {
+		long claimedAt = System.nanoTime();
+		UserDataUpload claimed = claim(user, content);
+		uploadJobProcessor.process(claimed, new UploadJobProcessor.LeaseGuard(claimed.getId(), "test-node", Duration.ofMinutes(1), claimedAt));
+		return userDataUploadService.getUploadRecordById(claimed.getId()).orElseThrow();
+	}
+
+	private UserDataUpload claim(User user, String content) throws IOException {
+		String key = blobStorage.store(Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))).key();
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "followers_1.json", key, DeclaredFileType.FOLLOWERS);
+		UserDataUpload claimed = userDataUploadService.claimPendingUploads(1, "test-node", Duration.ofMinutes(1)).get(0);
+		assertEquals(upload.getId(), claimed.getId());
+		return claimed;
+	}
+}
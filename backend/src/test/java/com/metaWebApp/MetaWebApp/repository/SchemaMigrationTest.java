@@ -0,0 +1,79 @@
+package com.metaWebApp.MetaWebApp.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the Flyway migrations of the 'prod' profile against the schema Hibernate derives from the entities.
+ * The migrations run on H2 in PostgreSQL mode as a stand-in; column types are dialect specific and not compared.
+ * V4 (hash partitioning of analysis_results) is PostgreSQL-only and keeps the table's columns, so it is left out.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:schema-entities",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+class SchemaMigrationTest {
+
+	private static final String[] MIGRATIONS = {"db/migration/V1__initial_schema.sql", "db/migration/V2__query_indexes.sql",
+			"db/migration/V3__result_retention.sql", "db/migration/V5__upload_error_code.sql",
+			"db/migration/V6__upload_trace_stages.sql", "db/migration/V7__upload_queued_at.sql"};
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void migrationsCreateTheColumnsAndIndexesOfTheEntities() throws SQLException {
+		try (Connection entities = dataSource.getConnection();
+			 Connection migrated = DriverManager.getConnection("jdbc:h2:mem:schema-migrated;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "")) {
+			for (String migration : MIGRATIONS) {
+				ScriptUtils.executeSqlScript(migrated, new ClassPathResource(migration));
+			}
+
+			assertEquals(columns(entities), columns(migrated));
+			Set<String> missingIndexes = indexes(entities);
+			missingIndexes.removeAll(indexes(migrated));
+			assertTrue(missingIndexes.isEmpty(), "Indexes missing from the migrations: " + missingIndexes);
+		}
+	}
+
+	// table.column nullable, for every table of the public schema except Hibernate's temporary (hte_) tables
+	private static Set<String> columns(Connection connection) throws SQLException {
+		Set<String> columns = new TreeSet<>();
+		try (ResultSet rs = connection.createStatement().executeQuery(
+				"select table_name, column_name, is_nullable from information_schema.columns where lower(table_schema) = 'public' "
+						+ "and lower(table_name) not like 'hte\\_%'")) {
+			while (rs.next()) {
+				columns.add((rs.getString(1) + "." + rs.getString(2) + " " + rs.getString(3)).toLowerCase(Locale.ROOT));
+			}
+		}
+		return columns;
+	}
+
+	// Named secondary indexes (idx_*), as table.index
+	private static Set<String> indexes(Connection connection) throws SQLException {
+		Set<String> indexes = new TreeSet<>();
+		try (ResultSet rs = connection.createStatement().executeQuery(
+				"select table_name, index_name from information_schema.indexes where lower(index_name) like 'idx\\_%'")) {
+			while (rs.next()) {
+				indexes.add((rs.getString(1) + "." + rs.getString(2)).toLowerCase(Locale.ROOT));
+			}
+		}
+		return indexes;
+	}
+}
@@ -0,0 +1,108 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultPageDTO;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:paging",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+class AnalysisResultServicePagingTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private AnalysisResultService analysisResultService;
+
+	private UUID uploadId;
+
+	@BeforeEach
+	void createResults() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "export.zip", "/tmp/export.zip", DeclaredFileType.FOLLOWERS);
+		uploadId = upload.getId();
+
+		List<AnalysisResult> results = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			results.add(new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, String.format("user_%03d", i)));
+		}
+		results.add(new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, "userx001"));
+		results.add(new AnalysisResult(upload, AnalysisDataType.CLOSE_FRIEND_ITEM, "user_000"));
+		analysisResultService.saveAll(results);
+	}
+
+	@Test
+	void walksEveryPageInOrderWithoutGapsOrDuplicates() {
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			AnalysisResultPageDTO page = analysisResultService.getResultPage(uploadId, AnalysisDataType.UNFOLLOWER,
+					null, AnalysisResultService.SearchMatch.PREFIX, cursor, 40, Sort.Direction.DESC);
+			page.getItems().stream().map(AnalysisResultResponseDTO::getTargetIdentifier).forEach(seen::add);
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(7, pages);
+		assertEquals(251, seen.size());
+		assertEquals("userx001", seen.get(0));
+		assertEquals("user_249", seen.get(1));
+		assertEquals("user_000", seen.get(250));
+	}
+
+	@Test
+	void listsResultsAsProjectedDtos() {
+		List<AnalysisResultResponseDTO> all = analysisResultService.getResultResponsesForUpload(uploadId);
+		List<AnalysisResultResponseDTO> closeFriends = analysisResultService.getResultResponsesForUploadAndType(uploadId,
+				AnalysisDataType.CLOSE_FRIEND_ITEM);
+
+		assertEquals(252, all.size());
+		assertEquals(uploadId, all.get(0).getUploadId());
+		assertEquals(1, closeFriends.size());
+		assertEquals("user_000", closeFriends.get(0).getTargetIdentifier());
+	}
+
+	@Test
+	void searchTreatsLikeWildcardsLiterally() {
+		AnalysisResultPageDTO prefix = analysisResultService.getResultPage(uploadId, AnalysisDataType.UNFOLLOWER,
+				"USER_1", AnalysisResultService.SearchMatch.PREFIX, null, 500, Sort.Direction.ASC);
+		assertEquals(100, prefix.getItems().size());
+		assertFalse(prefix.isHasMore());
+		assertNull(prefix.getNextCursor());
+
+		AnalysisResultPageDTO contains = analysisResultService.getResultPage(uploadId, AnalysisDataType.UNFOLLOWER,
+				"x00", AnalysisResultService.SearchMatch.CONTAINS, null, 10, Sort.Direction.ASC);
+		assertEquals(List.of("userx001"), contains.getItems().stream().map(AnalysisResultResponseDTO::getTargetIdentifier).toList());
+	}
+
+	@Test
+	void rejectsForgedCursor() {
+		assertThrows(IllegalArgumentException.class, () -> analysisResultService.getResultPage(uploadId,
+				AnalysisDataType.UNFOLLOWER, null, AnalysisResultService.SearchMatch.PREFIX, "not-a-cursor", 10, Sort.Direction.ASC));
+	}
+}
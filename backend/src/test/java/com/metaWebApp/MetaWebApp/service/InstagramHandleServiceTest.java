@@ -0,0 +1,111 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:handles",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false",
+		"app.analysis.handle-cache-size=10"
+})
+class InstagramHandleServiceTest {
+
+	@Autowired
+	private InstagramHandleService instagramHandleService;
+
+	@Test
+	void internsEachHandleOnceAndResolvesIdsBack() {
+		String prefix = UUID.randomUUID().toString();
+		List<String> handles = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			handles.add(prefix + "_" + (i % 1200));
+		}
+
+		int[] ids = instagramHandleService.intern(handles);
+		int[] again = instagramHandleService.intern(handles);
+
+		assertArrayEquals(ids, again);
+		assertEquals(ids[0], ids[1200]);
+		assertNotEquals(ids[0], ids[1]);
+		assertArrayEquals(handles.subList(0, 3).toArray(), instagramHandleService.resolve(new int[]{ids[0], ids[1], ids[2]}));
+	}
+
+	@Test
+	void concurrentInternsOfTheSameHandlesAgreeOnIds() throws Exception {
+		String prefix = UUID.randomUUID().toString();
+		List<String> handles = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			handles.add(prefix + "_" + i);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit((Callable<int[]>) () -> instagramHandleService.intern(handles)));
+			}
+			int[] first = results.get(0).get();
+			for (Future<int[]> result : results) {
+				assertArrayEquals(first, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void concurrentInternsOfOverlappingListsInDifferentOrdersAgreeOnIds() throws Exception {
+		String prefix = UUID.randomUUID().toString();
+		Random random = new Random(7);
+		List<List<String>> lists = new ArrayList<>();
+		for (int worker = 0; worker < 6; worker++) {
+			// Each list shares a window of handles with its neighbours and is shuffled differently
+			List<String> handles = new ArrayList<>();
+			for (int i = worker * 800; i < worker * 800 + 2400; i++) {
+				handles.add(prefix + "_" + i);
+			}
+			Collections.shuffle(handles, random);
+			lists.add(handles);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(lists.size());
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (List<String> handles : lists) {
+				results.add(executor.submit((Callable<int[]>) () -> instagramHandleService.intern(handles)));
+			}
+			Map<String, Integer> idsByHandle = new HashMap<>();
+			for (int worker = 0; worker < lists.size(); worker++) {
+				int[] ids = results.get(worker).get();
+				List<String> handles = lists.get(worker);
+				for (int i = 0; i < ids.length; i++) {
+					Integer known = idsByHandle.putIfAbsent(handles.get(i), ids[i]);
+					if (known != null) {
+						assertEquals(known, ids[i], handles.get(i));
+					}
+				}
+			}
+			assertEquals(idsByHandle.size(), idsByHandle.values().stream().distinct().count());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultSummaryDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultAttachmentRepository;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:retention",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false",
+		"app.retention.detail-uploads-per-user=2",
+		"app.retention.batch-size=3"
+})
+class ResultRetentionServiceTest {
+
+	@Autowired
+	private ResultRetentionService resultRetentionService;
+
+	@Autowired
+	private AnalysisResultService analysisResultService;
+
+	@Autowired
+	private RelationshipSetService relationshipSetService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private AnalysisResultAttachmentRepository analysisResultAttachmentRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void uploadsOutsideTheRetentionWindowKeepOnlySummaries() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload oldest = completedUpload(user);
+		UserDataUpload middle = completedUpload(user);
+		UserDataUpload newest = completedUpload(user);
+		UUID attachmentId = analysisResultService.getResultsForUpload(oldest.getId()).stream()
+				.filter(result -> result.getAttachment() != null)
+				.findFirst().orElseThrow()
+				.getAttachment().getId();
+
+		resultRetentionService.compactExpiredUploads();
+
+		assertTrue(analysisResultService.getResultsForUpload(oldest.getId()).isEmpty());
+		assertTrue(analysisResultAttachmentRepository.findById(attachmentId).isEmpty());
+		assertTrue(relationshipSetService.findSet(oldest.getId(), RelationshipSetType.FOLLOWERS).isEmpty());
+		assertNotNull(userDataUploadService.getUploadResponse(oldest.getId()).orElseThrow().getResultsCompactedAt());
+		assertEquals(List.of(new AnalysisResultSummaryDTO(AnalysisDataType.UNFOLLOWER, 7, null),
+						new AnalysisResultSummaryDTO(AnalysisDataType.MESSAGE_THREAD_SUMMARY, 1, 12L)),
+				analysisResultService.getResultSummary(oldest.getId()).stream()
+						.sorted((a, b) -> Long.compare(b.resultCount(), a.resultCount())).toList());
+
+		// The two most recent uploads keep their detail and stay available for reuse
+		assertEquals(8, analysisResultService.getResultsForUpload(middle.getId()).size());
+		assertEquals(8, analysisResultService.getResultsForUpload(newest.getId()).size());
+		assertNull(userDataUploadService.getUploadResponse(newest.getId()).orElseThrow().getResultsCompactedAt());
+		assertEquals(List.of(middle.getId()), userDataUploadService.findReuseCandidates(user.getId(), newest.getId(), 10)
+				.stream().map(UserDataUpload::getId).toList());
+
+		// Nothing left to do on the next run
+		resultRetentionService.compactExpiredUploads();
+		assertEquals(2, analysisResultService.getResultSummary(oldest.getId()).size());
+	}
+
+	private UserDataUpload completedUpload(User user) throws IOException, InterruptedException {
+		Thread.sleep(5); // distinct upload times
+		UserDataUpload upload = userDataUploadService.createUploadRecord(user, "export.zip", "/tmp/export.zip", DeclaredFileType.FOLLOWERS);
+		List<AnalysisResult> results = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			results.add(new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, "user_" + i));
+		}
+		AnalysisResult thread = new AnalysisResult(upload, AnalysisDataType.MESSAGE_THREAD_SUMMARY, "thread");
+		thread.setValueNumeric(12L);
+		thread.setMetaJson(objectMapper.readTree("{\"participants\":[\"alice\"]}"));
+		results.add(thread);
+		analysisResultService.saveAll(results);
+		relationshipSetService.saveSet(upload.getId(), RelationshipSetType.FOLLOWERS, RoaringBitmap.bitmapOf(1, 2, 3));
+		return userDataUploadService.updateUploadStatus(upload.getId(), UploadStatus.COMPLETED, null);
+	}
+}
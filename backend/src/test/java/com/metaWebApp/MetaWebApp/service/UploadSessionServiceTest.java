@@ -0,0 +1,189 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadSession;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sessions",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false"
+})
+class UploadSessionServiceTest {
+
+	private static final int CHUNK_SIZE = UploadSessionService.MIN_CHUNK_SIZE;
+
+	@Autowired
+	private UploadSessionService uploadSessionService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Test
+	void assemblesChunksSentOutOfOrderAndInParallel() throws Exception {
+		byte[] content = new byte[5 * CHUNK_SIZE + 123];
+		new Random(7).nextBytes(content);
+		UploadSession session = open(content.length);
+		assertEquals(6, session.getChunkCount());
+		assertEquals(UploadStatus.UPLOADING, userDataUploadService.getUploadRecordById(session.getUpload().getId()).orElseThrow().getStatus());
+
+		List<Integer> order = new ArrayList<>(List.of(5, 1, 3, 0, 4, 2));
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<Boolean>> writes = new ArrayList<>();
+			for (int index : order) {
+				writes.add(executor.submit(() -> sendChunk(session, content, index, sha256(chunk(content, index)))));
+			}
+			for (Future<Boolean> write : writes) {
+				assertTrue(write.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		// A retry of a chunk that already arrived is acknowledged without being rewritten.
+		assertFalse(sendChunk(session, content, 2, sha256(chunk(content, 2))));
+		assertTrue(uploadSessionService.getMissingChunkIndexes(uploadSessionService.getSession(session.getId()).orElseThrow()).isEmpty());
+
+		UserDataUpload upload = uploadSessionService.completeSession(session.getId());
+
+		assertEquals(UploadStatus.PENDING, upload.getStatus());
+		assertEquals("sha256:" + sha256(content), upload.getFilePath());
+		assertEquals(upload.getId(), uploadSessionService.completeSession(session.getId()).getId());
+	}
+
+	@Test
+	void rejectsBadChunksAndIncompleteSessions() throws Exception {
+		byte[] content = new byte[2 * CHUNK_SIZE];
+		new Random(8).nextBytes(content);
+		UploadSession session = open(content.length);
+
+		assertThrows(IllegalArgumentException.class, () -> sendChunk(session, content, 0, sha256(chunk(content, 1))));
+		assertThrows(IllegalArgumentException.class, () -> uploadSessionService.writeChunk(session.getId(), 100, sha256(chunk(content, 0)),
+				Channels.newChannel(new ByteArrayInputStream(chunk(content, 0)))));
+		assertTrue(sendChunk(session, content, 1, sha256(chunk(content, 1))));
+
+		assertEquals(List.of(0), uploadSessionService.getMissingChunkIndexes(uploadSessionService.getSession(session.getId()).orElseThrow()));
+		assertThrows(IllegalStateException.class, () -> uploadSessionService.completeSession(session.getId()));
+	}
+
+	@Test
+	void completionWaitsForChunkWritesInFlight() throws Exception {
+		byte[] content = new byte[2 * CHUNK_SIZE];
+		new Random(9).nextBytes(content);
+		UploadSession session = open(content.length);
+		assertTrue(sendChunk(session, content, 0, sha256(chunk(content, 0))));
+		assertTrue(sendChunk(session, content, 1, sha256(chunk(content, 1))));
+
+		// The client re-sends chunk 0 with different content and stalls halfway through it
+		byte[] resent = new byte[CHUNK_SIZE];
+		new Random(10).nextBytes(resent);
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Boolean> write = executor.submit(() -> uploadSessionService.writeChunk(session.getId(), 0, sha256(resent),
+					stallingChannel(resent, stalled, resume)));
+			assertTrue(stalled.await(10, TimeUnit.SECONDS));
+			Future<UserDataUpload> completion = executor.submit(() -> uploadSessionService.completeSession(session.getId()));
+			Thread.sleep(300);
+			assertFalse(completion.isDone());
+
+			resume.countDown();
+			assertTrue(write.get(10, TimeUnit.SECONDS));
+			byte[] expected = Arrays.copyOf(resent, content.length);
+			System.arraycopy(chunk(content, 1), 0, expected, CHUNK_SIZE, CHUNK_SIZE);
+			assertEquals("sha256:" + sha256(expected), completion.get(10, TimeUnit.SECONDS).getFilePath());
+		} finally {
+			resume.countDown();
+			executor.shutdown();
+		}
+		assertThrows(IllegalStateException.class, () -> sendChunk(session, content, 0, sha256(chunk(content, 0))));
+	}
+
+	private UploadSession open(long totalSize) throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		return uploadSessionService.openSession(user.getId(), "export.zip", DeclaredFileType.FOLLOWERS, totalSize, CHUNK_SIZE);
+	}
+
+	private boolean sendChunk(UploadSession session, byte[] content, int index, String sha256) throws Exception {
+		return uploadSessionService.writeChunk(session.getId(), (long) index * CHUNK_SIZE, sha256,
+				Channels.newChannel(new ByteArrayInputStream(chunk(content, index))));
+	}
+
+	/**
+	 * Delivers the first half of content, signals stalled and waits for resume before delivering the rest.
+	 */
+	private static ReadableByteChannel stallingChannel(byte[] content, CountDownLatch stalled, CountDownLatch resume) {
+		int half = content.length / 2;
+		return new ReadableByteChannel() {
+			private int position;
+
+			@Override
+			public int read(ByteBuffer dst) throws InterruptedIOException {
+				if (position == content.length) {
+					return -1;
+				}
+				if (position == half) {
+					stalled.countDown();
+					try {
+						resume.await();
+					} catch (InterruptedException e) {
+						throw new InterruptedIOException();
+					}
+				}
+				int count = Math.min(dst.remaining(), (position < half ? half : content.length) - position);
+				dst.put(content, position, count);
+				position += count;
+				return count;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	private static byte[] chunk(byte[] content, int index) {
+		return Arrays.copyOfRange(content, index * CHUNK_SIZE, Math.min(content.length, (index + 1) * CHUNK_SIZE));
+	}
+
+	private static String sha256(byte[] bytes) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+}
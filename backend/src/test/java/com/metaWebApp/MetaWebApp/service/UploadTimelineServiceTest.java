@@ -0,0 +1,140 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.metaWebApp.MetaWebApp.analysis.ExportAnalysisEngine;
+import com.metaWebApp.MetaWebApp.dto.UploadTimelineEntryDTO;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.UploadTimelineRepository;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:timeline",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false",
+		"app.timeline.top-changes=2"
+})
+class UploadTimelineServiceTest {
+
+	@Autowired
+	private UploadTimelineService uploadTimelineService;
+
+	@Autowired
+	private ExportAnalysisEngine exportAnalysisEngine;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private BlobStorage blobStorage;
+
+	@MockitoSpyBean
+	private UploadTimelineRepository uploadTimelineRepository;
+
+	@Test
+	void completedUploadsAppearWithDeltasAndChangedAccounts() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload first = upload(user, followers("alice", "bob"));
+		complete(first);
+		UserDataUpload second = upload(user, followers("alice", "carol", "dave", "erin"));
+		complete(second);
+		// Not completed, so not on the timeline
+		upload(user, followers("alice"));
+
+		List<UploadTimelineEntryDTO> timeline = uploadTimelineService.getTimeline(user.getId());
+
+		assertEquals(2, timeline.size());
+		assertEquals(first.getId(), timeline.get(0).getUploadId());
+		assertEquals(2, timeline.get(0).getTotalFollowers());
+		assertNull(timeline.get(0).getFollowersDelta());
+		assertEquals(4, timeline.get(1).getTotalFollowers());
+		assertEquals(2, timeline.get(1).getFollowersDelta());
+		assertEquals(3, timeline.get(1).getNewFollowersCount());
+		assertEquals(List.of("carol", "dave"), timeline.get(1).getTopNewFollowers());
+		assertEquals(List.of("bob"), timeline.get(1).getTopNewUnfollowers());
+	}
+
+	@Test
+	void lateCompletionOfAnOlderUploadUpdatesTheNextDelta() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload older = upload(user, followers("alice", "bob", "carol"));
+		UserDataUpload newer = upload(user, followers("alice"));
+		complete(newer);
+		complete(older);
+
+		List<UploadTimelineEntryDTO> timeline = uploadTimelineService.getTimeline(user.getId());
+
+		assertEquals(List.of(older.getId(), newer.getId()), timeline.stream().map(UploadTimelineEntryDTO::getUploadId).toList());
+		assertNull(timeline.get(0).getFollowersDelta());
+		assertEquals(-2, timeline.get(1).getFollowersDelta());
+	}
+
+	@Test
+	void failedTimelineWriteLeavesTheUploadCompletedAndCanBeRebuilt() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = upload(user, followers("alice", "bob"));
+		doThrow(new DataAccessResourceFailureException("timeline unavailable")).when(uploadTimelineRepository).save(any());
+
+		complete(upload);
+
+		assertEquals(UploadStatus.COMPLETED, userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow().getStatus());
+		assertEquals(List.of(), uploadTimelineService.getTimeline(user.getId()));
+
+		reset(uploadTimelineRepository);
+		uploadTimelineService.recordCompletedUpload(upload.getId());
+		assertEquals(2, uploadTimelineService.getTimeline(user.getId()).get(0).getTotalFollowers());
+	}
+
+	private void complete(UserDataUpload upload) throws IOException {
+		exportAnalysisEngine.analyzeUpload(upload);
+		userDataUploadService.updateUploadStatus(upload.getId(), UploadStatus.COMPLETED, null);
+	}
+
+	private UserDataUpload upload(User user, byte[] export) throws IOException {
+		String key = blobStorage.store(Channels.newChannel(new ByteArrayInputStream(export))).key();
+		return userDataUploadService.createUploadRecord(user, "export.zip", key, DeclaredFileType.FOLLOWERS);
+	}
+
+	private static byte[] followers(String... handles) throws IOException {
+		StringBuilder json = new StringBuilder("[");
+		for (String handle : handles) {
+			if (json.length() > 1) {
+				json.append(',');
+			}
+			json.append("{\"string_list_data\":[{\"value\":\"").append(handle).append("\"}]}");
+		}
+		json.append(']');
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+			out.putNextEntry(new ZipEntry("connections/followers_and_following/followers_1.json"));
+			out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+		return bytes.toByteArray();
+	}
+}
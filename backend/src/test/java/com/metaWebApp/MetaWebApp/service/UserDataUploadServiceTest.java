@@ -0,0 +1,239 @@
+package com.metaWebApp.MetaWebApp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.ProcessingStage;
+import com.metaWebApp.MetaWebApp.model.RelationshipSetType;
+import com.metaWebApp.MetaWebApp.model.UploadErrorCode;
+import com.metaWebApp.MetaWebApp.model.UploadSession;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.UploadTraceStage;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import com.metaWebApp.MetaWebApp.repository.AnalysisResultAttachmentRepository;
+import com.metaWebApp.MetaWebApp.repository.UploadSessionRepository;
+import com.metaWebApp.MetaWebApp.storage.BlobStorage;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:upload-leases",
+		"spring.jpa.show-sql=false",
+		"app.processing.enabled=false",
+		"app.uploads.ingest-root=${java.io.tmpdir}/upload-leases-ingest"
+})
+class UserDataUploadServiceTest {
+
+	// Claims take every PENDING upload, so no test leaves uploads of another test unclaimed
+	private static final int ALL = 1000;
+
+	@Autowired
+	private UserDataUploadService userDataUploadService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AnalysisResultService analysisResultService;
+
+	@Autowired
+	private RelationshipSetService relationshipSetService;
+
+	@Autowired
+	private UploadTraceService uploadTraceService;
+
+	@Autowired
+	private UploadSessionService uploadSessionService;
+
+	@Autowired
+	private UploadSessionRepository uploadSessionRepository;
+
+	@Autowired
+	private AnalysisResultAttachmentRepository analysisResultAttachmentRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void claimsHandEachPendingUploadToOneNode() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload first = create(user);
+		UserDataUpload second = create(user);
+
+		List<UserDataUpload> claimedByA = userDataUploadService.claimPendingUploads(1, "node-a", Duration.ofMinutes(1));
+		List<UserDataUpload> claimedByB = userDataUploadService.claimPendingUploads(ALL, "node-b", Duration.ofMinutes(1));
+
+		assertEquals(1, claimedByA.size());
+		Set<UUID> ids = new HashSet<>();
+		claimedByA.forEach(upload -> ids.add(upload.getId()));
+		claimedByB.forEach(upload -> assertTrue(ids.add(upload.getId())));
+		assertTrue(ids.containsAll(Set.of(first.getId(), second.getId())));
+
+		UUID claimedId = claimedByA.get(0).getId();
+		UserDataUpload claimed = userDataUploadService.getUploadRecordById(claimedId).orElseThrow();
+		assertEquals(UploadStatus.PROCESSING, claimed.getStatus());
+		assertEquals("node-a", claimed.getLeaseOwner());
+		assertEquals(1, claimed.getProcessingAttempts());
+		assertTrue(userDataUploadService.claimPendingUploads(ALL, "node-c", Duration.ofMinutes(1)).isEmpty());
+	}
+
+	@Test
+	void onlyTheOwnerCanRenewALease() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = claim(create(user), "node-a", Duration.ofMinutes(1));
+
+		assertFalse(userDataUploadService.renewLease(upload.getId(), "node-b", Duration.ofMinutes(5)));
+		assertTrue(userDataUploadService.renewLease(upload.getId(), "node-a", Duration.ofMinutes(5)));
+		UserDataUpload renewed = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertTrue(renewed.getLeaseExpiresAt().isAfter(upload.getLeaseExpiresAt()));
+
+		userDataUploadService.updateUploadStatus(upload.getId(), UploadStatus.COMPLETED, null);
+		assertFalse(userDataUploadService.renewLease(upload.getId(), "node-a", Duration.ofMinutes(5)));
+	}
+
+	@Test
+	void expiredLeasesAreRequeuedUntilTheAttemptsRunOut() {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload live = claim(create(user), "node-b", Duration.ofMinutes(5));
+		UserDataUpload upload = create(user);
+
+		// The first node claims it and stalls: its lease is already over
+		claim(upload, "node-a", Duration.ofSeconds(-1));
+		assertTrue(userDataUploadService.reapExpiredLeases(2) >= 1);
+		UserDataUpload requeued = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertEquals(UploadStatus.PENDING, requeued.getStatus());
+		assertNull(requeued.getLeaseOwner());
+		// Its wait in the queue starts over
+		assertTrue(requeued.getQueuedAt().isAfter(upload.getQueuedAt()));
+		// The stalled node can no longer renew, so it learns it lost the upload
+		assertFalse(userDataUploadService.renewLease(upload.getId(), "node-a", Duration.ofMinutes(1)));
+
+		// The second attempt stalls too, which uses up both attempts
+		claim(upload, "node-c", Duration.ofSeconds(-1));
+		userDataUploadService.reapExpiredLeases(2);
+		UserDataUpload abandoned = userDataUploadService.getUploadRecordById(upload.getId()).orElseThrow();
+		assertEquals(UploadStatus.FAILED, abandoned.getStatus());
+		assertEquals(UploadErrorCode.PROCESSING_ABANDONED, abandoned.getErrorCode());
+		assertEquals(2, abandoned.getProcessingAttempts());
+
+		// A lease that is still running is left alone
+		UserDataUpload stillLive = userDataUploadService.getUploadRecordById(live.getId()).orElseThrow();
+		assertEquals(UploadStatus.PROCESSING, stillLive.getStatus());
+		assertEquals("node-b", stillLive.getLeaseOwner());
+	}
+
+	@Test
+	void resumableUploadsAreQueuedOnceTheirContentIsComplete() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UploadSession session = uploadSessionService.openSession(user.getId(), "export.zip", DeclaredFileType.FOLLOWERS, 10, null);
+		assertNull(session.getUpload().getQueuedAt());
+		byte[] chunk = "0123456789".getBytes(StandardCharsets.UTF_8);
+		assertTrue(uploadSessionService.writeChunk(session.getId(), 0, sha256(chunk), Channels.newChannel(new ByteArrayInputStream(chunk))));
+
+		UserDataUpload queued = uploadSessionService.completeSession(session.getId());
+
+		assertEquals(UploadStatus.PENDING, queued.getStatus());
+		assertTrue(queued.getQueuedAt().isAfter(queued.getUploadTime()));
+		// Claiming leaves it alone (up to the rounding to the column's microseconds)
+		LocalDateTime claimedQueuedAt = claim(queued, "node-a", Duration.ofMinutes(1)).getQueuedAt();
+		assertTrue(Duration.between(queued.getQueuedAt(), claimedQueuedAt).abs().toNanos() < 1_000);
+	}
+
+	@Test
+	void registeredReferencesMustBeOwnBlobsOrLieInTheIngestRoot() throws Exception {
+		User owner = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		User other = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		String key = BlobStorage.KEY_PREFIX + sha256(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+		userDataUploadService.createUploadRecord(owner, "export.zip", key, DeclaredFileType.FOLLOWERS);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> userDataUploadService.registerUpload(other, "export.zip", key, DeclaredFileType.FOLLOWERS));
+		assertEquals(key, userDataUploadService.registerUpload(owner, "export.zip", key, DeclaredFileType.FOLLOWERS).getFilePath());
+
+		for (String outside : List.of("/etc/passwd", "../upload-leases-ingest-other/export.zip", "exports/../../export.zip")) {
+			assertThrows(IllegalArgumentException.class,
+					() -> userDataUploadService.registerUpload(owner, "export.zip", outside, DeclaredFileType.FOLLOWERS), outside);
+		}
+		assertEquals("exports/export.zip",
+				userDataUploadService.registerUpload(owner, "export.zip", "exports/export.zip", DeclaredFileType.FOLLOWERS).getFilePath());
+	}
+
+	@Test
+	void deletingAnAnalysedUploadRemovesEverythingItOwns() throws IOException {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UserDataUpload upload = create(user);
+		AnalysisResult thread = new AnalysisResult(upload, AnalysisDataType.MESSAGE_THREAD_SUMMARY, "thread");
+		thread.setValueNumeric(3L);
+		thread.setMetaJson(objectMapper.readTree("{\"participants\":[\"alice\"]}"));
+		analysisResultService.saveAll(List.of(new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, "bob"), thread));
+		UUID attachmentId = analysisResultService.getResultsForUploadAndType(upload.getId(), AnalysisDataType.MESSAGE_THREAD_SUMMARY)
+				.get(0).getAttachment().getId();
+		relationshipSetService.saveSet(upload.getId(), RelationshipSetType.FOLLOWERS, RoaringBitmap.bitmapOf(1, 2));
+		LocalDateTime now = LocalDateTime.now();
+		uploadTraceService.saveTrace(upload.getId(), List.of(new UploadTraceStage(upload, 1, ProcessingStage.PARSE, now, now, 10, 0, 0, 0, 0)));
+		userDataUploadService.updateUploadStatus(upload.getId(), UploadStatus.COMPLETED, null);
+
+		userDataUploadService.deleteUploadRecord(upload.getId());
+
+		assertTrue(userDataUploadService.getUploadRecordById(upload.getId()).isEmpty());
+		assertTrue(analysisResultService.getResultsForUpload(upload.getId()).isEmpty());
+		assertTrue(analysisResultAttachmentRepository.findById(attachmentId).isEmpty());
+		assertTrue(relationshipSetService.findSet(upload.getId(), RelationshipSetType.FOLLOWERS).isEmpty());
+		assertTrue(uploadTraceService.getTrace(upload.getId()).isEmpty());
+	}
+
+	@Test
+	void deletingAnUploadRemovesItsUploadSession() throws Exception {
+		User user = userService.createUser(new User(UUID.randomUUID() + "@example.com", "hash"));
+		UploadSession session = uploadSessionService.openSession(user.getId(), "export.zip", DeclaredFileType.FOLLOWERS, 10, null);
+		UUID uploadId = session.getUpload().getId();
+		byte[] chunk = "0123456789".getBytes(StandardCharsets.UTF_8);
+		assertTrue(uploadSessionService.writeChunk(session.getId(), 0, sha256(chunk), Channels.newChannel(new ByteArrayInputStream(chunk))));
+
+		userDataUploadService.deleteUploadRecord(uploadId);
+
+		assertTrue(userDataUploadService.getUploadRecordById(uploadId).isEmpty());
+		assertTrue(uploadSessionRepository.findById(session.getId()).isEmpty());
+		Files.deleteIfExists(Path.of(session.getStagingPath()));
+	}
+
+	private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+
+	private UserDataUpload create(User user) {
+		return userDataUploadService.createUploadRecord(user, "followers_1.json", UUID.randomUUID().toString(),
+				DeclaredFileType.FOLLOWERS);
+	}
+
+	private UserDataUpload claim(UserDataUpload upload, String owner, Duration leaseDuration) {
+		List<UserDataUpload> claimed = userDataUploadService.claimPendingUploads(ALL, owner, leaseDuration);
+		return claimed.stream().filter(candidate -> candidate.getId().equals(upload.getId())).findFirst().orElseThrow();
+	}
+}
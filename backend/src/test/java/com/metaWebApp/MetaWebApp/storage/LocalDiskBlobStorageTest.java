@@ -0,0 +1,54 @@
+package com.metaWebApp.MetaWebApp.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalDiskBlobStorageTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void storesContentUnderItsSha256AndDeduplicates() throws Exception {
+		LocalDiskBlobStorage storage = new LocalDiskBlobStorage(tempDir.toString());
+		byte[] content = new byte[3 * 1024 * 1024 + 17]; // spans several copy buffers
+		new Random(42).nextBytes(content);
+		String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+		StoredBlob first = storage.store(Channels.newChannel(new ByteArrayInputStream(content)));
+		StoredBlob second = storage.store(Channels.newChannel(new ByteArrayInputStream(content)));
+
+		assertEquals("sha256:" + expectedHash, first.key());
+		assertEquals(content.length, first.size());
+		assertFalse(first.alreadyStored());
+		assertTrue(second.alreadyStored());
+		assertTrue(storage.exists(first.key()));
+		assertArrayEquals(content, Files.readAllBytes(storage.localPath(first.key())));
+		try (var leftovers = Files.list(tempDir.resolve("tmp"))) {
+			assertEquals(0, leftovers.count());
+		}
+	}
+
+	@Test
+	void rejectsKeysOutsideTheStore() throws IOException {
+		LocalDiskBlobStorage storage = new LocalDiskBlobStorage(tempDir.toString());
+
+		assertThrows(IllegalArgumentException.class, () -> storage.localPath("sha256:../../etc/passwd"));
+		assertThrows(IllegalArgumentException.class, () -> storage.localPath("/etc/passwd"));
+	}
+}
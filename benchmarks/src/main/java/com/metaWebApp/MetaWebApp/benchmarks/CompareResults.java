@@ -0,0 +1,68 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark and flags changes beyond a threshold.
+ * <pre>
+ * java -cp target/benchmarks.jar com.metaWebApp.MetaWebApp.benchmarks.CompareResults base.json candidate.json [thresholdPercent]
+ * </pre>
+ * Exits with status 1 if any benchmark regressed by more than the threshold (default 10%) and more than the
+ * combined score errors, so it can gate a build.
+ */
+public class CompareResults {
+
+    private record Score(double value, double error, String unit, String mode) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <base.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Score> base = read(new File(args[0]));
+        Map<String, Score> candidate = read(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Candidate", "Change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = base.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", after.value(), "new");
+                continue;
+            }
+            double change = (after.value() - before.value()) / before.value() * 100;
+            // Throughput: higher is better; average/sample/single-shot time: lower is better
+            double worse = "thrpt".equals(after.mode()) ? -change : change;
+            boolean significant = Math.abs(after.value() - before.value()) > before.error() + after.error();
+            String flag = significant && worse > threshold ? "  REGRESSION" : significant && worse < -threshold ? "  improved" : "";
+            regressed |= !flag.isEmpty() && worse > 0;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value(), after.value(), change, flag);
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            for (Map.Entry<String, JsonNode> param : params.properties()) {
+                name.append(name.indexOf(":") < 0 ? ':' : ',').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(name.toString(), new Score(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText(), run.path("mode").asText()));
+        }
+        return scores;
+    }
+}
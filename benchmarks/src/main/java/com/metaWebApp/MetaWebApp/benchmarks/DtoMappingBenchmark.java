@@ -0,0 +1,83 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.dto.UploadResponseDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.AnalysisResult;
+import com.metaWebApp.MetaWebApp.model.DeclaredFileType;
+import com.metaWebApp.MetaWebApp.model.TimeOrderedUuidGenerator;
+import com.metaWebApp.MetaWebApp.model.UploadStatus;
+import com.metaWebApp.MetaWebApp.model.User;
+import com.metaWebApp.MetaWebApp.model.UserDataUpload;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of upload and result lists. The controllers no longer map entities themselves (lists are
+ * read as JPQL projections), but single uploads still go through UploadResponseDTO.from, and the result mapping is
+ * the per-row cost any entity-based listing would pay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private List<UserDataUpload> uploads;
+    private List<AnalysisResult> results;
+
+    @Setup(Level.Trial)
+    public void build() {
+        User user = new User("bench@example.com", "hash");
+        uploads = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            UserDataUpload upload = new UserDataUpload(user, "export-" + i + ".zip", "uploads/" + i, DeclaredFileType.FOLLOWERS);
+            upload.setId(TimeOrderedUuidGenerator.next());
+            upload.setStatus(UploadStatus.COMPLETED);
+            upload.setTotalFollowers(1000 + i);
+            upload.setTotalFollowing(900 + i);
+            upload.setUnfollowersCount(i % 50);
+            uploads.add(upload);
+        }
+
+        UserDataUpload upload = uploads.get(0);
+        SyntheticExports exports = new SyntheticExports(42);
+        results = new ArrayList<>(rows);
+        for (String handle : exports.handles(rows)) {
+            AnalysisResult result = new AnalysisResult(upload, AnalysisDataType.UNFOLLOWER, handle);
+            result.setId(TimeOrderedUuidGenerator.next());
+            result.setProfileHref("https://www.instagram.com/" + handle);
+            result.setFollowTimestamp(exports.timestamp());
+            results.add(result);
+        }
+    }
+
+    @Benchmark
+    public List<UploadResponseDTO> uploads() {
+        List<UploadResponseDTO> dtos = new ArrayList<>(uploads.size());
+        for (UserDataUpload upload : uploads) {
+            dtos.add(UploadResponseDTO.from(upload));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<AnalysisResultResponseDTO> results() {
+        List<AnalysisResultResponseDTO> dtos = new ArrayList<>(results.size());
+        for (AnalysisResult result : results) {
+            dtos.add(new AnalysisResultResponseDTO(result.getId(), result.getUpload().getId(), result.getDataType(),
+                    result.getTargetIdentifier(), result.getValueNumeric(), result.getValueText(),
+                    result.getProfileHref(), result.getFollowTimestamp(),
+                    result.getAttachment() != null ? result.getAttachment().getId() : null, result.getCreatedAt()));
+        }
+        return dtos;
+    }
+}
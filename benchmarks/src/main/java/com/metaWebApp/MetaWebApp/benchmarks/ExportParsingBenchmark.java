@@ -0,0 +1,50 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.analysis.InstagramExportParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of relationship lists by InstagramExportParser, from memory so that only the parser is measured.
+ * The 1M-account inputs are about 150 MB each, hence the larger heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportParsingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int accounts;
+
+    private InstagramExportParser parser;
+    private byte[] followers;
+    private byte[] following;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        parser = new InstagramExportParser(new ObjectMapper());
+        SyntheticExports exports = new SyntheticExports(42);
+        List<String> handles = exports.handles(accounts);
+        followers = exports.followersJson(handles);
+        following = exports.followingJson(exports.sample(handles, 0.8));
+    }
+
+    @Benchmark
+    public long followersArray(Blackhole blackhole) throws IOException {
+        return parser.readRelationships(new ByteArrayInputStream(followers), blackhole::consume);
+    }
+
+    @Benchmark
+    public long followingObject(Blackhole blackhole) throws IOException {
+        return parser.readRelationships(new ByteArrayInputStream(following), blackhole::consume);
+    }
+}
@@ -0,0 +1,88 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follower-set diffing as ExportAnalysisEngine does it: relationship lists are bitmaps of interned handle ids
+ * (see InstagramHandleService), and gained/lost followers and non-followers-back are set differences.
+ * hashSetDiff measures the same diff over handle strings, the approach the bitmaps replaced, for reference.
+ *
+ * Handle ids are dense and assigned in first-seen order, so a user's followers occupy a few id ranges; the sets
+ * are built that way, with churn percent of the followers replaced between the two uploads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FollowerDiffBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int accounts;
+
+    @Param({"5"})
+    private int churn;
+
+    private RoaringBitmap previous;
+    private RoaringBitmap current;
+    private RoaringBitmap following;
+    private Set<String> previousHandles;
+    private Set<String> currentHandles;
+
+    @Setup(Level.Trial)
+    public void build() {
+        Random random = new Random(42);
+        previous = new RoaringBitmap();
+        current = new RoaringBitmap();
+        following = new RoaringBitmap();
+        int lost = accounts * churn / 100;
+        for (int id = 0; id < accounts; id++) {
+            previous.add(id);
+            if (random.nextInt(accounts) >= lost) {
+                current.add(id);
+            }
+            if (random.nextInt(10) < 8) {
+                following.add(id);
+            }
+        }
+        // New followers have fresh, higher ids
+        current.add((long) accounts * 2, (long) accounts * 2 + lost);
+        previous.runOptimize();
+        current.runOptimize();
+        following.runOptimize();
+
+        SyntheticExports exports = new SyntheticExports(42);
+        List<String> handles = exports.handles(accounts);
+        previousHandles = new HashSet<>(handles);
+        currentHandles = new HashSet<>(exports.churn(handles, churn / 100.0));
+    }
+
+    @Benchmark
+    public int gainedAndLost() {
+        int[] gained = RoaringBitmap.andNot(current, previous).toArray();
+        int[] lost = RoaringBitmap.andNot(previous, current).toArray();
+        return gained.length + lost.length;
+    }
+
+    @Benchmark
+    public long notFollowingBackCount() {
+        return RoaringBitmap.andNotCardinality(following, current);
+    }
+
+    @Benchmark
+    public int hashSetDiff() {
+        Set<String> gained = new HashSet<>(currentHandles);
+        gained.removeAll(previousHandles);
+        Set<String> lost = new HashSet<>(previousHandles);
+        lost.removeAll(currentHandles);
+        return gained.size() + lost.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.dto.AnalysisResultResponseDTO;
+import com.metaWebApp.MetaWebApp.model.AnalysisDataType;
+import com.metaWebApp.MetaWebApp.model.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialisation of AnalysisResultResponseDTO lists with an ObjectMapper configured like Spring Boot's.
+ * wholeList buffers the array the way a List response body is written; streamed writes element by element to one
+ * generator, as AnalysisResultController does for result listings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSerializationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<AnalysisResultResponseDTO> results;
+
+    @Setup(Level.Trial)
+    public void build() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        UUID uploadId = TimeOrderedUuidGenerator.next();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        SyntheticExports exports = new SyntheticExports(42);
+        results = new ArrayList<>(rows);
+        for (String handle : exports.handles(rows)) {
+            results.add(new AnalysisResultResponseDTO(TimeOrderedUuidGenerator.next(), uploadId, AnalysisDataType.UNFOLLOWER,
+                    handle, null, null, "https://www.instagram.com/" + handle, exports.timestamp(), (UUID) null, createdAt));
+        }
+    }
+
+    @Benchmark
+    public byte[] wholeList() throws IOException {
+        return objectMapper.writeValueAsBytes(results);
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            generator.writeStartArray();
+            for (AnalysisResultResponseDTO result : results) {
+                objectMapper.writeValue(generator, result);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
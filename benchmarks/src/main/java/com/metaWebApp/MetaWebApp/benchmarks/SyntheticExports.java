@@ -0,0 +1,355 @@
+package com.metaWebApp.MetaWebApp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministic generator of Instagram data export files in the layouts InstagramExportParser reads.
+ * The same seed always yields the same handles, timestamps and bytes, so benchmark runs on different commits
+ * measure the same input.
+ *
+ * Handles mimic real ones: lower-case words joined by '.' or '_', often with a number suffix, 3 to 30 characters,
+ * mostly 8 to 16. Timestamps fall in the ten years before a fixed instant.
+ *
+ * Whole exports (see {@link #export}) are packed as ZIP files laid out like Instagram's:
+ * <pre>
+ * connections/followers_and_following/followers_1.json, followers_2.json, ...   FOLLOWERS_PER_FILE accounts each
+ * connections/followers_and_following/following.json
+ * connections/followers_and_following/close_friends.json
+ * your_instagram_activity/messages/inbox/&lt;thread&gt;/message_1.json, ...      MESSAGES_PER_FILE messages each
+ * </pre>
+ */
+public class SyntheticExports {
+
+    static final long LATEST_TIMESTAMP = 1_735_689_600L; // 2025-01-01T00:00:00Z
+    private static final long TIMESTAMP_SPAN = 10L * 365 * 24 * 3600;
+    private static final int MAX_HANDLE_LENGTH = 30;
+    static final int FOLLOWERS_PER_FILE = 100_000;
+    static final int MESSAGES_PER_FILE = 10_000;
+    private static final String CONNECTIONS_DIR = "connections/followers_and_following/";
+    private static final String INBOX_DIR = "your_instagram_activity/messages/inbox/";
+    private static final String OWNER = "Export Owner";
+
+    private static final String[] WORDS = {
+            "anna", "alex", "art", "bella", "blue", "cafe", "chris", "daily", "dan", "eli", "emma", "film", "fit",
+            "food", "gram", "hana", "jay", "joe", "julia", "kai", "lab", "leo", "lisa", "lou", "luna", "max", "mia",
+            "mike", "nina", "noah", "official", "photo", "real", "sam", "sara", "shop", "sky", "studio", "tom",
+            "travel", "the", "vibes", "with", "world", "yoga", "zoe"
+    };
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * The lists of one synthetic export. following holds mutuals and accounts that do not follow back;
+     * closeFriends is a subset of following.
+     */
+    public record Export(List<String> followers, List<String> following, List<String> closeFriends,
+                         int threads, int messagesPerThread) {
+    }
+
+    private final Random random;
+
+    public SyntheticExports(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return count distinct handles in generation order.
+     */
+    public List<String> handles(int count) {
+        Set<String> seen = new HashSet<>(count * 2);
+        List<String> handles = new ArrayList<>(count);
+        while (handles.size() < count) {
+            String handle = handle();
+            if (seen.add(handle)) {
+                handles.add(handle);
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * @return A random subset holding about fraction of the given handles, in their original order.
+     */
+    public List<String> sample(List<String> handles, double fraction) {
+        List<String> sample = new ArrayList<>((int) (handles.size() * fraction) + 1);
+        for (String handle : handles) {
+            if (random.nextDouble() < fraction) {
+                sample.add(handle);
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * Simulates the next export of a follower list: about fraction of the accounts are gone and as many new ones
+     * follow. New handles are unlikely to collide with existing ones, though they may.
+     */
+    public List<String> churn(List<String> handles, double fraction) {
+        List<String> next = sample(handles, 1 - fraction);
+        next.addAll(handles(handles.size() - next.size()));
+        Collections.shuffle(next, random);
+        return next;
+    }
+
+    /**
+     * Generates an export of a user with the given number of followers, who follows back about 70% of them
+     * plus as many accounts again as a fifth of their followers, and keeps 2% of the accounts they follow as
+     * close friends.
+     */
+    public Export export(int followers, int threads, int messagesPerThread) {
+        List<String> followerHandles = handles(followers);
+        List<String> following = sample(followerHandles, 0.7);
+        following.addAll(handles(followers / 5));
+        Collections.shuffle(following, random);
+        return new Export(followerHandles, following, sample(following, 0.02), threads, messagesPerThread);
+    }
+
+    /**
+     * Generates the same user's next export: churn of the followers replaced, the rest unchanged.
+     */
+    public Export nextExport(Export previous, double churn) {
+        return new Export(churn(previous.followers(), churn), previous.following(), previous.closeFriends(),
+                previous.threads(), previous.messagesPerThread());
+    }
+
+    /**
+     * Writes the export as a ZIP file. Does not close out.
+     */
+    public void writeZip(Export export, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        List<String> followers = export.followers();
+        for (int from = 0, file = 1; from < followers.size() || file == 1; from += FOLLOWERS_PER_FILE, file++) {
+            zip.putNextEntry(new ZipEntry(CONNECTIONS_DIR + "followers_" + file + ".json"));
+            writeFollowers(followers.subList(from, Math.min(followers.size(), from + FOLLOWERS_PER_FILE)), unclosable(zip));
+            zip.closeEntry();
+        }
+        zip.putNextEntry(new ZipEntry(CONNECTIONS_DIR + "following.json"));
+        writeRelationshipList("following", export.following(), unclosable(zip));
+        zip.closeEntry();
+        zip.putNextEntry(new ZipEntry(CONNECTIONS_DIR + "close_friends.json"));
+        writeRelationshipList("close_friends", export.closeFriends(), unclosable(zip));
+        zip.closeEntry();
+
+        for (int thread = 0; thread < export.threads(); thread++) {
+            List<String> participants = threadParticipants(export.following());
+            String threadKey = participants.get(0).replace(".", "") + "_" + (1_000_000_000L + random.nextInt(1_000_000_000));
+            // Threads vary in length around the average; Instagram splits long ones into several files.
+            int messages = 1 + random.nextInt(Math.max(1, export.messagesPerThread() * 2));
+            long newest = LATEST_TIMESTAMP * 1000 - (long) (random.nextDouble() * TIMESTAMP_SPAN * 1000);
+            for (int from = 0, file = 1; from < messages; from += MESSAGES_PER_FILE, file++) {
+                zip.putNextEntry(new ZipEntry(INBOX_DIR + threadKey + "/message_" + file + ".json"));
+                newest = writeMessages(threadKey, participants, Math.min(MESSAGES_PER_FILE, messages - from),
+                        newest, unclosable(zip));
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+    }
+
+    /**
+     * @return The bytes of the export's ZIP file.
+     */
+    public byte[] zip(Export export) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeZip(export, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a message_N.json file of a thread, newest message first as Instagram does.
+     *
+     * @return The timestamp for the next older message, i.e. where the thread's next file starts.
+     */
+    public long writeMessages(String threadKey, List<String> participants, int messages, long newestMillis,
+                              OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("participants");
+            for (String participant : participants) {
+                json.writeStartObject();
+                json.writeStringField("name", participant);
+                json.writeEndObject();
+            }
+            json.writeStartObject();
+            json.writeStringField("name", OWNER);
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeArrayFieldStart("messages");
+            long timestamp = newestMillis;
+            for (int i = 0; i < messages; i++) {
+                json.writeStartObject();
+                json.writeStringField("sender_name", random.nextBoolean() ? OWNER : participants.get(random.nextInt(participants.size())));
+                json.writeNumberField("timestamp_ms", timestamp);
+                json.writeStringField("content", sentence());
+                json.writeBooleanField("is_geoblocked_for_viewer", false);
+                json.writeEndObject();
+                timestamp -= 1 + (long) (random.nextDouble() * 3_600_000);
+            }
+            json.writeEndArray();
+            json.writeStringField("title", String.join(", ", participants));
+            json.writeBooleanField("is_still_participant", true);
+            json.writeStringField("thread_path", "inbox/" + threadKey);
+            json.writeEndObject();
+            return timestamp;
+        }
+    }
+
+    /**
+     * Writes a followers_1.json file: a top-level array, the handle in string_list_data.value.
+     */
+    public void writeFollowers(List<String> handles, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartArray();
+            for (String handle : handles) {
+                json.writeStartObject();
+                json.writeStringField("title", "");
+                json.writeArrayFieldStart("media_list_data");
+                json.writeEndArray();
+                json.writeArrayFieldStart("string_list_data");
+                json.writeStartObject();
+                json.writeStringField("href", "https://www.instagram.com/" + handle);
+                json.writeStringField("value", handle);
+                json.writeNumberField("timestamp", timestamp());
+                json.writeEndObject();
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes a following.json or close_friends.json file: a wrapping object with one relationships_&lt;listName&gt;
+     * array, the handle in the title.
+     *
+     * @param listName "following" or "close_friends".
+     */
+    public void writeRelationshipList(String listName, List<String> handles, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("relationships_" + listName);
+            for (String handle : handles) {
+                json.writeStartObject();
+                json.writeStringField("title", handle);
+                json.writeArrayFieldStart("string_list_data");
+                json.writeStartObject();
+                json.writeStringField("href", "https://www.instagram.com/_u/" + handle);
+                json.writeNumberField("timestamp", timestamp());
+                json.writeEndObject();
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * @return The bytes of a followers_1.json file listing the given handles.
+     */
+    public byte[] followersJson(List<String> handles) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(handles.size() * 160);
+        try {
+            writeFollowers(handles, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return The bytes of a following.json file listing the given handles.
+     */
+    public byte[] followingJson(List<String> handles) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(handles.size() * 140);
+        try {
+            writeRelationshipList("following", handles, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private List<String> threadParticipants(List<String> following) {
+        int count = random.nextInt(10) == 0 ? 2 + random.nextInt(5) : 1; // one in ten is a group chat
+        List<String> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(following.isEmpty() ? handle() : following.get(random.nextInt(following.size())));
+        }
+        return participants;
+    }
+
+    private String sentence() {
+        int words = 1 + random.nextInt(12);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * JsonGenerator closes its target; ZIP entries must stay open for the next one.
+     */
+    private static OutputStream unclosable(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    long timestamp() {
+        return LATEST_TIMESTAMP - (long) (random.nextDouble() * TIMESTAMP_SPAN);
+    }
+
+    private String handle() {
+        StringBuilder handle = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        int words = random.nextInt(10) < 6 ? 1 : 2;
+        for (int i = 0; i < words; i++) {
+            int separator = random.nextInt(4);
+            if (separator == 1) {
+                handle.append('.');
+            } else if (separator == 2) {
+                handle.append('_');
+            }
+            handle.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        // Most handles carry a number; its length follows a rough power law.
+        if (random.nextInt(10) < 7) {
+            handle.append(random.nextInt((int) Math.pow(10, 1 + random.nextInt(5))));
+        }
+        if (random.nextInt(20) == 0) {
+            handle.append('_');
+        }
+        return handle.length() > MAX_HANDLE_LENGTH ? handle.substring(0, MAX_HANDLE_LENGTH) : handle.toString();
+    }
+}
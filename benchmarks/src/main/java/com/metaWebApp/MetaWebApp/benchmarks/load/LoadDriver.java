@@ -0,0 +1,172 @@
+package com.metaWebApp.MetaWebApp.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop, in-JVM HTTP load driver. A fixed number of workers run a scenario back to back against a server
+ * for a warm-up period and then for the measured period; every request is timed per named operation into an
+ * HdrHistogram, so the report's percentiles are exact to three significant digits.
+ *
+ * Closed loop means a slow server slows the offered load down with it (coordinated omission): the percentiles
+ * describe what the workers saw at the throughput they reached, not latencies at a fixed arrival rate.
+ */
+public class LoadDriver {
+
+    /**
+     * One iteration of simulated user behaviour. Exceptions count as a failed iteration; the worker carries on.
+     */
+    @FunctionalInterface
+    public interface Scenario {
+        void run(LoadDriver driver, int worker, long iteration) throws Exception;
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Map<String, Recorder> recorders = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failedIterations = new LongAdder();
+    private volatile boolean measuring;
+
+    public LoadDriver(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * @return A request builder for a path (with query) relative to the server's base URI.
+     */
+    public HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(baseUri.resolve(pathAndQuery)).timeout(Duration.ofMinutes(5));
+    }
+
+    /**
+     * Sends a request and records its latency, including reading the whole body, under the operation's name.
+     * Responses other than 2xx are counted as errors but returned normally.
+     */
+    public <T> HttpResponse<T> send(String operation, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<T> response;
+        try {
+            response = client.send(request, bodyHandler);
+        } catch (IOException e) {
+            record(operation, System.nanoTime() - start, false);
+            throw e;
+        }
+        record(operation, System.nanoTime() - start, response.statusCode() / 100 == 2);
+        return response;
+    }
+
+    /**
+     * Records a latency measured by the scenario itself, e.g. the time until an upload is processed.
+     */
+    public void record(String operation, long nanos, boolean success) {
+        if (!measuring) {
+            return;
+        }
+        recorders.computeIfAbsent(operation, name -> new Recorder(MAX_LATENCY_MICROS, 3))
+                .recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, nanos / 1000)));
+        if (!success) {
+            errors.computeIfAbsent(operation, name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Runs the scenario on workers threads: first for warmup without recording, then for duration.
+     *
+     * @return The measurements of the measured period.
+     */
+    public LoadReport run(int workers, Duration warmup, Duration duration, Scenario scenario) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        AtomicBoolean stop = new AtomicBoolean();
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    for (long iteration = 0; !stop.get(); iteration++) {
+                        try {
+                            scenario.run(this, worker, iteration);
+                            if (measuring) {
+                                iterations.increment();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            if (measuring) {
+                                failedIterations.increment();
+                            }
+                        }
+                    }
+                }));
+            }
+
+            Thread.sleep(warmup.toMillis());
+            measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            measuring = false;
+            long elapsed = System.nanoTime() - start;
+            stop.set(true);
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load worker failed", e.getCause());
+                }
+            }
+            return report(workers, Duration.ofNanos(elapsed));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoadReport report(int workers, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<LoadReport.OperationStats> operations = new ArrayList<>();
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            LongAdder failed = errors.get(entry.getKey());
+            operations.add(new LoadReport.OperationStats(entry.getKey(), histogram.getTotalCount(),
+                    failed != null ? failed.sum() : 0,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return new LoadReport(workers, elapsed.toMillis(), iterations.sum(), failedIterations.sum(),
+                iterations.sum() / seconds, operations);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
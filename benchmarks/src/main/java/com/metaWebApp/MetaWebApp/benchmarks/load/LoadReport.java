@@ -0,0 +1,46 @@
+package com.metaWebApp.MetaWebApp.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of a LoadDriver run: scenario throughput and, per operation, request throughput and latency percentiles
+ * in milliseconds.
+ */
+public record LoadReport(int workers, long elapsedMillis, long iterations, long failedIterations,
+                         double iterationsPerSecond, List<OperationStats> operations) {
+
+    public record OperationStats(String operation, long count, long errors, double perSecond,
+                                 double p50, double p99, double p999, double max) {
+    }
+
+    /**
+     * @return A fixed-width table for the console.
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.ROOT, "%d workers, %.1f s, %d iterations (%.2f/s), %d failed%n",
+                workers, elapsedMillis / 1000.0, iterations, iterationsPerSecond, failedIterations));
+        table.append(String.format(Locale.ROOT, "%-55s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Operation", "Count", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (OperationStats stats : operations) {
+            table.append(String.format(Locale.ROOT, "%-55s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.operation(), stats.count(), stats.errors(), stats.perSecond(),
+                    stats.p50(), stats.p99(), stats.p999(), stats.max()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Writes the report as JSON, creating parent directories as needed.
+     */
+    public void writeJson(File file) throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+    }
+}
@@ -0,0 +1,187 @@
+package com.metaWebApp.MetaWebApp.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metaWebApp.MetaWebApp.MetaWebAppApplication;
+import com.metaWebApp.MetaWebApp.benchmarks.SyntheticExports;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: the whole application on a random port (H2, local blob storage, upload processing on),
+ * driven over HTTP by LoadDriver with synthetic exports. Each iteration is one user's visit: upload an export,
+ * wait until it is analysed, then read the dashboard a few times.
+ *
+ * Disabled unless -Dload=true; sizes and durations are system properties (load.users, load.workers,
+ * load.followers, load.threads, load.messages, load.uploads-per-user, load.reads-per-upload,
+ * load.warmup-seconds, load.duration-seconds, load.seed, load.label). The report is printed and written to
+ * target/load-results/&lt;label&gt;.json.
+ *
+ * Security is opened up for the test so the numbers are the application's, not the default HTTP Basic/CSRF setup's.
+ */
+@SpringBootTest(classes = {MetaWebAppApplication.class, ApiLoadTest.OpenSecurity.class},
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.url=jdbc:h2:mem:load",
+				"spring.jpa.show-sql=false",
+				"app.processing.enabled=true",
+				"app.processing.poll-interval-ms=200",
+				"logging.level.org.hibernate.SQL=warn"
+		})
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class ApiLoadTest {
+
+	private static final int USERS = Integer.getInteger("load.users", 16);
+	private static final int WORKERS = Integer.getInteger("load.workers", 8);
+	private static final int FOLLOWERS = Integer.getInteger("load.followers", 10_000);
+	private static final int THREADS = Integer.getInteger("load.threads", 20);
+	private static final int MESSAGES = Integer.getInteger("load.messages", 200);
+	private static final int UPLOADS_PER_USER = Integer.getInteger("load.uploads-per-user", 3);
+	private static final int READS_PER_UPLOAD = Integer.getInteger("load.reads-per-upload", 5);
+	private static final long SEED = Long.getLong("load.seed", 42);
+	private static final Duration PROCESSING_TIMEOUT = Duration.ofMinutes(5);
+
+	@TestConfiguration
+	static class OpenSecurity {
+		@Bean
+		SecurityFilterChain openSecurityFilterChain(HttpSecurity http) throws Exception {
+			return http.csrf(csrf -> csrf.disable())
+					.authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+					.build();
+		}
+	}
+
+	@DynamicPropertySource
+	static void storage(DynamicPropertyRegistry registry) throws Exception {
+		String root = Files.createTempDirectory("metawebapp-load").toString();
+		registry.add("app.storage.local.root", () -> root);
+	}
+
+	private record SimulatedUser(UUID id, List<byte[]> exports, AtomicInteger visits) {
+	}
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void uploadAndDashboardLoad() throws Exception {
+		LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port));
+		List<SimulatedUser> users = createUsers(driver);
+
+		LoadReport report = driver.run(WORKERS,
+				Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10)),
+				Duration.ofSeconds(Long.getLong("load.duration-seconds", 60)),
+				(d, worker, iteration) -> visit(d, users.get((int) ((worker + iteration * WORKERS) % users.size()))));
+
+		System.out.println(report.toTable());
+		String label = System.getProperty("load.label", "load-" + System.currentTimeMillis());
+		report.writeJson(new File("target/load-results", label + ".json"));
+		assertTrue(report.iterations() > 0, "No iteration completed");
+	}
+
+	/**
+	 * Creates the users with a subscription each and generates their exports; not measured.
+	 */
+	private List<SimulatedUser> createUsers(LoadDriver driver) throws Exception {
+		SyntheticExports generator = new SyntheticExports(SEED);
+		List<SimulatedUser> users = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			HttpResponse<String> created = driver.send("setup", driver.request("/api/users")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(
+							"{\"email\":\"load-" + SEED + "-" + i + "@example.com\",\"passwordHash\":\"x\"}"))
+					.build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(201, created.statusCode(), created.body());
+			UUID userId = UUID.fromString(objectMapper.readTree(created.body()).path("id").asText());
+
+			HttpResponse<String> subscribed = driver.send("setup", driver.request("/api/subscriptions")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"userId\":\"" + userId + "\",\"stripeCustomerId\":\"cus_" + i
+							+ "\",\"stripeSubscriptionId\":\"sub_" + SEED + "_" + i + "\",\"planType\":\"PREMIUM\",\"status\":\"ACTIVE\","
+							+ "\"startDate\":\"2025-01-01T00:00:00\"}"))
+					.build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(201, subscribed.statusCode(), subscribed.body());
+
+			List<byte[]> exports = new ArrayList<>(UPLOADS_PER_USER);
+			SyntheticExports.Export export = generator.export(FOLLOWERS, THREADS, MESSAGES);
+			for (int upload = 0; upload < UPLOADS_PER_USER; upload++) {
+				exports.add(generator.zip(export));
+				export = generator.nextExport(export, 0.05);
+			}
+			users.add(new SimulatedUser(userId, exports, new AtomicInteger()));
+		}
+		return users;
+	}
+
+	/**
+	 * One visit. Once a user's exports are used up they are uploaded again and hit duplicate detection,
+	 * which is part of the realistic mix too.
+	 */
+	private void visit(LoadDriver driver, SimulatedUser user) throws Exception {
+		byte[] export = user.exports().get(user.visits().getAndIncrement() % user.exports().size());
+		long start = System.nanoTime();
+		HttpResponse<String> uploaded = driver.send("POST /api/uploads/stream", driver.request("/api/uploads/stream?userId="
+						+ user.id() + "&fileName=export.zip&declaredFileType=FOLLOWERS")
+				.header("Content-Type", "application/zip")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(export))
+				.build(), HttpResponse.BodyHandlers.ofString());
+		if (uploaded.statusCode() / 100 != 2) {
+			throw new IllegalStateException("Upload failed with " + uploaded.statusCode());
+		}
+		JsonNode upload = objectMapper.readTree(uploaded.body());
+		String uploadId = upload.path("id").asText();
+
+		String status = upload.path("status").asText();
+		while (!"COMPLETED".equals(status) && !"FAILED".equals(status)) {
+			if (System.nanoTime() - start > PROCESSING_TIMEOUT.toNanos()) {
+				throw new IllegalStateException("Upload " + uploadId + " not processed in time");
+			}
+			Thread.sleep(50);
+			HttpResponse<String> polled = driver.send("GET /api/uploads/{id}", driver.request("/api/uploads/" + uploadId).build(),
+					HttpResponse.BodyHandlers.ofString());
+			status = objectMapper.readTree(polled.body()).path("status").asText();
+		}
+		driver.record("upload processed (end to end)", System.nanoTime() - start, "COMPLETED".equals(status));
+
+		for (int read = 0; read < READS_PER_UPLOAD; read++) {
+			driver.send("GET /api/uploads/user/{userId}", driver.request("/api/uploads/user/" + user.id()).build(),
+					HttpResponse.BodyHandlers.discarding());
+			driver.send("GET /api/subscriptions/user/{userId}", driver.request("/api/subscriptions/user/" + user.id()).build(),
+					HttpResponse.BodyHandlers.discarding());
+			driver.send("GET /api/analysis-results/upload/{id}/summary",
+					driver.request("/api/analysis-results/upload/" + uploadId + "/summary").build(),
+					HttpResponse.BodyHandlers.discarding());
+			driver.send("GET /api/analysis-results/upload/{id}/type/UNFOLLOWER/page",
+					driver.request("/api/analysis-results/upload/" + uploadId + "/type/UNFOLLOWER/page?pageSize=50").build(),
+					HttpResponse.BodyHandlers.discarding());
+		}
+		driver.send("GET /api/analysis-results/upload/{id}", driver.request("/api/analysis-results/upload/" + uploadId).build(),
+				HttpResponse.BodyHandlers.discarding());
+	}
+}